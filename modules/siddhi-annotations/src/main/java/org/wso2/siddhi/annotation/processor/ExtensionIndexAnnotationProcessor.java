@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.annotation.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Annotation processor generating the extension index of a module at compile time.
+ * The extensions declared in the *.siddhiext files of the module are validated against the compiled classes and
+ * written as namespace:name=class lines to {@link #EXTENSION_INDEX}, which is looked up through the class loader at
+ * runtime, the same way {@link java.util.ServiceLoader} looks up its provider files, instead of scanning every jar
+ * in the class path.
+ */
+public class ExtensionIndexAnnotationProcessor extends AbstractProcessor {
+    public static final String EXTENSION_INDEX = "META-INF/siddhi/extensions.index";
+    // Directories holding the *.siddhiext files, when they are not already copied to the class output
+    public static final String EXTENSION_RESOURCES_OPTION = "siddhi.extension.resources";
+    private static final String SIDDHI_EXT = ".siddhiext";
+    private static final String OUTPUT_PROBE = "siddhi-extension-index.probe";
+
+    private Messager messager;
+    private Filer filer;
+    private Elements elements;
+    private boolean indexGenerated = false;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment env) {
+        super.init(env);
+        messager = env.getMessager();
+        filer = env.getFiler();
+        elements = env.getElementUtils();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        // The index is generated once all the classes of the module are available for validation
+        if (roundEnv.processingOver() && !indexGenerated) {
+            indexGenerated = true;
+            generateIndex();
+        }
+        return false;   // Returning false since this processor does not claim any annotation
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton("*");
+    }
+
+    @Override
+    public Set<String> getSupportedOptions() {
+        return Collections.singleton(EXTENSION_RESOURCES_OPTION);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.RELEASE_8;
+    }
+
+    /**
+     * Read the extension files of the module and write the validated extensions to the index
+     */
+    private void generateIndex() {
+        Map<String, String> extensions = new TreeMap<>();
+        for (File directory : getResourceDirectories()) {
+            File[] extensionFiles = directory.listFiles((dir, name) -> name.endsWith(SIDDHI_EXT));
+            if (extensionFiles != null) {
+                Arrays.sort(extensionFiles);
+                for (File extensionFile : extensionFiles) {
+                    readExtensionFile(extensionFile, extensions);
+                }
+            }
+        }
+        if (extensions.isEmpty()) {
+            return;
+        }
+        try {
+            FileObject index = filer.createResource(StandardLocation.CLASS_OUTPUT, "", EXTENSION_INDEX);
+            try (Writer writer = index.openWriter()) {
+                writer.write("# Generated by " + getClass().getCanonicalName() + "\n");
+                for (Map.Entry<String, String> extension : extensions.entrySet()) {
+                    writer.write(extension.getKey() + "=" + extension.getValue() + "\n");
+                }
+            }
+        } catch (IOException e) {
+            showBuildError("Unable to write the Siddhi extension index %s: %s", EXTENSION_INDEX, e.getMessage());
+        }
+    }
+
+    /**
+     * Get the directories to look up the extension files from. By default the extension files are read from the
+     * class output, to which the module resources are copied before compilation.
+     *
+     * @return directories holding the extension files
+     */
+    private List<File> getResourceDirectories() {
+        List<File> directories = new ArrayList<>();
+        String resources = processingEnv.getOptions().get(EXTENSION_RESOURCES_OPTION);
+        if (resources != null) {
+            for (String directory : resources.split(File.pathSeparator)) {
+                if (!directory.trim().isEmpty()) {
+                    directories.add(new File(directory.trim()));
+                }
+            }
+            return directories;
+        }
+        try {
+            FileObject probe = filer.getResource(StandardLocation.CLASS_OUTPUT, "", OUTPUT_PROBE);
+            if ("file".equals(probe.toUri().getScheme())) {
+                directories.add(new File(probe.toUri()).getParentFile());
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            messager.printMessage(Diagnostic.Kind.NOTE, "Unable to locate the class output, Siddhi extension " +
+                    "index is not generated: " + e.getMessage());
+        }
+        return directories;
+    }
+
+    /**
+     * Read the name=class lines of an extension file, whose namespace is the file name up to the first dot
+     *
+     * @param extensionFile The extension file to read
+     * @param extensions    Extension classes keyed by namespace:name
+     */
+    private void readExtensionFile(File extensionFile, Map<String, String> extensions) {
+        String namespace = extensionFile.getName().split("\\.")[0];
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(extensionFile), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] info = line.split("=");
+                if (info.length != 2 || info[0].trim().isEmpty() || info[1].trim().isEmpty()) {
+                    // the extension loader skips such lines as well, so they do not fail the build
+                    showBuildWarning("Invalid Siddhi extension '%s' in %s, expected name=class, ignoring it", line,
+                            extensionFile.getName());
+                    continue;
+                }
+                String key = namespace + ":" + info[0].trim();
+                String className = info[1].trim();
+                if (elements.getTypeElement(className) == null) {
+                    showBuildError("Siddhi extension class %s of %s, declared in %s, cannot be found", className,
+                            key, extensionFile.getName());
+                    continue;
+                }
+                String previous = extensions.put(key, className);
+                if (previous != null && !previous.equals(className)) {
+                    showBuildWarning("Siddhi extension %s is declared as both %s and %s, using %s", key, previous,
+                            className, className);
+                }
+            }
+        } catch (IOException e) {
+            showBuildError("Unable to read Siddhi extension file %s: %s", extensionFile.getName(), e.getMessage());
+        }
+    }
+
+    /**
+     * Show build error which is not bound to an element
+     *
+     * @param message The error message to be shown. This string will be formatted using the args
+     * @param args    The arguments for formatting the message string
+     */
+    private void showBuildError(String message, Object... args) {
+        messager.printMessage(Diagnostic.Kind.ERROR, String.format(message, args));
+    }
+
+    /**
+     * Show build warning which is not bound to an element
+     *
+     * @param message The warning message to be shown. This string will be formatted using the args
+     * @param args    The arguments for formatting the message string
+     */
+    private void showBuildWarning(String message, Object... args) {
+        messager.printMessage(Diagnostic.Kind.WARNING, String.format(message, args));
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.benchmarks;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compare two JSON results of {@link BenchmarkRunner}, printing the change of the score of each benchmark and
+ * parameter combination found in both. A change is a regression when the score got worse by more than the threshold
+ * percentage and by more than the sum of the score errors of the two runs. The process exits with status 1 when a
+ * regression is found, so that the comparison can fail a build.
+ * <p>
+ * Usage: BenchmarkComparison &lt;baseline result&gt; &lt;current result&gt; [threshold percentage, default 5]
+ */
+public class BenchmarkComparison {
+    private static final double DEFAULT_THRESHOLD = 5;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkComparison <baseline result> <current result> [threshold %]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD;
+        Map<String, Score> baseline = readScores(args[0]);
+        Map<String, Score> current = readScores(args[1]);
+
+        int regressions = 0;
+        System.out.println(String.format("%-90s %14s %14s %9s", "Benchmark", "Baseline", "Current", "Change"));
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score baselineScore = baseline.get(entry.getKey());
+            if (baselineScore == null) {
+                continue;
+            }
+            Score currentScore = entry.getValue();
+            double change = (currentScore.score - baselineScore.score) / baselineScore.score * 100;
+            double improvement = currentScore.higherIsBetter ? change : -change;
+            boolean regression = improvement < -threshold &&
+                    Math.abs(currentScore.score - baselineScore.score) > currentScore.error + baselineScore.error;
+            if (regression) {
+                regressions++;
+            }
+            System.out.println(String.format("%-90s %14.3f %14.3f %+8.1f%%%s", entry.getKey(), baselineScore.score,
+                    currentScore.score, change, regression ? " REGRESSION" : ""));
+        }
+        System.out.println(regressions + " regression(s) beyond " + threshold + "%");
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * @return scores of the JMH JSON result, keyed by benchmark, mode and parameters
+     */
+    private static Map<String, Score> readScores(String resultFile) throws IOException {
+        Map<String, Score> scores = new TreeMap<String, Score>();
+        try (Reader reader = new InputStreamReader(new FileInputStream(resultFile), StandardCharsets.UTF_8)) {
+            JsonArray results = new JsonParser().parse(reader).getAsJsonArray();
+            for (JsonElement resultElement : results) {
+                JsonObject result = resultElement.getAsJsonObject();
+                String mode = result.get("mode").getAsString();
+                StringBuilder key = new StringBuilder(result.get("benchmark").getAsString()).append(" (")
+                        .append(mode);
+                if (result.has("params")) {
+                    Map<String, String> params = new TreeMap<String, String>();
+                    for (Map.Entry<String, JsonElement> param : result.getAsJsonObject("params").entrySet()) {
+                        params.put(param.getKey(), param.getValue().getAsString());
+                    }
+                    for (Map.Entry<String, String> param : params.entrySet()) {
+                        key.append(", ").append(param.getKey()).append('=').append(param.getValue());
+                    }
+                }
+                key.append(')');
+                JsonObject primaryMetric = result.getAsJsonObject("primaryMetric");
+                JsonElement error = primaryMetric.get("scoreError");
+                scores.put(key.toString(), new Score(primaryMetric.get("score").getAsDouble(),
+                        error == null || !error.isJsonPrimitive() || !error.getAsJsonPrimitive().isNumber() ?
+                                0 : error.getAsDouble(),
+                        "thrpt".equals(mode)));
+            }
+        }
+        return scores;
+    }
+
+    private static class Score {
+        private final double score;
+        private final double error;
+        private final boolean higherIsBetter;
+
+        Score(double score, double error, boolean higherIsBetter) {
+            this.score = score;
+            this.error = error;
+            this.higherIsBetter = higherIsBetter;
+        }
+    }
+}
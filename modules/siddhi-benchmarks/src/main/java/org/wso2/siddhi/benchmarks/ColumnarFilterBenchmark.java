@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of filter heavy queries receiving batches of events, filtered row by row and by columns. Scores are
+ * batches per millisecond.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColumnarFilterBenchmark extends ExecutionPlanBenchmark {
+
+    @Param({"selective", "compound", "chained"})
+    public String condition;
+
+    @Param({"16", "256"})
+    public int batchSize;
+
+    @Param({"false", "true"})
+    public boolean columnar;
+
+    @Override
+    protected String planAnnotations() {
+        return columnar ? "@plan:columnar " : "";
+    }
+
+    @Override
+    protected String executionPlan() {
+        String filter;
+        if ("selective".equals(condition)) {
+            filter = "[price > 95]";
+        } else if ("compound".equals(condition)) {
+            filter = "[(price > 50 and volume < 200) or (symbol == 'S1' and price <= volume)]";
+        } else {
+            filter = "[price > 20][volume >= 100 and volume != 500][not (symbol == 'S3') and price < 90.5]";
+        }
+        return "" +
+                "from " + INPUT_STREAM + filter + " " +
+                "select symbol, price, volume " +
+                "insert into " + OUTPUT_STREAM + ";";
+    }
+
+    @Benchmark
+    public long filter() throws InterruptedException {
+        return sendEvents(batchSize);
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.benchmarks;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.wso2.siddhi.core.ExecutionPlanRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.output.StreamCallback;
+
+import java.util.Random;
+
+/**
+ * Base of the benchmarks measuring the throughput of events sent through an execution plan. Events of the input
+ * stream are generated up front with the configured number of distinct symbols and attributes, at least one event per
+ * symbol, and are sent in a cycle with increasing timestamps.
+ */
+@State(Scope.Thread)
+public abstract class ExecutionPlanBenchmark {
+    static final String INPUT_STREAM = "StockStream";
+    static final String OUTPUT_STREAM = "OutputStream";
+    private static final int MIN_GENERATED_EVENTS = 4096;
+    private static final int TIMESTAMP_INDEX = 3;
+
+    /**
+     * Number of distinct symbols of the generated events, which drives the number of groups, partitions and keys.
+     */
+    @Param({"10", "10000"})
+    public int cardinality;
+
+    /**
+     * Number of attributes of the input stream, of which the ones after symbol, price, volume and timestamp are
+     * double attributes not used by the queries.
+     */
+    @Param({"4", "16"})
+    public int eventSize;
+
+    protected SiddhiManager siddhiManager;
+    protected ExecutionPlanRuntime executionPlanRuntime;
+    private InputHandler inputHandler;
+    private Object[][] events;
+    private int eventIndexMask;
+    private int nextEvent;
+    private long timestamp;
+    private long outputCount;
+
+    @Setup(Level.Trial)
+    public void setup() throws InterruptedException {
+        siddhiManager = new SiddhiManager();
+        executionPlanRuntime = siddhiManager.createExecutionPlanRuntime(planAnnotations() +
+                streamDefinition(INPUT_STREAM) + executionPlan());
+        executionPlanRuntime.addCallback(OUTPUT_STREAM, new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                outputCount += events.length;
+            }
+        });
+        executionPlanRuntime.start();
+        inputHandler = executionPlanRuntime.getInputHandler(INPUT_STREAM);
+        // a power of two, so that the cycle is a mask, covering every symbol
+        events = generateEvents(Integer.highestOneBit(Math.max(MIN_GENERATED_EVENTS, cardinality) * 2 - 1));
+        eventIndexMask = events.length - 1;
+        timestamp = System.currentTimeMillis();
+        prepare();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executionPlanRuntime.shutdown();
+        siddhiManager.shutdown();
+    }
+
+    /**
+     * @return annotations of the plan, such as @plan:compile
+     */
+    protected String planAnnotations() {
+        return "";
+    }
+
+    /**
+     * @return definitions and queries of the plan, other than the definition of the input stream, inserting their
+     * results into the output stream
+     */
+    protected abstract String executionPlan();
+
+    /**
+     * Bring the plan to the state to be measured, such as filling the tables it joins with.
+     */
+    protected void prepare() throws InterruptedException {
+    }
+
+    /**
+     * Send the next generated event to the input stream, each a millisecond after the previous one.
+     *
+     * @return number of events received at the output stream so far
+     */
+    protected long sendEvent() throws InterruptedException {
+        Object[] event = events[nextEvent];
+        event[TIMESTAMP_INDEX] = timestamp++;
+        inputHandler.send(event);
+        nextEvent = (nextEvent + 1) & eventIndexMask;
+        return outputCount;
+    }
+
+    /**
+     * Send the next generated events to the input stream as a single batch, each a millisecond after the previous one.
+     *
+     * @param batchSize number of events in the batch
+     * @return number of events received at the output stream so far
+     */
+    protected long sendEvents(int batchSize) throws InterruptedException {
+        Event[] batch = new Event[batchSize];
+        for (int i = 0; i < batchSize; i++) {
+            Object[] event = events[nextEvent];
+            event[TIMESTAMP_INDEX] = timestamp;
+            batch[i] = new Event(timestamp++, event);
+            nextEvent = (nextEvent + 1) & eventIndexMask;
+        }
+        inputHandler.send(batch);
+        return outputCount;
+    }
+
+    /**
+     * @param streamId id of the stream
+     * @return definition of a stream with the attributes of the generated events
+     */
+    protected String streamDefinition(String streamId) {
+        StringBuilder definition = new StringBuilder("define stream ").append(streamId)
+                .append(" (symbol string, price double, volume long, timestamp long");
+        for (int i = TIMESTAMP_INDEX + 1; i < eventSize; i++) {
+            definition.append(", attr").append(i).append(" double");
+        }
+        return definition.append(");").toString();
+    }
+
+    /**
+     * @param count number of events to generate
+     * @return events with symbols cycling through the configured cardinality and random prices and volumes
+     */
+    protected Object[][] generateEvents(int count) {
+        Random random = new Random(count);
+        int attributeCount = Math.max(eventSize, TIMESTAMP_INDEX + 1);
+        Object[][] generatedEvents = new Object[count][];
+        for (int i = 0; i < count; i++) {
+            Object[] event = new Object[attributeCount];
+            event[0] = "S" + (i % cardinality);
+            event[1] = random.nextInt(10000) / 100.0;
+            event[2] = (long) random.nextInt(1000);
+            event[TIMESTAMP_INDEX] = 0L;
+            for (int j = TIMESTAMP_INDEX + 1; j < attributeCount; j++) {
+                event[j] = random.nextDouble();
+            }
+            generatedEvents[i] = event;
+        }
+        return generatedEvents;
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of a filter query, with interpreted and compiled expressions. The compound variant also projects
+ * computed attributes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterBenchmark extends ExecutionPlanBenchmark {
+
+    @Param({"simple", "compound"})
+    public String condition;
+
+    @Param({"false", "true"})
+    public boolean compiled;
+
+    @Override
+    protected String planAnnotations() {
+        return compiled ? "@plan:compile " : "";
+    }
+
+    @Override
+    protected String executionPlan() {
+        String filter = "simple".equals(condition) ? "price > 50" :
+                "(price * volume > 10000 and volume % 10 != 0) or symbol == 'S1'";
+        String projection = "simple".equals(condition) ? "symbol, price, volume" :
+                "symbol, price * volume as total, timestamp - 1000 as previous";
+        return "" +
+                "from " + INPUT_STREAM + "[" + filter + "] " +
+                "select " + projection + " " +
+                "insert into " + OUTPUT_STREAM + ";";
+    }
+
+    @Benchmark
+    public long filter() throws InterruptedException {
+        return sendEvent();
+    }
+}
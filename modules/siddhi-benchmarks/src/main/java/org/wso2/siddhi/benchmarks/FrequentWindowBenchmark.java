@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.siddhi.core.ExecutionPlanRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.output.StreamCallback;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the frequent and lossyFrequent windows tracking k keys. Half of the events are of k / 2 hot keys
+ * and the rest are spread over 4 * k keys, so that the windows keep evicting and admitting keys.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FrequentWindowBenchmark {
+    private static final String STREAM_DEFINITION = "" +
+            "define stream cseEventStream (symbol string, price float, volume long);";
+
+    @Param({"10", "1000", "100000"})
+    public int k;
+
+    @Param({"frequent", "lossyFrequent"})
+    public String window;
+
+    private SiddhiManager siddhiManager;
+    private ExecutionPlanRuntime executionPlanRuntime;
+    private InputHandler inputHandler;
+    private String[] symbols;
+    private Random random;
+    private long count;
+
+    @Setup
+    public void setup() {
+        symbols = new String[4 * k];
+        for (int i = 0; i < symbols.length; i++) {
+            symbols[i] = "SYMBOL" + i;
+        }
+        random = new Random(1);
+        String windowParameters;
+        if ("frequent".equals(window)) {
+            windowParameters = k + ", symbol";
+        } else {
+            double support = 1.0 / k;
+            windowParameters = support + ", " + (support / 10) + ", symbol";
+        }
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream#window." + window + "(" + windowParameters + ") " +
+                "select symbol, price, volume " +
+                "insert all events into outputStream ;";
+        siddhiManager = new SiddhiManager();
+        executionPlanRuntime = siddhiManager.createExecutionPlanRuntime(STREAM_DEFINITION + query);
+        executionPlanRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                count += events.length;
+            }
+        });
+        inputHandler = executionPlanRuntime.getInputHandler("cseEventStream");
+        executionPlanRuntime.start();
+    }
+
+    @TearDown
+    public void tearDown() {
+        executionPlanRuntime.shutdown();
+        siddhiManager.shutdown();
+    }
+
+    @Benchmark
+    public long send() throws InterruptedException {
+        int bound = random.nextBoolean() ? Math.max(1, k / 2) : symbols.length;
+        inputHandler.send(new Object[]{symbols[random.nextInt(bound)], 55.6f, 100L});
+        return count;
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of aggregations grouped by symbol, over all events and over a length window, where the number of groups
+ * is the configured cardinality.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GroupByAggregationBenchmark extends ExecutionPlanBenchmark {
+
+    @Param({"none", "length(1000)"})
+    public String window;
+
+    @Override
+    protected String executionPlan() {
+        return "" +
+                "from " + INPUT_STREAM + ("none".equals(window) ? "" : "#window." + window) + " " +
+                "select symbol, sum(price) as totalPrice, avg(price) as avgPrice, max(volume) as maxVolume, " +
+                "count() as eventCount " +
+                "group by symbol " +
+                "insert into " + OUTPUT_STREAM + ";";
+    }
+
+    @Benchmark
+    public long groupBy() throws InterruptedException {
+        return sendEvent();
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.benchmarks;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.event.stream.StreamEventPool;
+import org.wso2.siddhi.core.event.stream.converter.ZeroStreamEventConverter;
+import org.wso2.siddhi.extension.eventtable.hazelcast.HazelcastPrimaryKeyEventHolder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup throughput of an embedded Hazelcast member when table rows are stored as Java serialized StreamEvents, as
+ * compact rows, and as compact rows behind a near cache.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HazelcastTableLookupBenchmark {
+    private static final int ROWS = 10000;
+
+    @Param({"serialized", "compact", "nearCached"})
+    public String rows;
+
+    private HazelcastInstance hazelcastInstance;
+    private StreamEventPool streamEventPool;
+    private IMap<Object, StreamEvent> serializedEvents;
+    private HazelcastPrimaryKeyEventHolder eventHolder;
+    private String[] keys;
+    private int nextKey;
+
+    @Setup
+    public void setup() {
+        Config config = new Config();
+        config.setProperty("hazelcast.logging.type", "log4j");
+        config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        NearCacheConfig nearCacheConfig = new NearCacheConfig();
+        nearCacheConfig.setInvalidateOnChange(true);
+        nearCacheConfig.setCacheLocalEntries(true);
+        nearCacheConfig.setInMemoryFormat(InMemoryFormat.OBJECT);
+        config.getMapConfig("nearCached").setNearCacheConfig(nearCacheConfig);
+        hazelcastInstance = Hazelcast.newHazelcastInstance(config);
+
+        streamEventPool = new StreamEventPool(0, 0, 3, 5);
+        if ("serialized".equals(rows)) {
+            serializedEvents = hazelcastInstance.getMap(rows);
+        } else {
+            eventHolder = new HazelcastPrimaryKeyEventHolder(hazelcastInstance.getMap(rows), streamEventPool,
+                    new ZeroStreamEventConverter(), 0, "symbol");
+        }
+        keys = new String[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            keys[i] = "SYMBOL" + i;
+            StreamEvent streamEvent = new StreamEvent(0, 0, 3);
+            streamEvent.setTimestamp(System.currentTimeMillis());
+            streamEvent.setOutputData(new Object[]{keys[i], 55.6f + i, (long) i});
+            if (serializedEvents != null) {
+                serializedEvents.set(keys[i], streamEvent);
+            } else {
+                eventHolder.overwrite(keys[i], streamEvent);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        hazelcastInstance.shutdown();
+    }
+
+    @Benchmark
+    public Object lookup() {
+        String key = keys[nextKey];
+        nextKey = nextKey == ROWS - 1 ? 0 : nextKey + 1;
+        if (serializedEvents != null) {
+            return serializedEvents.get(key);
+        }
+        StreamEvent streamEvent = eventHolder.get(key);
+        streamEventPool.returnEvents(streamEvent);
+        return streamEvent;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of stream events joined on symbol with a table, with and without an index on symbol, and with a named
+ * window. The table holds a row per symbol and the window the last thousand events, inserted before measuring.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JoinBenchmark extends ExecutionPlanBenchmark {
+    private static final String UPDATE_STREAM = "UpdateStream";
+    private static final int WINDOW_LENGTH = 1000;
+
+    @Param({"table", "indexedTable", "window"})
+    public String joinWith;
+
+    @Override
+    protected String executionPlan() {
+        String definition;
+        if ("window".equals(joinWith)) {
+            definition = "define window StockData (symbol string, price double, volume long) length(" +
+                    WINDOW_LENGTH + ");";
+        } else {
+            definition = ("indexedTable".equals(joinWith) ? "@IndexBy('symbol') " : "") +
+                    "define table StockData (symbol string, price double, volume long);";
+        }
+        return "" +
+                streamDefinition(UPDATE_STREAM) +
+                definition +
+                "from " + UPDATE_STREAM + " " +
+                "select symbol, price, volume " +
+                "insert into StockData;" +
+                "" +
+                "from " + INPUT_STREAM + " join StockData " +
+                "on " + INPUT_STREAM + ".symbol == StockData.symbol " +
+                "select " + INPUT_STREAM + ".symbol, StockData.price, " + INPUT_STREAM + ".volume " +
+                "insert into " + OUTPUT_STREAM + ";";
+    }
+
+    @Override
+    protected void prepare() throws InterruptedException {
+        InputHandler updateHandler = executionPlanRuntime.getInputHandler(UPDATE_STREAM);
+        int updates = "window".equals(joinWith) ? WINDOW_LENGTH : cardinality;
+        for (Object[] event : generateEvents(updates)) {
+            updateHandler.send(event);
+        }
+    }
+
+    @Benchmark
+    public long join() throws InterruptedException {
+        return sendEvent();
+    }
+}
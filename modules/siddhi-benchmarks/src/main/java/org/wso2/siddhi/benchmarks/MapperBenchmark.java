@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.siddhi.core.event.ComplexEventChunk;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.event.stream.MetaStreamEvent;
+import org.wso2.siddhi.core.publisher.OutputMapper;
+import org.wso2.siddhi.core.query.output.callback.OutputCallback;
+import org.wso2.siddhi.core.subscription.InputMapper;
+import org.wso2.siddhi.extension.input.mapper.json.JsonInputMapper;
+import org.wso2.siddhi.extension.input.mapper.text.TextInputMapper;
+import org.wso2.siddhi.extension.output.mapper.json.JSONOutputMapper;
+import org.wso2.siddhi.extension.output.mapper.text.TextOutputMapper;
+import org.wso2.siddhi.query.api.definition.Attribute;
+import org.wso2.siddhi.query.api.definition.StreamDefinition;
+import org.wso2.siddhi.query.api.execution.io.map.AttributeMapping;
+import org.wso2.siddhi.query.api.execution.io.map.Mapping;
+
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the default JSON and TEXT mappings, converting a message into an event with the input mappers and an
+ * event into a message with the output mappers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"json", "text"})
+    public String format;
+
+    /**
+     * Number of attributes of the mapped stream, of which the ones after symbol, price and volume are doubles.
+     */
+    @Param({"3", "16"})
+    public int eventSize;
+
+    private InputMapper inputMapper;
+    private OutputMapper outputMapper;
+    private String message;
+    private Event event;
+    private long mappedCount;
+
+    @Setup
+    public void setup() {
+        StreamDefinition streamDefinition = StreamDefinition.id("StockStream")
+                .attribute("symbol", Attribute.Type.STRING)
+                .attribute("price", Attribute.Type.DOUBLE)
+                .attribute("volume", Attribute.Type.LONG);
+        Object[] data = new Object[Math.max(eventSize, 3)];
+        data[0] = "WSO2";
+        data[1] = 55.6;
+        data[2] = 100L;
+        Random random = new Random(eventSize);
+        for (int i = 3; i < data.length; i++) {
+            streamDefinition.attribute("attr" + i, Attribute.Type.DOUBLE);
+            data[i] = random.nextDouble();
+        }
+        event = new Event(System.currentTimeMillis(), data);
+
+        MetaStreamEvent metaStreamEvent = new MetaStreamEvent();
+        metaStreamEvent.setOutputDefinition(streamDefinition);
+        for (Attribute attribute : streamDefinition.getAttributeList()) {
+            metaStreamEvent.addOutputData(attribute);
+        }
+        inputMapper = "json".equals(format) ? new JsonInputMapper() : new TextInputMapper();
+        inputMapper.init(streamDefinition, new OutputCallback() {
+            @Override
+            public void send(ComplexEventChunk complexEventChunk) {
+                mappedCount++;
+            }
+        }, metaStreamEvent, Collections.<String, String>emptyMap(), Collections.<AttributeMapping>emptyList());
+        outputMapper = "json".equals(format) ? new JSONOutputMapper() : new TextOutputMapper();
+        outputMapper.init(streamDefinition, Mapping.format(format));
+        message = createMessage(streamDefinition, data);
+    }
+
+    @Benchmark
+    public long inputMapping() {
+        inputMapper.onEvent(message);
+        return mappedCount;
+    }
+
+    @Benchmark
+    public Object outputMapping() {
+        return outputMapper.mapEvent(event);
+    }
+
+    /**
+     * @return message in the default mapping of the format, which the input mapper maps to the given data
+     */
+    private String createMessage(StreamDefinition streamDefinition, Object[] data) {
+        StringBuilder builder = new StringBuilder();
+        if ("json".equals(format)) {
+            builder.append('{');
+            for (int i = 0; i < data.length; i++) {
+                if (i > 0) {
+                    builder.append(',');
+                }
+                builder.append('"').append(streamDefinition.getAttributeList().get(i).getName()).append("\":");
+                if (data[i] instanceof String) {
+                    builder.append('"').append(data[i]).append('"');
+                } else {
+                    builder.append(data[i]);
+                }
+            }
+            builder.append('}');
+        } else {
+            for (int i = 0; i < data.length; i++) {
+                if (i > 0) {
+                    builder.append(',');
+                }
+                builder.append(data[i]);
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.publisher.OutputMapper;
+import org.wso2.siddhi.extension.output.mapper.json.JSONOutputMapper;
+import org.wso2.siddhi.extension.output.mapper.text.TextOutputMapper;
+import org.wso2.siddhi.extension.output.mapper.xml.XMLOutputMapper;
+import org.wso2.siddhi.query.api.definition.Attribute;
+import org.wso2.siddhi.query.api.definition.StreamDefinition;
+import org.wso2.siddhi.query.api.execution.io.map.Mapping;
+
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * JMH comparison of the compiled mapping templates of the JSON, TEXT and XML output mappers against the per event
+ * conversions they replace: the Gson, StringBuilder and Axiom based default mappings, and the MessageFormat based
+ * custom mappings.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OutputMapperBenchmark {
+    private static final String CUSTOM_JSON_MAPPING = "{\"Stock Data\":{\"Symbol\":\"{{symbol}}\"," +
+            "\"Price\":{{price}},\"Volume\":{{volume}}}}";
+
+    @Param({"json", "text", "xml"})
+    public String format;
+
+    private Event event;
+    private OutputMapper defaultMapper;
+    private OutputMapper customMapper;
+    private OutputMapper binaryMapper;
+    private String legacyCustomTemplate;
+
+    @Setup
+    public void setup() {
+        StreamDefinition streamDefinition = StreamDefinition.id("FooStream")
+                .attribute("symbol", Attribute.Type.STRING)
+                .attribute("price", Attribute.Type.FLOAT)
+                .attribute("volume", Attribute.Type.LONG);
+        event = new Event(System.currentTimeMillis(), new Object[]{"WSO2", 55.6f, 100L});
+
+        defaultMapper = createMapper();
+        defaultMapper.init(streamDefinition, Mapping.format(format));
+        customMapper = createMapper();
+        customMapper.init(streamDefinition, Mapping.format(format).map(CUSTOM_JSON_MAPPING));
+        binaryMapper = createMapper();
+        binaryMapper.init(streamDefinition, Mapping.format(format).option(OutputMapper.OPTION_BINARY_OUTPUT, "true"));
+        legacyCustomTemplate = parseLegacyTemplate(streamDefinition, CUSTOM_JSON_MAPPING);
+    }
+
+    @Benchmark
+    public Object legacyDefaultMapping() {
+        return defaultMapper.convertToTypedInputEvent(event, new HashMap<String, String>());
+    }
+
+    @Benchmark
+    public Object templateDefaultMapping() {
+        return defaultMapper.mapEvent(event);
+    }
+
+    @Benchmark
+    public Object templateDefaultMappingAsBytes() {
+        return binaryMapper.mapEvent(event);
+    }
+
+    @Benchmark
+    public Object legacyCustomMapping() {
+        String[] mappedAttributes = new String[]{MessageFormat.format(legacyCustomTemplate, event.getData())};
+        return customMapper.convertToMappedInputEvent(event, mappedAttributes, new HashMap<String, String>());
+    }
+
+    @Benchmark
+    public Object templateCustomMapping() {
+        return customMapper.mapEvent(event);
+    }
+
+    private OutputMapper createMapper() {
+        if ("json".equals(format)) {
+            return new JSONOutputMapper();
+        } else if ("text".equals(format)) {
+            return new TextOutputMapper();
+        } else {
+            return new XMLOutputMapper();
+        }
+    }
+
+    /**
+     * MessageFormat template, as created per attribute mapping before templates were compiled into segments.
+     */
+    private static String parseLegacyTemplate(StreamDefinition streamDefinition, String template) {
+        Pattern dynamicPattern = Pattern.compile("(\\{\\{[^{}]*}})|[{}]");
+        List<String> attributes = Arrays.asList(streamDefinition.getAttributeNameArray());
+        StringBuffer result = new StringBuffer();
+        Matcher m = dynamicPattern.matcher(template);
+        while (m.find()) {
+            if (m.group(1) != null) {
+                int attrIndex = attributes.indexOf(m.group(1).replaceAll("\\p{Ps}", "").replaceAll("\\p{Pe}", ""));
+                m.appendReplacement(result, String.format("{%s}", attrIndex));
+            } else {
+                m.appendReplacement(result, "'" + m.group() + "'");
+            }
+        }
+        m.appendTail(result);
+        return result.toString();
+    }
+}
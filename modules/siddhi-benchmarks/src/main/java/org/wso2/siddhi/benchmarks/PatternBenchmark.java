@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of a pattern matching a rise in price of the same symbol within 100 milliseconds, and of a sequence
+ * matching a fall in price between consecutive events.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PatternBenchmark extends ExecutionPlanBenchmark {
+
+    @Param({"pattern", "sequence"})
+    public String type;
+
+    @Override
+    protected String executionPlan() {
+        if ("pattern".equals(type)) {
+            return "" +
+                    "from every e1=" + INPUT_STREAM + "[price > 90] -> " +
+                    "e2=" + INPUT_STREAM + "[symbol == e1.symbol and price > e1.price] within 100 millisec " +
+                    "select e1.symbol as symbol, e1.price as price1, e2.price as price2 " +
+                    "insert into " + OUTPUT_STREAM + ";";
+        }
+        return "" +
+                "from every e1=" + INPUT_STREAM + "[price > 50], e2=" + INPUT_STREAM + "[price < e1.price] " +
+                "select e1.symbol as symbol, e1.price as price1, e2.price as price2 " +
+                "insert into " + OUTPUT_STREAM + ";";
+    }
+
+    @Benchmark
+    public long match() throws InterruptedException {
+        return sendEvent();
+    }
+}
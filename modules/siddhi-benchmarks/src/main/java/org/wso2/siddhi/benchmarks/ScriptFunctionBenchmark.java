@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.siddhi.extension.evalscript.EvalJavaScript;
+import org.wso2.siddhi.extension.evalscript.EvalScala;
+import org.wso2.siddhi.query.api.definition.Attribute;
+
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineManager;
+import javax.script.ScriptException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH micro-benchmark of script function invocation. The legacy JavaScript path writes the arguments into the
+ * script as an array literal and evaluates it per call, as EvalJavaScript did before functions were compiled once
+ * and invoked with their arguments.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScriptFunctionBenchmark {
+    private static final String JAVASCRIPT_BODY = "return data[0] * data[1] + data[2].length;";
+    private static final String SCALA_BODY = "data(0).asInstanceOf[Double] * data(1).asInstanceOf[Long] + " +
+            "data(2).asInstanceOf[String].length";
+
+    /**
+     * Function instances shared by all benchmark threads, as script functions are shared by the queries of a plan.
+     */
+    @State(Scope.Benchmark)
+    public static class Functions {
+        EvalJavaScript javaScript;
+        EvalScala scala;
+
+        @Setup
+        public void setup() {
+            javaScript = new EvalJavaScript();
+            javaScript.setReturnType(Attribute.Type.DOUBLE);
+            javaScript.init("score", JAVASCRIPT_BODY);
+            scala = new EvalScala();
+            scala.setReturnType(Attribute.Type.DOUBLE);
+            scala.init("score", SCALA_BODY);
+        }
+    }
+
+    /**
+     * Legacy evaluation keeps an engine per thread, as a single engine cannot be shared by the benchmark threads.
+     */
+    @State(Scope.Thread)
+    public static class LegacyJavaScript {
+        ScriptEngine engine;
+
+        @Setup
+        public void setup() throws ScriptException {
+            engine = new ScriptEngineManager().getEngineByName("JavaScript");
+            engine.eval("function score(data){" + JAVASCRIPT_BODY + "}");
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Arguments {
+        Object[] data = new Object[]{55.6, 100L, "WSO2"};
+    }
+
+    @Benchmark
+    public Object legacyJavaScript(LegacyJavaScript legacy, Arguments arguments) throws ScriptException {
+        Object[] args = arguments.data;
+        StringBuilder jsArray = new StringBuilder("var data = [");
+        for (int i = 0; i < args.length; i++) {
+            if (i > 0) {
+                jsArray.append(",");
+            }
+            if (args[i] instanceof String) {
+                jsArray.append("\"").append(args[i].toString()).append("\"");
+            } else {
+                jsArray.append(args[i].toString());
+            }
+        }
+        jsArray.append("]");
+        legacy.engine.eval(jsArray.toString());
+        return legacy.engine.eval("score(data);");
+    }
+
+    @Benchmark
+    public Object compiledJavaScript(Functions functions, Arguments arguments) {
+        return functions.javaScript.eval("score", arguments.data);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object compiledJavaScriptFourThreads(Functions functions, Arguments arguments) {
+        return functions.javaScript.eval("score", arguments.data);
+    }
+
+    @Benchmark
+    public Object compiledScala(Functions functions, Arguments arguments) {
+        return functions.scala.eval("score", arguments.data);
+    }
+}
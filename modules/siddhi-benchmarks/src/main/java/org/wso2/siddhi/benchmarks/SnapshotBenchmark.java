@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to snapshot and to restore the state of a plan holding a length window and an aggregation grouped by symbol,
+ * filled before measuring.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapshotBenchmark extends ExecutionPlanBenchmark {
+
+    @Param({"1000", "100000"})
+    public int windowLength;
+
+    private byte[] snapshot;
+
+    @Override
+    protected String executionPlan() {
+        return "" +
+                "from " + INPUT_STREAM + "#window.length(" + windowLength + ") " +
+                "select symbol, sum(price) as totalPrice, count() as eventCount " +
+                "group by symbol " +
+                "insert into " + OUTPUT_STREAM + ";";
+    }
+
+    @Override
+    protected void prepare() throws InterruptedException {
+        for (int i = 0; i < windowLength; i++) {
+            sendEvent();
+        }
+        snapshot = executionPlanRuntime.snapshot();
+    }
+
+    @Benchmark
+    public byte[] snapshot() {
+        return executionPlanRuntime.snapshot();
+    }
+
+    @Benchmark
+    public void restore() {
+        executionPlanRuntime.restore(snapshot);
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of each window type, aggregating the events retained by the window so that both the current and the
+ * expired events are processed. Time based windows span 100 milliseconds of system or event time.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WindowBenchmark extends ExecutionPlanBenchmark {
+
+    @Param({"length(1000)", "lengthBatch(1000)", "time(100 millisec)", "timeBatch(100 millisec)",
+            "timeLength(100 millisec, 1000)", "externalTime(timestamp, 100 millisec)",
+            "externalTimeBatch(timestamp, 100 millisec)", "sort(1000, price)", "frequent(10, symbol)",
+            "lossyFrequent(0.1, 0.01, symbol)", "cron('*/1 * * * * ?')"})
+    public String window;
+
+    @Override
+    protected String executionPlan() {
+        return "" +
+                "from " + INPUT_STREAM + "#window." + window + " " +
+                "select symbol, sum(price) as totalPrice, count() as eventCount " +
+                "insert all events into " + OUTPUT_STREAM + ";";
+    }
+
+    @Benchmark
+    public long window() throws InterruptedException {
+        return sendEvent();
+    }
+}
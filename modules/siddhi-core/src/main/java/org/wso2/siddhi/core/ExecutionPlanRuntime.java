@@ -17,6 +17,8 @@
  */
 package org.wso2.siddhi.core;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
 import com.lmax.disruptor.ExceptionHandler;
 import org.apache.log4j.Logger;
 import org.wso2.siddhi.core.config.ExecutionPlanContext;
@@ -37,6 +39,7 @@ import org.wso2.siddhi.core.table.EventTable;
 import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.core.util.extension.holder.EternalReferencedHolder;
 import org.wso2.siddhi.core.util.statistics.MemoryUsageTracker;
+import org.wso2.siddhi.core.util.statistics.memory.MemoryAccountable;
 import org.wso2.siddhi.query.api.definition.AbstractDefinition;
 
 import java.util.HashMap;
@@ -45,6 +48,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Keep streamDefinitions, partitionRuntimes, queryRuntimes of an executionPlan
@@ -63,6 +67,8 @@ public class ExecutionPlanRuntime {
     private ConcurrentMap<String, ExecutionPlanRuntime> executionPlanRuntimeMap;
     private MemoryUsageTracker memoryUsageTracker;
     private SiddhiDebugger siddhiDebugger;
+    private long compileTime;
+    private long constructionTime;
 
     public ExecutionPlanRuntime(ConcurrentMap<String, AbstractDefinition> streamDefinitionMap,
                                 ConcurrentMap<String, AbstractDefinition> tableDefinitionMap, InputManager inputManager,
@@ -96,6 +102,56 @@ public class ExecutionPlanRuntime {
         return executionPlanContext.getName();
     }
 
+    /**
+     * Get the time taken to compile the SiddhiQL of the execution plan, which is 0 when the compiled plan was cached
+     * or the plan was created from an {@link org.wso2.siddhi.query.api.ExecutionPlan}
+     *
+     * @return compile time in milliseconds
+     */
+    public long getCompileTime() {
+        return compileTime;
+    }
+
+    /**
+     * Get the time taken to construct the runtime of the execution plan
+     *
+     * @return construction time in milliseconds
+     */
+    public long getConstructionTime() {
+        return constructionTime;
+    }
+
+    void setBuildTime(long compileTimeNanos, long constructionTimeNanos) {
+        this.compileTime = TimeUnit.NANOSECONDS.toMillis(compileTimeNanos);
+        this.constructionTime = TimeUnit.NANOSECONDS.toMillis(constructionTimeNanos);
+        if (log.isDebugEnabled()) {
+            log.debug("Execution plan " + getName() + " compiled in " + compileTime + " ms and constructed in " +
+                    constructionTime + " ms");
+        }
+        if (executionPlanContext.isStatsEnabled() && executionPlanContext.getStatisticsManager() != null) {
+            String metricName = executionPlanContext.getSiddhiContext().getStatisticsConfiguration().getMatricPrefix() +
+                    SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_EXECUTION_PLANS +
+                    SiddhiConstants.METRIC_DELIMITER + getName() + SiddhiConstants.METRIC_DELIMITER +
+                    SiddhiConstants.METRIC_INFIX_SIDDHI + SiddhiConstants.METRIC_DELIMITER +
+                    SiddhiConstants.METRIC_INFIX_BUILD + SiddhiConstants.METRIC_DELIMITER;
+            MetricRegistry registry = executionPlanContext.getStatisticsManager().getRegistry();
+            registry.remove(metricName + "compile");
+            registry.register(metricName + "compile", new Gauge<Long>() {
+                @Override
+                public Long getValue() {
+                    return compileTime;
+                }
+            });
+            registry.remove(metricName + "construction");
+            registry.register(metricName + "construction", new Gauge<Long>() {
+                @Override
+                public Long getValue() {
+                    return constructionTime;
+                }
+            });
+        }
+    }
+
     public Map<String, AbstractDefinition> getStreamDefinitionMap() {
         return streamDefinitionMap;
     }
@@ -250,6 +306,17 @@ public class ExecutionPlanRuntime {
                                 query.getKey());
             }
         }
+        for (Map.Entry<String, EventTable> entry : eventTableMap.entrySet()) {
+            if (entry.getValue() instanceof MemoryAccountable) {
+                memoryUsageTracker.registerObject(entry.getValue(),
+                        executionPlanContext.getSiddhiContext().getStatisticsConfiguration().getMatricPrefix() +
+                                SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_EXECUTION_PLANS +
+                                SiddhiConstants.METRIC_DELIMITER + getName() + SiddhiConstants.METRIC_DELIMITER +
+                                SiddhiConstants.METRIC_INFIX_SIDDHI + SiddhiConstants.METRIC_DELIMITER +
+                                SiddhiConstants.METRIC_INFIX_TABLES + SiddhiConstants.METRIC_DELIMITER +
+                                entry.getKey());
+            }
+        }
     }
 
     public void handleExceptionWith(ExceptionHandler<Object> exceptionHandler) {
@@ -20,11 +20,11 @@ package org.wso2.siddhi.core;
 import org.apache.log4j.Logger;
 import org.wso2.siddhi.core.config.SiddhiContext;
 import org.wso2.siddhi.core.config.StatisticsConfiguration;
+import org.wso2.siddhi.core.util.ExecutionPlanCache;
 import org.wso2.siddhi.core.util.ExecutionPlanRuntimeBuilder;
 import org.wso2.siddhi.core.util.parser.ExecutionPlanParser;
 import org.wso2.siddhi.core.util.persistence.PersistenceStore;
 import org.wso2.siddhi.query.api.ExecutionPlan;
-import org.wso2.siddhi.query.compiler.SiddhiCompiler;
 
 import javax.sql.DataSource;
 import java.util.ArrayList;
@@ -57,21 +57,30 @@ public class SiddhiManager {
      * @return executionPlanRuntime corresponding to the given executionPlan
      */
     public ExecutionPlanRuntime createExecutionPlanRuntime(ExecutionPlan executionPlan) {
-        ExecutionPlanRuntimeBuilder executionPlanRuntimeBuilder = ExecutionPlanParser.parse(executionPlan, siddhiContext);
-        executionPlanRuntimeBuilder.setExecutionPlanRuntimeMap(executionPlanRuntimeMap);
-        ExecutionPlanRuntime executionPlanRuntime = executionPlanRuntimeBuilder.build();
-        executionPlanRuntimeMap.put(executionPlanRuntime.getName(), executionPlanRuntime);
-        return executionPlanRuntime;
+        return createExecutionPlanRuntime(executionPlan, 0);
     }
 
     /**
      * Method to add execution plan in the form of a string. You can add valid set of Siddhi queries as a String to
-     * this method and receive {@link ExecutionPlanRuntime} object representing the queries.
+     * this method and receive {@link ExecutionPlanRuntime} object representing the queries. Compiled execution plans
+     * are cached by their source, hence redeploying the same queries does not compile them again.
      * @param executionPlan String representation of Siddhi queries
      * @return Execution Plan Runtime
      */
     public ExecutionPlanRuntime createExecutionPlanRuntime(String executionPlan) {
-        return createExecutionPlanRuntime(SiddhiCompiler.parse(executionPlan));
+        long startTime = System.nanoTime();
+        ExecutionPlan compiledExecutionPlan = siddhiContext.getExecutionPlanCache().getExecutionPlan(executionPlan);
+        return createExecutionPlanRuntime(compiledExecutionPlan, System.nanoTime() - startTime);
+    }
+
+    private ExecutionPlanRuntime createExecutionPlanRuntime(ExecutionPlan executionPlan, long compileTime) {
+        long startTime = System.nanoTime();
+        ExecutionPlanRuntimeBuilder executionPlanRuntimeBuilder = ExecutionPlanParser.parse(executionPlan, siddhiContext);
+        executionPlanRuntimeBuilder.setExecutionPlanRuntimeMap(executionPlanRuntimeMap);
+        ExecutionPlanRuntime executionPlanRuntime = executionPlanRuntimeBuilder.build();
+        executionPlanRuntime.setBuildTime(compileTime, System.nanoTime() - startTime);
+        executionPlanRuntimeMap.put(executionPlanRuntime.getName(), executionPlanRuntime);
+        return executionPlanRuntime;
     }
 
     /**
@@ -102,7 +111,7 @@ public class SiddhiManager {
      * @param executionPlan execution plan
      */
     public void validateExecutionPlan(String executionPlan) {
-        validateExecutionPlan(SiddhiCompiler.parse(executionPlan));
+        validateExecutionPlan(siddhiContext.getExecutionPlanCache().getExecutionPlan(executionPlan));
     }
 
     /**
@@ -149,6 +158,35 @@ public class SiddhiManager {
         siddhiContext.setStatisticsConfiguration(statisticsConfiguration);
     }
 
+    /**
+     * Method to compile filter conditions and selector expressions of the execution plans created after this call
+     * into Java classes, instead of interpreting them. Plans can also enable or disable it with @plan:compile.
+     * Requires a Java compiler at runtime, expressions are interpreted when it is not available.
+     * @param expressionCompilationEnabled whether expressions should be compiled
+     */
+    public void setExpressionCompilationEnabled(boolean expressionCompilationEnabled) {
+        siddhiContext.setExpressionCompilationEnabled(expressionCompilationEnabled);
+    }
+
+    /**
+     * Method to construct the independent queries of the execution plans created after this call with the given
+     * number of threads. Plans can also set it with @plan:build(parallelism='4'). Element ids of the queries
+     * constructed in parallel are numbered per query, hence the state persisted by a plan constructed serially cannot
+     * be restored to a plan constructed in parallel, or vice versa.
+     * @param buildParallelism number of threads constructing the queries of a plan, 1 constructs them serially
+     */
+    public void setBuildParallelism(int buildParallelism) {
+        siddhiContext.setBuildParallelism(buildParallelism);
+    }
+
+    /**
+     * Method to set the number of compiled execution plans cached by their source. Setting 0 disables the cache.
+     * @param executionPlanCacheSize maximum number of cached execution plans
+     */
+    public void setExecutionPlanCacheSize(int executionPlanCacheSize) {
+        siddhiContext.setExecutionPlanCache(new ExecutionPlanCache(executionPlanCacheSize));
+    }
+
     /**
      * Method to shutdown Siddhi Manager
      */
@@ -22,6 +22,7 @@ import com.lmax.disruptor.ExceptionHandler;
 import org.wso2.siddhi.core.function.EvalScript;
 import org.wso2.siddhi.core.util.ElementIdGenerator;
 import org.wso2.siddhi.core.util.ThreadBarrier;
+import org.wso2.siddhi.core.util.collection.spill.SpillConfiguration;
 import org.wso2.siddhi.core.util.extension.holder.EternalReferencedHolder;
 import org.wso2.siddhi.core.util.persistence.PersistenceService;
 import org.wso2.siddhi.core.util.snapshot.SnapshotService;
@@ -43,7 +44,11 @@ public class ExecutionPlanContext {
     private boolean enforceOrder;
     private boolean async;
     private boolean statsEnabled = false;
+    private boolean expressionCompilationEnabled = false;
+    private boolean columnarProcessingEnabled = false;
     private StatisticsManager statisticsManager = null;
+    private int latencySamplingInterval = 0;
+    private boolean latencyBreakdownEnabled = false;
 
     private ExecutorService executorService;
     private ScheduledExecutorService scheduledExecutorService;
@@ -57,6 +62,7 @@ public class ExecutionPlanContext {
     private Map<String, EvalScript> scriptFunctionMap;
     private ExceptionHandler<Object> disruptorExceptionHandler;
     private int bufferSize;
+    private SpillConfiguration spillConfiguration;
 
     public ExecutionPlanContext() {
         this.eternalReferencedHolders = new CopyOnWriteArrayList<EternalReferencedHolder>();
@@ -111,6 +117,22 @@ public class ExecutionPlanContext {
         this.statsEnabled = statsEnabled;
     }
 
+    public boolean isExpressionCompilationEnabled() {
+        return expressionCompilationEnabled;
+    }
+
+    public void setExpressionCompilationEnabled(boolean expressionCompilationEnabled) {
+        this.expressionCompilationEnabled = expressionCompilationEnabled;
+    }
+
+    public boolean isColumnarProcessingEnabled() {
+        return columnarProcessingEnabled;
+    }
+
+    public void setColumnarProcessingEnabled(boolean columnarProcessingEnabled) {
+        this.columnarProcessingEnabled = columnarProcessingEnabled;
+    }
+
     public StatisticsManager getStatisticsManager() {
         return statisticsManager;
     }
@@ -119,6 +141,26 @@ public class ExecutionPlanContext {
         this.statisticsManager = statisticsManager;
     }
 
+    /**
+     * @return one in how many ingested events are stamped to measure the latency from ingestion to output, or 0 if
+     * the latency is not measured
+     */
+    public int getLatencySamplingInterval() {
+        return latencySamplingInterval;
+    }
+
+    public void setLatencySamplingInterval(int latencySamplingInterval) {
+        this.latencySamplingInterval = latencySamplingInterval;
+    }
+
+    public boolean isLatencyBreakdownEnabled() {
+        return latencyBreakdownEnabled;
+    }
+
+    public void setLatencyBreakdownEnabled(boolean latencyBreakdownEnabled) {
+        this.latencyBreakdownEnabled = latencyBreakdownEnabled;
+    }
+
     public ScheduledExecutorService getScheduledExecutorService() {
         return scheduledExecutorService;
     }
@@ -215,4 +257,12 @@ public class ExecutionPlanContext {
     public int getBufferSize() {
         return bufferSize;
     }
-}
\ No newline at end of file
+
+    public SpillConfiguration getSpillConfiguration() {
+        return spillConfiguration;
+    }
+
+    public void setSpillConfiguration(SpillConfiguration spillConfiguration) {
+        this.spillConfiguration = spillConfiguration;
+    }
+}
@@ -20,6 +20,7 @@ package org.wso2.siddhi.core.config;
 
 import com.lmax.disruptor.ExceptionHandler;
 import org.apache.log4j.Logger;
+import org.wso2.siddhi.core.util.ExecutionPlanCache;
 import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.core.util.SiddhiExtensionLoader;
 import org.wso2.siddhi.core.util.extension.holder.AbstractExtensionHolder;
@@ -39,6 +40,9 @@ public class SiddhiContext {
     private PersistenceStore persistenceStore = null;
     private ConcurrentHashMap<String, DataSource> siddhiDataSources;
     private StatisticsConfiguration statisticsConfiguration;
+    private boolean expressionCompilationEnabled = false;
+    private int buildParallelism = 1;
+    private ExecutionPlanCache executionPlanCache = new ExecutionPlanCache(ExecutionPlanCache.DEFAULT_CACHE_SIZE);
     private ConcurrentHashMap<Class, AbstractExtensionHolder> extensionHolderMap;
 
     public SiddhiContext() {
@@ -99,6 +103,30 @@ public class SiddhiContext {
         this.statisticsConfiguration = statisticsConfiguration;
     }
 
+    public boolean isExpressionCompilationEnabled() {
+        return expressionCompilationEnabled;
+    }
+
+    public void setExpressionCompilationEnabled(boolean expressionCompilationEnabled) {
+        this.expressionCompilationEnabled = expressionCompilationEnabled;
+    }
+
+    public int getBuildParallelism() {
+        return buildParallelism;
+    }
+
+    public void setBuildParallelism(int buildParallelism) {
+        this.buildParallelism = buildParallelism;
+    }
+
+    public ExecutionPlanCache getExecutionPlanCache() {
+        return executionPlanCache;
+    }
+
+    public void setExecutionPlanCache(ExecutionPlanCache executionPlanCache) {
+        this.executionPlanCache = executionPlanCache;
+    }
+
     public ConcurrentHashMap<Class, AbstractExtensionHolder> getExtensionHolderMap() {
         return extensionHolderMap;
     }
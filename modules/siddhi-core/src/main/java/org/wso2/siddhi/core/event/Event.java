@@ -31,6 +31,7 @@ public class Event {
     protected Object[] data;
     protected boolean isExpired = false;
     private Map<String, Object> arbitraryDataMap;
+    private long ingestTimestamp;
 
     public Event(long timestamp, Object[] data) {
         this.timestamp = timestamp;
@@ -86,6 +87,7 @@ public class Event {
         timestamp = event.timestamp;
         System.arraycopy(event.data, 0, data, 0, data.length);
         isExpired = event.isExpired;
+        ingestTimestamp = event.ingestTimestamp;
         return this;
     }
 
@@ -96,6 +98,18 @@ public class Event {
         return this;
     }
 
+    /**
+     * @return time in nanoseconds the event was ingested at, if it is carried over an asynchronous stream junction
+     * for measuring latency, or {@link org.wso2.siddhi.core.util.statistics.IngestTimestamp#NONE}
+     */
+    public long getIngestTimestamp() {
+        return ingestTimestamp;
+    }
+
+    public void setIngestTimestamp(long ingestTimestamp) {
+        this.ingestTimestamp = ingestTimestamp;
+    }
+
     public Map<String, Object> getArbitraryDataMap() {
         return arbitraryDataMap;
     }
@@ -0,0 +1,308 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.event.columnar;
+
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.query.api.definition.Attribute;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Batch of events of a stream laid out by attribute, for conditions to be evaluated over primitive arrays instead of
+ * one event at a time. Columns are gathered from the event data the first time a condition reads them, and the
+ * batch keeps a selection vector of the rows that passed the conditions applied so far, so that only those rows are
+ * converted to stream events afterwards. A batch is reused for the batches of events received by a thread and is not
+ * thread safe.
+ */
+public class ColumnarEventBatch {
+
+    private final Column[] columns;
+    private Event[] events;
+    private int size;
+    private int capacity;
+    private int loadStamp;
+    private int[] selection = new int[0];
+    private int[][] scratchSelections = new int[0][];
+    private int scratchDepth;
+
+    /**
+     * @param attributes attributes of the stream, in the order of the event data
+     */
+    public ColumnarEventBatch(List<Attribute> attributes) {
+        columns = new Column[attributes.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = new Column(i, attributes.get(i).getType());
+        }
+    }
+
+    /**
+     * Start a new batch with the given events, all of them selected. Columns of the previous batch are invalidated
+     * and gathered again on use.
+     *
+     * @param events events of the batch
+     * @return false, leaving the batch empty, if the data of an event does not match the attributes of the stream,
+     * as the columns could then not be read as their attribute types
+     */
+    public boolean load(Event[] events) {
+        if (!matchesAttributes(events)) {
+            return false;
+        }
+        this.events = events;
+        size = events.length;
+        if (++loadStamp == 0) {
+            for (Column column : columns) {
+                column.invalidate();
+            }
+            loadStamp = 1;
+        }
+        if (size > capacity) {
+            capacity = Math.max(size, capacity * 2);
+            selection = new int[capacity];
+            for (int i = 0; i < scratchSelections.length; i++) {
+                scratchSelections[i] = new int[capacity];
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            selection[i] = i;
+        }
+        return true;
+    }
+
+    private boolean matchesAttributes(Event[] events) {
+        for (Event event : events) {
+            Object[] data = event.getData();
+            if (data == null || data.length < columns.length) {
+                return false;
+            }
+            for (Column column : columns) {
+                Object value = data[column.position];
+                if (value != null && column.valueClass != null && value.getClass() != column.valueClass) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Release the references to the events and attribute values of the batch.
+     */
+    public void clear() {
+        for (Column column : columns) {
+            if (column.valueStamp == loadStamp) {
+                Arrays.fill(column.values, 0, size, null);
+                column.valueStamp = 0;
+            }
+        }
+        events = null;
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Event getEvent(int row) {
+        return events[row];
+    }
+
+    /**
+     * @return rows selected for the batch, starting from all the rows in ascending order; conditions move the rows
+     * that pass to the front
+     */
+    public int[] getSelection() {
+        return selection;
+    }
+
+    /**
+     * Borrow a selection array of the capacity of the batch, for conditions combining the rows passed by their
+     * operands. It must be returned with {@link #releaseSelection()} in the reverse order of borrowing.
+     *
+     * @return a selection array with undefined content
+     */
+    public int[] borrowSelection() {
+        if (scratchDepth == scratchSelections.length) {
+            scratchSelections = Arrays.copyOf(scratchSelections, scratchDepth + 1);
+            scratchSelections[scratchDepth] = new int[capacity];
+        }
+        return scratchSelections[scratchDepth++];
+    }
+
+    public void releaseSelection() {
+        scratchDepth--;
+    }
+
+    /**
+     * @param position position of the attribute
+     * @return whether the attribute is null, by row
+     */
+    public boolean[] getNulls(int position) {
+        Column column = columns[position];
+        column.gather();
+        return column.nulls;
+    }
+
+    /**
+     * @param position position of the attribute
+     * @return values of the attribute by row, with nulls in place of missing values
+     */
+    public Object[] getObjects(int position) {
+        Column column = columns[position];
+        column.gather();
+        return column.values;
+    }
+
+    /**
+     * @param position position of an INT, LONG or BOOL attribute
+     * @return values of the attribute widened to long by row, with booleans as 1 and 0, and 0 in place of nulls
+     */
+    public long[] getLongs(int position) {
+        Column column = columns[position];
+        if (column.longStamp != loadStamp) {
+            column.gather();
+            if (column.longs == null || column.longs.length < capacity) {
+                column.longs = new long[capacity];
+            }
+            Object[] values = column.values;
+            long[] longs = column.longs;
+            if (column.type == Attribute.Type.BOOL) {
+                for (int i = 0; i < size; i++) {
+                    longs[i] = values[i] != null && (Boolean) values[i] ? 1 : 0;
+                }
+            } else {
+                for (int i = 0; i < size; i++) {
+                    longs[i] = values[i] == null ? 0 : ((Number) values[i]).longValue();
+                }
+            }
+            column.longStamp = loadStamp;
+        }
+        return column.longs;
+    }
+
+    /**
+     * @param position position of an INT, LONG or FLOAT attribute
+     * @return values of the attribute converted to float as by numeric promotion, by row, and 0 in place of nulls
+     */
+    public float[] getFloats(int position) {
+        Column column = columns[position];
+        if (column.floatStamp != loadStamp) {
+            column.gather();
+            if (column.floats == null || column.floats.length < capacity) {
+                column.floats = new float[capacity];
+            }
+            Object[] values = column.values;
+            float[] floats = column.floats;
+            for (int i = 0; i < size; i++) {
+                floats[i] = values[i] == null ? 0 : ((Number) values[i]).floatValue();
+            }
+            column.floatStamp = loadStamp;
+        }
+        return column.floats;
+    }
+
+    /**
+     * @param position position of an INT, LONG, FLOAT or DOUBLE attribute
+     * @return values of the attribute converted to double by row, and 0 in place of nulls
+     */
+    public double[] getDoubles(int position) {
+        Column column = columns[position];
+        if (column.doubleStamp != loadStamp) {
+            column.gather();
+            if (column.doubles == null || column.doubles.length < capacity) {
+                column.doubles = new double[capacity];
+            }
+            Object[] values = column.values;
+            double[] doubles = column.doubles;
+            for (int i = 0; i < size; i++) {
+                doubles[i] = values[i] == null ? 0 : ((Number) values[i]).doubleValue();
+            }
+            column.doubleStamp = loadStamp;
+        }
+        return column.doubles;
+    }
+
+    /**
+     * Values of an attribute across the rows of the batch, in the representations read so far.
+     */
+    private final class Column {
+        private final int position;
+        private final Attribute.Type type;
+        private final Class<?> valueClass;
+        private Object[] values;
+        private boolean[] nulls;
+        private long[] longs;
+        private float[] floats;
+        private double[] doubles;
+        private int valueStamp;
+        private int longStamp;
+        private int floatStamp;
+        private int doubleStamp;
+
+        private Column(int position, Attribute.Type type) {
+            this.position = position;
+            this.type = type;
+            this.valueClass = getValueClass(type);
+        }
+
+        /**
+         * @return class of the values of the attribute type, null if values of any class are accepted
+         */
+        private Class<?> getValueClass(Attribute.Type type) {
+            switch (type) {
+                case STRING:
+                    return String.class;
+                case INT:
+                    return Integer.class;
+                case LONG:
+                    return Long.class;
+                case FLOAT:
+                    return Float.class;
+                case DOUBLE:
+                    return Double.class;
+                case BOOL:
+                    return Boolean.class;
+                default:
+                    return null;
+            }
+        }
+
+        private void gather() {
+            if (valueStamp == loadStamp) {
+                return;
+            }
+            if (values == null || values.length < capacity) {
+                values = new Object[capacity];
+                nulls = new boolean[capacity];
+            }
+            for (int i = 0; i < size; i++) {
+                Object value = events[i].getData(position);
+                values[i] = value;
+                nulls[i] = value == null;
+            }
+            valueStamp = loadStamp;
+        }
+
+        private void invalidate() {
+            valueStamp = 0;
+            longStamp = 0;
+            floatStamp = 0;
+            doubleStamp = 0;
+        }
+    }
+}
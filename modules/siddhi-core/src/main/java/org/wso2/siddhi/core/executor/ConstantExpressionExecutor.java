@@ -35,6 +35,41 @@ public class ConstantExpressionExecutor implements ExpressionExecutor {
         return value;
     }
 
+    @Override
+    public boolean isPrimitiveExecutable() {
+        return true;
+    }
+
+    @Override
+    public boolean isNull(ComplexEvent event) {
+        return value == null;
+    }
+
+    @Override
+    public int executeInt(ComplexEvent event) {
+        return ((Number) value).intValue();
+    }
+
+    @Override
+    public long executeLong(ComplexEvent event) {
+        return ((Number) value).longValue();
+    }
+
+    @Override
+    public float executeFloat(ComplexEvent event) {
+        return ((Number) value).floatValue();
+    }
+
+    @Override
+    public double executeDouble(ComplexEvent event) {
+        return ((Number) value).doubleValue();
+    }
+
+    @Override
+    public boolean executeBoolean(ComplexEvent event) {
+        return Boolean.TRUE.equals(value);
+    }
+
     public Attribute.Type getReturnType() {
         return type;
     }
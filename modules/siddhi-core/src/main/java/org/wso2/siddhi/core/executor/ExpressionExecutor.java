@@ -29,4 +29,51 @@ public interface ExpressionExecutor {
 
     ExpressionExecutor cloneExecutor(String key);
 
+    /**
+     * Whether {@link #isNull(ComplexEvent)} and the typed execute methods of this executor are evaluated without
+     * boxing intermediate results, so that nested math and compare executors can be composed unboxed and only box
+     * at the boundary where the result is stored.
+     *
+     * @return true if the executor supports primitive execution
+     */
+    default boolean isPrimitiveExecutable() {
+        return false;
+    }
+
+    /**
+     * Check whether {@link #execute(ComplexEvent)} would return null for the event. Primitive executable executors
+     * answer this by checking their operands for null, without evaluating any result, and the typed execute methods
+     * must only be used for events where this returns false.
+     *
+     * @param event the event to evaluate
+     * @return true if the result is null
+     */
+    default boolean isNull(ComplexEvent event) {
+        return execute(event) == null;
+    }
+
+    default int executeInt(ComplexEvent event) {
+        return ((Number) execute(event)).intValue();
+    }
+
+    default long executeLong(ComplexEvent event) {
+        return ((Number) execute(event)).longValue();
+    }
+
+    default float executeFloat(ComplexEvent event) {
+        return ((Number) execute(event)).floatValue();
+    }
+
+    default double executeDouble(ComplexEvent event) {
+        return ((Number) execute(event)).doubleValue();
+    }
+
+    /**
+     * @param event the event to evaluate
+     * @return the boolean result, where null is treated as false
+     */
+    default boolean executeBoolean(ComplexEvent event) {
+        return Boolean.TRUE.equals(execute(event));
+    }
+
 }
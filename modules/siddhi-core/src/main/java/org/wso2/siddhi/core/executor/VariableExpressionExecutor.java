@@ -40,6 +40,41 @@ public class VariableExpressionExecutor implements ExpressionExecutor {
         return event.getAttribute(position);
     }
 
+    @Override
+    public boolean isPrimitiveExecutable() {
+        return true;
+    }
+
+    @Override
+    public boolean isNull(ComplexEvent event) {
+        return event.getAttribute(position) == null;
+    }
+
+    @Override
+    public int executeInt(ComplexEvent event) {
+        return ((Number) event.getAttribute(position)).intValue();
+    }
+
+    @Override
+    public long executeLong(ComplexEvent event) {
+        return ((Number) event.getAttribute(position)).longValue();
+    }
+
+    @Override
+    public float executeFloat(ComplexEvent event) {
+        return ((Number) event.getAttribute(position)).floatValue();
+    }
+
+    @Override
+    public double executeDouble(ComplexEvent event) {
+        return ((Number) event.getAttribute(position)).doubleValue();
+    }
+
+    @Override
+    public boolean executeBoolean(ComplexEvent event) {
+        return Boolean.TRUE.equals(event.getAttribute(position));
+    }
+
 
     public Attribute.Type getReturnType() {
         return attribute.getType();
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.executor.columnar;
+
+import org.wso2.siddhi.core.event.columnar.ColumnarEventBatch;
+
+/**
+ * Conjunction of two conditions, evaluating the right condition only on the rows passed by the left one.
+ */
+public class AndColumnarCondition implements ColumnarCondition {
+
+    private final ColumnarCondition leftCondition;
+    private final ColumnarCondition rightCondition;
+
+    public AndColumnarCondition(ColumnarCondition leftCondition, ColumnarCondition rightCondition) {
+        this.leftCondition = leftCondition;
+        this.rightCondition = rightCondition;
+    }
+
+    @Override
+    public int filter(ColumnarEventBatch batch, int[] selection, int count) {
+        count = leftCondition.filter(batch, selection, count);
+        if (count == 0) {
+            return 0;
+        }
+        return rightCondition.filter(batch, selection, count);
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.executor.columnar;
+
+import org.wso2.siddhi.core.event.columnar.ColumnarEventBatch;
+
+/**
+ * Filter condition evaluated over the columns of a {@link ColumnarEventBatch}, a batch of rows at a time. Conditions
+ * give the same results as the condition executors they are parsed from, and only read attributes and constants,
+ * hence they hold no state and are shared by the threads and clones of a query.
+ */
+public interface ColumnarCondition {
+
+    /**
+     * Keep the rows of the selection that satisfy the condition.
+     *
+     * @param batch     batch of the rows
+     * @param selection rows to evaluate in ascending order, of which the ones passing the condition are moved to the
+     *                  front keeping their order
+     * @param count     number of rows in the selection
+     * @return number of rows that passed the condition
+     */
+    int filter(ColumnarEventBatch batch, int[] selection, int count);
+}
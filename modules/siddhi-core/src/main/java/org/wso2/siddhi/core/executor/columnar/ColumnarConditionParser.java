@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.executor.columnar;
+
+import org.wso2.siddhi.query.api.definition.Attribute;
+import org.wso2.siddhi.query.api.definition.StreamDefinition;
+import org.wso2.siddhi.query.api.expression.Expression;
+import org.wso2.siddhi.query.api.expression.Variable;
+import org.wso2.siddhi.query.api.expression.condition.And;
+import org.wso2.siddhi.query.api.expression.condition.Compare;
+import org.wso2.siddhi.query.api.expression.condition.IsNull;
+import org.wso2.siddhi.query.api.expression.condition.Not;
+import org.wso2.siddhi.query.api.expression.condition.Or;
+import org.wso2.siddhi.query.api.expression.constant.BoolConstant;
+import org.wso2.siddhi.query.api.expression.constant.Constant;
+import org.wso2.siddhi.query.api.expression.constant.DoubleConstant;
+import org.wso2.siddhi.query.api.expression.constant.FloatConstant;
+import org.wso2.siddhi.query.api.expression.constant.IntConstant;
+import org.wso2.siddhi.query.api.expression.constant.LongConstant;
+import org.wso2.siddhi.query.api.expression.constant.StringConstant;
+
+/**
+ * Parse filter conditions into {@link ColumnarCondition}s. Conditions are parsed in their shared form, where
+ * variables are the attributes of the stream, and only when made of compares of attributes with attributes or
+ * constants, bool attributes and constants, null checks of attributes, and, or and not. Anything else, such as math
+ * operators and functions, is left to the condition executors.
+ */
+public class ColumnarConditionParser {
+
+    private ColumnarConditionParser() {
+    }
+
+    /**
+     * @param condition        filter condition in its shared form
+     * @param streamDefinition definition of the stream the condition filters
+     * @return the columnar condition, or null if the condition cannot be evaluated by columns
+     */
+    public static ColumnarCondition parse(Expression condition, StreamDefinition streamDefinition) {
+        if (condition instanceof And) {
+            ColumnarCondition left = parse(((And) condition).getLeftExpression(), streamDefinition);
+            ColumnarCondition right = left == null ? null :
+                    parse(((And) condition).getRightExpression(), streamDefinition);
+            return right == null ? null : new AndColumnarCondition(left, right);
+        } else if (condition instanceof Or) {
+            ColumnarCondition left = parse(((Or) condition).getLeftExpression(), streamDefinition);
+            ColumnarCondition right = left == null ? null :
+                    parse(((Or) condition).getRightExpression(), streamDefinition);
+            return right == null ? null : new OrColumnarCondition(left, right);
+        } else if (condition instanceof Not) {
+            ColumnarCondition inner = parse(((Not) condition).getExpression(), streamDefinition);
+            return inner == null ? null : new NotColumnarCondition(inner);
+        } else if (condition instanceof IsNull) {
+            Expression expression = ((IsNull) condition).getExpression();
+            if (!(expression instanceof Variable)) {
+                return null;
+            }
+            return new IsNullColumnarCondition(streamDefinition.getAttributePosition(
+                    ((Variable) expression).getAttributeName()));
+        } else if (condition instanceof BoolConstant) {
+            return new ConstantColumnarCondition(((BoolConstant) condition).getValue());
+        } else if (condition instanceof Variable) {
+            String attributeName = ((Variable) condition).getAttributeName();
+            if (streamDefinition.getAttributeType(attributeName) != Attribute.Type.BOOL) {
+                return null;
+            }
+            return new BoolColumnarCondition(streamDefinition.getAttributePosition(attributeName));
+        } else if (condition instanceof Compare) {
+            return parseCompare((Compare) condition, streamDefinition);
+        }
+        return null;
+    }
+
+    private static ColumnarCondition parseCompare(Compare compare, StreamDefinition streamDefinition) {
+        Expression left = compare.getLeftExpression();
+        Expression right = compare.getRightExpression();
+        int mask = CompareColumnarCondition.toMask(compare.getOperator());
+        if (mask == 0) {
+            return null;
+        }
+        if (left instanceof Constant && right instanceof Variable) {
+            Expression constant = left;
+            left = right;
+            right = constant;
+            mask = CompareColumnarCondition.swapOperands(mask);
+        }
+        if (!(left instanceof Variable) || !(right instanceof Variable || right instanceof Constant)) {
+            return null;
+        }
+        String leftName = ((Variable) left).getAttributeName();
+        int leftPosition = streamDefinition.getAttributePosition(leftName);
+        Attribute.Type leftType = streamDefinition.getAttributeType(leftName);
+        int rightPosition = -1;
+        Attribute.Type rightType;
+        if (right instanceof Variable) {
+            String rightName = ((Variable) right).getAttributeName();
+            rightPosition = streamDefinition.getAttributePosition(rightName);
+            rightType = streamDefinition.getAttributeType(rightName);
+        } else {
+            rightType = constantType(right);
+        }
+        if (leftType == null || rightType == null) {
+            return null;
+        }
+        boolean equality = compare.getOperator() == Compare.Operator.EQUAL
+                || compare.getOperator() == Compare.Operator.NOT_EQUAL;
+
+        if (leftType == Attribute.Type.STRING || rightType == Attribute.Type.STRING) {
+            if (leftType != rightType || !equality) {
+                return null;
+            }
+            String constant = rightPosition < 0 ? ((StringConstant) right).getValue() : null;
+            return new StringCompareColumnarCondition(leftPosition, rightPosition, constant,
+                    compare.getOperator() == Compare.Operator.EQUAL);
+        } else if (leftType == Attribute.Type.BOOL || rightType == Attribute.Type.BOOL) {
+            if (leftType != rightType || !equality) {
+                return null;
+            }
+            long constant = rightPosition < 0 && ((BoolConstant) right).getValue() ? 1 : 0;
+            return new LongCompareColumnarCondition(leftPosition, rightPosition, constant, mask);
+        } else if (!isNumeric(leftType) || !isNumeric(rightType)) {
+            return null;
+        }
+        // Compare in the type the condition executors promote the operands to, which is double when testing a long
+        // and a float for equality
+        Number constant = rightPosition < 0 ? numericValue(right) : null;
+        if (leftType == Attribute.Type.DOUBLE || rightType == Attribute.Type.DOUBLE
+                || (equality && (leftType == Attribute.Type.LONG || rightType == Attribute.Type.LONG)
+                && (leftType == Attribute.Type.FLOAT || rightType == Attribute.Type.FLOAT))) {
+            return new DoubleCompareColumnarCondition(leftPosition, rightPosition,
+                    constant == null ? 0 : constant.doubleValue(), mask);
+        } else if (leftType == Attribute.Type.FLOAT || rightType == Attribute.Type.FLOAT) {
+            return new FloatCompareColumnarCondition(leftPosition, rightPosition,
+                    constant == null ? 0 : constant.floatValue(), mask);
+        } else {
+            return new LongCompareColumnarCondition(leftPosition, rightPosition,
+                    constant == null ? 0 : constant.longValue(), mask);
+        }
+    }
+
+    private static Attribute.Type constantType(Expression constant) {
+        if (constant instanceof IntConstant) {
+            return Attribute.Type.INT;
+        } else if (constant instanceof LongConstant) {
+            return Attribute.Type.LONG;
+        } else if (constant instanceof FloatConstant) {
+            return Attribute.Type.FLOAT;
+        } else if (constant instanceof DoubleConstant) {
+            return Attribute.Type.DOUBLE;
+        } else if (constant instanceof StringConstant) {
+            return Attribute.Type.STRING;
+        } else if (constant instanceof BoolConstant) {
+            return Attribute.Type.BOOL;
+        }
+        return null;
+    }
+
+    private static Number numericValue(Expression constant) {
+        if (constant instanceof IntConstant) {
+            return ((IntConstant) constant).getValue();
+        } else if (constant instanceof LongConstant) {
+            return ((LongConstant) constant).getValue();
+        } else if (constant instanceof FloatConstant) {
+            return ((FloatConstant) constant).getValue();
+        } else {
+            return ((DoubleConstant) constant).getValue();
+        }
+    }
+
+    private static boolean isNumeric(Attribute.Type type) {
+        return type == Attribute.Type.INT || type == Attribute.Type.LONG || type == Attribute.Type.FLOAT
+                || type == Attribute.Type.DOUBLE;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.executor.columnar;
+
+import org.wso2.siddhi.query.api.expression.condition.Compare;
+
+/**
+ * Super class of the conditions comparing a numeric or bool attribute with another attribute or a constant. The
+ * outcome of comparing two values is one of the orders below, and the operator of the condition is the mask of the
+ * orders it passes. Rows where either attribute is null only pass the not equal operator, as with the compare
+ * condition executors.
+ */
+public abstract class CompareColumnarCondition implements ColumnarCondition {
+
+    static final int LESS = 1;
+    static final int EQUAL = 2;
+    static final int GREATER = 4;
+    /**
+     * Order of floating point values compared with NaN, which are only not equal to each other.
+     */
+    static final int UNORDERED = 8;
+
+    /**
+     * Position of the attribute compared with the right operand.
+     */
+    protected final int leftPosition;
+    /**
+     * Position of the attribute the left one is compared with, or -1 to compare with the constant of the condition.
+     */
+    protected final int rightPosition;
+    protected final int mask;
+    /**
+     * Whether rows where either attribute is null pass the condition.
+     */
+    protected final boolean nullPasses;
+
+    protected CompareColumnarCondition(int leftPosition, int rightPosition, int mask) {
+        this.leftPosition = leftPosition;
+        this.rightPosition = rightPosition;
+        this.mask = mask;
+        this.nullPasses = (mask & UNORDERED) != 0;
+    }
+
+    /**
+     * @param operator compare operator
+     * @return mask of the orders passed by the operator, or 0 if the operator does not compare the order of values
+     */
+    public static int toMask(Compare.Operator operator) {
+        switch (operator) {
+            case LESS_THAN:
+                return LESS;
+            case LESS_THAN_EQUAL:
+                return LESS | EQUAL;
+            case GREATER_THAN:
+                return GREATER;
+            case GREATER_THAN_EQUAL:
+                return GREATER | EQUAL;
+            case EQUAL:
+                return EQUAL;
+            case NOT_EQUAL:
+                return LESS | GREATER | UNORDERED;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * @param mask mask of the orders passed by a condition
+     * @return mask passing the same values with the operands swapped
+     */
+    public static int swapOperands(int mask) {
+        return (mask & ~(LESS | GREATER)) | ((mask & LESS) != 0 ? GREATER : 0) | ((mask & GREATER) != 0 ? LESS : 0);
+    }
+}
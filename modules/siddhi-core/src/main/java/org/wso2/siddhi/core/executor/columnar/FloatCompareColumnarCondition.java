@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.executor.columnar;
+
+import org.wso2.siddhi.core.event.columnar.ColumnarEventBatch;
+
+/**
+ * Condition comparing an attribute with another attribute or a constant as float values, where either is of type
+ * FLOAT and neither of type DOUBLE, unless testing a LONG and a FLOAT for equality.
+ */
+public class FloatCompareColumnarCondition extends CompareColumnarCondition {
+
+    private final float constant;
+
+    public FloatCompareColumnarCondition(int leftPosition, int rightPosition, float constant, int mask) {
+        super(leftPosition, rightPosition, mask);
+        this.constant = constant;
+    }
+
+    @Override
+    public int filter(ColumnarEventBatch batch, int[] selection, int count) {
+        boolean[] leftNulls = batch.getNulls(leftPosition);
+        float[] leftValues = batch.getFloats(leftPosition);
+        int passed = 0;
+        if (rightPosition < 0) {
+            for (int i = 0; i < count; i++) {
+                int row = selection[i];
+                if (leftNulls[row]) {
+                    if (nullPasses) {
+                        selection[passed++] = row;
+                    }
+                } else {
+                    float value = leftValues[row];
+                    int order = value < constant ? LESS : value > constant ? GREATER
+                            : value == constant ? EQUAL : UNORDERED;
+                    if ((order & mask) != 0) {
+                        selection[passed++] = row;
+                    }
+                }
+            }
+        } else {
+            boolean[] rightNulls = batch.getNulls(rightPosition);
+            float[] rightValues = batch.getFloats(rightPosition);
+            for (int i = 0; i < count; i++) {
+                int row = selection[i];
+                if (leftNulls[row] || rightNulls[row]) {
+                    if (nullPasses) {
+                        selection[passed++] = row;
+                    }
+                } else {
+                    float value = leftValues[row];
+                    float other = rightValues[row];
+                    int order = value < other ? LESS : value > other ? GREATER
+                            : value == other ? EQUAL : UNORDERED;
+                    if ((order & mask) != 0) {
+                        selection[passed++] = row;
+                    }
+                }
+            }
+        }
+        return passed;
+    }
+}
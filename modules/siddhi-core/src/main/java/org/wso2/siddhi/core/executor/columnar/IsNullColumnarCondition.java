@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.executor.columnar;
+
+import org.wso2.siddhi.core.event.columnar.ColumnarEventBatch;
+
+/**
+ * Condition passing the rows where an attribute is null.
+ */
+public class IsNullColumnarCondition implements ColumnarCondition {
+
+    private final int position;
+
+    public IsNullColumnarCondition(int position) {
+        this.position = position;
+    }
+
+    @Override
+    public int filter(ColumnarEventBatch batch, int[] selection, int count) {
+        boolean[] nulls = batch.getNulls(position);
+        int passed = 0;
+        for (int i = 0; i < count; i++) {
+            int row = selection[i];
+            if (nulls[row]) {
+                selection[passed++] = row;
+            }
+        }
+        return passed;
+    }
+}
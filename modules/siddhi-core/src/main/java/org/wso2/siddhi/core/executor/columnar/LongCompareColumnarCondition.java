@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.executor.columnar;
+
+import org.wso2.siddhi.core.event.columnar.ColumnarEventBatch;
+
+/**
+ * Condition comparing an attribute with another attribute or a constant, both of type INT or LONG, or both of
+ * type BOOL, as long values.
+ */
+public class LongCompareColumnarCondition extends CompareColumnarCondition {
+
+    private final long constant;
+
+    public LongCompareColumnarCondition(int leftPosition, int rightPosition, long constant, int mask) {
+        super(leftPosition, rightPosition, mask);
+        this.constant = constant;
+    }
+
+    @Override
+    public int filter(ColumnarEventBatch batch, int[] selection, int count) {
+        boolean[] leftNulls = batch.getNulls(leftPosition);
+        long[] leftValues = batch.getLongs(leftPosition);
+        int passed = 0;
+        if (rightPosition < 0) {
+            for (int i = 0; i < count; i++) {
+                int row = selection[i];
+                if (leftNulls[row]) {
+                    if (nullPasses) {
+                        selection[passed++] = row;
+                    }
+                } else {
+                    long value = leftValues[row];
+                    int order = value < constant ? LESS : value == constant ? EQUAL : GREATER;
+                    if ((order & mask) != 0) {
+                        selection[passed++] = row;
+                    }
+                }
+            }
+        } else {
+            boolean[] rightNulls = batch.getNulls(rightPosition);
+            long[] rightValues = batch.getLongs(rightPosition);
+            for (int i = 0; i < count; i++) {
+                int row = selection[i];
+                if (leftNulls[row] || rightNulls[row]) {
+                    if (nullPasses) {
+                        selection[passed++] = row;
+                    }
+                } else {
+                    long value = leftValues[row];
+                    long other = rightValues[row];
+                    int order = value < other ? LESS : value == other ? EQUAL : GREATER;
+                    if ((order & mask) != 0) {
+                        selection[passed++] = row;
+                    }
+                }
+            }
+        }
+        return passed;
+    }
+}
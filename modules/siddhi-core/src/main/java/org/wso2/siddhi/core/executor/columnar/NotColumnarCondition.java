@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.executor.columnar;
+
+import org.wso2.siddhi.core.event.columnar.ColumnarEventBatch;
+
+/**
+ * Negation of a condition, passing the rows the condition rejects.
+ */
+public class NotColumnarCondition implements ColumnarCondition {
+
+    private final ColumnarCondition condition;
+
+    public NotColumnarCondition(ColumnarCondition condition) {
+        this.condition = condition;
+    }
+
+    @Override
+    public int filter(ColumnarEventBatch batch, int[] selection, int count) {
+        int[] innerSelection = batch.borrowSelection();
+        try {
+            System.arraycopy(selection, 0, innerSelection, 0, count);
+            int innerCount = condition.filter(batch, innerSelection, count);
+            int passed = 0;
+            for (int i = 0, j = 0; i < count; i++) {
+                if (j < innerCount && innerSelection[j] == selection[i]) {
+                    j++;
+                } else {
+                    selection[passed++] = selection[i];
+                }
+            }
+            return passed;
+        } finally {
+            batch.releaseSelection();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.executor.columnar;
+
+import org.wso2.siddhi.core.event.columnar.ColumnarEventBatch;
+
+/**
+ * Disjunction of two conditions, evaluating the right condition only on the rows rejected by the left one, and
+ * merging the rows passed by either back in their order.
+ */
+public class OrColumnarCondition implements ColumnarCondition {
+
+    private final ColumnarCondition leftCondition;
+    private final ColumnarCondition rightCondition;
+
+    public OrColumnarCondition(ColumnarCondition leftCondition, ColumnarCondition rightCondition) {
+        this.leftCondition = leftCondition;
+        this.rightCondition = rightCondition;
+    }
+
+    @Override
+    public int filter(ColumnarEventBatch batch, int[] selection, int count) {
+        int[] leftSelection = batch.borrowSelection();
+        int[] rightSelection = batch.borrowSelection();
+        try {
+            System.arraycopy(selection, 0, leftSelection, 0, count);
+            int leftCount = leftCondition.filter(batch, leftSelection, count);
+            if (leftCount == count) {
+                return count;
+            }
+            int rightCount = 0;
+            for (int i = 0, j = 0; i < count; i++) {
+                if (j < leftCount && leftSelection[j] == selection[i]) {
+                    j++;
+                } else {
+                    rightSelection[rightCount++] = selection[i];
+                }
+            }
+            rightCount = rightCondition.filter(batch, rightSelection, rightCount);
+            int passed = 0;
+            int i = 0;
+            int j = 0;
+            while (i < leftCount && j < rightCount) {
+                selection[passed++] = leftSelection[i] < rightSelection[j] ? leftSelection[i++] : rightSelection[j++];
+            }
+            while (i < leftCount) {
+                selection[passed++] = leftSelection[i++];
+            }
+            while (j < rightCount) {
+                selection[passed++] = rightSelection[j++];
+            }
+            return passed;
+        } finally {
+            batch.releaseSelection();
+            batch.releaseSelection();
+        }
+    }
+}
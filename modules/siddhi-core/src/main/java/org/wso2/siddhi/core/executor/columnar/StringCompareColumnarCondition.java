@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.executor.columnar;
+
+import org.wso2.siddhi.core.event.columnar.ColumnarEventBatch;
+
+/**
+ * Condition comparing a string attribute for equality with another string attribute or a constant. Rows where
+ * either attribute is null only pass the not equal operator, as with the compare condition executors.
+ */
+public class StringCompareColumnarCondition implements ColumnarCondition {
+
+    private final int leftPosition;
+    private final int rightPosition;
+    private final String constant;
+    private final boolean equal;
+
+    /**
+     * @param leftPosition  position of the attribute compared
+     * @param rightPosition position of the attribute it is compared with, or -1 to compare with the constant
+     * @param constant      constant the attribute is compared with
+     * @param equal         whether rows pass when the values are equal, or when they are not
+     */
+    public StringCompareColumnarCondition(int leftPosition, int rightPosition, String constant, boolean equal) {
+        this.leftPosition = leftPosition;
+        this.rightPosition = rightPosition;
+        this.constant = constant;
+        this.equal = equal;
+    }
+
+    @Override
+    public int filter(ColumnarEventBatch batch, int[] selection, int count) {
+        Object[] leftValues = batch.getObjects(leftPosition);
+        int passed = 0;
+        if (rightPosition < 0) {
+            for (int i = 0; i < count; i++) {
+                int row = selection[i];
+                Object value = leftValues[row];
+                if (value == null ? !equal : constant.equals(value) == equal) {
+                    selection[passed++] = row;
+                }
+            }
+        } else {
+            Object[] rightValues = batch.getObjects(rightPosition);
+            for (int i = 0; i < count; i++) {
+                int row = selection[i];
+                Object value = leftValues[row];
+                Object other = rightValues[row];
+                if (value == null || other == null ? !equal : value.equals(other) == equal) {
+                    selection[passed++] = row;
+                }
+            }
+        }
+        return passed;
+    }
+}
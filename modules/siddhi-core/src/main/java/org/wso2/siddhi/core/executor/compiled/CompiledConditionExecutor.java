@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.executor.compiled;
+
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.ConditionExpressionExecutor;
+
+/**
+ * Super class of the condition executors generated by {@link ExpressionCompiler}. Generated conditions only read
+ * event attributes and constants, hence they hold no state and are shared by the clones of a query.
+ */
+public abstract class CompiledConditionExecutor extends ConditionExpressionExecutor {
+
+    private String expression;
+
+    protected CompiledConditionExecutor(String expression) {
+        this.expression = expression;
+    }
+
+    @Override
+    public ExpressionExecutor cloneExecutor(String key) {
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+}
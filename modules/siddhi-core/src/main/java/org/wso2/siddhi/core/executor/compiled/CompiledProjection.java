@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.executor.compiled;
+
+import org.wso2.siddhi.core.event.ComplexEvent;
+
+/**
+ * Selector attribute list generated by {@link ExpressionCompiler}, populating all output attributes of an event in
+ * one call. Generated projections hold no state and are shared by the clones of a query.
+ */
+public interface CompiledProjection {
+
+    /**
+     * Evaluate the selector expressions on the event and set them as its output data, in the order of the
+     * attribute processors the projection was generated from.
+     *
+     * @param event event to be projected
+     */
+    void project(ComplexEvent event);
+}
@@ -0,0 +1,775 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.executor.compiled;
+
+import org.apache.log4j.Logger;
+import org.wso2.siddhi.core.event.ComplexEvent;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.executor.ConstantExpressionExecutor;
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.AndConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.BoolConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.NotConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.OrConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.compare.CompareConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.compare.equal.EqualCompareConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.compare.greater_than.GreaterThanCompareConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.compare.greater_than_equal.GreaterThanEqualCompareConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.compare.less_than.LessThanCompareConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.compare.less_than_equal.LessThanEqualCompareConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.compare.not_equal.NotEqualCompareConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.math.MathExpressionExecutor;
+import org.wso2.siddhi.core.executor.math.Subtract.SubtractExpressionExecutorDouble;
+import org.wso2.siddhi.core.executor.math.Subtract.SubtractExpressionExecutorFloat;
+import org.wso2.siddhi.core.executor.math.Subtract.SubtractExpressionExecutorInt;
+import org.wso2.siddhi.core.executor.math.Subtract.SubtractExpressionExecutorLong;
+import org.wso2.siddhi.core.executor.math.add.AddExpressionExecutorDouble;
+import org.wso2.siddhi.core.executor.math.add.AddExpressionExecutorFloat;
+import org.wso2.siddhi.core.executor.math.add.AddExpressionExecutorInt;
+import org.wso2.siddhi.core.executor.math.add.AddExpressionExecutorLong;
+import org.wso2.siddhi.core.executor.math.divide.DivideExpressionExecutorDouble;
+import org.wso2.siddhi.core.executor.math.divide.DivideExpressionExecutorFloat;
+import org.wso2.siddhi.core.executor.math.divide.DivideExpressionExecutorInt;
+import org.wso2.siddhi.core.executor.math.divide.DivideExpressionExecutorLong;
+import org.wso2.siddhi.core.executor.math.mod.ModExpressionExecutorDouble;
+import org.wso2.siddhi.core.executor.math.mod.ModExpressionExecutorFloat;
+import org.wso2.siddhi.core.executor.math.mod.ModExpressionExecutorInt;
+import org.wso2.siddhi.core.executor.math.mod.ModExpressionExecutorLong;
+import org.wso2.siddhi.core.executor.math.multiply.MultiplyExpressionExecutorDouble;
+import org.wso2.siddhi.core.executor.math.multiply.MultiplyExpressionExecutorFloat;
+import org.wso2.siddhi.core.executor.math.multiply.MultiplyExpressionExecutorInt;
+import org.wso2.siddhi.core.executor.math.multiply.MultiplyExpressionExecutorLong;
+import org.wso2.siddhi.core.query.input.stream.StreamRuntime;
+import org.wso2.siddhi.core.query.input.stream.single.SingleStreamRuntime;
+import org.wso2.siddhi.core.query.processor.Processor;
+import org.wso2.siddhi.core.query.processor.filter.FilterProcessor;
+import org.wso2.siddhi.core.query.selector.QuerySelector;
+import org.wso2.siddhi.core.query.selector.attribute.processor.AttributeProcessor;
+import org.wso2.siddhi.core.util.SiddhiConstants;
+import org.wso2.siddhi.query.api.definition.Attribute;
+
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compiles filter conditions and selector attribute lists into Java classes, as an opt-in alternative to
+ * interpreting the executor trees. Each condition and each selector list becomes one class evaluating the whole
+ * expression with primitive locals, reading attributes straight from the data arrays of stream events.
+ * <p>
+ * Constants, variables, arithmetic, comparisons and the and, or and not conditions are compiled, with the null
+ * semantics of their interpreted executors. Expressions containing anything else, such as functions, aggregators
+ * or table conditions, are left to the interpreter, as are all expressions when no Java compiler is available.
+ */
+public class ExpressionCompiler {
+
+    private static final Logger log = Logger.getLogger(ExpressionCompiler.class);
+    private static final String GENERATED_PACKAGE = "org.wso2.siddhi.core.executor.compiled.generated";
+    private static final AtomicInteger classCounter = new AtomicInteger();
+    private static final AtomicLong compiledExpressionCount = new AtomicLong();
+    private static final Map<Class<? extends ExpressionExecutor>, String> mathOperators =
+            new HashMap<Class<? extends ExpressionExecutor>, String>();
+    private static volatile boolean compilerUnavailableLogged = false;
+
+    static {
+        registerMathOperator("+", AddExpressionExecutorInt.class, AddExpressionExecutorLong.class,
+                AddExpressionExecutorFloat.class, AddExpressionExecutorDouble.class);
+        registerMathOperator("-", SubtractExpressionExecutorInt.class, SubtractExpressionExecutorLong.class,
+                SubtractExpressionExecutorFloat.class, SubtractExpressionExecutorDouble.class);
+        registerMathOperator("*", MultiplyExpressionExecutorInt.class, MultiplyExpressionExecutorLong.class,
+                MultiplyExpressionExecutorFloat.class, MultiplyExpressionExecutorDouble.class);
+        registerMathOperator("/", DivideExpressionExecutorInt.class, DivideExpressionExecutorLong.class,
+                DivideExpressionExecutorFloat.class, DivideExpressionExecutorDouble.class);
+        registerMathOperator("%", ModExpressionExecutorInt.class, ModExpressionExecutorLong.class,
+                ModExpressionExecutorFloat.class, ModExpressionExecutorDouble.class);
+    }
+
+    private ExpressionCompiler() {
+    }
+
+    /**
+     * @return number of conditions and projections compiled and loaded in place of interpreted executors so far
+     */
+    public static long getCompiledExpressionCount() {
+        return compiledExpressionCount.get();
+    }
+
+    @SafeVarargs
+    private static void registerMathOperator(String operator, Class<? extends ExpressionExecutor>... classes) {
+        for (Class<? extends ExpressionExecutor> clazz : classes) {
+            mathOperators.put(clazz, operator);
+        }
+    }
+
+    /**
+     * Replace the conditions of the filters of the query with compiled ones, and the selector attribute list with
+     * a compiled projection when the selector has no aggregators. Must be called after the variable positions of
+     * the query are updated.
+     *
+     * @param streamRuntime stream runtime of the query
+     * @param selector      selector of the query
+     * @param queryName     name of the query, used for logging
+     */
+    public static void compileQuery(StreamRuntime streamRuntime, QuerySelector selector, String queryName) {
+        Set<Processor> visited = Collections.newSetFromMap(new IdentityHashMap<Processor, Boolean>());
+        for (SingleStreamRuntime singleStreamRuntime : streamRuntime.getSingleStreamRuntimes()) {
+            Processor processor = singleStreamRuntime.getProcessorChain();
+            while (processor != null && visited.add(processor)) {
+                if (processor instanceof FilterProcessor) {
+                    FilterProcessor filterProcessor = (FilterProcessor) processor;
+                    ExpressionExecutor compiledCondition = compileCondition(filterProcessor.getConditionExecutor());
+                    if (compiledCondition != null) {
+                        filterProcessor.setConditionExecutor(compiledCondition);
+                    } else if (log.isDebugEnabled()) {
+                        log.debug("Filter condition of query '" + queryName + "' is interpreted, as it is not " +
+                                "compilable");
+                    }
+                }
+                processor = processor.getNextProcessor();
+            }
+        }
+        if (!selector.containsAggregator()) {
+            CompiledProjection projection = compileProjection(selector.getAttributeProcessorList());
+            if (projection != null) {
+                selector.setCompiledProjection(projection);
+            } else if (log.isDebugEnabled()) {
+                log.debug("Selector of query '" + queryName + "' is interpreted, as it is not compilable");
+            }
+        }
+    }
+
+    /**
+     * @param conditionExecutor condition to be compiled
+     * @return the compiled condition, or null if the condition cannot be compiled
+     */
+    public static ExpressionExecutor compileCondition(ExpressionExecutor conditionExecutor) {
+        String className = "CompiledCondition" + classCounter.incrementAndGet();
+        SourceGenerator generator = new SourceGenerator();
+        String result;
+        try {
+            result = generator.isTrue(generator.generate(conditionExecutor));
+        } catch (NotCompilableException e) {
+            return null;
+        }
+        StringBuilder source = new StringBuilder();
+        source.append("package ").append(GENERATED_PACKAGE).append(";\n\n")
+                .append("public final class ").append(className)
+                .append(" extends ").append(CompiledConditionExecutor.class.getName()).append(" {\n")
+                .append(generator.fields)
+                .append("\n    public ").append(className).append("(Object[] constants) {\n")
+                .append("        super(\"").append(className).append("\");\n")
+                .append(generator.constructor)
+                .append("    }\n\n")
+                .append("    public Boolean execute(").append(ComplexEvent.class.getName()).append(" event) {\n")
+                .append(generator.methodBody())
+                .append("        return ").append(result).append(" ? Boolean.TRUE : Boolean.FALSE;\n")
+                .append("    }\n")
+                .append("}\n");
+        return (ExpressionExecutor) instantiate(className, source.toString(), generator.constants);
+    }
+
+    /**
+     * @param attributeProcessors selector attribute processors, without aggregators
+     * @return projection setting the output data of all the attribute processors, or null if any of their
+     * expressions cannot be compiled
+     */
+    public static CompiledProjection compileProjection(List<AttributeProcessor> attributeProcessors) {
+        String className = "CompiledProjection" + classCounter.incrementAndGet();
+        SourceGenerator generator = new SourceGenerator();
+        try {
+            for (AttributeProcessor attributeProcessor : attributeProcessors) {
+                // Output data is set in order as the interpreter does, as later expressions may read it
+                generator.beginBlock();
+                Value value = generator.generate(attributeProcessor.getExpressionExecutor());
+                generator.line("event.setOutputData(" + generator.box(value) + ", " +
+                        attributeProcessor.getOutputPosition() + ");");
+                generator.endBlock();
+            }
+        } catch (NotCompilableException e) {
+            return null;
+        }
+        StringBuilder source = new StringBuilder();
+        source.append("package ").append(GENERATED_PACKAGE).append(";\n\n")
+                .append("public final class ").append(className)
+                .append(" implements ").append(CompiledProjection.class.getName()).append(" {\n")
+                .append(generator.fields)
+                .append("\n    public ").append(className).append("(Object[] constants) {\n")
+                .append(generator.constructor)
+                .append("    }\n\n")
+                .append("    public void project(").append(ComplexEvent.class.getName()).append(" event) {\n")
+                .append(generator.methodBody())
+                .append("    }\n")
+                .append("}\n");
+        return (CompiledProjection) instantiate(className, source.toString(), generator.constants);
+    }
+
+    private static Object instantiate(String className, String source, List<Object> constants) {
+        Class<?> clazz = compile(GENERATED_PACKAGE + "." + className, source);
+        if (clazz == null) {
+            return null;
+        }
+        try {
+            Object instance = clazz.getConstructor(Object[].class).newInstance(new Object[]{constants.toArray()});
+            compiledExpressionCount.incrementAndGet();
+            return instance;
+        } catch (Exception e) {
+            log.warn("Cannot instantiate compiled expression " + className + ", hence it is interpreted", e);
+            return null;
+        }
+    }
+
+    private static Class<?> compile(String className, String source) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            if (!compilerUnavailableLogged) {
+                compilerUnavailableLogged = true;
+                log.warn("Expression compilation requires a Java compiler, which is not available in this " +
+                        "runtime, hence expressions are interpreted");
+            }
+            return null;
+        }
+        StandardJavaFileManager standardFileManager = compiler.getStandardFileManager(null, null,
+                Charset.forName("UTF-8"));
+        ClassFileManager fileManager = new ClassFileManager(standardFileManager);
+        StringWriter diagnostics = new StringWriter();
+        List<String> options = Arrays.asList("-classpath", getClassPath(), "-g:none", "-proc:none");
+        List<JavaFileObject> sources = Collections.<JavaFileObject>singletonList(new SourceFile(className, source));
+        Boolean compiled;
+        try {
+            compiled = compiler.getTask(diagnostics, fileManager, null, options, null, sources).call();
+        } finally {
+            try {
+                fileManager.close();
+            } catch (IOException e) {
+                log.debug("Error closing the file manager of " + className, e);
+            }
+        }
+        if (compiled == null || !compiled) {
+            log.warn("Cannot compile expression " + className + ", hence it is interpreted: " + diagnostics);
+            return null;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Compiled expression " + className + ":\n" + source);
+        }
+        return new GeneratedClassLoader(ExpressionCompiler.class.getClassLoader(), className,
+                fileManager.getClassBytes()).load();
+    }
+
+    /**
+     * Class path of the generated classes: the application class path and the locations of the Siddhi jars,
+     * which are not on it when Siddhi is deployed as a bundle.
+     */
+    private static String getClassPath() {
+        Set<String> paths = new LinkedHashSet<String>();
+        paths.add(System.getProperty("java.class.path"));
+        for (Class<?> clazz : new Class<?>[]{ExpressionCompiler.class, Attribute.class}) {
+            try {
+                CodeSource codeSource = clazz.getProtectionDomain().getCodeSource();
+                if (codeSource != null && codeSource.getLocation() != null) {
+                    paths.add(new File(codeSource.getLocation().toURI()).getPath());
+                }
+            } catch (Exception e) {
+                log.debug("Cannot resolve the location of " + clazz.getName(), e);
+            }
+        }
+        StringBuilder classPath = new StringBuilder();
+        for (String path : paths) {
+            if (classPath.length() > 0) {
+                classPath.append(File.pathSeparator);
+            }
+            classPath.append(path);
+        }
+        return classPath.toString();
+    }
+
+    /**
+     * Primitive type a compiled expression is evaluated in. Strings and objects are kept as Object, as they are
+     * only compared with equals or passed through.
+     */
+    private enum JavaType {
+        INT("int", "Integer", "intValue()", "0"),
+        LONG("long", "Long", "longValue()", "0L"),
+        FLOAT("float", "Float", "floatValue()", "0F"),
+        DOUBLE("double", "Double", "doubleValue()", "0D"),
+        BOOLEAN("boolean", "Boolean", "booleanValue()", "false"),
+        OBJECT("Object", null, null, "null");
+
+        private final String primitive;
+        private final String boxed;
+        private final String unboxMethod;
+        private final String defaultValue;
+
+        JavaType(String primitive, String boxed, String unboxMethod, String defaultValue) {
+            this.primitive = primitive;
+            this.boxed = boxed;
+            this.unboxMethod = unboxMethod;
+            this.defaultValue = defaultValue;
+        }
+
+        private static JavaType of(Attribute.Type type) throws NotCompilableException {
+            switch (type) {
+                case INT:
+                    return INT;
+                case LONG:
+                    return LONG;
+                case FLOAT:
+                    return FLOAT;
+                case DOUBLE:
+                    return DOUBLE;
+                case BOOL:
+                    return BOOLEAN;
+                case STRING:
+                case OBJECT:
+                    return OBJECT;
+                default:
+                    throw new NotCompilableException();
+            }
+        }
+
+        private boolean isNumeric() {
+            return this == INT || this == LONG || this == FLOAT || this == DOUBLE;
+        }
+
+        private String unbox(String object) {
+            if (this == OBJECT) {
+                return object;
+            } else if (this == BOOLEAN) {
+                return "((Boolean) " + object + ").booleanValue()";
+            }
+            return "((Number) " + object + ")." + unboxMethod;
+        }
+    }
+
+    /**
+     * Compiled expression node: a primitive local holding the value and the local flagging it as null, or the
+     * literal false for nodes that are never null.
+     */
+    private static class Value {
+        private final JavaType type;
+        private final String value;
+        private final String isNull;
+
+        private Value(JavaType type, String value, String isNull) {
+            this.type = type;
+            this.value = value;
+            this.isNull = isNull;
+        }
+
+        private boolean isNullable() {
+            return !"false".equals(isNull);
+        }
+    }
+
+    /**
+     * Generates the fields, constructor statements and method body of a compiled expression class. All locals
+     * are declared at method level and assigned within nested blocks, so that the right operands of and and or
+     * conditions are only evaluated when needed.
+     */
+    private static class SourceGenerator {
+        private final StringBuilder fields = new StringBuilder();
+        private final StringBuilder constructor = new StringBuilder();
+        private final StringBuilder locals = new StringBuilder();
+        private final StringBuilder statements = new StringBuilder();
+        private final List<Object> constants = new ArrayList<Object>();
+        private final List<Map<String, Value>> readScopes = new ArrayList<Map<String, Value>>();
+        private int indent = 2;
+        private int nodeCount = 0;
+        private boolean usesStreamEvent = false;
+
+        private SourceGenerator() {
+            readScopes.add(new HashMap<String, Value>());
+        }
+
+        private Value generate(ExpressionExecutor executor) throws NotCompilableException {
+            Class<?> clazz = executor.getClass();
+            if (clazz == ConstantExpressionExecutor.class) {
+                return generateConstant((ConstantExpressionExecutor) executor);
+            } else if (clazz == VariableExpressionExecutor.class) {
+                return generateVariable((VariableExpressionExecutor) executor);
+            } else if (mathOperators.containsKey(clazz)) {
+                return generateMath((MathExpressionExecutor) executor, mathOperators.get(clazz));
+            } else if (executor instanceof CompareConditionExpressionExecutor) {
+                return generateCompare((CompareConditionExpressionExecutor) executor);
+            } else if (clazz == AndConditionExpressionExecutor.class) {
+                AndConditionExpressionExecutor and = (AndConditionExpressionExecutor) executor;
+                return generateAndOr(and.getLeftConditionExecutor(), and.getRightConditionExecutor(), true);
+            } else if (clazz == OrConditionExpressionExecutor.class) {
+                OrConditionExpressionExecutor or = (OrConditionExpressionExecutor) executor;
+                return generateAndOr(or.getLeftConditionExecutor(), or.getRightConditionExecutor(), false);
+            } else if (clazz == NotConditionExpressionExecutor.class) {
+                Value condition = generate(((NotConditionExpressionExecutor) executor).getConditionExecutor());
+                return new Value(JavaType.BOOLEAN, "(!" + isTrue(condition) + ")", "false");
+            } else if (clazz == BoolConditionExpressionExecutor.class) {
+                Value condition = generate(((BoolConditionExpressionExecutor) executor).getConditionExecutor());
+                return new Value(JavaType.BOOLEAN, isTrue(condition), "false");
+            }
+            throw new NotCompilableException();
+        }
+
+        private Value generateConstant(ConstantExpressionExecutor executor) throws NotCompilableException {
+            JavaType type = JavaType.of(executor.getReturnType());
+            Object constant = executor.getValue();
+            if (constant == null) {
+                throw new NotCompilableException();
+            }
+            String name = "k" + constants.size();
+            fields.append("    private final ").append(type.primitive).append(" ").append(name).append(";\n");
+            constructor.append("        ").append(name).append(" = ")
+                    .append(type.unbox("constants[" + constants.size() + "]")).append(";\n");
+            constants.add(constant);
+            return new Value(type, name, "false");
+        }
+
+        private Value generateVariable(VariableExpressionExecutor executor) throws NotCompilableException {
+            JavaType type = JavaType.of(executor.getReturnType());
+            int[] position = executor.getPosition();
+            String key = Arrays.toString(position);
+            for (Map<String, Value> reads : readScopes) {
+                Value read = reads.get(key);
+                if (read != null) {
+                    return read;
+                }
+            }
+            int node = nextNode();
+            String object = "o" + node;
+            declare("Object", object, "null");
+            String dataArray = null;
+            switch (position[SiddhiConstants.STREAM_ATTRIBUTE_TYPE_INDEX]) {
+                case SiddhiConstants.BEFORE_WINDOW_DATA_INDEX:
+                    dataArray = "getBeforeWindowData()";
+                    break;
+                case SiddhiConstants.ON_AFTER_WINDOW_DATA_INDEX:
+                    dataArray = "getOnAfterWindowData()";
+                    break;
+                case SiddhiConstants.OUTPUT_DATA_INDEX:
+                    dataArray = "getOutputData()";
+                    break;
+                default:
+                    break;
+            }
+            String positionField = "p" + node;
+            fields.append("    private static final int[] ").append(positionField).append(" = new int[]")
+                    .append(key.replace('[', '{').replace(']', '}')).append(";\n");
+            String genericRead = "event.getAttribute(" + positionField + ")";
+            if (dataArray != null) {
+                usesStreamEvent = true;
+                line(object + " = (streamEvent != null) ? streamEvent." + dataArray + "[" +
+                        position[SiddhiConstants.STREAM_ATTRIBUTE_INDEX] + "] : " + genericRead + ";");
+            } else {
+                line(object + " = " + genericRead + ";");
+            }
+            Value value;
+            if (type == JavaType.OBJECT) {
+                value = new Value(type, object, "(" + object + " == null)");
+            } else {
+                String isNull = "n" + node;
+                String variable = "v" + node;
+                declare("boolean", isNull, "true");
+                declare(type.primitive, variable, type.defaultValue);
+                line(isNull + " = " + object + " == null;");
+                line("if (!" + isNull + ") {");
+                indent++;
+                line(variable + " = " + type.unbox(object) + ";");
+                indent--;
+                line("}");
+                value = new Value(type, variable, isNull);
+            }
+            readScopes.get(readScopes.size() - 1).put(key, value);
+            return value;
+        }
+
+        private Value generateMath(MathExpressionExecutor executor, String operator)
+                throws NotCompilableException {
+            JavaType type = JavaType.of(executor.getReturnType());
+            if (!type.isNumeric()) {
+                throw new NotCompilableException();
+            }
+            Value left = generate(executor.getLeftExpressionExecutor());
+            Value right = generate(executor.getRightExpressionExecutor());
+            if (!left.type.isNumeric() || !right.type.isNumeric()) {
+                throw new NotCompilableException();
+            }
+            int node = nextNode();
+            String isNull = "n" + node;
+            String variable = "v" + node;
+            declare("boolean", isNull, "true");
+            declare(type.primitive, variable, type.defaultValue);
+            line(isNull + " = " + left.isNull + " || " + right.isNull + ";");
+            line("if (!" + isNull + ") {");
+            indent++;
+            if ("/".equals(operator) || "%".equals(operator)) {
+                // Division and modulo by zero are null, as in the interpreted executors
+                String divisor = "d" + node;
+                declare(type.primitive, divisor, type.defaultValue);
+                line(divisor + " = " + convert(right, type) + ";");
+                line("if (" + divisor + " == " + type.defaultValue + ") {");
+                line("    " + isNull + " = true;");
+                line("} else {");
+                line("    " + variable + " = " + convert(left, type) + " " + operator + " " + divisor + ";");
+                line("}");
+            } else {
+                line(variable + " = " + convert(left, type) + " " + operator + " " + convert(right, type) + ";");
+            }
+            indent--;
+            line("}");
+            return new Value(type, variable, isNull);
+        }
+
+        private Value generateCompare(CompareConditionExpressionExecutor executor) throws NotCompilableException {
+            String operator;
+            if (executor instanceof EqualCompareConditionExpressionExecutor) {
+                operator = "==";
+            } else if (executor instanceof NotEqualCompareConditionExpressionExecutor) {
+                operator = "!=";
+            } else if (executor instanceof GreaterThanCompareConditionExpressionExecutor) {
+                operator = ">";
+            } else if (executor instanceof GreaterThanEqualCompareConditionExpressionExecutor) {
+                operator = ">=";
+            } else if (executor instanceof LessThanCompareConditionExpressionExecutor) {
+                operator = "<";
+            } else if (executor instanceof LessThanEqualCompareConditionExpressionExecutor) {
+                operator = "<=";
+            } else {
+                throw new NotCompilableException();
+            }
+            Attribute.Type leftType = executor.getLeftExpressionExecutor().getReturnType();
+            Attribute.Type rightType = executor.getRightExpressionExecutor().getReturnType();
+            Value left = generate(executor.getLeftExpressionExecutor());
+            Value right = generate(executor.getRightExpressionExecutor());
+            boolean equality = "==".equals(operator) || "!=".equals(operator);
+            String comparison;
+            if (left.type.isNumeric() && right.type.isNumeric()) {
+                if (equality && ((left.type == JavaType.FLOAT && right.type == JavaType.LONG) ||
+                        (left.type == JavaType.LONG && right.type == JavaType.FLOAT))) {
+                    // Float and long are compared for equality as doubles by the interpreted executors
+                    comparison = convert(left, JavaType.DOUBLE) + " " + operator + " " + convert(right, JavaType.DOUBLE);
+                } else {
+                    comparison = left.value + " " + operator + " " + right.value;
+                }
+            } else if (equality && left.type == JavaType.BOOLEAN && right.type == JavaType.BOOLEAN) {
+                comparison = left.value + " " + operator + " " + right.value;
+            } else if (equality && leftType == Attribute.Type.STRING && rightType == Attribute.Type.STRING) {
+                comparison = ("!=".equals(operator) ? "!" : "") + left.value + ".equals(" + right.value + ")";
+            } else {
+                throw new NotCompilableException();
+            }
+            int node = nextNode();
+            String variable = "v" + node;
+            declare("boolean", variable, "false");
+            if ("!=".equals(operator)) {
+                // Not equal is true when either operand is null, as in the interpreted executors
+                line(variable + " = " + left.isNull + " || " + right.isNull + " || " + comparison + ";");
+            } else {
+                line(variable + " = !(" + left.isNull + " || " + right.isNull + ") && " + comparison + ";");
+            }
+            return new Value(JavaType.BOOLEAN, variable, "false");
+        }
+
+        private Value generateAndOr(ExpressionExecutor leftExecutor, ExpressionExecutor rightExecutor,
+                                    boolean and) throws NotCompilableException {
+            Value left = generate(leftExecutor);
+            int node = nextNode();
+            String variable = "v" + node;
+            declare("boolean", variable, "false");
+            line(variable + " = " + isTrue(left) + ";");
+            line("if (" + (and ? "" : "!") + variable + ") {");
+            beginBlock();
+            Value right = generate(rightExecutor);
+            line(variable + " = " + isTrue(right) + ";");
+            endBlock();
+            line("}");
+            return new Value(JavaType.BOOLEAN, variable, "false");
+        }
+
+        private String isTrue(Value value) throws NotCompilableException {
+            if (value.type != JavaType.BOOLEAN) {
+                throw new NotCompilableException();
+            }
+            return value.isNullable() ? "(!" + value.isNull + " && " + value.value + ")" : value.value;
+        }
+
+        private String convert(Value value, JavaType type) {
+            return value.type == type ? value.value : "((" + type.primitive + ") " + value.value + ")";
+        }
+
+        private String box(Value value) {
+            if (value.type == JavaType.OBJECT) {
+                return value.value;
+            }
+            String boxed = value.type.boxed + ".valueOf(" + value.value + ")";
+            return value.isNullable() ? "(" + value.isNull + " ? null : " + boxed + ")" : boxed;
+        }
+
+        /**
+         * Start a block whose variable reads are not visible after it, as it may not be executed.
+         */
+        private void beginBlock() {
+            indent++;
+            readScopes.add(new HashMap<String, Value>());
+        }
+
+        private void endBlock() {
+            readScopes.remove(readScopes.size() - 1);
+            indent--;
+        }
+
+        private int nextNode() {
+            return nodeCount++;
+        }
+
+        private void declare(String type, String name, String defaultValue) {
+            locals.append("        ").append(type).append(" ").append(name).append(" = ").append(defaultValue)
+                    .append(";\n");
+        }
+
+        private void line(String statement) {
+            for (int i = 0; i < indent; i++) {
+                statements.append("    ");
+            }
+            statements.append(statement).append('\n');
+        }
+
+        private String methodBody() {
+            StringBuilder body = new StringBuilder();
+            if (usesStreamEvent) {
+                String streamEventClass = StreamEvent.class.getName();
+                body.append("        ").append(streamEventClass).append(" streamEvent = (event instanceof ")
+                        .append(streamEventClass).append(") ? (").append(streamEventClass)
+                        .append(") event : null;\n");
+            }
+            return body.append(locals).append(statements).toString();
+        }
+    }
+
+    /**
+     * Thrown when an expression contains executors that are not compiled.
+     */
+    private static class NotCompilableException extends Exception {
+    }
+
+    private static class SourceFile extends SimpleJavaFileObject {
+        private final String source;
+
+        private SourceFile(String className, String source) {
+            super(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+            this.source = source;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return source;
+        }
+    }
+
+    private static class ClassFile extends SimpleJavaFileObject {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        private ClassFile(String className) {
+            super(URI.create("bytes:///" + className.replace('.', '/') + Kind.CLASS.extension), Kind.CLASS);
+        }
+
+        @Override
+        public OutputStream openOutputStream() {
+            return bytes;
+        }
+    }
+
+    /**
+     * Keeps the compiled classes in memory instead of writing them to the file system.
+     */
+    private static class ClassFileManager extends ForwardingJavaFileManager<JavaFileManager> {
+        private final Map<String, ClassFile> classFiles = new HashMap<String, ClassFile>();
+
+        private ClassFileManager(JavaFileManager fileManager) {
+            super(fileManager);
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind,
+                                                   FileObject sibling) {
+            ClassFile classFile = new ClassFile(className);
+            classFiles.put(className, classFile);
+            return classFile;
+        }
+
+        private Map<String, byte[]> getClassBytes() {
+            Map<String, byte[]> classBytes = new HashMap<String, byte[]>();
+            for (Map.Entry<String, ClassFile> entry : classFiles.entrySet()) {
+                classBytes.put(entry.getKey(), entry.getValue().bytes.toByteArray());
+            }
+            return classBytes;
+        }
+    }
+
+    /**
+     * Loader of one compiled expression, so that the class is unloaded with the query it belongs to.
+     */
+    private static class GeneratedClassLoader extends ClassLoader {
+        private final String className;
+        private final Map<String, byte[]> classBytes;
+
+        private GeneratedClassLoader(ClassLoader parent, String className, Map<String, byte[]> classBytes) {
+            super(parent);
+            this.className = className;
+            this.classBytes = classBytes;
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            byte[] bytes = classBytes.get(name);
+            if (bytes == null) {
+                throw new ClassNotFoundException(name);
+            }
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+
+        private Class<?> load() {
+            try {
+                return loadClass(className);
+            } catch (ClassNotFoundException e) {
+                log.warn("Cannot load compiled expression " + className + ", hence it is interpreted", e);
+                return null;
+            }
+        }
+    }
+}
@@ -51,16 +51,21 @@ public class AndConditionExpressionExecutor extends ConditionExpressionExecutor
 
     }
 
+    public ExpressionExecutor getLeftConditionExecutor() {
+        return leftConditionExecutor;
+    }
+
+    public ExpressionExecutor getRightConditionExecutor() {
+        return rightConditionExecutor;
+    }
+
     public Boolean execute(ComplexEvent event) {
-        Object leftResult = leftConditionExecutor.execute(event);
-        if (leftResult == null) {
-            return Boolean.FALSE;
-        }
-        Object rightResult = rightConditionExecutor.execute(event);
-        if (rightResult == null) {
-            return Boolean.FALSE;
-        }
-        return (Boolean) leftResult && (Boolean) rightResult;
+        return executeBoolean(event);
+    }
+
+    @Override
+    public boolean executeBoolean(ComplexEvent event) {
+        return leftConditionExecutor.executeBoolean(event) && rightConditionExecutor.executeBoolean(event);
     }
 
     @Override
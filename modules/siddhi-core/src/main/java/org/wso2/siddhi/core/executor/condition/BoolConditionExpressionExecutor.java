@@ -36,13 +36,17 @@ public class BoolConditionExpressionExecutor extends ConditionExpressionExecutor
         }
     }
 
+    public ExpressionExecutor getConditionExecutor() {
+        return conditionExecutor;
+    }
+
     public Boolean execute(ComplexEvent event) {
-        Object result = conditionExecutor.execute(event);
-        if (result == null) {
-            return Boolean.FALSE;
-        } else {
-            return (Boolean) result;
-        }
+        return executeBoolean(event);
+    }
+
+    @Override
+    public boolean executeBoolean(ComplexEvent event) {
+        return conditionExecutor.executeBoolean(event);
     }
 
     @Override
@@ -34,4 +34,19 @@ public abstract class ConditionExpressionExecutor implements ExpressionExecutor
 
     public abstract Boolean execute(ComplexEvent event);
 
+    @Override
+    public boolean isPrimitiveExecutable() {
+        return true;
+    }
+
+    @Override
+    public boolean isNull(ComplexEvent event) {
+        return false;
+    }
+
+    @Override
+    public boolean executeBoolean(ComplexEvent event) {
+        return execute(event);
+    }
+
 }
@@ -36,13 +36,17 @@ public class NotConditionExpressionExecutor extends ConditionExpressionExecutor
         }
     }
 
+    public ExpressionExecutor getConditionExecutor() {
+        return conditionExecutor;
+    }
+
     public Boolean execute(ComplexEvent event) {
-        Boolean result = (Boolean) conditionExecutor.execute(event);
-        if (result == Boolean.TRUE) {
-            return Boolean.FALSE;
-        } else {
-            return Boolean.TRUE;
-        }
+        return executeBoolean(event);
+    }
+
+    @Override
+    public boolean executeBoolean(ComplexEvent event) {
+        return !conditionExecutor.executeBoolean(event);
     }
 
     @Override
@@ -50,19 +50,21 @@ public class OrConditionExpressionExecutor extends ConditionExpressionExecutor {
         }
     }
 
+    public ExpressionExecutor getLeftConditionExecutor() {
+        return leftConditionExecutor;
+    }
+
+    public ExpressionExecutor getRightConditionExecutor() {
+        return rightConditionExecutor;
+    }
+
     public Boolean execute(ComplexEvent event) {
-        Boolean result = (Boolean) leftConditionExecutor.execute(event);
-        if (result == Boolean.TRUE) {
-            return Boolean.TRUE;
-        } else {
-            result = (Boolean) rightConditionExecutor.execute(event);
-            if (result == Boolean.TRUE) {
-                return Boolean.TRUE;
-            } else {
-                return Boolean.FALSE;
-            }
-        }
+        return executeBoolean(event);
+    }
 
+    @Override
+    public boolean executeBoolean(ComplexEvent event) {
+        return leftConditionExecutor.executeBoolean(event) || rightConditionExecutor.executeBoolean(event);
     }
 
     @Override
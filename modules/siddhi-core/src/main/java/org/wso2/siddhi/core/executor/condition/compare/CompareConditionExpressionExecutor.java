@@ -20,21 +20,48 @@ package org.wso2.siddhi.core.executor.condition.compare;
 import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 import org.wso2.siddhi.core.executor.condition.ConditionExpressionExecutor;
+import org.wso2.siddhi.query.api.definition.Attribute;
 
 
 public abstract class CompareConditionExpressionExecutor extends ConditionExpressionExecutor {
 
     protected ExpressionExecutor leftExpressionExecutor;
     protected ExpressionExecutor rightExpressionExecutor;
+    protected boolean primitiveExecution;
 
     public CompareConditionExpressionExecutor(ExpressionExecutor leftExpressionExecutor,
                                               ExpressionExecutor rightExpressionExecutor) {
         this.leftExpressionExecutor = leftExpressionExecutor;
         this.rightExpressionExecutor = rightExpressionExecutor;
+        this.primitiveExecution = isPrimitiveOperand(leftExpressionExecutor)
+                && isPrimitiveOperand(rightExpressionExecutor);
     }
 
+    private static boolean isPrimitiveOperand(ExpressionExecutor expressionExecutor) {
+        Attribute.Type type = expressionExecutor.getReturnType();
+        return expressionExecutor.isPrimitiveExecutable() && type != Attribute.Type.STRING
+                && type != Attribute.Type.OBJECT;
+    }
+
+
+    public ExpressionExecutor getLeftExpressionExecutor() {
+        return leftExpressionExecutor;
+    }
+
+    public ExpressionExecutor getRightExpressionExecutor() {
+        return rightExpressionExecutor;
+    }
 
     public Boolean execute(ComplexEvent event) {
+        return executeBoolean(event);
+    }
+
+    @Override
+    public boolean executeBoolean(ComplexEvent event) {
+        if (primitiveExecution) {
+            return !(leftExpressionExecutor.isNull(event) || rightExpressionExecutor.isNull(event))
+                    && executePrimitive(event);
+        }
         Object left = leftExpressionExecutor.execute(event);
         Object right = rightExpressionExecutor.execute(event);
         return !(left == null || right == null) && execute(left, right);
@@ -42,4 +69,15 @@ public abstract class CompareConditionExpressionExecutor extends ConditionExpres
 
     protected abstract Boolean execute(Object left, Object right);
 
+    /**
+     * Compare the operands through their typed execute methods. Only called when both operands are primitive
+     * executable and not null.
+     *
+     * @param event the event to evaluate
+     * @return the result of the comparison
+     */
+    protected boolean executePrimitive(ComplexEvent event) {
+        return execute(leftExpressionExecutor.execute(event), rightExpressionExecutor.execute(event));
+    }
+
 }
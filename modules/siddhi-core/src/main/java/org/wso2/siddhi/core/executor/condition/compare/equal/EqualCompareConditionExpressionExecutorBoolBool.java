@@ -18,6 +18,7 @@
 
 package org.wso2.siddhi.core.executor.condition.compare.equal;
 
+import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 
 public class EqualCompareConditionExpressionExecutorBoolBool extends EqualCompareConditionExpressionExecutor {
@@ -32,6 +33,11 @@ public class EqualCompareConditionExpressionExecutorBoolBool extends EqualCompar
         return ((Boolean) left).booleanValue() == ((Boolean) right).booleanValue();
     }
 
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        return leftExpressionExecutor.executeBoolean(event) == rightExpressionExecutor.executeBoolean(event);
+    }
+
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
         return new EqualCompareConditionExpressionExecutorBoolBool(leftExpressionExecutor.cloneExecutor(key), rightExpressionExecutor.cloneExecutor(key));
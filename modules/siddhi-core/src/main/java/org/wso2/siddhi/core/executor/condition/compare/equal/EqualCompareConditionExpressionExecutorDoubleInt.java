@@ -18,6 +18,7 @@
 
 package org.wso2.siddhi.core.executor.condition.compare.equal;
 
+import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 
 public class EqualCompareConditionExpressionExecutorDoubleInt extends
@@ -36,6 +37,11 @@ public class EqualCompareConditionExpressionExecutorDoubleInt extends
 
     }
 
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        return leftExpressionExecutor.executeDouble(event) == (double) rightExpressionExecutor.executeInt(event);
+    }
+
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
         return new EqualCompareConditionExpressionExecutorDoubleInt(leftExpressionExecutor.cloneExecutor(key), rightExpressionExecutor.cloneExecutor(key));
@@ -18,6 +18,7 @@
 
 package org.wso2.siddhi.core.executor.condition.compare.equal;
 
+import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 
 public class EqualCompareConditionExpressionExecutorFloatDouble extends
@@ -35,6 +36,11 @@ public class EqualCompareConditionExpressionExecutorFloatDouble extends
 
     }
 
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        return (double) leftExpressionExecutor.executeFloat(event) == rightExpressionExecutor.executeDouble(event);
+    }
+
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
         return new EqualCompareConditionExpressionExecutorFloatDouble(leftExpressionExecutor.cloneExecutor(key), rightExpressionExecutor.cloneExecutor(key));
@@ -17,6 +17,7 @@
  */
 package org.wso2.siddhi.core.executor.condition.compare.equal;
 
+import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 
 public class EqualCompareConditionExpressionExecutorFloatFloat extends
@@ -33,6 +34,11 @@ public class EqualCompareConditionExpressionExecutorFloatFloat extends
         return ((Float) left).floatValue() == ((Float) right).floatValue();
     }
 
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        return leftExpressionExecutor.executeFloat(event) == rightExpressionExecutor.executeFloat(event);
+    }
+
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
         return new EqualCompareConditionExpressionExecutorFloatFloat(leftExpressionExecutor.cloneExecutor(key), rightExpressionExecutor.cloneExecutor(key));
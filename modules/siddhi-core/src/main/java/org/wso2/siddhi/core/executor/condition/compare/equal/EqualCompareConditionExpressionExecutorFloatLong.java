@@ -17,6 +17,7 @@
  */
 package org.wso2.siddhi.core.executor.condition.compare.equal;
 
+import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 
 public class EqualCompareConditionExpressionExecutorFloatLong extends
@@ -36,6 +37,11 @@ public class EqualCompareConditionExpressionExecutorFloatLong extends
 
     }
 
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        return (double) leftExpressionExecutor.executeFloat(event) == (double) rightExpressionExecutor.executeLong(event);
+    }
+
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
         return new EqualCompareConditionExpressionExecutorFloatLong(leftExpressionExecutor.cloneExecutor(key), rightExpressionExecutor.cloneExecutor(key));
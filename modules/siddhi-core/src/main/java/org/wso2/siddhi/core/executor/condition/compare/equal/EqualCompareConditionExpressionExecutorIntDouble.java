@@ -17,6 +17,7 @@
  */
 package org.wso2.siddhi.core.executor.condition.compare.equal;
 
+import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 
 public class EqualCompareConditionExpressionExecutorIntDouble extends
@@ -35,6 +36,11 @@ public class EqualCompareConditionExpressionExecutorIntDouble extends
 
     }
 
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        return (double) leftExpressionExecutor.executeInt(event) == rightExpressionExecutor.executeDouble(event);
+    }
+
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
         return new EqualCompareConditionExpressionExecutorIntDouble(leftExpressionExecutor.cloneExecutor(key), rightExpressionExecutor.cloneExecutor(key));
@@ -18,6 +18,7 @@
 
 package org.wso2.siddhi.core.executor.condition.compare.equal;
 
+import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 
 public class EqualCompareConditionExpressionExecutorIntFloat extends
@@ -36,6 +37,11 @@ public class EqualCompareConditionExpressionExecutorIntFloat extends
 
     }
 
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        return (float) leftExpressionExecutor.executeInt(event) == rightExpressionExecutor.executeFloat(event);
+    }
+
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
         return new EqualCompareConditionExpressionExecutorIntFloat(leftExpressionExecutor.cloneExecutor(key), rightExpressionExecutor.cloneExecutor(key));
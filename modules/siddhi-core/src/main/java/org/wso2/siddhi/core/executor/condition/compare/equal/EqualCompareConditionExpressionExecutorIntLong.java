@@ -17,6 +17,7 @@
  */
 package org.wso2.siddhi.core.executor.condition.compare.equal;
 
+import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 
 public class EqualCompareConditionExpressionExecutorIntLong extends
@@ -36,6 +37,11 @@ public class EqualCompareConditionExpressionExecutorIntLong extends
 
     }
 
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        return (long) leftExpressionExecutor.executeInt(event) == rightExpressionExecutor.executeLong(event);
+    }
+
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
         return new EqualCompareConditionExpressionExecutorIntLong(leftExpressionExecutor.cloneExecutor(key), rightExpressionExecutor.cloneExecutor(key));
@@ -17,6 +17,7 @@
  */
 package org.wso2.siddhi.core.executor.condition.compare.equal;
 
+import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 
 public class EqualCompareConditionExpressionExecutorLongFloat
@@ -35,6 +36,11 @@ public class EqualCompareConditionExpressionExecutorLongFloat
 
     }
 
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        return (double) leftExpressionExecutor.executeLong(event) == (double) rightExpressionExecutor.executeFloat(event);
+    }
+
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
         return new EqualCompareConditionExpressionExecutorLongFloat(leftExpressionExecutor.cloneExecutor(key), rightExpressionExecutor.cloneExecutor(key));
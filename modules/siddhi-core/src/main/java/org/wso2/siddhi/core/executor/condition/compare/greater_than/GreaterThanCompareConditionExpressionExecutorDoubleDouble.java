@@ -17,6 +17,7 @@
  */
 package org.wso2.siddhi.core.executor.condition.compare.greater_than;
 
+import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 
 public class GreaterThanCompareConditionExpressionExecutorDoubleDouble extends
@@ -35,6 +36,11 @@ public class GreaterThanCompareConditionExpressionExecutorDoubleDouble extends
 
     }
 
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        return leftExpressionExecutor.executeDouble(event) > rightExpressionExecutor.executeDouble(event);
+    }
+
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
         return new GreaterThanCompareConditionExpressionExecutorDoubleDouble(leftExpressionExecutor.cloneExecutor(key), rightExpressionExecutor.cloneExecutor(key));
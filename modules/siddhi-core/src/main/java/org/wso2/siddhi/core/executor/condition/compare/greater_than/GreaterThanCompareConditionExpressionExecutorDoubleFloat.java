@@ -17,6 +17,7 @@
  */
 package org.wso2.siddhi.core.executor.condition.compare.greater_than;
 
+import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 
 public class GreaterThanCompareConditionExpressionExecutorDoubleFloat extends
@@ -34,6 +35,11 @@ public class GreaterThanCompareConditionExpressionExecutorDoubleFloat extends
 
     }
 
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        return leftExpressionExecutor.executeDouble(event) > rightExpressionExecutor.executeFloat(event);
+    }
+
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
         return new GreaterThanCompareConditionExpressionExecutorDoubleFloat(leftExpressionExecutor.cloneExecutor(key), rightExpressionExecutor.cloneExecutor(key));
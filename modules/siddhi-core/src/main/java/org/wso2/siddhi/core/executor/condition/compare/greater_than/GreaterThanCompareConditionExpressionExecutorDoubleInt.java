@@ -17,6 +17,7 @@
  */
 package org.wso2.siddhi.core.executor.condition.compare.greater_than;
 
+import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 
 public class GreaterThanCompareConditionExpressionExecutorDoubleInt extends
@@ -34,6 +35,11 @@ public class GreaterThanCompareConditionExpressionExecutorDoubleInt extends
 
     }
 
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        return leftExpressionExecutor.executeDouble(event) > rightExpressionExecutor.executeInt(event);
+    }
+
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
         return new GreaterThanCompareConditionExpressionExecutorDoubleInt(leftExpressionExecutor.cloneExecutor(key), rightExpressionExecutor.cloneExecutor(key));
@@ -17,6 +17,7 @@
  */
 package org.wso2.siddhi.core.executor.condition.compare.greater_than;
 
+import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 
 public class GreaterThanCompareConditionExpressionExecutorDoubleLong extends
@@ -34,6 +35,11 @@ public class GreaterThanCompareConditionExpressionExecutorDoubleLong extends
 
     }
 
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        return leftExpressionExecutor.executeDouble(event) > rightExpressionExecutor.executeLong(event);
+    }
+
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
         return new GreaterThanCompareConditionExpressionExecutorDoubleLong(leftExpressionExecutor.cloneExecutor(key), rightExpressionExecutor.cloneExecutor(key));
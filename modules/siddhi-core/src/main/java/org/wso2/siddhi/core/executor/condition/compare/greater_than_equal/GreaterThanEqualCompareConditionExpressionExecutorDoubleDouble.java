@@ -17,6 +17,7 @@
  */
 package org.wso2.siddhi.core.executor.condition.compare.greater_than_equal;
 
+import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 
 public class GreaterThanEqualCompareConditionExpressionExecutorDoubleDouble extends
@@ -35,6 +36,11 @@ public class GreaterThanEqualCompareConditionExpressionExecutorDoubleDouble exte
 
     }
 
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        return leftExpressionExecutor.executeDouble(event) >= rightExpressionExecutor.executeDouble(event);
+    }
+
 
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
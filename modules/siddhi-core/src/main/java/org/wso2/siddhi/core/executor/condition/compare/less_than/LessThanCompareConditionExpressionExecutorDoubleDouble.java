@@ -17,6 +17,7 @@
  */
 package org.wso2.siddhi.core.executor.condition.compare.less_than;
 
+import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 
 public class LessThanCompareConditionExpressionExecutorDoubleDouble extends
@@ -35,6 +36,11 @@ public class LessThanCompareConditionExpressionExecutorDoubleDouble extends
 
     }
 
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        return leftExpressionExecutor.executeDouble(event) < rightExpressionExecutor.executeDouble(event);
+    }
+
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
         return new LessThanCompareConditionExpressionExecutorDoubleDouble(leftExpressionExecutor.cloneExecutor(key), rightExpressionExecutor.cloneExecutor(key));
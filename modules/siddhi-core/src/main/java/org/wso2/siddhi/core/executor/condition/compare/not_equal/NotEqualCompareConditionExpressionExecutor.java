@@ -28,7 +28,12 @@ public abstract class NotEqualCompareConditionExpressionExecutor extends Compare
         super(leftExpressionExecutor, rightExpressionExecutor);
     }
 
-    public Boolean execute(ComplexEvent event) {
+    @Override
+    public boolean executeBoolean(ComplexEvent event) {
+        if (primitiveExecution) {
+            return leftExpressionExecutor.isNull(event) || rightExpressionExecutor.isNull(event)
+                    || executePrimitive(event);
+        }
         Object left = leftExpressionExecutor.execute(event);
         Object right = rightExpressionExecutor.execute(event);
         return left == null || right == null || execute(left, right);
@@ -17,6 +17,7 @@
  */
 package org.wso2.siddhi.core.executor.condition.compare.not_equal;
 
+import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 
 public class NotEqualCompareConditionExpressionExecutorBoolBool extends NotEqualCompareConditionExpressionExecutor {
@@ -31,6 +32,11 @@ public class NotEqualCompareConditionExpressionExecutorBoolBool extends NotEqual
         return ((Boolean) left).booleanValue() != ((Boolean) right).booleanValue();
     }
 
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        return leftExpressionExecutor.executeBoolean(event) != rightExpressionExecutor.executeBoolean(event);
+    }
+
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
         return new NotEqualCompareConditionExpressionExecutorBoolBool(leftExpressionExecutor.cloneExecutor(key), rightExpressionExecutor.cloneExecutor(key));
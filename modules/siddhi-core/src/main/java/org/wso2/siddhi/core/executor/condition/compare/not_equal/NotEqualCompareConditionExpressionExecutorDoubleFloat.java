@@ -17,6 +17,7 @@
  */
 package org.wso2.siddhi.core.executor.condition.compare.not_equal;
 
+import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 
 public class NotEqualCompareConditionExpressionExecutorDoubleFloat extends
@@ -35,6 +36,11 @@ public class NotEqualCompareConditionExpressionExecutorDoubleFloat extends
 
     }
 
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        return leftExpressionExecutor.executeDouble(event) != (double) rightExpressionExecutor.executeFloat(event);
+    }
+
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
         return new NotEqualCompareConditionExpressionExecutorDoubleFloat(leftExpressionExecutor.cloneExecutor(key), rightExpressionExecutor.cloneExecutor(key));
@@ -18,13 +18,16 @@
 
 package org.wso2.siddhi.core.executor.function;
 
+import com.codahale.metrics.Timer;
 import org.apache.log4j.Logger;
 import org.wso2.siddhi.core.config.ExecutionPlanContext;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 import org.wso2.siddhi.core.function.EvalScript;
+import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.query.api.definition.Attribute;
 
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 public class ScriptFunctionExecutor extends FunctionExecutor {
 
@@ -33,6 +36,7 @@ public class ScriptFunctionExecutor extends FunctionExecutor {
     private String functionId;
     Attribute.Type returnType;
     EvalScript evalScript;
+    private Timer invocationLatency;
 
     public ScriptFunctionExecutor(String name) {
         this.functionId = name;
@@ -47,16 +51,38 @@ public class ScriptFunctionExecutor extends FunctionExecutor {
     protected void init(ExpressionExecutor[] attributeExpressionExecutors, ExecutionPlanContext executionPlanContext) {
         returnType = executionPlanContext.getEvalScript(functionId).getReturnType();
         evalScript = executionPlanContext.getEvalScript(functionId);
+        if (executionPlanContext.isStatsEnabled() && executionPlanContext.getStatisticsManager() != null) {
+            // Shared by all the executors of the function, the registry returns the existing timer
+            String metricName = executionPlanContext.getSiddhiContext().getStatisticsConfiguration().getMatricPrefix() +
+                    SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_EXECUTION_PLANS +
+                    SiddhiConstants.METRIC_DELIMITER + executionPlanContext.getName() +
+                    SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_SIDDHI +
+                    SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_FUNCTIONS +
+                    SiddhiConstants.METRIC_DELIMITER + functionId + SiddhiConstants.METRIC_DELIMITER + "latency";
+            invocationLatency = executionPlanContext.getStatisticsManager().getRegistry().timer(metricName);
+        }
     }
 
     @Override
     protected Object execute(Object[] data) {
-        return evalScript.eval(functionId, data);
+        return eval(data);
     }
 
     @Override
     protected Object execute(Object data) {
-        return evalScript.eval(functionId, new Object[]{data});
+        return eval(new Object[]{data});
+    }
+
+    private Object eval(Object[] data) {
+        if (invocationLatency == null) {
+            return evalScript.eval(functionId, data);
+        }
+        long startTime = System.nanoTime();
+        try {
+            return evalScript.eval(functionId, data);
+        } finally {
+            invocationLatency.update(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        }
     }
 
     @Override
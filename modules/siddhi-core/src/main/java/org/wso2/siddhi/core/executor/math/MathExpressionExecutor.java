@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.executor.math;
+
+import org.wso2.siddhi.core.executor.ConstantExpressionExecutor;
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
+
+/**
+ * Arithmetic executor of two operands, returning null when either operand is null.
+ * <p>
+ * ExpressionParser constructs the executors with primitive execution when both operands are primitive executable,
+ * so that the operands are evaluated through their typed execute methods and only the result is boxed. Division and
+ * modulo check the divisor for zero while evaluating it, hence they are only primitive executable themselves, and
+ * composed unboxed by enclosing executors, when the divisor is a non zero constant.
+ */
+public interface MathExpressionExecutor extends ExpressionExecutor {
+
+    ExpressionExecutor getLeftExpressionExecutor();
+
+    ExpressionExecutor getRightExpressionExecutor();
+
+    static boolean isNonZeroConstant(ExpressionExecutor divisorExecutor) {
+        if (!(divisorExecutor instanceof ConstantExpressionExecutor)) {
+            return false;
+        }
+        Object value = ((ConstantExpressionExecutor) divisorExecutor).getValue();
+        return value instanceof Number && ((Number) value).doubleValue() != 0.0;
+    }
+}
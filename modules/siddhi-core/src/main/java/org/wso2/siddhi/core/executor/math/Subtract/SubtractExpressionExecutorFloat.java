@@ -19,21 +19,43 @@ package org.wso2.siddhi.core.executor.math.Subtract;
 
 import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.executor.math.MathExpressionExecutor;
 import org.wso2.siddhi.query.api.definition.Attribute;
 
-public class SubtractExpressionExecutorFloat implements ExpressionExecutor {
+public class SubtractExpressionExecutorFloat implements MathExpressionExecutor {
     private ExpressionExecutor leftExpressionExecutor;
     private ExpressionExecutor rightExpressionExecutor;
+    private boolean primitiveExecution;
 
 
     public SubtractExpressionExecutorFloat(ExpressionExecutor leftExpressionExecutor,
                                            ExpressionExecutor rightExpressionExecutor) {
+        this(leftExpressionExecutor, rightExpressionExecutor, false);
+    }
+
+    public SubtractExpressionExecutorFloat(ExpressionExecutor leftExpressionExecutor,
+                                           ExpressionExecutor rightExpressionExecutor, boolean primitiveExecution) {
         this.leftExpressionExecutor = leftExpressionExecutor;
         this.rightExpressionExecutor = rightExpressionExecutor;
+        this.primitiveExecution = primitiveExecution;
+    }
+
+    public ExpressionExecutor getLeftExpressionExecutor() {
+        return leftExpressionExecutor;
+    }
+
+    public ExpressionExecutor getRightExpressionExecutor() {
+        return rightExpressionExecutor;
     }
 
     @Override
     public Object execute(ComplexEvent event) {
+        if (primitiveExecution) {
+            if (leftExpressionExecutor.isNull(event) || rightExpressionExecutor.isNull(event)) {
+                return null;
+            }
+            return executeFloat(event);
+        }
         Object leftObject = leftExpressionExecutor.execute(event);
         Object rightObject = rightExpressionExecutor.execute(event);
         if (leftObject == null || rightObject == null) {
@@ -42,13 +64,47 @@ public class SubtractExpressionExecutorFloat implements ExpressionExecutor {
         return ((Number) leftObject).floatValue() - ((Number) rightObject).floatValue();
     }
 
+    @Override
+    public boolean isPrimitiveExecutable() {
+        return primitiveExecution;
+    }
+
+    @Override
+    public boolean isNull(ComplexEvent event) {
+        if (primitiveExecution) {
+            return leftExpressionExecutor.isNull(event) || rightExpressionExecutor.isNull(event);
+        }
+        return execute(event) == null;
+    }
+
+    @Override
+    public float executeFloat(ComplexEvent event) {
+        return leftExpressionExecutor.executeFloat(event) - rightExpressionExecutor.executeFloat(event);
+    }
+
+    @Override
+    public int executeInt(ComplexEvent event) {
+        return (int) executeFloat(event);
+    }
+
+    @Override
+    public long executeLong(ComplexEvent event) {
+        return (long) executeFloat(event);
+    }
+
+    @Override
+    public double executeDouble(ComplexEvent event) {
+        return executeFloat(event);
+    }
+
     public Attribute.Type getReturnType() {
         return Attribute.Type.FLOAT;
     }
 
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
-        return new SubtractExpressionExecutorFloat(leftExpressionExecutor.cloneExecutor(key), rightExpressionExecutor.cloneExecutor(key));
+        return new SubtractExpressionExecutorFloat(leftExpressionExecutor.cloneExecutor(key), rightExpressionExecutor.cloneExecutor(key),
+                primitiveExecution);
     }
 
 }
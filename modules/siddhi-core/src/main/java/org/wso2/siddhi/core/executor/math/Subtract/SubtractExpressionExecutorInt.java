@@ -19,21 +19,43 @@ package org.wso2.siddhi.core.executor.math.Subtract;
 
 import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.executor.math.MathExpressionExecutor;
 import org.wso2.siddhi.query.api.definition.Attribute;
 
-public class SubtractExpressionExecutorInt implements ExpressionExecutor {
+public class SubtractExpressionExecutorInt implements MathExpressionExecutor {
     private ExpressionExecutor leftExpressionExecutor;
     private ExpressionExecutor rightExpressionExecutor;
+    private boolean primitiveExecution;
 
 
     public SubtractExpressionExecutorInt(ExpressionExecutor leftExpressionExecutor,
                                          ExpressionExecutor rightExpressionExecutor) {
+        this(leftExpressionExecutor, rightExpressionExecutor, false);
+    }
+
+    public SubtractExpressionExecutorInt(ExpressionExecutor leftExpressionExecutor,
+                                         ExpressionExecutor rightExpressionExecutor, boolean primitiveExecution) {
         this.leftExpressionExecutor = leftExpressionExecutor;
         this.rightExpressionExecutor = rightExpressionExecutor;
+        this.primitiveExecution = primitiveExecution;
+    }
+
+    public ExpressionExecutor getLeftExpressionExecutor() {
+        return leftExpressionExecutor;
+    }
+
+    public ExpressionExecutor getRightExpressionExecutor() {
+        return rightExpressionExecutor;
     }
 
     @Override
     public Object execute(ComplexEvent event) {
+        if (primitiveExecution) {
+            if (leftExpressionExecutor.isNull(event) || rightExpressionExecutor.isNull(event)) {
+                return null;
+            }
+            return executeInt(event);
+        }
         Object leftObject = leftExpressionExecutor.execute(event);
         Object rightObject = rightExpressionExecutor.execute(event);
         if (leftObject == null || rightObject == null) {
@@ -42,13 +64,47 @@ public class SubtractExpressionExecutorInt implements ExpressionExecutor {
         return ((Number) leftObject).intValue() - ((Number) rightObject).intValue();
     }
 
+    @Override
+    public boolean isPrimitiveExecutable() {
+        return primitiveExecution;
+    }
+
+    @Override
+    public boolean isNull(ComplexEvent event) {
+        if (primitiveExecution) {
+            return leftExpressionExecutor.isNull(event) || rightExpressionExecutor.isNull(event);
+        }
+        return execute(event) == null;
+    }
+
+    @Override
+    public int executeInt(ComplexEvent event) {
+        return leftExpressionExecutor.executeInt(event) - rightExpressionExecutor.executeInt(event);
+    }
+
+    @Override
+    public long executeLong(ComplexEvent event) {
+        return executeInt(event);
+    }
+
+    @Override
+    public float executeFloat(ComplexEvent event) {
+        return executeInt(event);
+    }
+
+    @Override
+    public double executeDouble(ComplexEvent event) {
+        return executeInt(event);
+    }
+
     public Attribute.Type getReturnType() {
         return Attribute.Type.INT;
     }
 
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
-        return new SubtractExpressionExecutorInt(leftExpressionExecutor.cloneExecutor(key), rightExpressionExecutor.cloneExecutor(key));
+        return new SubtractExpressionExecutorInt(leftExpressionExecutor.cloneExecutor(key), rightExpressionExecutor.cloneExecutor(key),
+                primitiveExecution);
     }
 
 }
@@ -19,21 +19,43 @@ package org.wso2.siddhi.core.executor.math.Subtract;
 
 import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.executor.math.MathExpressionExecutor;
 import org.wso2.siddhi.query.api.definition.Attribute;
 
-public class SubtractExpressionExecutorLong implements ExpressionExecutor {
+public class SubtractExpressionExecutorLong implements MathExpressionExecutor {
     private ExpressionExecutor leftExpressionExecutor;
     private ExpressionExecutor rightExpressionExecutor;
+    private boolean primitiveExecution;
 
 
     public SubtractExpressionExecutorLong(ExpressionExecutor leftExpressionExecutor,
                                           ExpressionExecutor rightExpressionExecutor) {
+        this(leftExpressionExecutor, rightExpressionExecutor, false);
+    }
+
+    public SubtractExpressionExecutorLong(ExpressionExecutor leftExpressionExecutor,
+                                          ExpressionExecutor rightExpressionExecutor, boolean primitiveExecution) {
         this.leftExpressionExecutor = leftExpressionExecutor;
         this.rightExpressionExecutor = rightExpressionExecutor;
+        this.primitiveExecution = primitiveExecution;
+    }
+
+    public ExpressionExecutor getLeftExpressionExecutor() {
+        return leftExpressionExecutor;
+    }
+
+    public ExpressionExecutor getRightExpressionExecutor() {
+        return rightExpressionExecutor;
     }
 
     @Override
     public Object execute(ComplexEvent event) {
+        if (primitiveExecution) {
+            if (leftExpressionExecutor.isNull(event) || rightExpressionExecutor.isNull(event)) {
+                return null;
+            }
+            return executeLong(event);
+        }
         Object leftObject = leftExpressionExecutor.execute(event);
         Object rightObject = rightExpressionExecutor.execute(event);
         if (leftObject == null || rightObject == null) {
@@ -42,13 +64,47 @@ public class SubtractExpressionExecutorLong implements ExpressionExecutor {
         return ((Number) leftObject).longValue() - ((Number) rightObject).longValue();
     }
 
+    @Override
+    public boolean isPrimitiveExecutable() {
+        return primitiveExecution;
+    }
+
+    @Override
+    public boolean isNull(ComplexEvent event) {
+        if (primitiveExecution) {
+            return leftExpressionExecutor.isNull(event) || rightExpressionExecutor.isNull(event);
+        }
+        return execute(event) == null;
+    }
+
+    @Override
+    public long executeLong(ComplexEvent event) {
+        return leftExpressionExecutor.executeLong(event) - rightExpressionExecutor.executeLong(event);
+    }
+
+    @Override
+    public int executeInt(ComplexEvent event) {
+        return (int) executeLong(event);
+    }
+
+    @Override
+    public float executeFloat(ComplexEvent event) {
+        return executeLong(event);
+    }
+
+    @Override
+    public double executeDouble(ComplexEvent event) {
+        return executeLong(event);
+    }
+
     public Attribute.Type getReturnType() {
         return Attribute.Type.LONG;
     }
 
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
-        return new SubtractExpressionExecutorLong(leftExpressionExecutor.cloneExecutor(key), rightExpressionExecutor.cloneExecutor(key));
+        return new SubtractExpressionExecutorLong(leftExpressionExecutor.cloneExecutor(key), rightExpressionExecutor.cloneExecutor(key),
+                primitiveExecution);
     }
 
 }
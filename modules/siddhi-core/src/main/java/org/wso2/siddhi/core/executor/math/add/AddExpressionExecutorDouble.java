@@ -19,21 +19,43 @@ package org.wso2.siddhi.core.executor.math.add;
 
 import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.executor.math.MathExpressionExecutor;
 import org.wso2.siddhi.query.api.definition.Attribute;
 
-public class AddExpressionExecutorDouble implements ExpressionExecutor {
+public class AddExpressionExecutorDouble implements MathExpressionExecutor {
     private ExpressionExecutor leftExpressionExecutor;
     private ExpressionExecutor rightExpressionExecutor;
+    private boolean primitiveExecution;
 
 
     public AddExpressionExecutorDouble(ExpressionExecutor leftExpressionExecutor,
                                        ExpressionExecutor rightExpressionExecutor) {
+        this(leftExpressionExecutor, rightExpressionExecutor, false);
+    }
+
+    public AddExpressionExecutorDouble(ExpressionExecutor leftExpressionExecutor,
+                                       ExpressionExecutor rightExpressionExecutor, boolean primitiveExecution) {
         this.leftExpressionExecutor = leftExpressionExecutor;
         this.rightExpressionExecutor = rightExpressionExecutor;
+        this.primitiveExecution = primitiveExecution;
+    }
+
+    public ExpressionExecutor getLeftExpressionExecutor() {
+        return leftExpressionExecutor;
+    }
+
+    public ExpressionExecutor getRightExpressionExecutor() {
+        return rightExpressionExecutor;
     }
 
     @Override
     public Object execute(ComplexEvent event) {
+        if (primitiveExecution) {
+            if (leftExpressionExecutor.isNull(event) || rightExpressionExecutor.isNull(event)) {
+                return null;
+            }
+            return executeDouble(event);
+        }
         Object leftObject = leftExpressionExecutor.execute(event);
         Object rightObject = rightExpressionExecutor.execute(event);
         if (leftObject == null || rightObject == null) {
@@ -42,13 +64,47 @@ public class AddExpressionExecutorDouble implements ExpressionExecutor {
         return ((Number) leftObject).doubleValue() + ((Number) rightObject).doubleValue();
     }
 
+    @Override
+    public boolean isPrimitiveExecutable() {
+        return primitiveExecution;
+    }
+
+    @Override
+    public boolean isNull(ComplexEvent event) {
+        if (primitiveExecution) {
+            return leftExpressionExecutor.isNull(event) || rightExpressionExecutor.isNull(event);
+        }
+        return execute(event) == null;
+    }
+
+    @Override
+    public double executeDouble(ComplexEvent event) {
+        return leftExpressionExecutor.executeDouble(event) + rightExpressionExecutor.executeDouble(event);
+    }
+
+    @Override
+    public int executeInt(ComplexEvent event) {
+        return (int) executeDouble(event);
+    }
+
+    @Override
+    public long executeLong(ComplexEvent event) {
+        return (long) executeDouble(event);
+    }
+
+    @Override
+    public float executeFloat(ComplexEvent event) {
+        return (float) executeDouble(event);
+    }
+
     public Attribute.Type getReturnType() {
         return Attribute.Type.DOUBLE;
     }
 
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
-        return new AddExpressionExecutorDouble(leftExpressionExecutor.cloneExecutor(key), rightExpressionExecutor.cloneExecutor(key));
+        return new AddExpressionExecutorDouble(leftExpressionExecutor.cloneExecutor(key), rightExpressionExecutor.cloneExecutor(key),
+                primitiveExecution);
     }
 
 }
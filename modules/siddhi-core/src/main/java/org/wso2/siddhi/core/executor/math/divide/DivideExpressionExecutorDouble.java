@@ -19,21 +19,49 @@ package org.wso2.siddhi.core.executor.math.divide;
 
 import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.executor.math.MathExpressionExecutor;
 import org.wso2.siddhi.query.api.definition.Attribute;
 
-public class DivideExpressionExecutorDouble implements ExpressionExecutor {
+public class DivideExpressionExecutorDouble implements MathExpressionExecutor {
     private ExpressionExecutor leftExpressionExecutor;
     private ExpressionExecutor rightExpressionExecutor;
+    private boolean primitiveExecution;
+    private boolean constantDivisor;
 
 
     public DivideExpressionExecutorDouble(ExpressionExecutor leftExpressionExecutor,
                                           ExpressionExecutor rightExpressionExecutor) {
+        this(leftExpressionExecutor, rightExpressionExecutor, false);
+    }
+
+    public DivideExpressionExecutorDouble(ExpressionExecutor leftExpressionExecutor,
+                                          ExpressionExecutor rightExpressionExecutor, boolean primitiveExecution) {
         this.leftExpressionExecutor = leftExpressionExecutor;
         this.rightExpressionExecutor = rightExpressionExecutor;
+        this.primitiveExecution = primitiveExecution;
+        this.constantDivisor = primitiveExecution && MathExpressionExecutor.isNonZeroConstant(rightExpressionExecutor);
+    }
+
+    public ExpressionExecutor getLeftExpressionExecutor() {
+        return leftExpressionExecutor;
+    }
+
+    public ExpressionExecutor getRightExpressionExecutor() {
+        return rightExpressionExecutor;
     }
 
     @Override
     public Object execute(ComplexEvent event) {
+        if (primitiveExecution) {
+            if (leftExpressionExecutor.isNull(event) || rightExpressionExecutor.isNull(event)) {
+                return null;
+            }
+            double right = rightExpressionExecutor.executeDouble(event);
+            if (right == 0.0) {
+                return null;
+            }
+            return leftExpressionExecutor.executeDouble(event) / right;
+        }
         Object leftObject = leftExpressionExecutor.execute(event);
         Object rightObject = rightExpressionExecutor.execute(event);
         if (leftObject == null || rightObject == null) {
@@ -47,13 +75,47 @@ public class DivideExpressionExecutorDouble implements ExpressionExecutor {
 
     }
 
+    @Override
+    public boolean isPrimitiveExecutable() {
+        return constantDivisor;
+    }
+
+    @Override
+    public boolean isNull(ComplexEvent event) {
+        if (constantDivisor) {
+            return leftExpressionExecutor.isNull(event);
+        }
+        return execute(event) == null;
+    }
+
+    @Override
+    public double executeDouble(ComplexEvent event) {
+        return leftExpressionExecutor.executeDouble(event) / rightExpressionExecutor.executeDouble(event);
+    }
+
+    @Override
+    public int executeInt(ComplexEvent event) {
+        return (int) executeDouble(event);
+    }
+
+    @Override
+    public long executeLong(ComplexEvent event) {
+        return (long) executeDouble(event);
+    }
+
+    @Override
+    public float executeFloat(ComplexEvent event) {
+        return (float) executeDouble(event);
+    }
+
     public Attribute.Type getReturnType() {
         return Attribute.Type.DOUBLE;
     }
 
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
-        return new DivideExpressionExecutorDouble(leftExpressionExecutor.cloneExecutor(key), rightExpressionExecutor.cloneExecutor(key));
+        return new DivideExpressionExecutorDouble(leftExpressionExecutor.cloneExecutor(key), rightExpressionExecutor.cloneExecutor(key),
+                primitiveExecution);
     }
 
 }
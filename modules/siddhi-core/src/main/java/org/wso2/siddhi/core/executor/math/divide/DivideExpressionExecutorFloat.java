@@ -19,21 +19,49 @@ package org.wso2.siddhi.core.executor.math.divide;
 
 import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.executor.math.MathExpressionExecutor;
 import org.wso2.siddhi.query.api.definition.Attribute;
 
-public class DivideExpressionExecutorFloat implements ExpressionExecutor {
+public class DivideExpressionExecutorFloat implements MathExpressionExecutor {
     private ExpressionExecutor leftExpressionExecutor;
     private ExpressionExecutor rightExpressionExecutor;
+    private boolean primitiveExecution;
+    private boolean constantDivisor;
 
 
     public DivideExpressionExecutorFloat(ExpressionExecutor leftExpressionExecutor,
                                          ExpressionExecutor rightExpressionExecutor) {
+        this(leftExpressionExecutor, rightExpressionExecutor, false);
+    }
+
+    public DivideExpressionExecutorFloat(ExpressionExecutor leftExpressionExecutor,
+                                         ExpressionExecutor rightExpressionExecutor, boolean primitiveExecution) {
         this.leftExpressionExecutor = leftExpressionExecutor;
         this.rightExpressionExecutor = rightExpressionExecutor;
+        this.primitiveExecution = primitiveExecution;
+        this.constantDivisor = primitiveExecution && MathExpressionExecutor.isNonZeroConstant(rightExpressionExecutor);
+    }
+
+    public ExpressionExecutor getLeftExpressionExecutor() {
+        return leftExpressionExecutor;
+    }
+
+    public ExpressionExecutor getRightExpressionExecutor() {
+        return rightExpressionExecutor;
     }
 
     @Override
     public Object execute(ComplexEvent event) {
+        if (primitiveExecution) {
+            if (leftExpressionExecutor.isNull(event) || rightExpressionExecutor.isNull(event)) {
+                return null;
+            }
+            float right = rightExpressionExecutor.executeFloat(event);
+            if (right == 0.0f) {
+                return null;
+            }
+            return leftExpressionExecutor.executeFloat(event) / right;
+        }
         Object leftObject = leftExpressionExecutor.execute(event);
         Object rightObject = rightExpressionExecutor.execute(event);
         if (leftObject == null || rightObject == null) {
@@ -46,13 +74,47 @@ public class DivideExpressionExecutorFloat implements ExpressionExecutor {
         return ((Number) leftObject).floatValue() / right;
     }
 
+    @Override
+    public boolean isPrimitiveExecutable() {
+        return constantDivisor;
+    }
+
+    @Override
+    public boolean isNull(ComplexEvent event) {
+        if (constantDivisor) {
+            return leftExpressionExecutor.isNull(event);
+        }
+        return execute(event) == null;
+    }
+
+    @Override
+    public float executeFloat(ComplexEvent event) {
+        return leftExpressionExecutor.executeFloat(event) / rightExpressionExecutor.executeFloat(event);
+    }
+
+    @Override
+    public int executeInt(ComplexEvent event) {
+        return (int) executeFloat(event);
+    }
+
+    @Override
+    public long executeLong(ComplexEvent event) {
+        return (long) executeFloat(event);
+    }
+
+    @Override
+    public double executeDouble(ComplexEvent event) {
+        return executeFloat(event);
+    }
+
     public Attribute.Type getReturnType() {
         return Attribute.Type.FLOAT;
     }
 
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
-        return new DivideExpressionExecutorFloat(leftExpressionExecutor.cloneExecutor(key), rightExpressionExecutor.cloneExecutor(key));
+        return new DivideExpressionExecutorFloat(leftExpressionExecutor.cloneExecutor(key), rightExpressionExecutor.cloneExecutor(key),
+                primitiveExecution);
     }
 
 }
@@ -19,21 +19,49 @@ package org.wso2.siddhi.core.executor.math.divide;
 
 import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.executor.math.MathExpressionExecutor;
 import org.wso2.siddhi.query.api.definition.Attribute;
 
-public class DivideExpressionExecutorInt implements ExpressionExecutor {
+public class DivideExpressionExecutorInt implements MathExpressionExecutor {
     private ExpressionExecutor leftExpressionExecutor;
     private ExpressionExecutor rightExpressionExecutor;
+    private boolean primitiveExecution;
+    private boolean constantDivisor;
 
 
     public DivideExpressionExecutorInt(ExpressionExecutor leftExpressionExecutor,
                                        ExpressionExecutor rightExpressionExecutor) {
+        this(leftExpressionExecutor, rightExpressionExecutor, false);
+    }
+
+    public DivideExpressionExecutorInt(ExpressionExecutor leftExpressionExecutor,
+                                       ExpressionExecutor rightExpressionExecutor, boolean primitiveExecution) {
         this.leftExpressionExecutor = leftExpressionExecutor;
         this.rightExpressionExecutor = rightExpressionExecutor;
+        this.primitiveExecution = primitiveExecution;
+        this.constantDivisor = primitiveExecution && MathExpressionExecutor.isNonZeroConstant(rightExpressionExecutor);
+    }
+
+    public ExpressionExecutor getLeftExpressionExecutor() {
+        return leftExpressionExecutor;
+    }
+
+    public ExpressionExecutor getRightExpressionExecutor() {
+        return rightExpressionExecutor;
     }
 
     @Override
     public Object execute(ComplexEvent event) {
+        if (primitiveExecution) {
+            if (leftExpressionExecutor.isNull(event) || rightExpressionExecutor.isNull(event)) {
+                return null;
+            }
+            int right = rightExpressionExecutor.executeInt(event);
+            if (right == 0) {
+                return null;
+            }
+            return leftExpressionExecutor.executeInt(event) / right;
+        }
         Object leftObject = leftExpressionExecutor.execute(event);
         Object rightObject = rightExpressionExecutor.execute(event);
         if (leftObject == null || rightObject == null) {
@@ -46,13 +74,47 @@ public class DivideExpressionExecutorInt implements ExpressionExecutor {
         return  ((Number) leftObject).intValue() / right;
     }
 
+    @Override
+    public boolean isPrimitiveExecutable() {
+        return constantDivisor;
+    }
+
+    @Override
+    public boolean isNull(ComplexEvent event) {
+        if (constantDivisor) {
+            return leftExpressionExecutor.isNull(event);
+        }
+        return execute(event) == null;
+    }
+
+    @Override
+    public int executeInt(ComplexEvent event) {
+        return leftExpressionExecutor.executeInt(event) / rightExpressionExecutor.executeInt(event);
+    }
+
+    @Override
+    public long executeLong(ComplexEvent event) {
+        return executeInt(event);
+    }
+
+    @Override
+    public float executeFloat(ComplexEvent event) {
+        return executeInt(event);
+    }
+
+    @Override
+    public double executeDouble(ComplexEvent event) {
+        return executeInt(event);
+    }
+
     public Attribute.Type getReturnType() {
         return Attribute.Type.INT;
     }
 
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
-        return new DivideExpressionExecutorInt(leftExpressionExecutor.cloneExecutor(key), rightExpressionExecutor.cloneExecutor(key));
+        return new DivideExpressionExecutorInt(leftExpressionExecutor.cloneExecutor(key), rightExpressionExecutor.cloneExecutor(key),
+                primitiveExecution);
     }
 
 }
@@ -19,21 +19,49 @@ package org.wso2.siddhi.core.executor.math.divide;
 
 import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.executor.math.MathExpressionExecutor;
 import org.wso2.siddhi.query.api.definition.Attribute;
 
-public class DivideExpressionExecutorLong implements ExpressionExecutor {
+public class DivideExpressionExecutorLong implements MathExpressionExecutor {
     private ExpressionExecutor leftExpressionExecutor;
     private ExpressionExecutor rightExpressionExecutor;
+    private boolean primitiveExecution;
+    private boolean constantDivisor;
 
 
     public DivideExpressionExecutorLong(ExpressionExecutor leftExpressionExecutor,
                                         ExpressionExecutor rightExpressionExecutor) {
+        this(leftExpressionExecutor, rightExpressionExecutor, false);
+    }
+
+    public DivideExpressionExecutorLong(ExpressionExecutor leftExpressionExecutor,
+                                        ExpressionExecutor rightExpressionExecutor, boolean primitiveExecution) {
         this.leftExpressionExecutor = leftExpressionExecutor;
         this.rightExpressionExecutor = rightExpressionExecutor;
+        this.primitiveExecution = primitiveExecution;
+        this.constantDivisor = primitiveExecution && MathExpressionExecutor.isNonZeroConstant(rightExpressionExecutor);
+    }
+
+    public ExpressionExecutor getLeftExpressionExecutor() {
+        return leftExpressionExecutor;
+    }
+
+    public ExpressionExecutor getRightExpressionExecutor() {
+        return rightExpressionExecutor;
     }
 
     @Override
     public Object execute(ComplexEvent event) {
+        if (primitiveExecution) {
+            if (leftExpressionExecutor.isNull(event) || rightExpressionExecutor.isNull(event)) {
+                return null;
+            }
+            long right = rightExpressionExecutor.executeLong(event);
+            if (right == 0L) {
+                return null;
+            }
+            return leftExpressionExecutor.executeLong(event) / right;
+        }
         Object leftObject = leftExpressionExecutor.execute(event);
         Object rightObject = rightExpressionExecutor.execute(event);
         if (leftObject == null || rightObject == null) {
@@ -46,13 +74,47 @@ public class DivideExpressionExecutorLong implements ExpressionExecutor {
         return ((Number) leftObject).longValue() / right;
     }
 
+    @Override
+    public boolean isPrimitiveExecutable() {
+        return constantDivisor;
+    }
+
+    @Override
+    public boolean isNull(ComplexEvent event) {
+        if (constantDivisor) {
+            return leftExpressionExecutor.isNull(event);
+        }
+        return execute(event) == null;
+    }
+
+    @Override
+    public long executeLong(ComplexEvent event) {
+        return leftExpressionExecutor.executeLong(event) / rightExpressionExecutor.executeLong(event);
+    }
+
+    @Override
+    public int executeInt(ComplexEvent event) {
+        return (int) executeLong(event);
+    }
+
+    @Override
+    public float executeFloat(ComplexEvent event) {
+        return executeLong(event);
+    }
+
+    @Override
+    public double executeDouble(ComplexEvent event) {
+        return executeLong(event);
+    }
+
     public Attribute.Type getReturnType() {
         return Attribute.Type.LONG;
     }
 
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
-        return new DivideExpressionExecutorLong(leftExpressionExecutor.cloneExecutor(key), rightExpressionExecutor.cloneExecutor(key));
+        return new DivideExpressionExecutorLong(leftExpressionExecutor.cloneExecutor(key), rightExpressionExecutor.cloneExecutor(key),
+                primitiveExecution);
     }
 
 }
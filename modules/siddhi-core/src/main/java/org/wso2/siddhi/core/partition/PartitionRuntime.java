@@ -31,6 +31,7 @@ import org.wso2.siddhi.core.query.output.callback.InsertIntoStreamCallback;
 import org.wso2.siddhi.core.stream.StreamJunction;
 import org.wso2.siddhi.core.util.parser.helper.DefinitionParserHelper;
 import org.wso2.siddhi.core.util.snapshot.Snapshotable;
+import org.wso2.siddhi.core.util.statistics.memory.MemoryAccountable;
 import org.wso2.siddhi.query.api.annotation.Element;
 import org.wso2.siddhi.query.api.definition.AbstractDefinition;
 import org.wso2.siddhi.query.api.definition.StreamDefinition;
@@ -51,7 +52,7 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-public class PartitionRuntime implements Snapshotable {
+public class PartitionRuntime implements Snapshotable, MemoryAccountable {
 
 
     private String partitionId;
@@ -273,4 +274,48 @@ public class PartitionRuntime implements Snapshotable {
     public String getElementId() {
         return elementId;
     }
+
+    @Override
+    public long getRetainedEventCount() {
+        long count = 0;
+        for (MemoryAccountable memoryAccountable : getMemoryAccountables()) {
+            count += memoryAccountable.getRetainedEventCount();
+        }
+        return count;
+    }
+
+    @Override
+    public long getRetainedMemorySize() {
+        long size = 0;
+        for (MemoryAccountable memoryAccountable : getMemoryAccountables()) {
+            size += memoryAccountable.getRetainedMemorySize();
+        }
+        return size;
+    }
+
+    @Override
+    public boolean isAccountable() {
+        for (PartitionInstanceRuntime partitionInstanceRuntime : partitionInstanceRuntimeMap.values()) {
+            for (QueryRuntime queryRuntime : partitionInstanceRuntime.getQueryRuntimeList()) {
+                if (!queryRuntime.isAccountable()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the accounts of all the partition instances, with the tables shared by the instances only once
+     */
+    private Set<MemoryAccountable> getMemoryAccountables() {
+        Set<MemoryAccountable> memoryAccountables = Collections.newSetFromMap(
+                new IdentityHashMap<MemoryAccountable, Boolean>());
+        for (PartitionInstanceRuntime partitionInstanceRuntime : partitionInstanceRuntimeMap.values()) {
+            for (QueryRuntime queryRuntime : partitionInstanceRuntime.getQueryRuntimeList()) {
+                memoryAccountables.addAll(queryRuntime.getMemoryAccountables());
+            }
+        }
+        return memoryAccountables;
+    }
 }
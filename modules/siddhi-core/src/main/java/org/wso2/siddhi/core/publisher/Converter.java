@@ -19,26 +19,27 @@
 package org.wso2.siddhi.core.publisher;
 
 import org.wso2.siddhi.core.event.Event;
-import org.wso2.siddhi.core.exception.NoSuchAttributeException;
 import org.wso2.siddhi.query.api.definition.StreamDefinition;
 
-import java.text.MessageFormat;
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
+/**
+ * Maps events to strings based on a template referring attributes as {{attributeName}}. The template is compiled
+ * once into a {@link MappingTemplate}.
+ */
 public class Converter {
-    private static final Pattern DYNAMIC_PATTERN = Pattern.compile("(\\{\\{[^{}]*}})|[{}]");
-    private String template;
+    private final MappingTemplate template;
 
     public Converter(StreamDefinition streamDefinition, String template) {
-        this.template = parse(streamDefinition, template);
+        this.template = MappingTemplate.compile(streamDefinition, template);
     }
 
     public static Map<String, String> convert(Event event, Map<String, Converter> converterMap) {
+        if (converterMap.isEmpty()) {
+            return Collections.emptyMap();
+        }
         Map<String, String> mapped = new HashMap<String, String>();
         for (Map.Entry<String, Converter> entry : converterMap.entrySet()) {
             mapped.put(entry.getKey(), entry.getValue().map(event));
@@ -57,28 +58,10 @@ public class Converter {
     }
 
     public String map(Event event) {
-        return MessageFormat.format(template, event.getData());
+        return template.render(event);
     }
 
-    private String parse(StreamDefinition streamDefinition, String template) {
-        // note: currently we do not support arbitrary data to be mapped with dynamic options
-        List<String> attributes = Arrays.asList(streamDefinition.getAttributeNameArray());
-        StringBuffer result = new StringBuffer();
-        Matcher m = DYNAMIC_PATTERN.matcher(template);
-        while (m.find()) {
-            if (m.group(1) != null) {
-                int attrIndex = attributes.indexOf(m.group(1).replaceAll("\\p{Ps}", "").replaceAll("\\p{Pe}", ""));
-                if (attrIndex >= 0) {
-                    m.appendReplacement(result, String.format("{%s}", attrIndex));
-                } else {
-                    throw new NoSuchAttributeException(String.format("Attribute : %s does not exist in %s.",
-                            m.group(1), streamDefinition));
-                }
-            } else {
-                m.appendReplacement(result, "'" + m.group() + "'");
-            }
-        }
-        m.appendTail(result);
-        return result.toString();
+    public MappingTemplate getTemplate() {
+        return template;
     }
 }
@@ -0,0 +1,326 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.publisher;
+
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.exception.NoSuchAttributeException;
+import org.wso2.siddhi.query.api.definition.StreamDefinition;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Mapping template compiled once into a sequence of literal and attribute slot segments. Events are rendered by
+ * appending the literals and the attribute values of the event, without parsing the template per event.
+ * <p>
+ * Templates refer to attributes as {{attributeName}}.
+ */
+public class MappingTemplate {
+    private static final String SLOT_START = "{{";
+    private static final String SLOT_END = "}}";
+    private static final ThreadLocal<StringBuilder> BUFFER = new ThreadLocal<StringBuilder>() {
+        @Override
+        protected StringBuilder initialValue() {
+            return new StringBuilder(256);
+        }
+    };
+    private static final ThreadLocal<Utf8Encoder> ENCODER = new ThreadLocal<Utf8Encoder>() {
+        @Override
+        protected Utf8Encoder initialValue() {
+            return new Utf8Encoder();
+        }
+    };
+
+    /**
+     * How attribute values are written into the rendered output.
+     */
+    public enum Encoding {
+        /**
+         * Value as returned by String.valueOf
+         */
+        NONE,
+        /**
+         * Numbers and booleans as is, nulls as JSON null and other values, including NaN and infinite numbers, as
+         * quoted JSON strings escaped the way Gson does by default, i.e. with HTML characters escaped
+         */
+        JSON,
+        /**
+         * Values escaped as XML text, nulls as empty text
+         */
+        XML
+    }
+
+    // literals[i] is written before the attribute of attributePositions[i], the last literal is written at the end
+    private final String[] literals;
+    private final int[] attributePositions;
+    private final Encoding[] encodings;
+
+    private MappingTemplate(String[] literals, int[] attributePositions, Encoding[] encodings) {
+        this.literals = literals;
+        this.attributePositions = attributePositions;
+        this.encodings = encodings;
+    }
+
+    /**
+     * Compiles the given template against the stream definition.
+     *
+     * @param streamDefinition definition of the events to be rendered
+     * @param template         template referring attributes as {{attributeName}}
+     * @return the compiled template, rendering attribute values without encoding
+     * @throws NoSuchAttributeException if the template refers to an attribute that is not in the stream
+     */
+    public static MappingTemplate compile(StreamDefinition streamDefinition, String template) {
+        return new Builder().template(streamDefinition, template).build();
+    }
+
+    /**
+     * Returns the calling thread's reusable buffer, cleared. The buffer must not be held across calls that may
+     * use it again, such as {@link #render(Event)}.
+     *
+     * @return empty thread local buffer
+     */
+    public static StringBuilder getBuffer() {
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        return buffer;
+    }
+
+    /**
+     * Appends the rendered event to the given buffer.
+     *
+     * @param event  event to be rendered
+     * @param buffer buffer to append to
+     */
+    public void appendTo(Event event, StringBuilder buffer) {
+        Object[] data = event.getData();
+        for (int i = 0; i < attributePositions.length; i++) {
+            buffer.append(literals[i]);
+            append(data[attributePositions[i]], encodings[i], buffer);
+        }
+        buffer.append(literals[attributePositions.length]);
+    }
+
+    /**
+     * @param event event to be rendered
+     * @return the rendered event
+     */
+    public String render(Event event) {
+        StringBuilder buffer = getBuffer();
+        appendTo(event, buffer);
+        return buffer.toString();
+    }
+
+    /**
+     * Renders the event through the thread local buffers and returns its UTF-8 bytes.
+     *
+     * @param event event to be rendered
+     * @return UTF-8 encoded rendered event
+     */
+    public byte[] renderBytes(Event event) {
+        StringBuilder buffer = getBuffer();
+        appendTo(event, buffer);
+        return ENCODER.get().encode(buffer);
+    }
+
+    private static void append(Object value, Encoding encoding, StringBuilder buffer) {
+        switch (encoding) {
+            case JSON:
+                if (value == null) {
+                    buffer.append("null");
+                } else if (value instanceof Boolean || (value instanceof Number && isFinite((Number) value))) {
+                    buffer.append(value);
+                } else {
+                    appendJsonString(value.toString(), buffer);
+                }
+                break;
+            case XML:
+                if (value != null) {
+                    appendXmlText(value.toString(), buffer);
+                }
+                break;
+            default:
+                buffer.append(value);
+        }
+    }
+
+    private static boolean isFinite(Number value) {
+        if (value instanceof Double) {
+            return !((Double) value).isNaN() && !((Double) value).isInfinite();
+        } else if (value instanceof Float) {
+            return !((Float) value).isNaN() && !((Float) value).isInfinite();
+        }
+        return true;
+    }
+
+    private static void appendJsonString(String value, StringBuilder buffer) {
+        buffer.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    buffer.append("\\\"");
+                    break;
+                case '\\':
+                    buffer.append("\\\\");
+                    break;
+                case '\n':
+                    buffer.append("\\n");
+                    break;
+                case '\r':
+                    buffer.append("\\r");
+                    break;
+                case '\t':
+                    buffer.append("\\t");
+                    break;
+                case '<':
+                case '>':
+                case '&':
+                case '=':
+                case '\'':
+                case '\u2028':
+                case '\u2029':
+                    buffer.append(String.format("\\u%04x", (int) c));
+                    break;
+                default:
+                    if (c < 0x20) {
+                        buffer.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        buffer.append(c);
+                    }
+            }
+        }
+        buffer.append('"');
+    }
+
+    private static void appendXmlText(String value, StringBuilder buffer) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<':
+                    buffer.append("&lt;");
+                    break;
+                case '>':
+                    buffer.append("&gt;");
+                    break;
+                case '&':
+                    buffer.append("&amp;");
+                    break;
+                default:
+                    buffer.append(c);
+            }
+        }
+    }
+
+    /**
+     * Builds templates programmatically, i.e. for the default mappings of the mappers.
+     */
+    public static class Builder {
+        private List<String> literals = new ArrayList<String>();
+        private List<Integer> attributePositions = new ArrayList<Integer>();
+        private List<Encoding> encodings = new ArrayList<Encoding>();
+        private StringBuilder currentLiteral = new StringBuilder();
+
+        public Builder literal(String literal) {
+            currentLiteral.append(literal);
+            return this;
+        }
+
+        /**
+         * Appends the segments of the given template, referring attributes as {{attributeName}}.
+         *
+         * @param streamDefinition definition of the events to be rendered
+         * @param template         template to be appended
+         * @return this builder
+         * @throws NoSuchAttributeException if the template refers to an attribute that is not in the stream
+         */
+        public Builder template(StreamDefinition streamDefinition, String template) {
+            // note: currently we do not support arbitrary data to be mapped with dynamic options
+            List<String> attributes = Arrays.asList(streamDefinition.getAttributeNameArray());
+            int index = 0;
+            while (index < template.length()) {
+                int slotStart = template.indexOf(SLOT_START, index);
+                int slotEnd = (slotStart < 0) ? -1 : template.indexOf(SLOT_END, slotStart + SLOT_START.length());
+                if (slotEnd < 0) {
+                    literal(template.substring(index));
+                    break;
+                }
+                literal(template.substring(index, slotStart));
+                String attributeName = template.substring(slotStart + SLOT_START.length(), slotEnd);
+                int attributePosition = attributes.indexOf(attributeName);
+                if (attributePosition < 0) {
+                    throw new NoSuchAttributeException(String.format("Attribute : %s does not exist in %s.",
+                            SLOT_START + attributeName + SLOT_END, streamDefinition));
+                }
+                attribute(attributePosition, Encoding.NONE);
+                index = slotEnd + SLOT_END.length();
+            }
+            return this;
+        }
+
+        public Builder attribute(int attributePosition, Encoding encoding) {
+            literals.add(currentLiteral.toString());
+            currentLiteral.setLength(0);
+            attributePositions.add(attributePosition);
+            encodings.add(encoding);
+            return this;
+        }
+
+        public MappingTemplate build() {
+            String[] literalArray = literals.toArray(new String[literals.size() + 1]);
+            literalArray[literals.size()] = currentLiteral.toString();
+            int[] positionArray = new int[attributePositions.size()];
+            for (int i = 0; i < positionArray.length; i++) {
+                positionArray[i] = attributePositions.get(i);
+            }
+            return new MappingTemplate(literalArray, positionArray,
+                    encodings.toArray(new Encoding[encodings.size()]));
+        }
+    }
+
+    /**
+     * Reusable UTF-8 encoder, only the returned byte array is allocated per call.
+     */
+    private static class Utf8Encoder {
+        private final CharsetEncoder encoder = Charset.forName("UTF-8").newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private ByteBuffer byteBuffer = ByteBuffer.allocate(1024);
+
+        private byte[] encode(CharSequence text) {
+            int maxLength = (int) (text.length() * encoder.maxBytesPerChar());
+            if (byteBuffer.capacity() < maxLength) {
+                byteBuffer = ByteBuffer.allocate(Math.max(maxLength, byteBuffer.capacity() * 2));
+            }
+            byteBuffer.clear();
+            encoder.reset();
+            encoder.encode(CharBuffer.wrap(text), byteBuffer, true);
+            encoder.flush(byteBuffer);
+            byteBuffer.flip();
+            byte[] bytes = new byte[byteBuffer.remaining()];
+            byteBuffer.get(bytes);
+            return bytes;
+        }
+    }
+}
@@ -23,13 +23,22 @@ import org.wso2.siddhi.query.api.definition.StreamDefinition;
 import org.wso2.siddhi.query.api.execution.io.map.AttributeMapping;
 import org.wso2.siddhi.query.api.execution.io.map.Mapping;
 
+import java.nio.charset.Charset;
 import java.util.HashMap;
 import java.util.Map;
 
 public abstract class OutputMapper {
+    /**
+     * Mapping option to publish the mapped events as UTF-8 encoded byte arrays instead of strings.
+     */
+    public static final String OPTION_BINARY_OUTPUT = "binary";
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
     private Converter[] attributeConverters;
     private Map<String, Converter> dynamicOptionConverters;
     private boolean isCustomMappingEnabled;
+    private MappingTemplate template;
+    private boolean binaryOutput;
 
     /**
      * This will be called only once and this can be used to acquire
@@ -44,6 +53,31 @@ public abstract class OutputMapper {
     public abstract Object convertToMappedInputEvent(Event event, String[] mappedAttributes,
                                                      Map<String, String> dynamicOptions);
 
+    /**
+     * Mappers producing text can return the template equivalent to their default mapping, which is then compiled
+     * once and rendered per event instead of calling {@link #convertToTypedInputEvent(Event, Map)}. Events
+     * carrying arbitrary data, and mappings with dynamic options, are always mapped through
+     * {@link #convertToTypedInputEvent(Event, Map)}.
+     *
+     * @param streamDefinition the stream definition
+     * @return the default mapping template, or null to always use {@link #convertToTypedInputEvent(Event, Map)}
+     */
+    protected MappingTemplate createDefaultTemplate(StreamDefinition streamDefinition) {
+        return null;
+    }
+
+    /**
+     * Mappers that only join the mapped attributes with a separator can return the separator, so that all the
+     * attribute mappings are compiled into a single template instead of calling
+     * {@link #convertToMappedInputEvent(Event, String[], Map)}, unless the mapping has dynamic options.
+     *
+     * @return the separator of the mapped attributes, or null to always use
+     * {@link #convertToMappedInputEvent(Event, String[], Map)}
+     */
+    protected String getMappedAttributeSeparator() {
+        return null;
+    }
+
     public final void init(StreamDefinition streamDefinition, Mapping mapping) {
         isCustomMappingEnabled = mapping.getAttributeMappingList().size() > 0;
         int i;
@@ -54,6 +88,21 @@ public abstract class OutputMapper {
                 attributeConverters[i] = new Converter(streamDefinition, attributeMapping.getMapping());
                 i++;
             }
+            String separator = getMappedAttributeSeparator();
+            if (separator != null) {
+                MappingTemplate.Builder builder = new MappingTemplate.Builder();
+                i = 0;
+                for (AttributeMapping attributeMapping : mapping.getAttributeMappingList()) {
+                    if (i > 0) {
+                        builder.literal(separator);
+                    }
+                    builder.template(streamDefinition, attributeMapping.getMapping());
+                    i++;
+                }
+                template = builder.build();
+            }
+        } else {
+            template = createDefaultTemplate(streamDefinition);
         }
 
         dynamicOptionConverters = new HashMap<String, Converter>();
@@ -61,16 +110,34 @@ public abstract class OutputMapper {
             dynamicOptionConverters.put(entry.getKey(),
                     new Converter(streamDefinition, entry.getValue()));
         }
+        if (!dynamicOptionConverters.isEmpty()) {
+            // the conversions of the mapper receive the mapped dynamic options, which templates cannot consume
+            template = null;
+        }
 
-        init(streamDefinition, mapping.getOptions(), mapping.getDynamicOptions());
+        Map<String, String> options = mapping.getOptions();
+        if (options.containsKey(OPTION_BINARY_OUTPUT)) {
+            binaryOutput = Boolean.parseBoolean(options.get(OPTION_BINARY_OUTPUT));
+            options = new HashMap<String, String>(options);
+            options.remove(OPTION_BINARY_OUTPUT);
+        }
+        init(streamDefinition, options, mapping.getDynamicOptions());
     }
 
     public final Object mapEvent(Event event) {
+        if (template != null && (isCustomMappingEnabled || event.getArbitraryDataMap() == null)) {
+            return binaryOutput ? template.renderBytes(event) : template.render(event);
+        }
+        Object mappedEvent;
         if (isCustomMappingEnabled) {
-            return convertToMappedInputEvent(event, getMappedAttributes(event), getMappedOptions(event));
+            mappedEvent = convertToMappedInputEvent(event, getMappedAttributes(event), getMappedOptions(event));
         } else {
-            return convertToTypedInputEvent(event, getMappedOptions(event));
+            mappedEvent = convertToTypedInputEvent(event, getMappedOptions(event));
+        }
+        if (binaryOutput && mappedEvent instanceof String) {
+            return ((String) mappedEvent).getBytes(UTF_8);
         }
+        return mappedEvent;
     }
 
     private Map<String, String> getMappedOptions(Event event) {
@@ -37,6 +37,8 @@ import java.util.Map;
  */
 public abstract class OutputTransport implements EternalReferencedHolder {
     private Map<String, Converter> dynamicOptionConverters;
+    private ExecutionPlanContext executionPlanContext;
+    private StreamDefinition streamDefinition;
 
     /**
      * The init of the transport, this will be called only once before connect() and testConnect()
@@ -97,6 +99,8 @@ public abstract class OutputTransport implements EternalReferencedHolder {
     public final void init(ExecutionPlanContext executionPlanContext,
                            StreamDefinition streamDefinition,
                            Transport transportConfig) throws OutputTransportException {
+        this.executionPlanContext = executionPlanContext;
+        this.streamDefinition = streamDefinition;
         dynamicOptionConverters = new HashMap<String, Converter>();
         for (Map.Entry<String, String> entry : transportConfig.getDynamicOptions().entrySet()) {
             dynamicOptionConverters.put(entry.getKey(), new Converter(streamDefinition, entry.getValue()));
@@ -108,6 +112,20 @@ public abstract class OutputTransport implements EternalReferencedHolder {
         return Converter.convert(event, dynamicOptionConverters);
     }
 
+    /**
+     * @return context of the execution plan the transport belongs to, available from init() onwards
+     */
+    protected final ExecutionPlanContext getExecutionPlanContext() {
+        return executionPlanContext;
+    }
+
+    /**
+     * @return definition of the stream published through the transport, available from init() onwards
+     */
+    protected final StreamDefinition getStreamDefinition() {
+        return streamDefinition;
+    }
+
     public final boolean isMessageFormatSupported(String messageFormat) {
         return getSupportedMessageFormats().contains(messageFormat);
     }
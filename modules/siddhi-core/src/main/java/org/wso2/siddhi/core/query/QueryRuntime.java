@@ -20,14 +20,29 @@ package org.wso2.siddhi.core.query;
 import org.wso2.siddhi.core.config.ExecutionPlanContext;
 import org.wso2.siddhi.core.event.MetaComplexEvent;
 import org.wso2.siddhi.core.query.input.stream.StreamRuntime;
+import org.wso2.siddhi.core.query.input.stream.single.SingleStreamRuntime;
+import org.wso2.siddhi.core.query.output.callback.DeleteTableCallback;
+import org.wso2.siddhi.core.query.output.callback.InsertIntoTableCallback;
+import org.wso2.siddhi.core.query.output.callback.InsertIntoWindowCallback;
+import org.wso2.siddhi.core.query.output.callback.InsertOverwriteTableCallback;
 import org.wso2.siddhi.core.query.output.callback.OutputCallback;
 import org.wso2.siddhi.core.query.output.callback.QueryCallback;
+import org.wso2.siddhi.core.query.output.callback.UpdateTableCallback;
 import org.wso2.siddhi.core.query.output.ratelimit.OutputRateLimiter;
+import org.wso2.siddhi.core.query.output.ratelimit.PassThroughOutputRateLimiter;
+import org.wso2.siddhi.core.query.processor.Processor;
+import org.wso2.siddhi.core.query.processor.stream.function.StreamFunctionProcessor;
+import org.wso2.siddhi.core.query.processor.stream.window.TableWindowProcessor;
 import org.wso2.siddhi.core.query.selector.QuerySelector;
+import org.wso2.siddhi.core.query.selector.attribute.processor.AttributeProcessor;
+import org.wso2.siddhi.core.query.selector.attribute.processor.executor.AbstractAggregationAttributeExecutor;
 import org.wso2.siddhi.core.stream.StreamJunction;
+import org.wso2.siddhi.core.table.EventTable;
 import org.wso2.siddhi.core.util.lock.LockWrapper;
 import org.wso2.siddhi.core.util.parser.OutputParser;
 import org.wso2.siddhi.core.util.parser.helper.QueryParserHelper;
+import org.wso2.siddhi.core.util.snapshot.Snapshotable;
+import org.wso2.siddhi.core.util.statistics.memory.MemoryAccountable;
 import org.wso2.siddhi.query.api.annotation.Element;
 import org.wso2.siddhi.query.api.definition.StreamDefinition;
 import org.wso2.siddhi.query.api.exception.DuplicateAnnotationException;
@@ -37,12 +52,13 @@ import org.wso2.siddhi.query.api.execution.query.input.stream.SingleInputStream;
 import org.wso2.siddhi.query.api.execution.query.input.stream.StateInputStream;
 import org.wso2.siddhi.query.api.util.AnnotationHelper;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.locks.ReentrantLock;
 
-public class QueryRuntime {
+public class QueryRuntime implements MemoryAccountable {
 
     private final ExecutionPlanContext executionPlanContext;
     private StreamRuntime streamRuntime;
@@ -196,4 +212,103 @@ public class QueryRuntime {
     public QuerySelector getSelector() {
         return selector;
     }
+
+    @Override
+    public long getRetainedEventCount() {
+        long count = 0;
+        for (MemoryAccountable memoryAccountable : getMemoryAccountables()) {
+            count += memoryAccountable.getRetainedEventCount();
+        }
+        return count;
+    }
+
+    @Override
+    public long getRetainedMemorySize() {
+        long size = 0;
+        for (MemoryAccountable memoryAccountable : getMemoryAccountables()) {
+            size += memoryAccountable.getRetainedMemorySize();
+        }
+        return size;
+    }
+
+    /**
+     * The query is accountable only when every stateful processor of its chains, the aggregations of its selector,
+     * its output rate limiter and the tables it joins or outputs to are accounted. Patterns, windows without an
+     * account and rate limiters holding events leave the query to be measured by walking its object graph.
+     */
+    @Override
+    public boolean isAccountable() {
+        if (!(outputRateLimiter instanceof PassThroughOutputRateLimiter) ||
+                outputCallback instanceof InsertIntoWindowCallback) {
+            return false;
+        }
+        for (SingleStreamRuntime singleStreamRuntime : streamRuntime.getSingleStreamRuntimes()) {
+            Processor processor = singleStreamRuntime.getProcessorChain();
+            while (processor != null && processor != selector) {
+                if (processor instanceof TableWindowProcessor) {
+                    if (!isAccountable(((TableWindowProcessor) processor).getEventTable())) {
+                        return false;
+                    }
+                } else if (processor instanceof Snapshotable && !(processor instanceof StreamFunctionProcessor) &&
+                        !isAccountable(processor)) {
+                    return false;
+                }
+                processor = processor.getNextProcessor();
+            }
+        }
+        for (AttributeProcessor attributeProcessor : selector.getAttributeProcessorList()) {
+            if (attributeProcessor.getExpressionExecutor() instanceof AbstractAggregationAttributeExecutor &&
+                    !isAccountable(attributeProcessor.getExpressionExecutor())) {
+                return false;
+            }
+        }
+        EventTable outputEventTable = getOutputEventTable();
+        return outputEventTable == null || isAccountable(outputEventTable);
+    }
+
+    /**
+     * @return the accounted windows, aggregations and tables of the query, each once
+     */
+    public List<MemoryAccountable> getMemoryAccountables() {
+        List<MemoryAccountable> memoryAccountables = new ArrayList<MemoryAccountable>();
+        for (SingleStreamRuntime singleStreamRuntime : streamRuntime.getSingleStreamRuntimes()) {
+            Processor processor = singleStreamRuntime.getProcessorChain();
+            while (processor != null && processor != selector) {
+                if (processor instanceof TableWindowProcessor) {
+                    addMemoryAccountable(memoryAccountables, ((TableWindowProcessor) processor).getEventTable());
+                } else {
+                    addMemoryAccountable(memoryAccountables, processor);
+                }
+                processor = processor.getNextProcessor();
+            }
+        }
+        for (AttributeProcessor attributeProcessor : selector.getAttributeProcessorList()) {
+            addMemoryAccountable(memoryAccountables, attributeProcessor.getExpressionExecutor());
+        }
+        addMemoryAccountable(memoryAccountables, getOutputEventTable());
+        return memoryAccountables;
+    }
+
+    private EventTable getOutputEventTable() {
+        if (outputCallback instanceof InsertIntoTableCallback) {
+            return ((InsertIntoTableCallback) outputCallback).getEventTable();
+        } else if (outputCallback instanceof UpdateTableCallback) {
+            return ((UpdateTableCallback) outputCallback).getEventTable();
+        } else if (outputCallback instanceof DeleteTableCallback) {
+            return ((DeleteTableCallback) outputCallback).getEventTable();
+        } else if (outputCallback instanceof InsertOverwriteTableCallback) {
+            return ((InsertOverwriteTableCallback) outputCallback).getEventTable();
+        }
+        return null;
+    }
+
+    private static boolean isAccountable(Object object) {
+        return object instanceof MemoryAccountable && ((MemoryAccountable) object).isAccountable();
+    }
+
+    private static void addMemoryAccountable(List<MemoryAccountable> memoryAccountables, Object object) {
+        if (object instanceof MemoryAccountable && !memoryAccountables.contains(object)) {
+            memoryAccountables.add((MemoryAccountable) object);
+        }
+    }
 }
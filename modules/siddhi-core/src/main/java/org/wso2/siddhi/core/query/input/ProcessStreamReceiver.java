@@ -21,16 +21,21 @@ import org.wso2.siddhi.core.debugger.SiddhiDebugger;
 import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.event.ComplexEventChunk;
 import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.event.columnar.ColumnarEventBatch;
 import org.wso2.siddhi.core.event.stream.MetaStreamEvent;
 import org.wso2.siddhi.core.event.stream.StreamEvent;
 import org.wso2.siddhi.core.event.stream.StreamEventPool;
 import org.wso2.siddhi.core.event.stream.converter.StreamEventConverter;
 import org.wso2.siddhi.core.event.stream.converter.StreamEventConverterFactory;
+import org.wso2.siddhi.core.executor.columnar.ColumnarCondition;
 import org.wso2.siddhi.core.query.input.stream.state.PreStateProcessor;
 import org.wso2.siddhi.core.query.processor.Processor;
+import org.wso2.siddhi.core.query.processor.filter.FilterProcessor;
 import org.wso2.siddhi.core.stream.StreamJunction;
 import org.wso2.siddhi.core.util.lock.LockWrapper;
 import org.wso2.siddhi.core.util.statistics.LatencyTracker;
+import org.wso2.siddhi.query.api.definition.StreamDefinition;
+import org.wso2.siddhi.query.api.expression.Expression;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -50,6 +55,11 @@ public class ProcessStreamReceiver implements StreamJunction.Receiver {
     protected boolean batchProcessingAllowed;
     private SiddhiDebugger siddhiDebugger;
     private String queryName;
+    private Expression filterCondition;
+    private ColumnarCondition columnarCondition;
+    private int columnarFilterCount;
+    private StreamDefinition columnarStreamDefinition;
+    private ThreadLocal<ColumnarEventBatch> columnarEventBatches;
 
     public ProcessStreamReceiver(String streamId, LatencyTracker latencyTracker, String queryName) {
         this.streamId = streamId;
@@ -62,9 +72,18 @@ public class ProcessStreamReceiver implements StreamJunction.Receiver {
         return streamId;
     }
 
+    public String getQueryName() {
+        return queryName;
+    }
+
     public ProcessStreamReceiver clone(String key) {
         ProcessStreamReceiver processStreamReceiver = new ProcessStreamReceiver(streamId + key, latencyTracker, queryName);
         processStreamReceiver.batchProcessingAllowed = this.batchProcessingAllowed;
+        processStreamReceiver.filterCondition = this.filterCondition;
+        if (columnarCondition != null) {
+            processStreamReceiver.setColumnarCondition(columnarCondition, columnarFilterCount,
+                    columnarStreamDefinition);
+        }
         return processStreamReceiver;
     }
 
@@ -72,7 +91,55 @@ public class ProcessStreamReceiver implements StreamJunction.Receiver {
         this.siddhiDebugger = siddhiDebugger;
     }
 
+    public boolean isDebugged() {
+        return siddhiDebugger != null;
+    }
+
+    /**
+     * Condition of the filter the processor chain of this receiver starts with, in the form shared with the other
+     * queries consuming the stream.
+     *
+     * @return the shareable filter condition, or null if events cannot be filtered before reaching this receiver
+     */
+    public Expression getFilterCondition() {
+        return filterCondition;
+    }
+
+    public void setFilterCondition(Expression filterCondition) {
+        this.filterCondition = filterCondition;
+    }
+
+    /**
+     * Filter the batches of events received by columns before converting them to stream events, with the given
+     * condition in place of the filters the processor chain starts with.
+     *
+     * @param columnarCondition condition of the leading filters
+     * @param filterCount       number of leading filters the condition replaces
+     * @param streamDefinition  definition of the stream of the events received
+     */
+    public void setColumnarCondition(ColumnarCondition columnarCondition, int filterCount,
+                                     final StreamDefinition streamDefinition) {
+        this.columnarCondition = columnarCondition;
+        this.columnarFilterCount = filterCount;
+        this.columnarStreamDefinition = streamDefinition;
+        this.columnarEventBatches = new ThreadLocal<ColumnarEventBatch>() {
+            @Override
+            protected ColumnarEventBatch initialValue() {
+                return new ColumnarEventBatch(streamDefinition.getAttributeList());
+            }
+        };
+    }
+
     private void process(ComplexEventChunk<StreamEvent> streamEventChunk) {
+        process(streamEventChunk, null);
+    }
+
+    /**
+     * @param streamEventChunk events to process
+     * @param processor        processor to process the events from, or null to process them from the start of the
+     *                         processor chain
+     */
+    private void process(ComplexEventChunk<StreamEvent> streamEventChunk, Processor processor) {
         if (lockWrapper != null) {
             lockWrapper.lock();
         }
@@ -80,12 +147,12 @@ public class ProcessStreamReceiver implements StreamJunction.Receiver {
             if (latencyTracker != null) {
                 try {
                     latencyTracker.markIn();
-                    processAndClear(streamEventChunk);
+                    processAndClear(streamEventChunk, processor);
                 } finally {
                     latencyTracker.markOut();
                 }
             } else {
-                processAndClear(streamEventChunk);
+                processAndClear(streamEventChunk, processor);
             }
         } finally {
             if (lockWrapper != null) {
@@ -127,6 +194,9 @@ public class ProcessStreamReceiver implements StreamJunction.Receiver {
 
     @Override
     public void receive(Event[] events) {
+        if (columnarCondition != null && siddhiDebugger == null && receiveColumnar(events)) {
+            return;
+        }
         StreamEvent firstEvent = streamEventPool.borrowEvent();
         streamEventConverter.convertEvent(events[0], firstEvent);
         StreamEvent currentEvent = firstEvent;
@@ -174,6 +244,59 @@ public class ProcessStreamReceiver implements StreamJunction.Receiver {
         process(new ComplexEventChunk<StreamEvent>(borrowedEvent, borrowedEvent, this.batchProcessingAllowed));
     }
 
+    /**
+     * Filter the events by columns and process the ones that pass from the processor after the leading filters.
+     *
+     * @param events events received
+     * @return false if the events could not be filtered by columns, as their data does not match the types of the
+     * stream attributes, leaving them to be processed by the filters
+     */
+    private boolean receiveColumnar(Event[] events) {
+        Processor processor = next;
+        for (int i = 0; i < columnarFilterCount; i++) {
+            if (!(processor instanceof FilterProcessor)) {
+                return false;
+            }
+            processor = processor.getNextProcessor();
+        }
+        ColumnarEventBatch batch = columnarEventBatches.get();
+        if (!batch.load(events)) {
+            return false;
+        }
+        StreamEvent firstEvent = null;
+        StreamEvent currentEvent = null;
+        try {
+            int[] selection = batch.getSelection();
+            int selectedCount = columnarCondition.filter(batch, selection, batch.size());
+            for (int i = 0; i < selectedCount; i++) {
+                StreamEvent borrowedEvent = streamEventPool.borrowEvent();
+                streamEventConverter.convertEvent(batch.getEvent(selection[i]), borrowedEvent);
+                if (firstEvent == null) {
+                    firstEvent = borrowedEvent;
+                } else {
+                    currentEvent.setNext(borrowedEvent);
+                }
+                currentEvent = borrowedEvent;
+            }
+        } finally {
+            batch.clear();
+        }
+        if (firstEvent != null) {
+            process(new ComplexEventChunk<StreamEvent>(firstEvent, currentEvent, this.batchProcessingAllowed),
+                    processor);
+        }
+        return true;
+    }
+
+    private void processAndClear(ComplexEventChunk<StreamEvent> streamEventChunk, Processor processor) {
+        if (processor == null) {
+            processAndClear(streamEventChunk);
+        } else {
+            processor.process(streamEventChunk);
+            streamEventChunk.clear();
+        }
+    }
+
     protected void processAndClear(ComplexEventChunk<StreamEvent> streamEventChunk) {
         next.process(streamEventChunk);
         streamEventChunk.clear();
@@ -57,35 +57,40 @@ public class CountPreStateProcessor extends StreamPreStateProcessor {
         ComplexEventChunk<StateEvent> returnEventChunk = new ComplexEventChunk<StateEvent>(false);
         complexEventChunk.reset();
         StreamEvent streamEvent = (StreamEvent) complexEventChunk.next(); //Sure only one will be sent
-        for (Iterator<StateEvent> iterator = pendingStateEventList.iterator(); iterator.hasNext(); ) {
-            StateEvent stateEvent = iterator.next();
-            if (removeIfNextStateProcessed(stateEvent, iterator, stateId + 1)) {
-                continue;
-            }
-            if (removeIfNextStateProcessed(stateEvent, iterator, stateId + 2)) {
-                continue;
-            }
-            stateEvent.addEvent(stateId, streamEventCloner.copyStreamEvent(streamEvent));
-            successCondition = false;
-            process(stateEvent);
-            if (this.thisLastProcessor.isEventReturned()) {
-                this.thisLastProcessor.clearProcessedEvent();
-                returnEventChunk.add(stateEvent);
-            }
-            if (stateChanged) {
-                iterator.remove();
-            }
-            if (!successCondition) {
-                switch (stateType) {
-                    case PATTERN:
-                        stateEvent.removeLastEvent(stateId);
-                        break;
-                    case SEQUENCE:
-                        stateEvent.removeLastEvent(stateId);
-                        iterator.remove();
-                        break;
+        incomingStreamEvent = streamEvent;
+        try {
+            for (Iterator<StateEvent> iterator = pendingStateEventList.iterator(); iterator.hasNext(); ) {
+                StateEvent stateEvent = iterator.next();
+                if (removeIfNextStateProcessed(stateEvent, iterator, stateId + 1)) {
+                    continue;
+                }
+                if (removeIfNextStateProcessed(stateEvent, iterator, stateId + 2)) {
+                    continue;
+                }
+                stateEvent.addEvent(stateId, streamEvent);
+                successCondition = false;
+                process(stateEvent);
+                if (this.thisLastProcessor.isEventReturned()) {
+                    this.thisLastProcessor.clearProcessedEvent();
+                    returnEventChunk.add(stateEvent);
+                }
+                if (stateChanged) {
+                    iterator.remove();
+                }
+                if (!successCondition) {
+                    switch (stateType) {
+                        case PATTERN:
+                            stateEvent.removeLastEvent(stateId);
+                            break;
+                        case SEQUENCE:
+                            stateEvent.removeLastEvent(stateId);
+                            iterator.remove();
+                            break;
+                    }
                 }
             }
+        } finally {
+            incomingStreamEvent = null;
         }
         return returnEventChunk;
     }
@@ -111,35 +111,49 @@ public class LogicalPreStateProcessor extends StreamPreStateProcessor {
         ComplexEventChunk<StateEvent> returnEventChunk = new ComplexEventChunk<StateEvent>(false);
         complexEventChunk.reset();
         StreamEvent streamEvent = (StreamEvent) complexEventChunk.next(); //Sure only one will be sent
-        for (Iterator<StateEvent> iterator = pendingStateEventList.iterator(); iterator.hasNext(); ) {
-            StateEvent stateEvent = iterator.next();
-            if (logicalType == LogicalStateElement.Type.OR && stateEvent.getStreamEvent(partnerStatePreProcessor.getStateId()) != null) {
-                iterator.remove();
-                continue;
-            }
-            stateEvent.setEvent(stateId, streamEventCloner.copyStreamEvent(streamEvent));
-            process(stateEvent);
-            if (this.thisLastProcessor.isEventReturned()) {
-                this.thisLastProcessor.clearProcessedEvent();
-                returnEventChunk.add(stateEvent);
-            }
-            if (stateChanged) {
-                iterator.remove();
-            } else {
-                switch (stateType) {
-                    case PATTERN:
-                        stateEvent.setEvent(stateId, null);
-                        break;
-                    case SEQUENCE:
-                        stateEvent.setEvent(stateId, null);
-                        iterator.remove();
-                        break;
+        incomingStreamEvent = streamEvent;
+        try {
+            for (Iterator<StateEvent> iterator = pendingStateEventList.iterator(); iterator.hasNext(); ) {
+                StateEvent stateEvent = iterator.next();
+                if (logicalType == LogicalStateElement.Type.OR && stateEvent.getStreamEvent(partnerStatePreProcessor.getStateId()) != null) {
+                    iterator.remove();
+                    continue;
+                }
+                stateEvent.setEvent(stateId, streamEvent);
+                process(stateEvent);
+                if (this.thisLastProcessor.isEventReturned()) {
+                    this.thisLastProcessor.clearProcessedEvent();
+                    returnEventChunk.add(stateEvent);
+                }
+                if (stateChanged) {
+                    iterator.remove();
+                } else {
+                    switch (stateType) {
+                        case PATTERN:
+                            stateEvent.setEvent(stateId, null);
+                            break;
+                        case SEQUENCE:
+                            stateEvent.setEvent(stateId, null);
+                            iterator.remove();
+                            break;
+                    }
                 }
             }
+        } finally {
+            incomingStreamEvent = null;
         }
         return returnEventChunk;
     }
 
+    @Override
+    public int getPartialMatchCount() {
+        // Partners hold the same state events, which are counted by the partner with the lower state id
+        if (partnerStatePreProcessor != null && partnerStatePreProcessor.stateId < stateId) {
+            return 0;
+        }
+        return super.getPartialMatchCount();
+    }
+
     public void setPartnerStatePreProcessor(LogicalPreStateProcessor partnerStatePreProcessor) {
         this.partnerStatePreProcessor = partnerStatePreProcessor;
     }
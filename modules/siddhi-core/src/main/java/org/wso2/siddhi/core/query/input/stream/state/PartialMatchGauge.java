@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.query.input.stream.state;
+
+import com.codahale.metrics.Gauge;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Number of active partial matches of a pattern or sequence query, which are the state events waiting at its states,
+ * summed over the state processors of all the partitions of the query.
+ */
+public class PartialMatchGauge implements Gauge<Long> {
+
+    private final Queue<StreamPreStateProcessor> streamPreStateProcessors =
+            new ConcurrentLinkedQueue<StreamPreStateProcessor>();
+
+    public void addStatePreProcessor(StreamPreStateProcessor streamPreStateProcessor) {
+        streamPreStateProcessors.add(streamPreStateProcessor);
+    }
+
+    /**
+     * Read without locking the query, hence the count is approximate while events are being processed.
+     *
+     * @return number of active partial matches
+     */
+    @Override
+    public Long getValue() {
+        long count = 0;
+        for (StreamPreStateProcessor streamPreStateProcessor : streamPreStateProcessors) {
+            count += streamPreStateProcessor.getPartialMatchCount();
+        }
+        return count;
+    }
+}
@@ -45,6 +45,7 @@ public class StreamPostStateProcessor implements PostStateProcessor {
         complexEventChunk.reset();
         if (complexEventChunk.hasNext()) {     //one one event will be coming
             StateEvent stateEvent = (StateEvent) complexEventChunk.next();
+            thisStatePreProcessor.retainIncomingEvent(stateEvent);
             process(stateEvent, complexEventChunk);
         }
         complexEventChunk.clear();
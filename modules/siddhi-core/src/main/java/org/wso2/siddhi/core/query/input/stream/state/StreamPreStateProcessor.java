@@ -18,6 +18,7 @@
 package org.wso2.siddhi.core.query.input.stream.state;
 
 import org.wso2.siddhi.core.config.ExecutionPlanContext;
+import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.event.ComplexEventChunk;
 import org.wso2.siddhi.core.event.state.StateEvent;
 import org.wso2.siddhi.core.event.state.StateEventCloner;
@@ -25,7 +26,10 @@ import org.wso2.siddhi.core.event.state.StateEventPool;
 import org.wso2.siddhi.core.event.stream.StreamEvent;
 import org.wso2.siddhi.core.event.stream.StreamEventCloner;
 import org.wso2.siddhi.core.event.stream.StreamEventPool;
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
 import org.wso2.siddhi.core.query.processor.Processor;
+import org.wso2.siddhi.core.util.Schedulable;
+import org.wso2.siddhi.core.util.Scheduler;
 import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.core.util.snapshot.Snapshotable;
 import org.wso2.siddhi.query.api.execution.query.input.stream.StateInputStream;
@@ -35,7 +39,7 @@ import java.util.*;
 /**
  * Created on 12/17/14.
  */
-public class StreamPreStateProcessor implements PreStateProcessor, Snapshotable {
+public class StreamPreStateProcessor implements PreStateProcessor, Snapshotable, Schedulable {
 
     protected int stateId;
     protected boolean isStartState;
@@ -60,6 +64,21 @@ public class StreamPreStateProcessor implements PreStateProcessor, Snapshotable
     protected StreamEventPool streamEventPool;
     protected String queryName;
 
+    // Incoming event set into the pending state events without copying while their conditions are evaluated
+    protected StreamEvent incomingStreamEvent;
+
+    // Pending state events indexed by the key they are correlated with the incoming events on, if any
+    protected ExpressionExecutor pendingCorrelationKeyExecutor;
+    protected ExpressionExecutor incomingCorrelationKeyExecutor;
+    protected Map<Object, LinkedList<StateEvent>> pendingStateEventIndex;
+    private LinkedList<StateEvent> indexedStateEventExpiryList;
+    private int indexedStateEventCount;
+
+    // Evicts the partial matches that can no longer complete within the time limits of this state, if scheduled
+    protected Scheduler scheduler;
+    private long lastScheduledTime = -1;
+    protected PartialMatchGauge partialMatchGauge;
+
     public StreamPreStateProcessor(StateInputStream.Type stateType, List<Map.Entry<Long, Set<Integer>>> withinStates) {
         this.stateType = stateType;
         this.withinStates = withinStates;
@@ -83,24 +102,30 @@ public class StreamPreStateProcessor implements PreStateProcessor, Snapshotable
     }
 
     /**
-     * Process the handed StreamEvent
+     * Process the timer events of the scheduler, which evict the partial matches that have expired. Stream events
+     * are handled through processAndReturn.
      *
      * @param complexEventChunk event chunk to be processed
      */
     @Override
     public void process(ComplexEventChunk complexEventChunk) {
+        ComplexEvent complexEvent = complexEventChunk.getFirst();
+        if (scheduler != null && complexEvent != null && complexEvent.getType() == ComplexEvent.Type.TIMER) {
+            expireStateEvents(executionPlanContext.getTimestampGenerator().currentTime());
+            return;
+        }
         throw new IllegalStateException("process method of StreamPreStateProcessor should not be called. processAndReturn method is used for handling event chunks.");
     }
 
-    private boolean isExpired(StateEvent pendingStateEvent, StreamEvent incomingStreamEvent) {
+    private boolean isExpired(StateEvent pendingStateEvent, long timestamp) {
         for (Map.Entry<Long, Set<Integer>> withinEntry : withinStates) {
             for (Integer withinStateId : withinEntry.getValue()) {
                 if (withinStateId == SiddhiConstants.ANY) {
-                    if (Math.abs(pendingStateEvent.getTimestamp() - incomingStreamEvent.getTimestamp()) > withinEntry.getKey()) {
+                    if (Math.abs(pendingStateEvent.getTimestamp() - timestamp) > withinEntry.getKey()) {
                         return true;
                     }
                 } else {
-                    if (Math.abs(pendingStateEvent.getStreamEvent(withinStateId).getTimestamp() - incomingStreamEvent.getTimestamp()) > withinEntry.getKey()) {
+                    if (Math.abs(pendingStateEvent.getStreamEvent(withinStateId).getTimestamp() - timestamp) > withinEntry.getKey()) {
                         return true;
 
                     }
@@ -111,6 +136,93 @@ public class StreamPreStateProcessor implements PreStateProcessor, Snapshotable
 
     }
 
+    /**
+     * Earliest time at which the state event is expired by the within conditions, as checked by
+     * {@link #isExpired(StateEvent, long)} for events that do not arrive out of order.
+     *
+     * @param stateEvent pending state event
+     * @return the expiry time, or -1 if the state event has not matched the states its within conditions start from
+     */
+    private long getExpiryTime(StateEvent stateEvent) {
+        long expiryTime = Long.MAX_VALUE;
+        for (Map.Entry<Long, Set<Integer>> withinEntry : withinStates) {
+            for (Integer withinStateId : withinEntry.getValue()) {
+                long startTime;
+                if (withinStateId == SiddhiConstants.ANY) {
+                    startTime = stateEvent.getTimestamp();
+                } else {
+                    StreamEvent streamEvent = stateEvent.getStreamEvent(withinStateId);
+                    if (streamEvent == null) {
+                        return -1;
+                    }
+                    startTime = streamEvent.getTimestamp();
+                }
+                if (startTime == -1) {
+                    return -1;
+                }
+                expiryTime = Math.min(expiryTime, startTime + withinEntry.getKey() + 1);
+            }
+        }
+        return expiryTime;
+    }
+
+    private void scheduleExpiry(StateEvent stateEvent) {
+        if (scheduler != null) {
+            long expiryTime = getExpiryTime(stateEvent);
+            if (expiryTime > lastScheduledTime) {
+                scheduler.notifyAt(expiryTime);
+                lastScheduledTime = expiryTime;
+            }
+        }
+    }
+
+    /**
+     * Evict the partial matches that have expired by the given time. State events are added in the order of their
+     * start times, hence each list is only walked up to its first state event that has not expired. State events
+     * that are out of that order are left to be expired when the next event arrives.
+     *
+     * @param currentTime current time
+     */
+    protected void expireStateEvents(long currentTime) {
+        expireStateEvents(newAndEveryStateEventList, currentTime);
+        if (pendingStateEventIndex == null) {
+            expireStateEvents(pendingStateEventList, currentTime);
+            return;
+        }
+        for (Iterator<StateEvent> iterator = indexedStateEventExpiryList.iterator(); iterator.hasNext(); ) {
+            StateEvent stateEvent = iterator.next();
+            if (getExpiryTime(stateEvent) > currentTime) {
+                break;
+            }
+            iterator.remove();
+            // State events that are earlier in the list of the key have already been removed from it, hence the
+            // state event is either the first of the list or has been removed on a match or a lazy expiry
+            Object key = pendingCorrelationKeyExecutor.execute(stateEvent);
+            LinkedList<StateEvent> stateEvents = pendingStateEventIndex.get(key);
+            if (stateEvents != null && stateEvents.peekFirst() == stateEvent) {
+                stateEvents.removeFirst();
+                indexedStateEventCount--;
+                if (stateEvents.isEmpty()) {
+                    pendingStateEventIndex.remove(key);
+                }
+            }
+        }
+    }
+
+    private void expireStateEvents(LinkedList<StateEvent> stateEvents, long currentTime) {
+        for (Iterator<StateEvent> iterator = stateEvents.iterator(); iterator.hasNext(); ) {
+            long expiryTime = getExpiryTime(iterator.next());
+            if (expiryTime == -1) {
+                // Not started yet, such as the initial state event of the start state
+                continue;
+            }
+            if (expiryTime > currentTime) {
+                break;
+            }
+            iterator.remove();
+        }
+    }
+
     protected void process(StateEvent stateEvent) {
         currentStateEventChunk.add(stateEvent);
         currentStateEventChunk.reset();
@@ -189,6 +301,98 @@ public class StreamPreStateProcessor implements PreStateProcessor, Snapshotable
         streamPreStateProcessor.streamEventCloner = this.streamEventCloner;
         streamPreStateProcessor.stateEventCloner = this.stateEventCloner;
         streamPreStateProcessor.streamEventPool = this.streamEventPool;
+        if (this.pendingStateEventIndex != null) {
+            streamPreStateProcessor.setCorrelationKeyExecutors(this.pendingCorrelationKeyExecutor,
+                    this.incomingCorrelationKeyExecutor);
+        }
+        if (this.scheduler != null) {
+            streamPreStateProcessor.setScheduler(this.scheduler.clone(key, streamPreStateProcessor));
+        }
+        if (this.partialMatchGauge != null) {
+            streamPreStateProcessor.setPartialMatchGauge(this.partialMatchGauge);
+        }
+    }
+
+    /**
+     * Index the pending state events by an equality correlation of this state's condition, so that an incoming
+     * event is only evaluated against the state events it can match. Only valid for pattern states whose
+     * condition requires the two keys to be equal and non null.
+     *
+     * @param pendingCorrelationKeyExecutor  executor of the key on pending state events, from an earlier state
+     * @param incomingCorrelationKeyExecutor executor of the key on the incoming stream events
+     */
+    public void setCorrelationKeyExecutors(ExpressionExecutor pendingCorrelationKeyExecutor,
+                                           ExpressionExecutor incomingCorrelationKeyExecutor) {
+        this.pendingCorrelationKeyExecutor = pendingCorrelationKeyExecutor;
+        this.incomingCorrelationKeyExecutor = incomingCorrelationKeyExecutor;
+        this.pendingStateEventIndex = new HashMap<Object, LinkedList<StateEvent>>();
+        this.indexedStateEventExpiryList = new LinkedList<StateEvent>();
+    }
+
+    public boolean isCorrelationIndexed() {
+        return pendingStateEventIndex != null;
+    }
+
+    public List<Map.Entry<Long, Set<Integer>>> getWithinStates() {
+        return withinStates;
+    }
+
+    /**
+     * Set the scheduler that evicts the partial matches of this state once they expire by its within conditions,
+     * instead of only when the next event arrives at this state.
+     *
+     * @param scheduler scheduler notifying this processor with timer events
+     */
+    public void setScheduler(Scheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    public void setPartialMatchGauge(PartialMatchGauge partialMatchGauge) {
+        this.partialMatchGauge = partialMatchGauge;
+        partialMatchGauge.addStatePreProcessor(this);
+    }
+
+    /**
+     * @return number of partial matches waiting at this state, which is zero for the start state as its state
+     * events have not matched any event yet
+     */
+    public int getPartialMatchCount() {
+        if (isStartState) {
+            return 0;
+        }
+        if (pendingStateEventIndex != null) {
+            return indexedStateEventCount + newAndEveryStateEventList.size();
+        }
+        return pendingStateEventList.size() + newAndEveryStateEventList.size();
+    }
+
+    /**
+     * Replace the incoming event, which is set into a pending state event without copying while its condition
+     * is evaluated, with a copy once the state event matches, as the matched state event outlives the incoming
+     * event.
+     *
+     * @param stateEvent the matched state event
+     */
+    protected void retainIncomingEvent(StateEvent stateEvent) {
+        if (incomingStreamEvent == null) {
+            return;
+        }
+        StreamEvent streamEvent = stateEvent.getStreamEvent(stateId);
+        if (streamEvent == incomingStreamEvent) {
+            stateEvent.setEvent(stateId, streamEventCloner.copyStreamEvent(incomingStreamEvent));
+            return;
+        }
+        while (streamEvent != null) {
+            if (streamEvent.getNext() == incomingStreamEvent) {
+                streamEvent.setNext(streamEventCloner.copyStreamEvent(incomingStreamEvent));
+                return;
+            }
+            streamEvent = streamEvent.getNext();
+        }
     }
 
     @Override
@@ -203,13 +407,15 @@ public class StreamPreStateProcessor implements PreStateProcessor, Snapshotable
             }
         } else {
             newAndEveryStateEventList.add(stateEvent);
-
+            scheduleExpiry(stateEvent);
         }
     }
 
     @Override
     public void addEveryState(StateEvent stateEvent) {
-        newAndEveryStateEventList.add(stateEventCloner.copyStateEvent(stateEvent));
+        StateEvent clonedStateEvent = stateEventCloner.copyStateEvent(stateEvent);
+        newAndEveryStateEventList.add(clonedStateEvent);
+        scheduleExpiry(clonedStateEvent);
     }
 
     public void stateChanged() {
@@ -239,6 +445,11 @@ public class StreamPreStateProcessor implements PreStateProcessor, Snapshotable
     @Override
     public void resetState() {
         pendingStateEventList.clear();
+        if (pendingStateEventIndex != null) {
+            pendingStateEventIndex.clear();
+            indexedStateEventExpiryList.clear();
+            indexedStateEventCount = 0;
+        }
         if (isStartState && newAndEveryStateEventList.isEmpty()) {
             //        if (isStartState && stateType == StateInputStream.Type.SEQUENCE && newAndEveryStateEventList.isEmpty()) {
             init();
@@ -247,10 +458,34 @@ public class StreamPreStateProcessor implements PreStateProcessor, Snapshotable
 
     @Override
     public void updateState() {
-        pendingStateEventList.addAll(newAndEveryStateEventList);
+        if (pendingStateEventIndex != null) {
+            for (StateEvent stateEvent : newAndEveryStateEventList) {
+                indexPendingStateEvent(stateEvent);
+            }
+        } else {
+            pendingStateEventList.addAll(newAndEveryStateEventList);
+        }
         newAndEveryStateEventList.clear();
     }
 
+    private void indexPendingStateEvent(StateEvent stateEvent) {
+        Object key = pendingCorrelationKeyExecutor.execute(stateEvent);
+        if (key == null) {
+            // Can never satisfy the equality correlation
+            return;
+        }
+        LinkedList<StateEvent> stateEvents = pendingStateEventIndex.get(key);
+        if (stateEvents == null) {
+            stateEvents = new LinkedList<StateEvent>();
+            pendingStateEventIndex.put(key, stateEvents);
+        }
+        stateEvents.add(stateEvent);
+        indexedStateEventCount++;
+        if (scheduler != null) {
+            indexedStateEventExpiryList.add(stateEvent);
+        }
+    }
+
     public void setStateId(int stateId) {
         this.stateId = stateId;
     }
@@ -260,53 +495,59 @@ public class StreamPreStateProcessor implements PreStateProcessor, Snapshotable
         ComplexEventChunk<StateEvent> returnEventChunk = new ComplexEventChunk<StateEvent>(false);
         complexEventChunk.reset();
         StreamEvent streamEvent = (StreamEvent) complexEventChunk.next(); //Sure only one will be sent
-        for (Iterator<StateEvent> iterator = pendingStateEventList.iterator(); iterator.hasNext(); ) {
-            StateEvent stateEvent = iterator.next();
-            if (withinStates.size() > 0) {
-                if (isExpired(stateEvent, streamEvent)) {
-                    iterator.remove();
-                    continue;
-                }
+        LinkedList<StateEvent> stateEvents = pendingStateEventList;
+        Object key = null;
+        if (pendingStateEventIndex != null) {
+            key = incomingCorrelationKeyExecutor.execute(streamEvent);
+            stateEvents = pendingStateEventIndex.get(key);
+            if (stateEvents == null) {
+                return returnEventChunk;
             }
-//                if (Math.abs(stateEvent.getTimestamp() - streamEvent.getTimestamp()) > withinStates) {
-//                    iterator.remove();
-////                    switch (stateType) {
-////                        case PATTERN:
-////                            stateEvent.setEvent(stateId, null);
-////                            break;
-////                        case SEQUENCE:
-////                            stateEvent.setEvent(stateId, null);
-////                            iterator.remove();
-////                            if (thisStatePostProcessor.callbackPreStateProcessor != null) {
-////                                thisStatePostProcessor.callbackPreStateProcessor.startStateReset();
-////                            }
-////                            break;
-////                    }
-//                    continue;
-//                }
-//            }
-            stateEvent.setEvent(stateId, streamEventCloner.copyStreamEvent(streamEvent));
-            process(stateEvent);
-            if (this.thisLastProcessor.isEventReturned()) {
-                this.thisLastProcessor.clearProcessedEvent();
-                returnEventChunk.add(stateEvent);
-            }
-            if (stateChanged) {
-                iterator.remove();
-            } else {
-                switch (stateType) {
-                    case PATTERN:
-                        stateEvent.setEvent(stateId, null);
-                        break;
-                    case SEQUENCE:
-                        stateEvent.setEvent(stateId, null);
+        }
+        incomingStreamEvent = streamEvent;
+        try {
+            for (Iterator<StateEvent> iterator = stateEvents.iterator(); iterator.hasNext(); ) {
+                StateEvent stateEvent = iterator.next();
+                if (withinStates.size() > 0) {
+                    if (isExpired(stateEvent, streamEvent.getTimestamp())) {
                         iterator.remove();
-                        if (thisStatePostProcessor.callbackPreStateProcessor != null) {
-                            thisStatePostProcessor.callbackPreStateProcessor.startStateReset();
+                        if (pendingStateEventIndex != null) {
+                            indexedStateEventCount--;
                         }
-                        break;
+                        continue;
+                    }
+                }
+                stateEvent.setEvent(stateId, streamEvent);
+                process(stateEvent);
+                if (this.thisLastProcessor.isEventReturned()) {
+                    this.thisLastProcessor.clearProcessedEvent();
+                    returnEventChunk.add(stateEvent);
+                }
+                if (stateChanged) {
+                    iterator.remove();
+                    if (pendingStateEventIndex != null) {
+                        indexedStateEventCount--;
+                    }
+                } else {
+                    switch (stateType) {
+                        case PATTERN:
+                            stateEvent.setEvent(stateId, null);
+                            break;
+                        case SEQUENCE:
+                            stateEvent.setEvent(stateId, null);
+                            iterator.remove();
+                            if (thisStatePostProcessor.callbackPreStateProcessor != null) {
+                                thisStatePostProcessor.callbackPreStateProcessor.startStateReset();
+                            }
+                            break;
+                    }
                 }
             }
+        } finally {
+            incomingStreamEvent = null;
+        }
+        if (pendingStateEventIndex != null && stateEvents.isEmpty()) {
+            pendingStateEventIndex.remove(key);
         }
         return returnEventChunk;
     }
@@ -320,7 +561,15 @@ public class StreamPreStateProcessor implements PreStateProcessor, Snapshotable
     public Map<String, Object> currentState() {
         Map<String, Object> state = new HashMap<>();
         state.put("CurrentStateEventChunk", currentStateEventChunk.getFirst());
-        state.put("PendingStateEventList", pendingStateEventList);
+        if (pendingStateEventIndex != null) {
+            LinkedList<StateEvent> indexedStateEvents = new LinkedList<StateEvent>();
+            for (LinkedList<StateEvent> stateEvents : pendingStateEventIndex.values()) {
+                indexedStateEvents.addAll(stateEvents);
+            }
+            state.put("PendingStateEventList", indexedStateEvents);
+        } else {
+            state.put("PendingStateEventList", pendingStateEventList);
+        }
         state.put("NewAndEveryStateEventList", newAndEveryStateEventList);
         return state;
     }
@@ -331,6 +580,15 @@ public class StreamPreStateProcessor implements PreStateProcessor, Snapshotable
         currentStateEventChunk.add((StateEvent) state.get("FirstEvent"));
         pendingStateEventList = (LinkedList<StateEvent>) state.get("PendingStateEventList");
         newAndEveryStateEventList = (LinkedList<StateEvent>) state.get("NewAndEveryStateEventList");
+        if (pendingStateEventIndex != null) {
+            pendingStateEventIndex.clear();
+            indexedStateEventExpiryList.clear();
+            indexedStateEventCount = 0;
+            for (StateEvent stateEvent : pendingStateEventList) {
+                indexPendingStateEvent(stateEvent);
+            }
+            pendingStateEventList = new LinkedList<StateEvent>();
+        }
     }
 
     @Override
@@ -57,4 +57,12 @@ public class DeleteTableCallback extends OutputCallback {
         }
     }
 
+    /**
+     * Return the {@link EventTable} associated with this callback.
+     *
+     * @return the EventTable
+     */
+    public EventTable getEventTable() {
+        return eventTable;
+    }
 }
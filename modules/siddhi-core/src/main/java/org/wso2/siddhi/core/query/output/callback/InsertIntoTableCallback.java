@@ -74,4 +74,12 @@ public class InsertIntoTableCallback extends OutputCallback {
         return outputStreamDefinition;
     }
 
+    /**
+     * Return the {@link EventTable} associated with this callback.
+     *
+     * @return the EventTable
+     */
+    public EventTable getEventTable() {
+        return eventTable;
+    }
 }
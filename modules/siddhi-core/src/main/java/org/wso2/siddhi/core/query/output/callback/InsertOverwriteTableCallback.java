@@ -67,4 +67,12 @@ public class InsertOverwriteTableCallback extends OutputCallback {
         }
     }
 
+    /**
+     * Return the {@link EventTable} associated with this callback.
+     *
+     * @return the EventTable
+     */
+    public EventTable getEventTable() {
+        return eventTable;
+    }
 }
@@ -63,4 +63,12 @@ public class UpdateTableCallback extends OutputCallback {
         }
     }
 
+    /**
+     * Return the {@link EventTable} associated with this callback.
+     *
+     * @return the EventTable
+     */
+    public EventTable getEventTable() {
+        return eventTable;
+    }
 }
@@ -27,6 +27,8 @@ import org.wso2.siddhi.core.query.output.callback.QueryCallback;
 import org.wso2.siddhi.core.util.extension.holder.EternalReferencedHolder;
 import org.wso2.siddhi.core.util.lock.LockWrapper;
 import org.wso2.siddhi.core.util.snapshot.Snapshotable;
+import org.wso2.siddhi.core.util.statistics.IngestTimestamp;
+import org.wso2.siddhi.core.util.statistics.LatencyRecorder;
 import org.wso2.siddhi.core.util.statistics.LatencyTracker;
 
 import java.util.ArrayList;
@@ -39,6 +41,7 @@ public abstract class OutputRateLimiter implements EternalReferencedHolder, Snap
     protected OutputCallback outputCallback = null;
     protected ExecutionPlanContext executionPlanContext;
     protected LatencyTracker latencyTracker;
+    protected LatencyRecorder ingestLatencyRecorder;
     protected LockWrapper lockWrapper;
     protected String queryName;
     private boolean hasCallBack = false;
@@ -59,7 +62,13 @@ public abstract class OutputRateLimiter implements EternalReferencedHolder, Snap
 
     protected void sendToCallBacks(ComplexEventChunk complexEventChunk) {
         if (latencyTracker != null) {
-            latencyTracker.markOut();
+            latencyTracker.markOutput();
+        }
+        if (ingestLatencyRecorder != null) {
+            long ingestTimestamp = IngestTimestamp.get();
+            if (ingestTimestamp != IngestTimestamp.NONE) {
+                ingestLatencyRecorder.record(System.nanoTime() - ingestTimestamp);
+            }
         }
         if (lockWrapper != null) {
             lockWrapper.unlock();
@@ -115,5 +124,12 @@ public abstract class OutputRateLimiter implements EternalReferencedHolder, Snap
     public void setLatencyTracker(LatencyTracker latencyTracker) {
         this.latencyTracker = latencyTracker;
     }
+
+    /**
+     * @param ingestLatencyRecorder recorder of the latency from the ingestion of the events to the output they trigger
+     */
+    public void setIngestLatencyRecorder(LatencyRecorder ingestLatencyRecorder) {
+        this.ingestLatencyRecorder = ingestLatencyRecorder;
+    }
 }
 
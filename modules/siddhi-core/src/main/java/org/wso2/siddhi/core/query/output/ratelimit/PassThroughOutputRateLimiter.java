@@ -34,6 +34,7 @@ public class PassThroughOutputRateLimiter extends OutputRateLimiter {
     public PassThroughOutputRateLimiter clone(String key) {
         PassThroughOutputRateLimiter instance = new PassThroughOutputRateLimiter(id + key);
         instance.setLatencyTracker(latencyTracker);
+        instance.setIngestLatencyRecorder(ingestLatencyRecorder);
         return instance;
     }
 
@@ -45,6 +45,7 @@ public class AllPerEventOutputRateLimiter extends OutputRateLimiter {
     public OutputRateLimiter clone(String key) {
         AllPerEventOutputRateLimiter instance = new AllPerEventOutputRateLimiter(id + key, value);
         instance.setLatencyTracker(latencyTracker);
+        instance.setIngestLatencyRecorder(ingestLatencyRecorder);
         return instance;
     }
 
@@ -46,6 +46,7 @@ public class FirstGroupByPerEventOutputRateLimiter extends OutputRateLimiter {
     public OutputRateLimiter clone(String key) {
         FirstGroupByPerEventOutputRateLimiter instance = new FirstGroupByPerEventOutputRateLimiter(id + key, value);
         instance.setLatencyTracker(latencyTracker);
+        instance.setIngestLatencyRecorder(ingestLatencyRecorder);
         return instance;
     }
 
@@ -40,6 +40,7 @@ public class FirstPerEventOutputRateLimiter extends OutputRateLimiter {
     public OutputRateLimiter clone(String key) {
         FirstPerEventOutputRateLimiter instance = new FirstPerEventOutputRateLimiter(id + key, value);
         instance.setLatencyTracker(latencyTracker);
+        instance.setIngestLatencyRecorder(ingestLatencyRecorder);
         return instance;
     }
 
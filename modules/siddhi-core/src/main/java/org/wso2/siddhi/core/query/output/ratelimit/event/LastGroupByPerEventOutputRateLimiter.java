@@ -44,6 +44,7 @@ public class LastGroupByPerEventOutputRateLimiter extends OutputRateLimiter {
     public OutputRateLimiter clone(String key) {
         LastGroupByPerEventOutputRateLimiter instance = new LastGroupByPerEventOutputRateLimiter(id + key, value);
         instance.setLatencyTracker(latencyTracker);
+        instance.setIngestLatencyRecorder(ingestLatencyRecorder);
         return instance;
     }
 
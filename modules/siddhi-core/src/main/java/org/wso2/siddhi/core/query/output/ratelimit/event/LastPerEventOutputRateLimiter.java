@@ -40,6 +40,7 @@ public class LastPerEventOutputRateLimiter extends OutputRateLimiter {
     public OutputRateLimiter clone(String key) {
         LastPerEventOutputRateLimiter instance = new LastPerEventOutputRateLimiter(id + key, value);
         instance.setLatencyTracker(latencyTracker);
+        instance.setIngestLatencyRecorder(ingestLatencyRecorder);
         return instance;
     }
 
@@ -23,19 +23,28 @@ import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.event.ComplexEventChunk;
 import org.wso2.siddhi.core.event.GroupedComplexEvent;
 
-import java.util.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ScheduledExecutorService;
 
 public class AggregationGroupByWindowedPerSnapshotOutputRateLimiter extends AggregationWindowedPerSnapshotOutputRateLimiter {
     private Map<String, Map<Integer, Object>> groupByAggregateAttributeValueMap;
-    protected LinkedList<GroupedComplexEvent> eventList;
+    protected IndexedEventList<GroupedComplexEvent> eventList;
+    // groups changed since the previous snapshot
+    private Set<String> changedGroupByKeys;
     protected String queryName;
 
     protected AggregationGroupByWindowedPerSnapshotOutputRateLimiter(String id, Long value, ScheduledExecutorService scheduledExecutorService, List<Integer> aggregateAttributePositionList, WrappedSnapshotOutputRateLimiter wrappedSnapshotOutputRateLimiter, ExecutionPlanContext executionPlanContext, String queryName) {
         super(id, value, scheduledExecutorService, aggregateAttributePositionList, wrappedSnapshotOutputRateLimiter, executionPlanContext, queryName);
         this.queryName = queryName;
         groupByAggregateAttributeValueMap = new HashMap<String, Map<Integer, Object>>();
-        eventList = new LinkedList<GroupedComplexEvent>();
+        eventList = new IndexedEventList<GroupedComplexEvent>();
+        changedGroupByKeys = new HashSet<String>();
     }
 
     @Override
@@ -63,24 +72,22 @@ public class AggregationGroupByWindowedPerSnapshotOutputRateLimiter extends Aggr
                         }
                     }
                     if (groupedComplexEvent.getType() == ComplexEvent.Type.CURRENT) {
-                        eventList.add(groupedComplexEvent);
+                        eventList.add(generateKey(groupedComplexEvent.getComplexEvent()), groupedComplexEvent);
                         for (Integer position : aggregateAttributePositionList) {
                             currentAggregateAttributeValueMap.put(position, event.getOutputData()[position]);
                         }
+                        changedGroupByKeys.add(currentGroupByKey);
                     } else if (groupedComplexEvent.getType() == ComplexEvent.Type.EXPIRED) {
-                        for (Iterator<GroupedComplexEvent> iterator = eventList.iterator(); iterator.hasNext(); ) {
-                            GroupedComplexEvent currentEvent = iterator.next();
-                            if (comparator.compare(currentEvent.getComplexEvent(), groupedComplexEvent.getComplexEvent()) == 0) {
-                                iterator.remove();
-                                for (Integer position : aggregateAttributePositionList) {
-                                    currentAggregateAttributeValueMap.put(position, groupedComplexEvent.getOutputData()[position]);
-                                }
-                                break;
+                        if (eventList.removeFirst(generateKey(groupedComplexEvent.getComplexEvent())) != null) {
+                            for (Integer position : aggregateAttributePositionList) {
+                                currentAggregateAttributeValueMap.put(position, groupedComplexEvent.getOutputData()[position]);
                             }
+                            changedGroupByKeys.add(currentGroupByKey);
                         }
                     } else if (groupedComplexEvent.getType() == ComplexEvent.Type.RESET) {
                         eventList.clear();
                         groupByAggregateAttributeValueMap.clear();
+                        changedGroupByKeys.clear();
                     }
                 }
             }
@@ -102,6 +109,9 @@ public class AggregationGroupByWindowedPerSnapshotOutputRateLimiter extends Aggr
         ComplexEventChunk<ComplexEvent> outputEventChunk = new ComplexEventChunk<ComplexEvent>(false);
         for (GroupedComplexEvent originalComplexEvent : eventList) {
             String currentGroupByKey = originalComplexEvent.getGroupKey();
+            if (changesOnly && !changedGroupByKeys.contains(currentGroupByKey)) {
+                continue;
+            }
             Map<Integer, Object> currentAggregateAttributeValueMap = groupByAggregateAttributeValueMap.get(currentGroupByKey);
             ComplexEvent eventCopy = cloneComplexEvent(originalComplexEvent.getComplexEvent());
             for (Integer position : aggregateAttributePositionList) {
@@ -109,20 +119,26 @@ public class AggregationGroupByWindowedPerSnapshotOutputRateLimiter extends Aggr
             }
             outputEventChunk.add(eventCopy);
         }
-        outputEventChunks.add(outputEventChunk);
+        changedGroupByKeys.clear();
+        if (outputEventChunk.getFirst() != null || !changesOnly) {
+            outputEventChunks.add(outputEventChunk);
+        }
     }
 
     @Override
     public Map<String, Object> currentState() {
         Map<String, Object> state = new HashMap<>();
-        state.put("EventList", eventList);
+        state.put("EventList", eventList.toList());
         state.put("GroupByAggregateAttributeValueMap", groupByAggregateAttributeValueMap);
         return state;
     }
 
     @Override
     public void restoreState(Map<String, Object> state) {
-        eventList = (LinkedList<GroupedComplexEvent>) state.get("EventList");
+        eventList.clear();
+        for (GroupedComplexEvent event : (LinkedList<GroupedComplexEvent>) state.get("EventList")) {
+            eventList.add(generateKey(event.getComplexEvent()), event);
+        }
         groupByAggregateAttributeValueMap = (Map<String, Map<Integer, Object>>) state.get("GroupByAggregateAttributeValueMap");
     }
 
@@ -25,17 +25,23 @@ import org.wso2.siddhi.core.event.stream.StreamEventPool;
 import org.wso2.siddhi.core.util.Scheduler;
 import org.wso2.siddhi.core.util.parser.SchedulerParser;
 
-import java.util.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ScheduledExecutorService;
 
 public class AggregationWindowedPerSnapshotOutputRateLimiter extends SnapshotOutputRateLimiter {
     protected String id;
     protected final Long value;
-    protected LinkedList<ComplexEvent> eventList;
-    protected Comparator<ComplexEvent> comparator;
+    private IndexedEventList<ComplexEvent> eventList;
     protected final ScheduledExecutorService scheduledExecutorService;
     protected List<Integer> aggregateAttributePositionList;
     private Map<Integer, Object> aggregateAttributeValueMap;
+    private boolean changed;
     protected Scheduler scheduler;
     protected long scheduledTime;
     protected String queryName;
@@ -45,38 +51,33 @@ public class AggregationWindowedPerSnapshotOutputRateLimiter extends SnapshotOut
         this.id = id;
         this.value = value;
         this.scheduledExecutorService = scheduledExecutorService;
-        this.eventList = new LinkedList<ComplexEvent>();
+        this.eventList = new IndexedEventList<ComplexEvent>();
         this.aggregateAttributePositionList = aggregateAttributePositionList;
         this.queryName = queryName;
         Collections.sort(aggregateAttributePositionList);
         aggregateAttributeValueMap = new HashMap<Integer, Object>(aggregateAttributePositionList.size());
-        this.comparator = new Comparator<ComplexEvent>() {
-            Integer[] aggregateAttributePositions = aggregateAttributePositionList.toArray(new Integer[aggregateAttributePositionList.size()]);
-            int ignoreIndexLength = aggregateAttributePositions.length;
-
-            @Override
-            public int compare(ComplexEvent event1, ComplexEvent event2) {
-                int ignoreIndex = 0;
-                int ignoreIndexPosition = aggregateAttributePositions[0];
-                Object[] data = event1.getOutputData();
-                for (int i = 0; i < data.length; i++) {
-                    if (ignoreIndexPosition == i) {
-                        ignoreIndex++;
-                        if (ignoreIndex == ignoreIndexLength) {
-                            ignoreIndexPosition = -1;
-                        } else {
-                            ignoreIndexPosition = aggregateAttributePositions[i];
-                        }
-                        continue;
-                    }
-                    if (!data[i].equals(event2.getOutputData()[i])) {
-                        return 1;
-                    }
+    }
 
-                }
-                return 0;
+    /**
+     * Key matching an expired event to its current event, which are equal in all but the aggregated attributes.
+     *
+     * @param event current or expired event
+     * @return values of the non aggregated attributes
+     */
+    protected List<Object> generateKey(ComplexEvent event) {
+        Object[] data = event.getOutputData();
+        Object[] key = new Object[data.length - aggregateAttributePositionList.size()];
+        int keyIndex = 0;
+        int aggregateIndex = 0;
+        for (int i = 0; i < data.length; i++) {
+            if (aggregateIndex < aggregateAttributePositionList.size() &&
+                    aggregateAttributePositionList.get(aggregateIndex) == i) {
+                aggregateIndex++;
+            } else {
+                key[keyIndex++] = data[i];
             }
-        };
+        }
+        return Arrays.asList(key);
     }
 
     @Override
@@ -92,24 +93,22 @@ public class AggregationWindowedPerSnapshotOutputRateLimiter extends SnapshotOut
                     complexEventChunk.remove();
                     tryFlushEvents(outputEventChunks, event);
                     if (event.getType() == ComplexEvent.Type.CURRENT) {
-                        eventList.add(event);
+                        eventList.add(generateKey(event), event);
                         for (Integer position : aggregateAttributePositionList) {
                             aggregateAttributeValueMap.put(position, event.getOutputData()[position]);
                         }
+                        changed = true;
                     } else if (event.getType() == ComplexEvent.Type.EXPIRED) {
-                        for (Iterator<ComplexEvent> iterator = eventList.iterator(); iterator.hasNext(); ) {
-                            ComplexEvent complexEvent = iterator.next();
-                            if (comparator.compare(event, complexEvent) == 0) {
-                                iterator.remove();
-                                for (Integer position : aggregateAttributePositionList) {
-                                    aggregateAttributeValueMap.put(position, event.getOutputData()[position]);
-                                }
-                                break;
+                        if (eventList.removeFirst(generateKey(event)) != null) {
+                            for (Integer position : aggregateAttributePositionList) {
+                                aggregateAttributeValueMap.put(position, event.getOutputData()[position]);
                             }
+                            changed = true;
                         }
                     } else if (event.getType() == ComplexEvent.Type.RESET) {
                         eventList.clear();
                         aggregateAttributeValueMap.clear();
+                        changed = true;
                     }
                 }
             }
@@ -121,15 +120,18 @@ public class AggregationWindowedPerSnapshotOutputRateLimiter extends SnapshotOut
 
     private void tryFlushEvents(ArrayList<ComplexEventChunk<ComplexEvent>> outputEventChunks, ComplexEvent event) {
         if (event.getTimestamp() >= scheduledTime) {
-            ComplexEventChunk<ComplexEvent> outputEventChunk = new ComplexEventChunk<ComplexEvent>(false);
-            for (ComplexEvent originalComplexEvent : eventList) {
-                ComplexEvent eventCopy = cloneComplexEvent(originalComplexEvent);
-                for (Integer position : aggregateAttributePositionList) {
-                    eventCopy.getOutputData()[position] = aggregateAttributeValueMap.get(position);
+            if (changed || !changesOnly) {
+                ComplexEventChunk<ComplexEvent> outputEventChunk = new ComplexEventChunk<ComplexEvent>(false);
+                for (ComplexEvent originalComplexEvent : eventList) {
+                    ComplexEvent eventCopy = cloneComplexEvent(originalComplexEvent);
+                    for (Integer position : aggregateAttributePositionList) {
+                        eventCopy.getOutputData()[position] = aggregateAttributeValueMap.get(position);
+                    }
+                    outputEventChunk.add(eventCopy);
                 }
-                outputEventChunk.add(eventCopy);
+                outputEventChunks.add(outputEventChunk);
+                changed = false;
             }
-            outputEventChunks.add(outputEventChunk);
             scheduledTime += value;
             scheduler.notifyAt(scheduledTime);
         }
@@ -153,15 +155,18 @@ public class AggregationWindowedPerSnapshotOutputRateLimiter extends SnapshotOut
     @Override
     public Map<String, Object> currentState() {
         Map<String, Object> state = new HashMap<>();
-        state.put("EventList", eventList);
+        state.put("EventList", eventList.toList());
         state.put("AggregateAttributeValueMap", aggregateAttributeValueMap);
         return state;
     }
 
     @Override
     public void restoreState(Map<String, Object> state) {
-        eventList = (LinkedList<ComplexEvent>) state.get("EventList");
-        aggregateAttributeValueMap = (Map<Integer, Object>) state.get("AdgregateAttributeValueMap");
+        eventList.clear();
+        for (ComplexEvent event : (LinkedList<ComplexEvent>) state.get("EventList")) {
+            eventList.add(generateKey(event), event);
+        }
+        aggregateAttributeValueMap = (Map<Integer, Object>) state.get("AggregateAttributeValueMap");
     }
 
     @Override
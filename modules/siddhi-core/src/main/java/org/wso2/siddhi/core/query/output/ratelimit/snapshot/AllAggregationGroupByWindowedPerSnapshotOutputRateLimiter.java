@@ -96,11 +96,14 @@ public class AllAggregationGroupByWindowedPerSnapshotOutputRateLimiter extends S
                 lastEventHolderEntry.getValue().checkAndClearLastInEvent();
                 if (lastEventHolderEntry.getValue().lastEvent == null) {
                     iterator.remove();
-                } else {
+                } else if (lastEventHolderEntry.getValue().changed || !changesOnly) {
                     outputEventChunk.add(cloneComplexEvent(lastEventHolderEntry.getValue().lastEvent));
+                    lastEventHolderEntry.getValue().changed = false;
                 }
             }
-            outputEventChunks.add(outputEventChunk);
+            if (outputEventChunk.getFirst() != null || !changesOnly) {
+                outputEventChunks.add(outputEventChunk);
+            }
             scheduledTime += value;
             scheduler.notifyAt(scheduledTime);
         }
@@ -136,15 +139,18 @@ public class AllAggregationGroupByWindowedPerSnapshotOutputRateLimiter extends S
     private class LastEventHolder {
         long count = 0;
         ComplexEvent lastEvent = null;
+        boolean changed = false;
 
         public void addLastInEvent(ComplexEvent lastEvent) {
             this.lastEvent = lastEvent;
             count++;
+            changed = true;
         }
 
         public void removeLastInEvent(ComplexEvent lastEvent) {
             this.lastEvent = lastEvent;
             count--;
+            changed = true;
         }
 
         public void checkAndClearLastInEvent() {
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.query.output.ratelimit.snapshot;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Events retained by a windowed snapshot rate limiter, in arrival order and indexed by the key that their expired
+ * counterparts are matched with, so that the earliest event of a key is removed in constant time.
+ *
+ * @param <E> type of the events
+ */
+class IndexedEventList<E> implements Iterable<E> {
+
+    private final Map<List<Object>, ArrayDeque<Node<E>>> keyIndex = new HashMap<List<Object>, ArrayDeque<Node<E>>>();
+    private Node<E> first;
+    private Node<E> last;
+    private int size;
+
+    void add(List<Object> key, E event) {
+        Node<E> node = new Node<E>(event);
+        ArrayDeque<Node<E>> nodes = keyIndex.get(key);
+        if (nodes == null) {
+            nodes = new ArrayDeque<Node<E>>(2);
+            keyIndex.put(key, nodes);
+        }
+        nodes.addLast(node);
+        node.previous = last;
+        if (last == null) {
+            first = node;
+        } else {
+            last.next = node;
+        }
+        last = node;
+        size++;
+    }
+
+    /**
+     * Remove the earliest event of the key.
+     *
+     * @param key key of the event
+     * @return the removed event, or null if there are no events of the key
+     */
+    E removeFirst(List<Object> key) {
+        ArrayDeque<Node<E>> nodes = keyIndex.get(key);
+        if (nodes == null) {
+            return null;
+        }
+        Node<E> node = nodes.pollFirst();
+        if (nodes.isEmpty()) {
+            keyIndex.remove(key);
+        }
+        if (node.previous == null) {
+            first = node.next;
+        } else {
+            node.previous.next = node.next;
+        }
+        if (node.next == null) {
+            last = node.previous;
+        } else {
+            node.next.previous = node.previous;
+        }
+        size--;
+        return node.event;
+    }
+
+    void clear() {
+        keyIndex.clear();
+        first = null;
+        last = null;
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the events in arrival order, to be kept as the snapshot state
+     */
+    LinkedList<E> toList() {
+        LinkedList<E> events = new LinkedList<E>();
+        for (E event : this) {
+            events.add(event);
+        }
+        return events;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            private Node<E> next = first;
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public E next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                E event = next.event;
+                next = next.next;
+                return event;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    private static class Node<E> {
+        private final E event;
+        private Node<E> previous;
+        private Node<E> next;
+
+        private Node(E event) {
+            this.event = event;
+        }
+    }
+}
@@ -39,6 +39,7 @@ public abstract class SnapshotOutputRateLimiter implements Schedulable {
     protected StateEventCloner stateEventCloner;
     private boolean receiveStreamEvent;
     protected LockWrapper lockWrapper;
+    protected boolean changesOnly;
 
     protected SnapshotOutputRateLimiter(WrappedSnapshotOutputRateLimiter wrappedSnapshotOutputRateLimiter, ExecutionPlanContext executionPlanContext) {
         this.wrappedSnapshotOutputRateLimiter = wrappedSnapshotOutputRateLimiter;
@@ -85,6 +86,13 @@ public abstract class SnapshotOutputRateLimiter implements Schedulable {
 
     public abstract void restoreState(Map<String, Object> state);
 
+    /**
+     * Emit only the groups that changed since the previous snapshot, instead of all the retained events.
+     */
+    public void setChangesOnly(boolean changesOnly) {
+        this.changesOnly = changesOnly;
+    }
+
     public void setQueryLock(LockWrapper lockWrapper) {
         this.lockWrapper = lockWrapper;
     }
@@ -26,15 +26,20 @@ import org.wso2.siddhi.core.event.stream.StreamEventPool;
 import org.wso2.siddhi.core.util.Scheduler;
 import org.wso2.siddhi.core.util.parser.SchedulerParser;
 
-import java.util.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ScheduledExecutorService;
 
 public class WindowedPerSnapshotOutputRateLimiter extends SnapshotOutputRateLimiter {
     private String id;
     private final Long value;
     private final ScheduledExecutorService scheduledExecutorService;
-    private LinkedList<ComplexEvent> eventList;
-    private Comparator comparator;
+    private IndexedEventList<ComplexEvent> eventList;
+    private boolean changed;
     private Scheduler scheduler;
     private long scheduledTime;
     private String queryName;
@@ -45,19 +50,7 @@ public class WindowedPerSnapshotOutputRateLimiter extends SnapshotOutputRateLimi
         this.id = id;
         this.value = value;
         this.scheduledExecutorService = scheduledExecutorService;
-        this.eventList = new LinkedList<ComplexEvent>();
-        this.comparator = new Comparator<ComplexEvent>() {
-
-            @Override
-            public int compare(ComplexEvent event1, ComplexEvent event2) {
-                if (Arrays.equals(event1.getOutputData(), event2.getOutputData())) {
-                    return 0;
-                } else {
-                    return 1;
-
-                }
-            }
-        };
+        this.eventList = new IndexedEventList<ComplexEvent>();
     }
 
 
@@ -76,19 +69,18 @@ public class WindowedPerSnapshotOutputRateLimiter extends SnapshotOutputRateLimi
                 } else if (event.getType() == ComplexEvent.Type.CURRENT) {
                     complexEventChunk.remove();
                     tryFlushEvents(outputEventChunks, event);
-                    eventList.add(event);
+                    // retained events are not modified, hence their output data is used as the key as it is
+                    eventList.add(Arrays.asList(event.getOutputData()), event);
+                    changed = true;
                 } else if (event.getType() == ComplexEvent.Type.EXPIRED) {
                     tryFlushEvents(outputEventChunks, event);
-                    for (Iterator<ComplexEvent> iterator = eventList.iterator(); iterator.hasNext(); ) {
-                        ComplexEvent currentEvent = iterator.next();
-                        if (comparator.compare(currentEvent, event) == 0) {
-                            iterator.remove();
-                            break;
-                        }
+                    if (eventList.removeFirst(Arrays.asList(event.getOutputData())) != null) {
+                        changed = true;
                     }
                 } else if (event.getType() == ComplexEvent.Type.RESET) {
                     tryFlushEvents(outputEventChunks, event);
                     eventList.clear();
+                    changed = true;
                 }
             }
         }
@@ -99,11 +91,14 @@ public class WindowedPerSnapshotOutputRateLimiter extends SnapshotOutputRateLimi
 
     private void tryFlushEvents(List<ComplexEventChunk<ComplexEvent>> outputEventChunks, ComplexEvent event) {
         if (event.getTimestamp() >= scheduledTime) {
-            ComplexEventChunk<ComplexEvent> outputEventChunk = new ComplexEventChunk<ComplexEvent>(false);
-            for (ComplexEvent complexEvent : eventList) {
-                outputEventChunk.add(cloneComplexEvent(complexEvent));
+            if (changed || !changesOnly) {
+                ComplexEventChunk<ComplexEvent> outputEventChunk = new ComplexEventChunk<ComplexEvent>(false);
+                for (ComplexEvent complexEvent : eventList) {
+                    outputEventChunk.add(cloneComplexEvent(complexEvent));
+                }
+                outputEventChunks.add(outputEventChunk);
+                changed = false;
             }
-            outputEventChunks.add(outputEventChunk);
             scheduledTime = scheduledTime + value;
             scheduler.notifyAt(scheduledTime);
         }
@@ -132,13 +127,16 @@ public class WindowedPerSnapshotOutputRateLimiter extends SnapshotOutputRateLimi
     @Override
     public Map<String, Object> currentState() {
         Map<String, Object> state = new HashMap<>();
-        state.put("EventList", eventList);
+        state.put("EventList", eventList.toList());
         return state;
     }
 
     @Override
     public void restoreState(Map<String, Object> state) {
-        eventList = (LinkedList<ComplexEvent>) state.get("EventList");
+        eventList.clear();
+        for (ComplexEvent event : (LinkedList<ComplexEvent>) state.get("EventList")) {
+            eventList.add(Arrays.asList(event.getOutputData()), event);
+        }
     }
 
 }
@@ -46,6 +46,7 @@ public class WrappedSnapshotOutputRateLimiter extends OutputRateLimiter {
     private final boolean windowed;
     private ExecutionPlanContext executionPlanContext;
     private List<Integer> aggregateAttributePositionList = new ArrayList<Integer>();
+    private boolean changesOnly;
     String queryName;
 
     public WrappedSnapshotOutputRateLimiter(String id, Long value, ScheduledExecutorService scheduledExecutorService, boolean isGroupBy, boolean isWindowed, ExecutionPlanContext executionPlanContext, String queryName) {
@@ -61,7 +62,11 @@ public class WrappedSnapshotOutputRateLimiter extends OutputRateLimiter {
     @Override
     public OutputRateLimiter clone(String key) {
         WrappedSnapshotOutputRateLimiter instance = new WrappedSnapshotOutputRateLimiter(id + key, value, scheduledExecutorService, groupBy, windowed, executionPlanContext, queryName);
+        instance.changesOnly = changesOnly;
         instance.outputRateLimiter = this.outputRateLimiter.clone(key, instance);
+        instance.outputRateLimiter.setChangesOnly(changesOnly);
+        instance.setLatencyTracker(latencyTracker);
+        instance.setIngestLatencyRecorder(ingestLatencyRecorder);
         return instance;
     }
 
@@ -104,7 +109,7 @@ public class WrappedSnapshotOutputRateLimiter extends OutputRateLimiter {
                 outputRateLimiter = new PerSnapshotOutputRateLimiter(id, value, scheduledExecutorService, this, executionPlanContext, queryName);
             }
         }
-
+        outputRateLimiter.setChangesOnly(changesOnly);
 
         if (metaComplexEvent instanceof MetaStateEvent) {
             StateEventPool stateEventPool = new StateEventPool((MetaStateEvent) metaComplexEvent, 5);
@@ -117,6 +122,14 @@ public class WrappedSnapshotOutputRateLimiter extends OutputRateLimiter {
     }
 
 
+    /**
+     * Emit only the groups that changed since the previous snapshot. Applies to windowed queries, where the
+     * snapshot otherwise repeats all the retained events on each tick.
+     */
+    public void setChangesOnly(boolean changesOnly) {
+        this.changesOnly = changesOnly;
+    }
+
     @Override
     public void start() {
         outputRateLimiter.start();
@@ -58,6 +58,7 @@ public class FirstGroupByPerTimeOutputRateLimiter extends OutputRateLimiter impl
     public OutputRateLimiter clone(String key) {
         FirstGroupByPerTimeOutputRateLimiter instance = new FirstGroupByPerTimeOutputRateLimiter(id + key, value, scheduledExecutorService, queryName);
         instance.setLatencyTracker(latencyTracker);
+        instance.setIngestLatencyRecorder(ingestLatencyRecorder);
         return instance;
     }
 
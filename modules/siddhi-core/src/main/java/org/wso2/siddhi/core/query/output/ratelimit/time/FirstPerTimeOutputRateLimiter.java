@@ -53,6 +53,7 @@ public class FirstPerTimeOutputRateLimiter extends OutputRateLimiter implements
     public OutputRateLimiter clone(String key) {
         FirstPerTimeOutputRateLimiter instance = new FirstPerTimeOutputRateLimiter(id + key, value, scheduledExecutorService, queryName);
         instance.setLatencyTracker(latencyTracker);
+        instance.setIngestLatencyRecorder(ingestLatencyRecorder);
         return instance;
     }
 
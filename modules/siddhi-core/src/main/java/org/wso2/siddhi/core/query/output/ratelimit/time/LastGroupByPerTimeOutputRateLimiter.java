@@ -57,6 +57,7 @@ public class LastGroupByPerTimeOutputRateLimiter extends OutputRateLimiter imple
     public OutputRateLimiter clone(String key) {
         LastGroupByPerTimeOutputRateLimiter instance = new LastGroupByPerTimeOutputRateLimiter(id + key, value, scheduledExecutorService, queryName);
         instance.setLatencyTracker(latencyTracker);
+        instance.setIngestLatencyRecorder(ingestLatencyRecorder);
         return instance;
     }
 
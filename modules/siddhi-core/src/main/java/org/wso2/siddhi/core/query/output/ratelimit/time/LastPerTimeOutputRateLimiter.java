@@ -55,6 +55,7 @@ public class LastPerTimeOutputRateLimiter extends OutputRateLimiter implements S
     public OutputRateLimiter clone(String key) {
         LastPerTimeOutputRateLimiter instance = new LastPerTimeOutputRateLimiter(id + key, value, scheduledExecutorService, queryName);
         instance.setLatencyTracker(latencyTracker);
+        instance.setIngestLatencyRecorder(ingestLatencyRecorder);
         return instance;
     }
 
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.query.processor;
+
+import org.wso2.siddhi.core.event.ComplexEventChunk;
+import org.wso2.siddhi.core.util.statistics.IngestTimestamp;
+import org.wso2.siddhi.core.util.statistics.LatencyRecorder;
+
+/**
+ * Processor placed before a processor of a query, recording the time spent by that processor itself, excluding the
+ * time spent by the processors it sends the events to, which are measured by their own recorders. It is inserted
+ * only when the latency breakdown of the queries is enabled. When latencies are sampled, only the events that are
+ * sampled at ingestion are measured.
+ */
+public class LatencyRecordingProcessor implements Processor {
+
+    // Time spent by the measured processors downstream of the processor being measured by the thread
+    private static final ThreadLocal<long[]> DOWNSTREAM_TIME = new ThreadLocal<long[]>() {
+        @Override
+        protected long[] initialValue() {
+            return new long[1];
+        }
+    };
+
+    private final LatencyRecorder latencyRecorder;
+    private final boolean sampled;
+    private Processor next;
+
+    public LatencyRecordingProcessor(LatencyRecorder latencyRecorder, boolean sampled) {
+        this.latencyRecorder = latencyRecorder;
+        this.sampled = sampled;
+    }
+
+    @Override
+    public void process(ComplexEventChunk complexEventChunk) {
+        if (sampled && IngestTimestamp.get() == IngestTimestamp.NONE) {
+            next.process(complexEventChunk);
+            return;
+        }
+        long[] downstreamTime = DOWNSTREAM_TIME.get();
+        long outerDownstreamTime = downstreamTime[0];
+        downstreamTime[0] = 0;
+        long start = System.nanoTime();
+        try {
+            next.process(complexEventChunk);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            latencyRecorder.record(elapsed - downstreamTime[0]);
+            downstreamTime[0] = outerDownstreamTime + elapsed;
+        }
+    }
+
+    @Override
+    public Processor getNextProcessor() {
+        return next;
+    }
+
+    @Override
+    public void setNextProcessor(Processor processor) {
+        next = processor;
+    }
+
+    @Override
+    public void setToLast(Processor processor) {
+        if (next == null) {
+            this.next = processor;
+        } else {
+            this.next.setToLast(processor);
+        }
+    }
+
+    @Override
+    public Processor cloneProcessor(String key) {
+        return new LatencyRecordingProcessor(latencyRecorder, sampled);
+    }
+}
@@ -43,12 +43,20 @@ public class FilterProcessor implements Processor {
         return new FilterProcessor(conditionExecutor.cloneExecutor(key));
     }
 
+    public ExpressionExecutor getConditionExecutor() {
+        return conditionExecutor;
+    }
+
+    public void setConditionExecutor(ExpressionExecutor conditionExecutor) {
+        this.conditionExecutor = conditionExecutor;
+    }
+
     @Override
     public void process(ComplexEventChunk complexEventChunk) {
         complexEventChunk.reset();
         while (complexEventChunk.hasNext()) {
             ComplexEvent complexEvent = complexEventChunk.next();
-            if (!(Boolean) conditionExecutor.execute(complexEvent)) {
+            if (!conditionExecutor.executeBoolean(complexEvent)) {
                 complexEventChunk.remove();
             }
         }
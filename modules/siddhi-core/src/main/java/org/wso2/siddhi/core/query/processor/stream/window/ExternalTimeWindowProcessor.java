@@ -35,7 +35,9 @@ import org.wso2.siddhi.core.query.processor.Processor;
 import org.wso2.siddhi.core.table.EventTable;
 import org.wso2.siddhi.core.util.collection.operator.Finder;
 import org.wso2.siddhi.core.util.collection.operator.MatchingMetaStateHolder;
+import org.wso2.siddhi.core.util.collection.spill.SpillableEventQueue;
 import org.wso2.siddhi.core.util.parser.OperatorParser;
+import org.wso2.siddhi.core.util.statistics.memory.MemoryAccountable;
 import org.wso2.siddhi.query.api.definition.Attribute;
 import org.wso2.siddhi.query.api.exception.ExecutionPlanValidationException;
 import org.wso2.siddhi.query.api.expression.Expression;
@@ -51,15 +53,15 @@ import java.util.Map;
         @Parameter(name = "timestamp", type = {DataType.LONG}),
         @Parameter(name = "windowTime", type = {DataType.INT, DataType.LONG, DataType.TIME})
 })
-public class ExternalTimeWindowProcessor extends WindowProcessor implements FindableProcessor {
+public class ExternalTimeWindowProcessor extends WindowProcessor implements FindableProcessor, MemoryAccountable {
     static final Logger log = Logger.getLogger(ExternalTimeWindowProcessor.class);
     private long timeToKeep;
-    private ComplexEventChunk<StreamEvent> expiredEventChunk;
+    private SpillableEventQueue expiredEventQueue;
     private VariableExpressionExecutor timeStampVariableExpressionExecutor;
 
     @Override
     protected void init(ExpressionExecutor[] attributeExpressionExecutors, ExecutionPlanContext executionPlanContext) {
-        this.expiredEventChunk = new ComplexEventChunk<StreamEvent>(false);
+        this.expiredEventQueue = createEventQueue();
         if (attributeExpressionExecutors.length == 2) {
             if (attributeExpressionExecutors[1].getReturnType() == Attribute.Type.INT) {
                 timeToKeep = Integer.parseInt(String.valueOf(((ConstantExpressionExecutor) attributeExpressionExecutors[1]).getValue()));
@@ -89,24 +91,22 @@ public class ExternalTimeWindowProcessor extends WindowProcessor implements Find
                 StreamEvent clonedEvent = streamEventCloner.copyStreamEvent(streamEvent);
                 clonedEvent.setType(StreamEvent.Type.EXPIRED);
 
-                while (expiredEventChunk.hasNext()) {
-                    StreamEvent expiredEvent = expiredEventChunk.next();
+                StreamEvent expiredEvent;
+                while ((expiredEvent = expiredEventQueue.peek()) != null) {
                     long expiredEventTime = (Long) timeStampVariableExpressionExecutor.execute(expiredEvent);
                     long timeDiff = expiredEventTime - currentTime + timeToKeep;
                     if (timeDiff <= 0) {
-                        expiredEventChunk.remove();
+                        expiredEventQueue.poll();
                         expiredEvent.setTimestamp(currentTime);
                         streamEventChunk.insertBeforeCurrent(expiredEvent);
                     } else {
-                        expiredEventChunk.reset();
                         break;
                     }
                 }
 
                 if (streamEvent.getType() == StreamEvent.Type.CURRENT) {
-                    this.expiredEventChunk.add(clonedEvent);
+                    this.expiredEventQueue.add(clonedEvent);
                 }
-                expiredEventChunk.reset();
             }
         }
         nextProcessor.process(streamEventChunk);
@@ -119,30 +119,39 @@ public class ExternalTimeWindowProcessor extends WindowProcessor implements Find
 
     @Override
     public void stop() {
-        //Do nothing
+        releaseEventQueues();
     }
 
     @Override
     public Map<String, Object> currentState() {
         Map<String, Object> state = new HashMap<>();
-        state.put("ExpiredEventChunk", expiredEventChunk.getFirst());
+        state.put("ExpiredEventChunk", expiredEventQueue.currentState());
         return state;
     }
 
     @Override
     public void restoreState(Map<String, Object> state) {
-        expiredEventChunk.clear();
-        expiredEventChunk.add((StreamEvent) state.get("ExpiredEventChunk"));
+        expiredEventQueue.restoreState(state.get("ExpiredEventChunk"));
     }
 
     @Override
     public synchronized StreamEvent find(StateEvent matchingEvent, Finder finder) {
-        return finder.find(matchingEvent, expiredEventChunk, streamEventCloner);
+        return finder.find(matchingEvent, expiredEventQueue, streamEventCloner);
     }
 
     @Override
     public Finder constructFinder(Expression expression, MatchingMetaStateHolder matchingMetaStateHolder, ExecutionPlanContext executionPlanContext,
                                   List<VariableExpressionExecutor> variableExpressionExecutors, Map<String, EventTable> eventTableMap) {
-        return OperatorParser.constructOperator(expiredEventChunk, expression, matchingMetaStateHolder, executionPlanContext, variableExpressionExecutors, eventTableMap, queryName);
+        return OperatorParser.constructOperator(expiredEventQueue, expression, matchingMetaStateHolder, executionPlanContext, variableExpressionExecutors, eventTableMap, queryName);
+    }
+
+    @Override
+    public long getRetainedEventCount() {
+        return expiredEventQueue.getEventCount();
+    }
+
+    @Override
+    public long getRetainedMemorySize() {
+        return estimateRetainedMemorySize(expiredEventQueue.getHeapEventCount());
     }
 }
@@ -18,6 +18,7 @@
 
 package org.wso2.siddhi.core.query.processor.stream.window;
 
+import org.apache.log4j.Logger;
 import org.wso2.siddhi.annotation.Description;
 import org.wso2.siddhi.annotation.Parameter;
 import org.wso2.siddhi.annotation.Parameters;
@@ -32,12 +33,16 @@ import org.wso2.siddhi.core.executor.ExpressionExecutor;
 import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
 import org.wso2.siddhi.core.query.processor.Processor;
 import org.wso2.siddhi.core.table.EventTable;
+import org.wso2.siddhi.core.util.collection.StreamSummary;
 import org.wso2.siddhi.core.util.collection.operator.Finder;
 import org.wso2.siddhi.core.util.collection.operator.MatchingMetaStateHolder;
 import org.wso2.siddhi.core.util.parser.OperatorParser;
 import org.wso2.siddhi.query.api.expression.Expression;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -45,7 +50,8 @@ import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This is the implementation of a counting algorithm based on
- * Misra-Gries counting algorithm
+ * Misra-Gries counting algorithm. Counters are kept in a {@link StreamSummary} so that
+ * incrementing a key and expiring the least frequent keys do not scan all the keys.
  */
 @Description("This window returns the latest events with the most frequently " +
         "occurred value for a given attribute(s). Frequency calculation for this " +
@@ -56,11 +62,22 @@ import java.util.concurrent.ConcurrentHashMap;
         @Parameter(name = "attribute2", type = {DataType.STRING}, optional = true)
 })
 public class FrequentWindowProcessor extends WindowProcessor implements FindableProcessor {
-    private ConcurrentHashMap<String, Integer> countMap = new ConcurrentHashMap<String, Integer>();
-    private ConcurrentHashMap<String, StreamEvent> map = new ConcurrentHashMap<String, StreamEvent>();
+    private static final Logger log = Logger.getLogger(FrequentWindowProcessor.class);
+    private static final List<Object> NULL_KEY = Collections.singletonList(null);
+    // State keys of the counters and the retained events. Snapshots of earlier versions hold only the counters of
+    // the string keys under "CountMap".
+    private static final String COUNTS = "Counts";
+    private static final String EVENTS = "Events";
+    private static final String LEGACY_COUNT_MAP = "CountMap";
+
+    private StreamSummary<Object> countSummary = new StreamSummary<Object>();
+    private ConcurrentHashMap<Object, StreamEvent> map = new ConcurrentHashMap<Object, StreamEvent>();
     private VariableExpressionExecutor[] variableExpressionExecutors;
 
     private int mostFrequentCount;
+    // Total of the decrements applied to all counters, counters hold count + decrementCount so that decrementing all
+    // of them is a single increment of decrementCount
+    private long decrementCount;
 
     @Override
     protected void init(ExpressionExecutor[] attributeExpressionExecutors, ExecutionPlanContext executionPlanContext) {
@@ -84,25 +101,20 @@ public class FrequentWindowProcessor extends WindowProcessor implements Findable
                 StreamEvent clonedEvent = streamEventCloner.copyStreamEvent(streamEvent);
                 clonedEvent.setType(StreamEvent.Type.EXPIRED);
 
-                String key = generateKey(streamEvent);
+                Object key = generateKey(streamEvent);
                 StreamEvent oldEvent = map.put(key, clonedEvent);
                 if (oldEvent != null) {
-                    countMap.put(key, countMap.get(key) + 1);
+                    countSummary.increment(key);
                     streamEventChunk.add(streamEvent);
                 } else {
                     //  This is a new event
                     if (map.size() > mostFrequentCount) {
-                        List<String> keys = new ArrayList<String>(countMap.keySet());
-                        for (int i = 0; i < mostFrequentCount; i++) {
-                            int count = countMap.get(keys.get(i)) - 1;
-                            if (count == 0) {
-                                countMap.remove(keys.get(i));
-                                StreamEvent expiredEvent = map.remove(keys.get(i));
-                                expiredEvent.setTimestamp(currentTime);
-                                streamEventChunk.add(expiredEvent);
-                            } else {
-                                countMap.put(keys.get(i), count);
-                            }
+                        // decrement the counts of all the other keys and expire the ones reaching zero
+                        decrementCount++;
+                        while (countSummary.size() > 0 && countSummary.getMinValue() <= decrementCount) {
+                            StreamEvent expiredEvent = map.remove(countSummary.removeMin());
+                            expiredEvent.setTimestamp(currentTime);
+                            streamEventChunk.add(expiredEvent);
                         }
                         // now we have tried to remove one for newly added item
                         if (map.size() > mostFrequentCount) {
@@ -112,12 +124,12 @@ public class FrequentWindowProcessor extends WindowProcessor implements Findable
                             // Here we do nothing just drop the message
                         } else {
                             // we got some space, event is already there in map object
-                            // we just have to add it to the countMap
-                            countMap.put(key, 1);
+                            // we just have to add it to the countSummary
+                            countSummary.add(key, decrementCount + 1);
                             streamEventChunk.add(streamEvent);
                         }
                     } else {
-                        countMap.put(generateKey(streamEvent), 1);
+                        countSummary.add(key, decrementCount + 1);
                         streamEventChunk.add(streamEvent);
                     }
                 }
@@ -138,31 +150,64 @@ public class FrequentWindowProcessor extends WindowProcessor implements Findable
     }
 
     @Override
-    public Map<String, Object> currentState() {
+    public synchronized Map<String, Object> currentState() {
         Map<String, Object> state = new HashMap<>();
-        state.put("CountMap", countMap);
+        Map<Object, Long> countMap = countSummary.toMap();
+        for (Map.Entry<Object, Long> entry : countMap.entrySet()) {
+            entry.setValue(entry.getValue() - decrementCount);
+        }
+        state.put(COUNTS, countMap);
+        state.put(EVENTS, new HashMap<Object, StreamEvent>(map));
         return state;
     }
 
     @Override
-    public void restoreState(Map<String, Object> state) {
-        countMap = (ConcurrentHashMap<String, Integer>) state.get("CountMap");
+    public synchronized void restoreState(Map<String, Object> state) {
+        decrementCount = 0;
+        countSummary.clear();
+        map.clear();
+        Map<Object, Long> countMap = (Map<Object, Long>) state.get(COUNTS);
+        if (countMap == null) {
+            if (state.containsKey(LEGACY_COUNT_MAP)) {
+                // The events of the window were not persisted, hence the counters cannot be matched with events
+                log.warn("Snapshot of frequent window of query '" + queryName + "' is of an earlier version that " +
+                        "does not hold the events of the window, hence the window is restored empty");
+            }
+            return;
+        }
+        List<Map.Entry<Object, Long>> counts = new ArrayList<Map.Entry<Object, Long>>(countMap.entrySet());
+        Collections.sort(counts, new Comparator<Map.Entry<Object, Long>>() {
+            @Override
+            public int compare(Map.Entry<Object, Long> count1, Map.Entry<Object, Long> count2) {
+                return Long.compare(count1.getValue(), count2.getValue());
+            }
+        });
+        for (Map.Entry<Object, Long> count : counts) {
+            countSummary.add(count.getKey(), count.getValue());
+        }
+        Map<Object, StreamEvent> eventMap = (Map<Object, StreamEvent>) state.get(EVENTS);
+        if (eventMap != null) {
+            map.putAll(eventMap);
+        }
     }
 
-    private String generateKey(StreamEvent event) {      // for performance reason if its all attribute we don't do the attribute list check
-        StringBuilder stringBuilder = new StringBuilder();
+    private Object generateKey(StreamEvent event) {      // for performance reason if its all attribute we don't do the attribute list check
+        if (variableExpressionExecutors.length == 1) {
+            Object value = event.getAttribute(variableExpressionExecutors[0].getPosition());
+            // ConcurrentHashMap does not accept null keys
+            return value != null ? value : NULL_KEY;
+        }
+        Object[] values;
         if (variableExpressionExecutors.length == 0) {
-            for (Object data : event.getOutputData()) {
-                stringBuilder.append(data);
-            }
+            values = event.getOutputData().clone();
         } else {
-            for (VariableExpressionExecutor executor : variableExpressionExecutors) {
-                stringBuilder.append(event.getAttribute(executor.getPosition()));
+            values = new Object[variableExpressionExecutors.length];
+            for (int i = 0; i < variableExpressionExecutors.length; i++) {
+                values[i] = event.getAttribute(variableExpressionExecutors[i].getPosition());
             }
         }
-        return stringBuilder.toString();
+        return Arrays.asList(values);
     }
-
     @Override
     public synchronized StreamEvent find(StateEvent matchingEvent, Finder finder) {
         return finder.find(matchingEvent, map.values(), streamEventCloner);
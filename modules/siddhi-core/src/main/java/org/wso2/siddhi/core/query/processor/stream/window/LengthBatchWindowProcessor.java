@@ -35,6 +35,7 @@ import org.wso2.siddhi.core.table.EventTable;
 import org.wso2.siddhi.core.util.collection.operator.Finder;
 import org.wso2.siddhi.core.util.collection.operator.MatchingMetaStateHolder;
 import org.wso2.siddhi.core.util.parser.OperatorParser;
+import org.wso2.siddhi.core.util.statistics.memory.MemoryAccountable;
 import org.wso2.siddhi.query.api.exception.ExecutionPlanValidationException;
 import org.wso2.siddhi.query.api.expression.Expression;
 
@@ -49,10 +50,11 @@ import java.util.Map;
 @Parameters({
         @Parameter(name = "windowLength", type = {DataType.INT})
 })
-public class LengthBatchWindowProcessor extends WindowProcessor implements FindableProcessor {
+public class LengthBatchWindowProcessor extends WindowProcessor implements FindableProcessor, MemoryAccountable {
 
     private int length;
     private int count = 0;
+    private long expiredEventCount = 0;
     private ComplexEventChunk<StreamEvent> currentEventChunk = new ComplexEventChunk<StreamEvent>(false);
     private ComplexEventChunk<StreamEvent> expiredEventChunk = null;
     private ExecutionPlanContext executionPlanContext;
@@ -95,6 +97,7 @@ public class LengthBatchWindowProcessor extends WindowProcessor implements Finda
                     }
                     if (expiredEventChunk != null) {
                         expiredEventChunk.clear();
+                        expiredEventCount = 0;
                     }
 
                     if (currentEventChunk.getFirst() != null) {
@@ -110,6 +113,7 @@ public class LengthBatchWindowProcessor extends WindowProcessor implements Finda
                                 StreamEvent toExpireEvent = streamEventCloner.copyStreamEvent(currentEvent);
                                 toExpireEvent.setType(StreamEvent.Type.EXPIRED);
                                 expiredEventChunk.add(toExpireEvent);
+                                expiredEventCount++;
                             }
                         }
 
@@ -159,6 +163,7 @@ public class LengthBatchWindowProcessor extends WindowProcessor implements Finda
         if (expiredEventChunk != null) {
             expiredEventChunk.clear();
             expiredEventChunk.add((StreamEvent) state.get("ExpiredEventChunk"));
+            expiredEventCount = countEvents(expiredEventChunk.getFirst());
         }
         resetEvent = (StreamEvent) state.get("ResetEvent");
     }
@@ -176,4 +181,14 @@ public class LengthBatchWindowProcessor extends WindowProcessor implements Finda
         }
         return OperatorParser.constructOperator(expiredEventChunk, expression, matchingMetaStateHolder, executionPlanContext, variableExpressionExecutors, eventTableMap, queryName);
     }
+
+    @Override
+    public long getRetainedEventCount() {
+        return count + expiredEventCount;
+    }
+
+    @Override
+    public long getRetainedMemorySize() {
+        return estimateRetainedMemorySize(getRetainedEventCount());
+    }
 }
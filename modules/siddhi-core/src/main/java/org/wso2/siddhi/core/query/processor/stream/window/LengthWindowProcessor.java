@@ -34,6 +34,7 @@ import org.wso2.siddhi.core.table.EventTable;
 import org.wso2.siddhi.core.util.collection.operator.Finder;
 import org.wso2.siddhi.core.util.collection.operator.MatchingMetaStateHolder;
 import org.wso2.siddhi.core.util.parser.OperatorParser;
+import org.wso2.siddhi.core.util.statistics.memory.MemoryAccountable;
 import org.wso2.siddhi.query.api.exception.ExecutionPlanValidationException;
 import org.wso2.siddhi.query.api.expression.Expression;
 
@@ -46,7 +47,7 @@ import java.util.Map;
 @Parameters({
         @Parameter(name = "windowLength", type = {DataType.INT})
 })
-public class LengthWindowProcessor extends WindowProcessor implements FindableProcessor {
+public class LengthWindowProcessor extends WindowProcessor implements FindableProcessor, MemoryAccountable {
 
     private int length;
     private int count = 0;
@@ -133,4 +134,14 @@ public class LengthWindowProcessor extends WindowProcessor implements FindablePr
         expiredEventChunk.clear();
         expiredEventChunk.add((StreamEvent) state.get("ExpiredEventChunk"));
     }
+
+    @Override
+    public long getRetainedEventCount() {
+        return count;
+    }
+
+    @Override
+    public long getRetainedMemorySize() {
+        return estimateRetainedMemorySize(getRetainedEventCount());
+    }
 }
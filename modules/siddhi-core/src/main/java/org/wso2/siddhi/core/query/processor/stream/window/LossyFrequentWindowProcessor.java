@@ -32,12 +32,17 @@ import org.wso2.siddhi.core.executor.ExpressionExecutor;
 import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
 import org.wso2.siddhi.core.query.processor.Processor;
 import org.wso2.siddhi.core.table.EventTable;
+import org.wso2.siddhi.core.util.collection.StreamSummary;
 import org.wso2.siddhi.core.util.collection.operator.Finder;
 import org.wso2.siddhi.core.util.collection.operator.MatchingMetaStateHolder;
 import org.wso2.siddhi.core.util.parser.OperatorParser;
 import org.wso2.siddhi.query.api.expression.Expression;
 
+import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -53,8 +58,12 @@ import java.util.concurrent.ConcurrentHashMap;
 })
 public class LossyFrequentWindowProcessor extends WindowProcessor implements FindableProcessor {
 
-    private ConcurrentHashMap<String, LossyCount> countMap = new ConcurrentHashMap<String, LossyCount>();
-    private ConcurrentHashMap<String, StreamEvent> map = new ConcurrentHashMap<String, StreamEvent>();
+    private static final List<Object> NULL_KEY = Collections.singletonList(null);
+
+    private ConcurrentHashMap<Object, LossyCount> countMap = new ConcurrentHashMap<Object, LossyCount>();
+    // keys ordered by count + bucketId, the bound used to prune them
+    private StreamSummary<Object> pruneSummary = new StreamSummary<Object>();
+    private ConcurrentHashMap<Object, StreamEvent> map = new ConcurrentHashMap<Object, StreamEvent>();
     private VariableExpressionExecutor[] variableExpressionExecutors;
 
     private int totalCount = 0;
@@ -103,42 +112,33 @@ public class LossyFrequentWindowProcessor extends WindowProcessor implements Fin
                 if (totalCount != 1) {
                     currentBucketId = Math.ceil(totalCount / windowWidth);
                 }
-                String currentKey = generateKey(streamEvent);
+                Object currentKey = generateKey(streamEvent);
                 StreamEvent oldEvent = map.put(currentKey, clonedEvent);
+                LossyCount lossyCount;
                 if (oldEvent != null) {    // this event is already in the store
-                    countMap.put(currentKey, countMap.get(currentKey).incrementCount());
+                    lossyCount = countMap.get(currentKey).incrementCount();
+                    pruneSummary.increment(currentKey);
                 } else {
                     //  This is a new event
-                    LossyCount lCount;
-                    lCount = new LossyCount(1, (int) currentBucketId - 1);
-                    countMap.put(currentKey, lCount);
+                    lossyCount = new LossyCount(1, (int) currentBucketId - 1);
+                    countMap.put(currentKey, lossyCount);
+                    pruneSummary.add(currentKey, lossyCount.getCount() + lossyCount.getBucketId());
                 }
-                // calculating all the events in the system which match the
-                // requirement provided by the user
-                List<String> keys = new ArrayList<String>();
-                keys.addAll(countMap.keySet());
-                for (String key : keys) {
-                    LossyCount lossyCount = countMap.get(key);
-                    if (lossyCount.getCount() >= ((support - error) * totalCount)) {
-                        // among the selected events, if the newly arrive event is there we mark it as an inEvent
-                        if (key.equals(currentKey)) {
-                            streamEventChunk.add(streamEvent);
-                        }
-                    }
+                // if the newly arrived event matches the requirement provided by the user we mark it as an inEvent
+                if (lossyCount.getCount() >= ((support - error) * totalCount)) {
+                    streamEventChunk.add(streamEvent);
                 }
                 if (totalCount % windowWidth == 0) {
                     // its time to run the data-structure prune code
-                    keys = new ArrayList<String>();
-                    keys.addAll(countMap.keySet());
-                    for (String key : keys) {
-                        LossyCount lossyCount = countMap.get(key);
-                        if (lossyCount.getCount() + lossyCount.getBucketId() <= currentBucketId) {
-                            log.info("Removing the Event: " + key + " from the window");
-                            countMap.remove(key);
-                            StreamEvent expirtedEvent = map.remove(key);
-                            expirtedEvent.setTimestamp(currentTime);
-                            streamEventChunk.add(expirtedEvent);
+                    while (pruneSummary.size() > 0 && pruneSummary.getMinValue() <= currentBucketId) {
+                        Object key = pruneSummary.removeMin();
+                        if (log.isDebugEnabled()) {
+                            log.debug("Removing the Event: " + key + " from the window");
                         }
+                        countMap.remove(key);
+                        StreamEvent expirtedEvent = map.remove(key);
+                        expirtedEvent.setTimestamp(currentTime);
+                        streamEventChunk.add(expirtedEvent);
                     }
                 }
                 streamEvent = next;
@@ -159,30 +159,61 @@ public class LossyFrequentWindowProcessor extends WindowProcessor implements Fin
 
 
     @Override
-    public Map<String, Object> currentState() {
+    public synchronized Map<String, Object> currentState() {
         Map<String, Object> state = new HashMap<>();
-        state.put("CountMap", countMap);
+        state.put("CountMap", new HashMap<Object, LossyCount>(countMap));
+        state.put("EventMap", new HashMap<Object, StreamEvent>(map));
+        state.put("TotalCount", totalCount);
+        state.put("CurrentBucketId", currentBucketId);
         return state;
     }
 
 
     @Override
-    public void restoreState(Map<String, Object> state) {
-        countMap = (ConcurrentHashMap<String, LossyCount>) state.get("CountMap");
+    public synchronized void restoreState(Map<String, Object> state) {
+        Map<Object, LossyCount> restoredCountMap = (Map<Object, LossyCount>) state.get("CountMap");
+        List<Map.Entry<Object, LossyCount>> counts =
+                new ArrayList<Map.Entry<Object, LossyCount>>(restoredCountMap.entrySet());
+        Collections.sort(counts, new Comparator<Map.Entry<Object, LossyCount>>() {
+            @Override
+            public int compare(Map.Entry<Object, LossyCount> count1, Map.Entry<Object, LossyCount> count2) {
+                return Integer.compare(count1.getValue().getCount() + count1.getValue().getBucketId(),
+                        count2.getValue().getCount() + count2.getValue().getBucketId());
+            }
+        });
+        countMap.clear();
+        pruneSummary.clear();
+        for (Map.Entry<Object, LossyCount> count : counts) {
+            countMap.put(count.getKey(), count.getValue());
+            pruneSummary.add(count.getKey(), count.getValue().getCount() + count.getValue().getBucketId());
+        }
+        map.clear();
+        Map<Object, StreamEvent> eventMap = (Map<Object, StreamEvent>) state.get("EventMap");
+        if (eventMap != null) {
+            map.putAll(eventMap);
+        }
+        if (state.containsKey("TotalCount")) {
+            totalCount = (Integer) state.get("TotalCount");
+            currentBucketId = (Double) state.get("CurrentBucketId");
+        }
     }
 
-    private String generateKey(StreamEvent event) {      // for performance reason if its all attribute we don't do the attribute list check
-        StringBuilder stringBuilder = new StringBuilder();
+    private Object generateKey(StreamEvent event) {      // for performance reason if its all attribute we don't do the attribute list check
+        if (variableExpressionExecutors.length == 1) {
+            Object value = event.getAttribute(variableExpressionExecutors[0].getPosition());
+            // ConcurrentHashMap does not accept null keys
+            return value != null ? value : NULL_KEY;
+        }
+        Object[] values;
         if (variableExpressionExecutors.length == 0) {
-            for (Object data : event.getOutputData()) {
-                stringBuilder.append(data);
-            }
+            values = event.getOutputData().clone();
         } else {
-            for (VariableExpressionExecutor executor : variableExpressionExecutors) {
-                stringBuilder.append(event.getAttribute(executor.getPosition()));
+            values = new Object[variableExpressionExecutors.length];
+            for (int i = 0; i < variableExpressionExecutors.length; i++) {
+                values[i] = event.getAttribute(variableExpressionExecutors[i].getPosition());
             }
         }
-        return stringBuilder.toString();
+        return Arrays.asList(values);
     }
 
     @Override
@@ -196,7 +227,7 @@ public class LossyFrequentWindowProcessor extends WindowProcessor implements Fin
         return OperatorParser.constructOperator(map.values(), expression, matchingMetaStateHolder, executionPlanContext, variableExpressionExecutors, eventTableMap, queryName);
     }
 
-    public class LossyCount {
+    public static class LossyCount implements Serializable {
         int count;
         int bucketId;
 
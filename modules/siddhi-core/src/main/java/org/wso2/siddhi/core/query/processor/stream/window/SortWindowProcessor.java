@@ -35,6 +35,7 @@ import org.wso2.siddhi.core.table.EventTable;
 import org.wso2.siddhi.core.util.collection.operator.Finder;
 import org.wso2.siddhi.core.util.collection.operator.MatchingMetaStateHolder;
 import org.wso2.siddhi.core.util.parser.OperatorParser;
+import org.wso2.siddhi.core.util.statistics.memory.MemoryAccountable;
 import org.wso2.siddhi.query.api.definition.Attribute;
 import org.wso2.siddhi.query.api.expression.Expression;
 
@@ -60,7 +61,7 @@ import java.util.*;
         @Parameter(name = "attribute2", type = {DataType.STRING}, optional = true),
         @Parameter(name = "order2", type = {DataType.STRING}, optional = true)
 })
-public class SortWindowProcessor extends WindowProcessor implements FindableProcessor {
+public class SortWindowProcessor extends WindowProcessor implements FindableProcessor, MemoryAccountable {
     private static final String ASC = "asc";
     private static final String DESC = "desc";
     private int lengthToKeep;
@@ -184,4 +185,14 @@ public class SortWindowProcessor extends WindowProcessor implements FindableProc
             return 0;
         }
     }
+
+    @Override
+    public long getRetainedEventCount() {
+        return sortedWindow.size();
+    }
+
+    @Override
+    public long getRetainedMemorySize() {
+        return estimateRetainedMemorySize(getRetainedEventCount());
+    }
 }
@@ -55,6 +55,10 @@ public class TableWindowProcessor extends WindowProcessor implements FindablePro
         // nothing to be done
     }
 
+    public EventTable getEventTable() {
+        return eventTable;
+    }
+
     @Override
     public StreamEvent find(StateEvent matchingEvent, Finder finder) {
         return eventTable.find(matchingEvent, finder);
@@ -36,7 +36,9 @@ import org.wso2.siddhi.core.table.EventTable;
 import org.wso2.siddhi.core.util.Scheduler;
 import org.wso2.siddhi.core.util.collection.operator.Finder;
 import org.wso2.siddhi.core.util.collection.operator.MatchingMetaStateHolder;
+import org.wso2.siddhi.core.util.collection.spill.SpillableEventQueue;
 import org.wso2.siddhi.core.util.parser.OperatorParser;
+import org.wso2.siddhi.core.util.statistics.memory.MemoryAccountable;
 import org.wso2.siddhi.query.api.definition.Attribute;
 import org.wso2.siddhi.query.api.exception.ExecutionPlanValidationException;
 import org.wso2.siddhi.query.api.expression.Expression;
@@ -53,12 +55,12 @@ import java.util.Map;
                 description = "This specifies an offset in milliseconds in order to start the " +
                         "window at a time different to the standard time")
 })
-public class TimeBatchWindowProcessor extends WindowProcessor implements SchedulingProcessor, FindableProcessor {
+public class TimeBatchWindowProcessor extends WindowProcessor implements SchedulingProcessor, FindableProcessor, MemoryAccountable {
 
     private long timeInMilliSeconds;
     private long nextEmitTime = -1;
-    private ComplexEventChunk<StreamEvent> currentEventChunk = new ComplexEventChunk<StreamEvent>(false);
-    private ComplexEventChunk<StreamEvent> expiredEventChunk = null;
+    private SpillableEventQueue currentEventQueue;
+    private SpillableEventQueue expiredEventQueue = null;
     private StreamEvent resetEvent = null;
     private Scheduler scheduler;
     private ExecutionPlanContext executionPlanContext;
@@ -82,8 +84,9 @@ public class TimeBatchWindowProcessor extends WindowProcessor implements Schedul
     @Override
     protected void init(ExpressionExecutor[] attributeExpressionExecutors, ExecutionPlanContext executionPlanContext) {
         this.executionPlanContext = executionPlanContext;
+        this.currentEventQueue = createEventQueue();
         if (outputExpectsExpiredEvents) {
-            this.expiredEventChunk = new ComplexEventChunk<StreamEvent>(false);
+            this.expiredEventQueue = createEventQueue();
         }
         if (attributeExpressionExecutors.length == 1) {
             if (attributeExpressionExecutors[0] instanceof ConstantExpressionExecutor) {
@@ -153,45 +156,44 @@ public class TimeBatchWindowProcessor extends WindowProcessor implements Schedul
                     continue;
                 }
                 StreamEvent clonedStreamEvent = streamEventCloner.copyStreamEvent(streamEvent);
-                currentEventChunk.add(clonedStreamEvent);
+                currentEventQueue.add(clonedStreamEvent);
             }
             streamEventChunk.clear();
             if (sendEvents) {
 
                 if (outputExpectsExpiredEvents) {
-                    if (expiredEventChunk.getFirst() != null) {
-                        while (expiredEventChunk.hasNext()) {
-                            StreamEvent expiredEvent = expiredEventChunk.next();
-                            expiredEvent.setTimestamp(currentTime);
-                        }
-                        streamEventChunk.add(expiredEventChunk.getFirst());
+                    StreamEvent expiredEvent;
+                    while ((expiredEvent = expiredEventQueue.poll()) != null) {
+                        expiredEvent.setTimestamp(currentTime);
+                        streamEventChunk.add(expiredEvent);
                     }
                 }
-                if (expiredEventChunk != null) {
-                    expiredEventChunk.clear();
+                if (expiredEventQueue != null) {
+                    expiredEventQueue.clear();
                 }
 
-                if (currentEventChunk.getFirst() != null) {
+                if (!currentEventQueue.isEmpty()) {
 
                     // add reset event in front of current events
-                    streamEventChunk.add(resetEvent);
-                    resetEvent = null;
+                    if (resetEvent != null) {
+                        streamEventChunk.add(resetEvent);
+                        resetEvent = null;
+                    }
 
-                    if (expiredEventChunk != null) {
-                        currentEventChunk.reset();
-                        while (currentEventChunk.hasNext()) {
-                            StreamEvent currentEvent = currentEventChunk.next();
+                    StreamEvent currentEvent;
+                    while ((currentEvent = currentEventQueue.poll()) != null) {
+                        if (resetEvent == null) {
+                            resetEvent = streamEventCloner.copyStreamEvent(currentEvent);
+                            resetEvent.setType(ComplexEvent.Type.RESET);
+                        }
+                        if (expiredEventQueue != null) {
                             StreamEvent toExpireEvent = streamEventCloner.copyStreamEvent(currentEvent);
                             toExpireEvent.setType(StreamEvent.Type.EXPIRED);
-                            expiredEventChunk.add(toExpireEvent);
+                            expiredEventQueue.add(toExpireEvent);
                         }
+                        streamEventChunk.add(currentEvent);
                     }
-
-                    resetEvent = streamEventCloner.copyStreamEvent(currentEventChunk.getFirst());
-                    resetEvent.setType(ComplexEvent.Type.RESET);
-                    streamEventChunk.add(currentEventChunk.getFirst());
                 }
-                currentEventChunk.clear();
             }
         }
         if (streamEventChunk.getFirst() != null) {
@@ -216,40 +218,49 @@ public class TimeBatchWindowProcessor extends WindowProcessor implements Schedul
 
     @Override
     public void stop() {
-        //Do nothing
+        releaseEventQueues();
     }
 
     @Override
     public Map<String, Object> currentState() {
         Map<String, Object> state = new HashMap<>();
-        state.put("CurrentEventChunk", currentEventChunk.getFirst());
-        state.put("ExpiredEventChunk", expiredEventChunk != null ? expiredEventChunk.getFirst() : null);
+        state.put("CurrentEventChunk", currentEventQueue.currentState());
+        state.put("ExpiredEventChunk", expiredEventQueue != null ? expiredEventQueue.currentState() : null);
         state.put("ResetEvent", resetEvent);
         return state;
     }
 
     @Override
     public void restoreState(Map<String, Object> state) {
-        if (expiredEventChunk != null) {
-            expiredEventChunk.clear();
-            expiredEventChunk.add((StreamEvent) state.get("ExpiredEventChunk"));
+        if (expiredEventQueue != null) {
+            expiredEventQueue.restoreState(state.get("ExpiredEventChunk"));
         }
-        currentEventChunk.clear();
-        currentEventChunk.add((StreamEvent) state.get("CurrentEventChunk"));
+        currentEventQueue.restoreState(state.get("CurrentEventChunk"));
         resetEvent = (StreamEvent) state.get("ResetEvent");
     }
 
     @Override
     public synchronized StreamEvent find(StateEvent matchingEvent, Finder finder) {
-        return finder.find(matchingEvent, expiredEventChunk, streamEventCloner);
+        return finder.find(matchingEvent, expiredEventQueue, streamEventCloner);
     }
 
     @Override
     public Finder constructFinder(Expression expression, MatchingMetaStateHolder matchingMetaStateHolder, ExecutionPlanContext executionPlanContext,
                                   List<VariableExpressionExecutor> variableExpressionExecutors, Map<String, EventTable> eventTableMap) {
-        if (expiredEventChunk == null) {
-            expiredEventChunk = new ComplexEventChunk<StreamEvent>(false);
+        if (expiredEventQueue == null) {
+            expiredEventQueue = createEventQueue();
         }
-        return OperatorParser.constructOperator(expiredEventChunk, expression, matchingMetaStateHolder, executionPlanContext, variableExpressionExecutors, eventTableMap, queryName);
+        return OperatorParser.constructOperator(expiredEventQueue, expression, matchingMetaStateHolder, executionPlanContext, variableExpressionExecutors, eventTableMap, queryName);
+    }
+
+    @Override
+    public long getRetainedEventCount() {
+        return currentEventQueue.getEventCount() + (expiredEventQueue != null ? expiredEventQueue.getEventCount() : 0);
+    }
+
+    @Override
+    public long getRetainedMemorySize() {
+        return estimateRetainedMemorySize(currentEventQueue.getHeapEventCount() +
+                (expiredEventQueue != null ? expiredEventQueue.getHeapEventCount() : 0));
     }
 }
@@ -36,6 +36,7 @@ import org.wso2.siddhi.core.util.Scheduler;
 import org.wso2.siddhi.core.util.collection.operator.Finder;
 import org.wso2.siddhi.core.util.collection.operator.MatchingMetaStateHolder;
 import org.wso2.siddhi.core.util.parser.OperatorParser;
+import org.wso2.siddhi.core.util.statistics.memory.MemoryAccountable;
 import org.wso2.siddhi.query.api.definition.Attribute;
 import org.wso2.siddhi.query.api.exception.ExecutionPlanValidationException;
 import org.wso2.siddhi.query.api.expression.Expression;
@@ -50,7 +51,7 @@ import java.util.Map;
         @Parameter(name = "windowTime", type = {DataType.INT, DataType.LONG, DataType.TIME}),
         @Parameter(name = "windowLength", type = {DataType.INT})
 })
-public class TimeLengthWindowProcessor extends WindowProcessor implements SchedulingProcessor, FindableProcessor {
+public class TimeLengthWindowProcessor extends WindowProcessor implements SchedulingProcessor, FindableProcessor, MemoryAccountable {
 
     private long timeInMilliSeconds;
     private int length;
@@ -175,7 +176,16 @@ public class TimeLengthWindowProcessor extends WindowProcessor implements Schedu
     public void restoreState(Map<String, Object> state) {
         expiredEventChunk.clear();
         expiredEventChunk.add((StreamEvent) state.get("ExpiredEventChunk"));
+        count = (int) countEvents(expiredEventChunk.getFirst());
     }
 
-}
+    @Override
+    public long getRetainedEventCount() {
+        return count;
+    }
 
+    @Override
+    public long getRetainedMemorySize() {
+        return estimateRetainedMemorySize(getRetainedEventCount());
+    }
+}
@@ -35,7 +35,9 @@ import org.wso2.siddhi.core.table.EventTable;
 import org.wso2.siddhi.core.util.Scheduler;
 import org.wso2.siddhi.core.util.collection.operator.Finder;
 import org.wso2.siddhi.core.util.collection.operator.MatchingMetaStateHolder;
+import org.wso2.siddhi.core.util.collection.spill.SpillableEventQueue;
 import org.wso2.siddhi.core.util.parser.OperatorParser;
+import org.wso2.siddhi.core.util.statistics.memory.MemoryAccountable;
 import org.wso2.siddhi.query.api.definition.Attribute;
 import org.wso2.siddhi.query.api.exception.ExecutionPlanValidationException;
 import org.wso2.siddhi.query.api.expression.Expression;
@@ -49,10 +51,10 @@ import java.util.Map;
 @Parameters({
         @Parameter(name = "windowTime", type = {DataType.INT, DataType.LONG, DataType.TIME})
 })
-public class TimeWindowProcessor extends WindowProcessor implements SchedulingProcessor, FindableProcessor {
+public class TimeWindowProcessor extends WindowProcessor implements SchedulingProcessor, FindableProcessor, MemoryAccountable {
 
     private long timeInMilliSeconds;
-    private ComplexEventChunk<StreamEvent> expiredEventChunk;
+    private SpillableEventQueue expiredEventQueue;
     private Scheduler scheduler;
     private ExecutionPlanContext executionPlanContext;
     private volatile long lastTimestamp = Long.MIN_VALUE;
@@ -74,7 +76,7 @@ public class TimeWindowProcessor extends WindowProcessor implements SchedulingPr
     @Override
     protected void init(ExpressionExecutor[] attributeExpressionExecutors, ExecutionPlanContext executionPlanContext) {
         this.executionPlanContext = executionPlanContext;
-        this.expiredEventChunk = new ComplexEventChunk<StreamEvent>(false);
+        this.expiredEventQueue = createEventQueue();
         if (attributeExpressionExecutors.length == 1) {
             if (attributeExpressionExecutors[0] instanceof ConstantExpressionExecutor) {
                 if (attributeExpressionExecutors[0].getReturnType() == Attribute.Type.INT) {
@@ -101,12 +103,11 @@ public class TimeWindowProcessor extends WindowProcessor implements SchedulingPr
                 StreamEvent streamEvent = streamEventChunk.next();
                 long currentTime = executionPlanContext.getTimestampGenerator().currentTime();
 
-                expiredEventChunk.reset();
-                while (expiredEventChunk.hasNext()) {
-                    StreamEvent expiredEvent = expiredEventChunk.next();
+                StreamEvent expiredEvent;
+                while ((expiredEvent = expiredEventQueue.peek()) != null) {
                     long timeDiff = expiredEvent.getTimestamp() - currentTime + timeInMilliSeconds;
                     if (timeDiff <= 0) {
-                        expiredEventChunk.remove();
+                        expiredEventQueue.poll();
                         expiredEvent.setTimestamp(currentTime);
                         streamEventChunk.insertBeforeCurrent(expiredEvent);
                     } else {
@@ -118,7 +119,7 @@ public class TimeWindowProcessor extends WindowProcessor implements SchedulingPr
 
                     StreamEvent clonedEvent = streamEventCloner.copyStreamEvent(streamEvent);
                     clonedEvent.setType(StreamEvent.Type.EXPIRED);
-                    this.expiredEventChunk.add(clonedEvent);
+                    this.expiredEventQueue.add(clonedEvent);
 
                     if (lastTimestamp < clonedEvent.getTimestamp()) {
                         scheduler.notifyAt(clonedEvent.getTimestamp() + timeInMilliSeconds);
@@ -128,20 +129,19 @@ public class TimeWindowProcessor extends WindowProcessor implements SchedulingPr
                     streamEventChunk.remove();
                 }
             }
-            expiredEventChunk.reset();
         }
         nextProcessor.process(streamEventChunk);
     }
 
     @Override
     public synchronized StreamEvent find(StateEvent matchingEvent, Finder finder) {
-        return finder.find(matchingEvent, expiredEventChunk, streamEventCloner);
+        return finder.find(matchingEvent, expiredEventQueue, streamEventCloner);
     }
 
     @Override
     public Finder constructFinder(Expression expression, MatchingMetaStateHolder matchingMetaStateHolder, ExecutionPlanContext executionPlanContext,
                                   List<VariableExpressionExecutor> variableExpressionExecutors, Map<String, EventTable> eventTableMap) {
-        return OperatorParser.constructOperator(expiredEventChunk, expression, matchingMetaStateHolder, executionPlanContext, variableExpressionExecutors, eventTableMap, queryName);
+        return OperatorParser.constructOperator(expiredEventQueue, expression, matchingMetaStateHolder, executionPlanContext, variableExpressionExecutors, eventTableMap, queryName);
     }
 
     @Override
@@ -151,19 +151,28 @@ public class TimeWindowProcessor extends WindowProcessor implements SchedulingPr
 
     @Override
     public void stop() {
-        //Do nothing
+        releaseEventQueues();
     }
 
     @Override
     public Map<String, Object> currentState() {
         Map<String, Object> state = new HashMap<>();
-        state.put("ExpiredEventChunk", expiredEventChunk.getFirst());
+        state.put("ExpiredEventChunk", expiredEventQueue.currentState());
         return state;
     }
 
     @Override
     public void restoreState(Map<String, Object> state) {
-        expiredEventChunk.clear();
-        expiredEventChunk.add((StreamEvent) state.get("ExpiredEventChunk"));
+        expiredEventQueue.restoreState(state.get("ExpiredEventChunk"));
+    }
+
+    @Override
+    public long getRetainedEventCount() {
+        return expiredEventQueue.getEventCount();
+    }
+
+    @Override
+    public long getRetainedMemorySize() {
+        return estimateRetainedMemorySize(expiredEventQueue.getHeapEventCount());
     }
 }
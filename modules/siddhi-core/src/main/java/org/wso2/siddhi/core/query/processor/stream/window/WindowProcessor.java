@@ -25,6 +25,9 @@ import org.wso2.siddhi.core.event.stream.populater.ComplexEventPopulater;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 import org.wso2.siddhi.core.query.processor.Processor;
 import org.wso2.siddhi.core.query.processor.stream.AbstractStreamProcessor;
+import org.wso2.siddhi.core.util.collection.spill.SpillConfiguration;
+import org.wso2.siddhi.core.util.collection.spill.SpillableEventQueue;
+import org.wso2.siddhi.core.util.statistics.memory.EventSizeEstimator;
 import org.wso2.siddhi.query.api.definition.AbstractDefinition;
 import org.wso2.siddhi.query.api.definition.Attribute;
 
@@ -35,6 +38,9 @@ public abstract class WindowProcessor extends AbstractStreamProcessor {
 
     //Introduced to maintain backward compatible
     protected boolean outputExpectsExpiredEvents;
+    private EventSizeEstimator eventSizeEstimator;
+    private SpillConfiguration spillConfiguration;
+    private List<SpillableEventQueue> eventQueues;
 
     @Override
     protected List<Attribute> init(AbstractDefinition inputDefinition, ExpressionExecutor[] attributeExpressionExecutors, ExecutionPlanContext executionPlanContext, boolean outputExpectsExpiredEvents) {
@@ -67,4 +73,83 @@ public abstract class WindowProcessor extends AbstractStreamProcessor {
     protected abstract void process(ComplexEventChunk<StreamEvent> streamEventChunk, Processor nextProcessor,
                                     StreamEventCloner streamEventCloner);
 
+    /**
+     * Create a queue for the events retained by the window, which spills its older events to memory mapped files
+     * when the plan or the query configures spilling
+     *
+     * @return the event queue
+     */
+    protected SpillableEventQueue createEventQueue() {
+        SpillableEventQueue eventQueue = new SpillableEventQueue(spillConfiguration != null ? spillConfiguration :
+                executionPlanContext.getSpillConfiguration());
+        if (eventQueues == null) {
+            eventQueues = new ArrayList<SpillableEventQueue>(2);
+        }
+        eventQueues.add(eventQueue);
+        return eventQueue;
+    }
+
+    /**
+     * Unmap the segments of the event queues when the window stops, holding the lock of the window so that no event
+     * is read from them meanwhile
+     */
+    protected void releaseEventQueues() {
+        if (eventQueues != null) {
+            synchronized (this) {
+                for (SpillableEventQueue eventQueue : eventQueues) {
+                    eventQueue.release();
+                }
+            }
+        }
+    }
+
+    /**
+     * Override the spill settings of the plan for the event queues of this window
+     *
+     * @param spillConfiguration spill settings of the query
+     */
+    public void setSpillConfiguration(SpillConfiguration spillConfiguration) {
+        this.spillConfiguration = spillConfiguration;
+        if (eventQueues != null) {
+            for (SpillableEventQueue eventQueue : eventQueues) {
+                eventQueue.setConfiguration(spillConfiguration);
+            }
+        }
+    }
+
+    @Override
+    public Processor cloneProcessor(String key) {
+        Processor processor = super.cloneProcessor(key);
+        if (spillConfiguration != null) {
+            ((WindowProcessor) processor).setSpillConfiguration(spillConfiguration);
+        }
+        return processor;
+    }
+
+    /**
+     * Estimate the memory held by the given number of events retained by the window, for windows that account for
+     * their memory usage
+     *
+     * @param eventCount number of events retained
+     * @return approximate size in bytes
+     */
+    protected long estimateRetainedMemorySize(long eventCount) {
+        if (eventSizeEstimator == null) {
+            eventSizeEstimator = new EventSizeEstimator(inputDefinition.getAttributeList());
+        }
+        return eventSizeEstimator.estimate(eventCount);
+    }
+
+    /**
+     * @param streamEvent first event of an event chain
+     * @return number of events in the chain
+     */
+    protected static long countEvents(StreamEvent streamEvent) {
+        long count = 0;
+        while (streamEvent != null) {
+            count++;
+            streamEvent = streamEvent.getNext();
+        }
+        return count;
+    }
 }
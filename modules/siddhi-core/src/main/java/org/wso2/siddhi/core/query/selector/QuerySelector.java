@@ -25,6 +25,7 @@ import org.wso2.siddhi.core.event.GroupedComplexEvent;
 import org.wso2.siddhi.core.event.state.populater.StateEventPopulator;
 import org.wso2.siddhi.core.event.stream.StreamEvent;
 import org.wso2.siddhi.core.exception.ExecutionPlanCreationException;
+import org.wso2.siddhi.core.executor.compiled.CompiledProjection;
 import org.wso2.siddhi.core.executor.condition.ConditionExpressionExecutor;
 import org.wso2.siddhi.core.query.output.ratelimit.OutputRateLimiter;
 import org.wso2.siddhi.core.query.processor.Processor;
@@ -48,6 +49,7 @@ public class QuerySelector implements Processor {
     private boolean containsAggregator = false;
     private OutputRateLimiter outputRateLimiter;
     private List<AttributeProcessor> attributeProcessorList;
+    private CompiledProjection compiledProjection;
     private ConditionExpressionExecutor havingConditionExecutor = null;
     private boolean isGroupBy = false;
     private GroupByKeyGenerator groupByKeyGenerator;
@@ -100,9 +102,7 @@ public class QuerySelector implements Processor {
                     case CURRENT:
                     case EXPIRED:
                         eventPopulator.populateStateEvent(event);
-                        for (AttributeProcessor attributeProcessor : attributeProcessorList) {
-                            attributeProcessor.process(event);
-                        }
+                        processAttributes(event);
                         if (((event.getType() != StreamEvent.Type.CURRENT || !currentOn) && (event.getType() != StreamEvent.Type.EXPIRED || !expiredOn)) || ((havingConditionExecutor != null && !havingConditionExecutor.execute(event)))) {
                             complexEventChunk.remove();
                         }
@@ -140,9 +140,7 @@ public class QuerySelector implements Processor {
                         String groupedByKey = groupByKeyGenerator.constructEventKey(event);
                         keyThreadLocal.set(groupedByKey);
 
-                        for (AttributeProcessor attributeProcessor : attributeProcessorList) {
-                            attributeProcessor.process(event);
-                        }
+                        processAttributes(event);
                         if ((event.getType() == StreamEvent.Type.CURRENT && currentOn) || (event.getType() == StreamEvent.Type.EXPIRED && expiredOn)) {
                             if (!(havingConditionExecutor != null && !havingConditionExecutor.execute(event))) {
                                 complexEventChunk.remove();
@@ -178,9 +176,7 @@ public class QuerySelector implements Processor {
                     case CURRENT:
                     case EXPIRED:
                         eventPopulator.populateStateEvent(event);
-                        for (AttributeProcessor attributeProcessor : attributeProcessorList) {
-                            attributeProcessor.process(event);
-                        }
+                        processAttributes(event);
                         if (!(havingConditionExecutor != null && !havingConditionExecutor.execute(event))) {
                             if ((event.getType() == StreamEvent.Type.CURRENT && currentOn) || (event.getType() == StreamEvent.Type.EXPIRED && expiredOn)) {
                                 complexEventChunk.remove();
@@ -221,9 +217,7 @@ public class QuerySelector implements Processor {
                         String groupByKey = groupByKeyGenerator.constructEventKey(event);
                         keyThreadLocal.set(groupByKey);
 
-                        for (AttributeProcessor attributeProcessor : attributeProcessorList) {
-                            attributeProcessor.process(event);
-                        }
+                        processAttributes(event);
 
                         if (!(havingConditionExecutor != null && !havingConditionExecutor.execute(event))) {
                             if ((event.getType() == StreamEvent.Type.CURRENT && currentOn) || (event.getType() == StreamEvent.Type.EXPIRED && expiredOn)) {
@@ -254,6 +248,16 @@ public class QuerySelector implements Processor {
         }
     }
 
+    private void processAttributes(ComplexEvent event) {
+        if (compiledProjection != null) {
+            compiledProjection.project(event);
+        } else {
+            for (AttributeProcessor attributeProcessor : attributeProcessorList) {
+                attributeProcessor.process(event);
+            }
+        }
+    }
+
     @Override
     public Processor getNextProcessor() {
         return null;    //since there is no processors after a query selector
@@ -296,6 +300,20 @@ public class QuerySelector implements Processor {
         this.containsAggregator = this.containsAggregator || containsAggregator;
     }
 
+    public boolean containsAggregator() {
+        return containsAggregator;
+    }
+
+    /**
+     * Set a compiled projection to populate the output data instead of the attribute processors, which are kept
+     * for the output rate limiters that use them.
+     *
+     * @param compiledProjection projection compiled from the attribute processors
+     */
+    public void setCompiledProjection(CompiledProjection compiledProjection) {
+        this.compiledProjection = compiledProjection;
+    }
+
     public void setGroupByKeyGenerator(GroupByKeyGenerator groupByKeyGenerator) {
         isGroupBy = true;
         this.groupByKeyGenerator = groupByKeyGenerator;
@@ -313,6 +331,7 @@ public class QuerySelector implements Processor {
             clonedAttributeProcessorList.add(attributeProcessor.cloneProcessor(key));
         }
         clonedQuerySelector.attributeProcessorList = clonedAttributeProcessorList;
+        clonedQuerySelector.compiledProjection = compiledProjection;
         clonedQuerySelector.isGroupBy = isGroupBy;
         clonedQuerySelector.containsAggregator = containsAggregator;
         clonedQuerySelector.groupByKeyGenerator = groupByKeyGenerator;
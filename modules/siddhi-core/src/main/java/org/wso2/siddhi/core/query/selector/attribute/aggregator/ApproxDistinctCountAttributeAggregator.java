@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.query.selector.attribute.aggregator;
+
+import org.wso2.siddhi.annotation.Description;
+import org.wso2.siddhi.annotation.Parameter;
+import org.wso2.siddhi.annotation.Parameters;
+import org.wso2.siddhi.annotation.Return;
+import org.wso2.siddhi.annotation.util.DataType;
+import org.wso2.siddhi.core.config.ExecutionPlanContext;
+import org.wso2.siddhi.core.exception.OperationNotSupportedException;
+import org.wso2.siddhi.core.executor.ConstantExpressionExecutor;
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.util.collection.HyperLogLog;
+import org.wso2.siddhi.query.api.definition.Attribute;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Description("Returns the approximate count of distinct occurrences for a given arg. The count is estimated " +
+        "with a HyperLogLog sketch that also counts the hashes of each register, so that expired events " +
+        "are removed. As those counts are kept per register, the relative error defaults to 0.02 and is at " +
+        "least about 0.016; use approxDistinctCountForever for the smaller sketch when events never expire.")
+@Parameters({
+        @Parameter(name = "attribute", type = {DataType.INT, DataType.LONG, DataType.DOUBLE,
+                DataType.FLOAT, DataType.STRING, DataType.BOOL}),
+        @Parameter(name = "relativeError", type = {DataType.DOUBLE}, optional = true)
+})
+@Return(type = {DataType.LONG})
+public class ApproxDistinctCountAttributeAggregator extends AttributeAggregator {
+    private static final double DEFAULT_RELATIVE_ERROR = 0.02;
+
+    private HyperLogLog hyperLogLog;
+
+    /**
+     * The initialization method for FunctionExecutor
+     *
+     * @param attributeExpressionExecutors are the executors of each attributes in the function
+     * @param executionPlanContext         Execution plan runtime context
+     */
+    @Override
+    protected void init(ExpressionExecutor[] attributeExpressionExecutors, ExecutionPlanContext executionPlanContext) {
+        if (attributeExpressionExecutors.length != 1 && attributeExpressionExecutors.length != 2) {
+            throw new OperationNotSupportedException("ApproxDistinctCount aggregator has to have 1 or 2 parameters, " +
+                    "currently " + attributeExpressionExecutors.length + " parameters provided");
+        }
+        double relativeError = DEFAULT_RELATIVE_ERROR;
+        if (attributeExpressionExecutors.length == 2) {
+            if (!(attributeExpressionExecutors[1] instanceof ConstantExpressionExecutor) ||
+                    !(((ConstantExpressionExecutor) attributeExpressionExecutors[1]).getValue() instanceof Number)) {
+                throw new OperationNotSupportedException("Relative error of ApproxDistinctCount aggregator has to be a " +
+                        "constant number");
+            }
+            relativeError = ((Number) ((ConstantExpressionExecutor) attributeExpressionExecutors[1]).getValue())
+                    .doubleValue();
+            if (relativeError <= 0 || relativeError >= 1) {
+                throw new OperationNotSupportedException("Relative error of ApproxDistinctCount aggregator has to be " +
+                        "between 0 and 1, but found " + relativeError);
+            }
+        }
+        hyperLogLog = new HyperLogLog(HyperLogLog.precisionFor(relativeError, true), true);
+    }
+
+    public Attribute.Type getReturnType() {
+        return Attribute.Type.LONG;
+    }
+
+    @Override
+    public Object processAdd(Object data) {
+        hyperLogLog.add(HyperLogLog.hash(data));
+        return hyperLogLog.estimate();
+    }
+
+    @Override
+    public Object processAdd(Object[] data) {
+        // second parameter is the constant relative error
+        return processAdd(data[0]);
+    }
+
+    @Override
+    public Object processRemove(Object data) {
+        hyperLogLog.remove(HyperLogLog.hash(data));
+        return hyperLogLog.estimate();
+    }
+
+    @Override
+    public Object processRemove(Object[] data) {
+        // second parameter is the constant relative error
+        return processRemove(data[0]);
+    }
+
+    @Override
+    public Object reset() {
+        hyperLogLog.clear();
+        return hyperLogLog.estimate();
+    }
+
+    @Override
+    public void start() {
+        // Nothing to start.
+    }
+
+    @Override
+    public void stop() {
+        // Nothing to stop.
+    }
+
+    @Override
+    public Map<String, Object> currentState() {
+        Map<String, Object> state = new HashMap<>();
+        state.put("HyperLogLog", hyperLogLog);
+        return state;
+    }
+
+    @Override
+    public void restoreState(Map<String, Object> state) {
+        hyperLogLog = (HyperLogLog) state.get("HyperLogLog");
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.query.selector.attribute.aggregator;
+
+import org.wso2.siddhi.annotation.Description;
+import org.wso2.siddhi.annotation.Parameter;
+import org.wso2.siddhi.annotation.Parameters;
+import org.wso2.siddhi.annotation.Return;
+import org.wso2.siddhi.annotation.util.DataType;
+import org.wso2.siddhi.core.config.ExecutionPlanContext;
+import org.wso2.siddhi.core.exception.OperationNotSupportedException;
+import org.wso2.siddhi.core.executor.ConstantExpressionExecutor;
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.util.collection.QuantileSketch;
+import org.wso2.siddhi.query.api.definition.Attribute;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Description("Returns the approximate value at the given percentile of a given arg, by nearest rank. The value is " +
+        "estimated with a quantile sketch of bounded size and is within the given relative accuracy of the " +
+        "actual value.")
+@Parameters({
+        @Parameter(name = "attribute", type = {DataType.INT, DataType.LONG, DataType.DOUBLE, DataType.FLOAT}),
+        @Parameter(name = "percentile", type = {DataType.DOUBLE}),
+        @Parameter(name = "relativeAccuracy", type = {DataType.DOUBLE}, optional = true)
+})
+@Return(type = {DataType.DOUBLE})
+public class ApproxPercentileAttributeAggregator extends AttributeAggregator {
+    static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+    // enough to cover values from 1 to 1e17 at 1% accuracy
+    static final int MAX_BUCKETS = 2048;
+
+    private double percentile;
+    private QuantileSketch sketch;
+
+    /**
+     * The initialization method for FunctionExecutor
+     *
+     * @param attributeExpressionExecutors are the executors of each attributes in the function
+     * @param executionPlanContext         Execution plan runtime context
+     */
+    @Override
+    protected void init(ExpressionExecutor[] attributeExpressionExecutors, ExecutionPlanContext executionPlanContext) {
+        if (attributeExpressionExecutors.length != 2 && attributeExpressionExecutors.length != 3) {
+            throw new OperationNotSupportedException("ApproxPercentile aggregator has to have 2 or 3 parameters, " +
+                    "currently " + attributeExpressionExecutors.length + " parameters provided");
+        }
+        if (attributeExpressionExecutors[0].getReturnType() != Attribute.Type.INT &&
+                attributeExpressionExecutors[0].getReturnType() != Attribute.Type.LONG &&
+                attributeExpressionExecutors[0].getReturnType() != Attribute.Type.FLOAT &&
+                attributeExpressionExecutors[0].getReturnType() != Attribute.Type.DOUBLE) {
+            throw new OperationNotSupportedException("ApproxPercentile not supported for " +
+                    attributeExpressionExecutors[0].getReturnType());
+        }
+        percentile = constantValue(attributeExpressionExecutors[1], "percentile");
+        if (percentile < 0 || percentile > 1) {
+            throw new OperationNotSupportedException("Percentile of ApproxPercentile aggregator has to be between 0 and 1, " +
+                    "but found " + percentile);
+        }
+        double relativeAccuracy = DEFAULT_RELATIVE_ACCURACY;
+        if (attributeExpressionExecutors.length == 3) {
+            relativeAccuracy = constantValue(attributeExpressionExecutors[2], "relativeAccuracy");
+            if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+                throw new OperationNotSupportedException("Relative accuracy of ApproxPercentile aggregator has to " +
+                        "be between 0 and 1, but found " + relativeAccuracy);
+            }
+        }
+        sketch = new QuantileSketch(relativeAccuracy, MAX_BUCKETS);
+    }
+
+    public Attribute.Type getReturnType() {
+        return Attribute.Type.DOUBLE;
+    }
+
+    @Override
+    public Object processAdd(Object data) {
+        return new IllegalStateException("ApproxPercentile aggregator cannot process a single value, but found " +
+                data);
+    }
+
+    @Override
+    public Object processAdd(Object[] data) {
+        if (data[0] != null) {
+            sketch.add(((Number) data[0]).doubleValue());
+        }
+        return sketch.getQuantile(percentile);
+    }
+
+    @Override
+    public Object processRemove(Object data) {
+        return new IllegalStateException("ApproxPercentile aggregator cannot process a single value, but found " +
+                data);
+    }
+
+    @Override
+    public Object processRemove(Object[] data) {
+        if (data[0] != null) {
+            sketch.remove(((Number) data[0]).doubleValue());
+        }
+        return sketch.getQuantile(percentile);
+    }
+
+    @Override
+    public Object reset() {
+        sketch.clear();
+        return null;
+    }
+
+    @Override
+    public void start() {
+        // Nothing to start.
+    }
+
+    @Override
+    public void stop() {
+        // Nothing to stop.
+    }
+
+    @Override
+    public Map<String, Object> currentState() {
+        Map<String, Object> state = new HashMap<>();
+        state.put("Sketch", sketch.toBytes());
+        return state;
+    }
+
+    @Override
+    public void restoreState(Map<String, Object> state) {
+        sketch = QuantileSketch.fromBytes((byte[]) state.get("Sketch"));
+    }
+
+    private static double constantValue(ExpressionExecutor expressionExecutor, String name) {
+        if (!(expressionExecutor instanceof ConstantExpressionExecutor) ||
+                !(((ConstantExpressionExecutor) expressionExecutor).getValue() instanceof Number)) {
+            throw new OperationNotSupportedException("ApproxPercentile aggregator expects " + name + " to be a constant number");
+        }
+        return ((Number) ((ConstantExpressionExecutor) expressionExecutor).getValue()).doubleValue();
+    }
+}
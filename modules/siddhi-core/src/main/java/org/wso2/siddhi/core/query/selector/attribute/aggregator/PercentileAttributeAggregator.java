@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.query.selector.attribute.aggregator;
+
+import org.wso2.siddhi.annotation.Description;
+import org.wso2.siddhi.annotation.Parameter;
+import org.wso2.siddhi.annotation.Parameters;
+import org.wso2.siddhi.annotation.Return;
+import org.wso2.siddhi.annotation.util.DataType;
+import org.wso2.siddhi.core.config.ExecutionPlanContext;
+import org.wso2.siddhi.core.exception.OperationNotSupportedException;
+import org.wso2.siddhi.core.executor.ConstantExpressionExecutor;
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.util.collection.QuantileSketch;
+import org.wso2.siddhi.query.api.definition.Attribute;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Description("Returns the value at the given percentile of a given arg, by nearest rank. The distinct values are " +
+        "kept with their counts; beyond 10000 distinct values they are moved to the sketch of approxPercentile, " +
+        "after which the percentile is within 1% of the actual value.")
+@Parameters({
+        @Parameter(name = "attribute", type = {DataType.INT, DataType.LONG, DataType.DOUBLE, DataType.FLOAT}),
+        @Parameter(name = "percentile", type = {DataType.DOUBLE})
+})
+@Return(type = {DataType.DOUBLE})
+public class PercentileAttributeAggregator extends AttributeAggregator {
+    private static final int MAX_EXACT_VALUES = 10000;
+
+    private double percentile;
+    // lower holds the values up to the percentile and upper the rest, so that the percentile is the last of lower
+    private TreeMap<Double, Integer> lower = new TreeMap<Double, Integer>();
+    private TreeMap<Double, Integer> upper = new TreeMap<Double, Integer>();
+    private long lowerCount;
+    private long upperCount;
+    // replaces lower and upper once they hold more than MAX_EXACT_VALUES distinct values
+    private QuantileSketch sketch;
+
+    /**
+     * The initialization method for FunctionExecutor
+     *
+     * @param attributeExpressionExecutors are the executors of each attributes in the function
+     * @param executionPlanContext         Execution plan runtime context
+     */
+    @Override
+    protected void init(ExpressionExecutor[] attributeExpressionExecutors, ExecutionPlanContext executionPlanContext) {
+        if (attributeExpressionExecutors.length != 2) {
+            throw new OperationNotSupportedException("Percentile aggregator has to have exactly 2 parameters, " +
+                    "currently " + attributeExpressionExecutors.length + " parameters provided");
+        }
+        if (attributeExpressionExecutors[0].getReturnType() != Attribute.Type.INT &&
+                attributeExpressionExecutors[0].getReturnType() != Attribute.Type.LONG &&
+                attributeExpressionExecutors[0].getReturnType() != Attribute.Type.FLOAT &&
+                attributeExpressionExecutors[0].getReturnType() != Attribute.Type.DOUBLE) {
+            throw new OperationNotSupportedException("Percentile not supported for " +
+                    attributeExpressionExecutors[0].getReturnType());
+        }
+        percentile = constantValue(attributeExpressionExecutors[1], "percentile");
+        if (percentile < 0 || percentile > 1) {
+            throw new OperationNotSupportedException("Percentile of Percentile aggregator has to be between 0 and 1, " +
+                    "but found " + percentile);
+        }
+    }
+
+    public Attribute.Type getReturnType() {
+        return Attribute.Type.DOUBLE;
+    }
+
+    @Override
+    public Object processAdd(Object data) {
+        return new IllegalStateException("Percentile aggregator cannot process a single value, but found " + data);
+    }
+
+    @Override
+    public Object processAdd(Object[] data) {
+        if (sketch != null) {
+            if (data[0] != null) {
+                sketch.add(((Number) data[0]).doubleValue());
+            }
+            return sketch.getQuantile(percentile);
+        }
+        if (data[0] != null) {
+            double value = ((Number) data[0]).doubleValue();
+            if (lowerCount == 0 || value <= lower.lastKey()) {
+                increment(lower, value, 1);
+                lowerCount++;
+            } else {
+                increment(upper, value, 1);
+                upperCount++;
+            }
+            if (lower.size() + upper.size() > MAX_EXACT_VALUES) {
+                sketch = new QuantileSketch(ApproxPercentileAttributeAggregator.DEFAULT_RELATIVE_ACCURACY,
+                        ApproxPercentileAttributeAggregator.MAX_BUCKETS);
+                addToSketch(lower);
+                addToSketch(upper);
+                clearValues();
+                return sketch.getQuantile(percentile);
+            }
+        }
+        return rebalance();
+    }
+
+    @Override
+    public Object processRemove(Object data) {
+        return new IllegalStateException("Percentile aggregator cannot process a single value, but found " + data);
+    }
+
+    @Override
+    public Object processRemove(Object[] data) {
+        if (sketch != null) {
+            if (data[0] != null) {
+                sketch.remove(((Number) data[0]).doubleValue());
+            }
+            return sketch.getQuantile(percentile);
+        }
+        if (data[0] != null) {
+            double value = ((Number) data[0]).doubleValue();
+            if (lower.containsKey(value)) {
+                increment(lower, value, -1);
+                lowerCount--;
+            } else {
+                increment(upper, value, -1);
+                upperCount--;
+            }
+        }
+        return rebalance();
+    }
+
+    @Override
+    public Object reset() {
+        clearValues();
+        sketch = null;
+        return null;
+    }
+
+    @Override
+    public void start() {
+        // Nothing to start.
+    }
+
+    @Override
+    public void stop() {
+        // Nothing to stop.
+    }
+
+    @Override
+    public Map<String, Object> currentState() {
+        Map<String, Object> state = new HashMap<>();
+        if (sketch != null) {
+            state.put("Sketch", sketch.toBytes());
+        } else {
+            int distinctCount = lower.size() + upper.size();
+            double[] values = new double[distinctCount];
+            int[] counts = new int[distinctCount];
+            int length = appendValues(lower, values, counts, 0);
+            appendValues(upper, values, counts, length);
+            state.put("Values", values);
+            state.put("Counts", counts);
+        }
+        return state;
+    }
+
+    @Override
+    public void restoreState(Map<String, Object> state) {
+        reset();
+        if (state.containsKey("Sketch")) {
+            sketch = QuantileSketch.fromBytes((byte[]) state.get("Sketch"));
+            return;
+        }
+        double[] values = (double[]) state.get("Values");
+        int[] counts = (int[]) state.get("Counts");
+        for (int i = 0; i < values.length; i++) {
+            increment(upper, values[i], counts[i]);
+            upperCount += counts[i];
+        }
+        rebalance();
+    }
+
+    private void clearValues() {
+        lower.clear();
+        upper.clear();
+        lowerCount = 0;
+        upperCount = 0;
+    }
+
+    private void addToSketch(TreeMap<Double, Integer> counts) {
+        for (Map.Entry<Double, Integer> entry : counts.entrySet()) {
+            sketch.add(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Move values between lower and upper so that lower holds the nearest rank of the percentile.
+     *
+     * @return the value at the percentile, or null if there are no values
+     */
+    private Double rebalance() {
+        long count = lowerCount + upperCount;
+        if (count == 0) {
+            return null;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile * count));
+        while (lowerCount > rank) {
+            double value = lower.lastKey();
+            increment(lower, value, -1);
+            lowerCount--;
+            increment(upper, value, 1);
+            upperCount++;
+        }
+        while (lowerCount < rank) {
+            double value = upper.firstKey();
+            increment(upper, value, -1);
+            upperCount--;
+            increment(lower, value, 1);
+            lowerCount++;
+        }
+        return lower.lastKey();
+    }
+
+    private static int appendValues(TreeMap<Double, Integer> counts, double[] values, int[] valueCounts,
+                                    int length) {
+        for (Map.Entry<Double, Integer> entry : counts.entrySet()) {
+            values[length] = entry.getKey();
+            valueCounts[length] = entry.getValue();
+            length++;
+        }
+        return length;
+    }
+
+    private static void increment(TreeMap<Double, Integer> counts, double value, int delta) {
+        Integer count = counts.get(value);
+        int newCount = (count == null ? 0 : count) + delta;
+        if (newCount == 0) {
+            counts.remove(value);
+        } else {
+            counts.put(value, newCount);
+        }
+    }
+
+    private static double constantValue(ExpressionExecutor expressionExecutor, String name) {
+        if (!(expressionExecutor instanceof ConstantExpressionExecutor) ||
+                !(((ConstantExpressionExecutor) expressionExecutor).getValue() instanceof Number)) {
+            throw new OperationNotSupportedException("Percentile aggregator expects " + name + " to be a constant number");
+        }
+        return ((Number) ((ConstantExpressionExecutor) expressionExecutor).getValue()).doubleValue();
+    }
+}
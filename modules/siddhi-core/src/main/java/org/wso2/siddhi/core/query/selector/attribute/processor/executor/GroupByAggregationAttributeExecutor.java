@@ -22,13 +22,20 @@ import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 import org.wso2.siddhi.core.query.selector.QuerySelector;
 import org.wso2.siddhi.core.query.selector.attribute.aggregator.AttributeAggregator;
+import org.wso2.siddhi.core.util.statistics.memory.EventSizeEstimator;
+import org.wso2.siddhi.core.util.statistics.memory.MemoryAccountable;
 
 import java.util.HashMap;
 import java.util.Map;
 
-public class GroupByAggregationAttributeExecutor extends AbstractAggregationAttributeExecutor {
+public class GroupByAggregationAttributeExecutor extends AbstractAggregationAttributeExecutor
+        implements MemoryAccountable {
+
+    // Fields of a typical aggregator's state, its running values and the references to its executors and context
+    private static final int AGGREGATOR_FIELD_ESTIMATE = 6;
 
     protected Map<String, AttributeAggregator> aggregatorMap = new HashMap<String, AttributeAggregator>();
+    private long groupMemorySize = 0;
 
     public GroupByAggregationAttributeExecutor(AttributeAggregator attributeAggregator,
                                                ExpressionExecutor[] attributeExpressionExecutors,
@@ -52,6 +59,7 @@ public class GroupByAggregationAttributeExecutor extends AbstractAggregationAttr
             currentAttributeAggregator.initAggregator(attributeExpressionExecutors, executionPlanContext);
             currentAttributeAggregator.start();
             aggregatorMap.put(key, currentAttributeAggregator);
+            groupMemorySize += EventSizeEstimator.estimateKeyedEntry(key, AGGREGATOR_FIELD_ESTIMATE);
         }
         return currentAttributeAggregator.process(event);
     }
@@ -81,7 +89,19 @@ public class GroupByAggregationAttributeExecutor extends AbstractAggregationAttr
             aAttributeAggregator.initAggregator(attributeExpressionExecutors, executionPlanContext);
             aAttributeAggregator.start();
             aAttributeAggregator.restoreState(entry.getValue());
-            aggregatorMap.put(key, aAttributeAggregator);
+            if (aggregatorMap.put(key, aAttributeAggregator) == null) {
+                groupMemorySize += EventSizeEstimator.estimateKeyedEntry(key, AGGREGATOR_FIELD_ESTIMATE);
+            }
         }
     }
+
+    @Override
+    public long getRetainedEventCount() {
+        return aggregatorMap.size();
+    }
+
+    @Override
+    public long getRetainedMemorySize() {
+        return groupMemorySize;
+    }
 }
@@ -0,0 +1,598 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.stream;
+
+import org.apache.log4j.Logger;
+import org.wso2.siddhi.core.config.ExecutionPlanContext;
+import org.wso2.siddhi.core.event.ComplexEvent;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.event.stream.MetaStreamEvent;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
+import org.wso2.siddhi.core.query.input.ProcessStreamReceiver;
+import org.wso2.siddhi.core.table.EventTable;
+import org.wso2.siddhi.core.util.SiddhiConstants;
+import org.wso2.siddhi.core.util.parser.ExpressionParser;
+import org.wso2.siddhi.query.api.definition.Attribute;
+import org.wso2.siddhi.query.api.definition.StreamDefinition;
+import org.wso2.siddhi.query.api.execution.query.input.stream.SingleInputStream;
+import org.wso2.siddhi.query.api.expression.Expression;
+import org.wso2.siddhi.query.api.expression.Variable;
+import org.wso2.siddhi.query.api.expression.condition.And;
+import org.wso2.siddhi.query.api.expression.condition.Compare;
+import org.wso2.siddhi.query.api.expression.condition.IsNull;
+import org.wso2.siddhi.query.api.expression.condition.Not;
+import org.wso2.siddhi.query.api.expression.condition.Or;
+import org.wso2.siddhi.query.api.expression.constant.BoolConstant;
+import org.wso2.siddhi.query.api.expression.constant.Constant;
+import org.wso2.siddhi.query.api.expression.constant.IntConstant;
+import org.wso2.siddhi.query.api.expression.constant.LongConstant;
+import org.wso2.siddhi.query.api.expression.constant.StringConstant;
+import org.wso2.siddhi.query.api.expression.math.Add;
+import org.wso2.siddhi.query.api.expression.math.Divide;
+import org.wso2.siddhi.query.api.expression.math.Mod;
+import org.wso2.siddhi.query.api.expression.math.Multiply;
+import org.wso2.siddhi.query.api.expression.math.Subtract;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Evaluates the leading filter conditions of the queries consuming a stream once per event at the stream junction,
+ * so that a query whose filter rejects an event is not handed the event at all, sparing it the event conversion, the
+ * pooled event and the query lock. Conditions are split into their and-ed conjuncts and a conjunct common to several
+ * queries, such as a shared prefix of their filters, is evaluated only once per event. The conjuncts are evaluated
+ * directly on the event data as sent to the junction, which is shared by all the queries.
+ * <p>
+ * Conditions holding an attribute equals constant conjunct, such as {@code merchantId == 'm123'}, are further indexed
+ * by the constant, hence only the conditions whose constant matches the attribute value of an event are evaluated
+ * and an event reaches the receivers of the matching queries without visiting the others.
+ * <p>
+ * The filter processor of each query is left in place, hence events that are handed over are still filtered by the
+ * query itself and only the decision to skip a query is taken here.
+ */
+public class SharedFilterDispatcher {
+
+    private static final Logger log = Logger.getLogger(SharedFilterDispatcher.class);
+
+    private final StreamJunction.Receiver[] receivers;
+    private final int[] unfilteredReceivers;
+    private final int[][] conditionReceivers;
+    private final int[][] conditions;
+    private final ExpressionExecutor[] conjuncts;
+    private final int[] unindexedConditions;
+    private final EqualityIndex[] equalityIndexes;
+    private final ThreadLocal<Evaluation> evaluations = new ThreadLocal<Evaluation>() {
+        @Override
+        protected Evaluation initialValue() {
+            return new Evaluation();
+        }
+    };
+
+    private SharedFilterDispatcher(StreamJunction.Receiver[] receivers, int[] unfilteredReceivers,
+                                   int[][] conditionReceivers, int[][] conditions, ExpressionExecutor[] conjuncts,
+                                   int[] unindexedConditions, EqualityIndex[] equalityIndexes) {
+        this.receivers = receivers;
+        this.unfilteredReceivers = unfilteredReceivers;
+        this.conditionReceivers = conditionReceivers;
+        this.conditions = conditions;
+        this.conjuncts = conjuncts;
+        this.unindexedConditions = unindexedConditions;
+        this.equalityIndexes = equalityIndexes;
+    }
+
+    /**
+     * Create a dispatcher for the given receivers of a stream.
+     *
+     * @param streamDefinition     definition of the stream
+     * @param receivers            receivers subscribed to the stream, in the order of subscription
+     * @param executionPlanContext execution plan context
+     * @return the dispatcher, or null if less than two of the receivers have filter conditions that can be shared
+     */
+    public static SharedFilterDispatcher create(StreamDefinition streamDefinition,
+                                                List<StreamJunction.Receiver> receivers,
+                                                ExecutionPlanContext executionPlanContext) {
+        int size = receivers.size();
+        StreamJunction.Receiver[] receiverArray = receivers.toArray(new StreamJunction.Receiver[size]);
+        List<Integer> unfilteredReceivers = new ArrayList<Integer>();
+        List<List<Integer>> conditionReceivers = new ArrayList<List<Integer>>();
+        Map<List<Expression>, Integer> conditionIndexes = new HashMap<List<Expression>, Integer>();
+        List<List<Expression>> conditionConjunctList = new ArrayList<List<Expression>>();
+        List<int[]> conditions = new ArrayList<int[]>();
+        Map<Expression, Integer> conjunctIndexes = new HashMap<Expression, Integer>();
+        List<ExpressionExecutor> conjuncts = new ArrayList<ExpressionExecutor>();
+        int filteredReceiverCount = 0;
+        for (int i = 0; i < size; i++) {
+            StreamJunction.Receiver receiver = receiverArray[i];
+            // Events are handed over when debugging, so that break points at the query input are still hit
+            if (!(receiver instanceof ProcessStreamReceiver)
+                    || ((ProcessStreamReceiver) receiver).getFilterCondition() == null
+                    || ((ProcessStreamReceiver) receiver).isDebugged()) {
+                unfilteredReceivers.add(i);
+                continue;
+            }
+            List<Expression> conditionConjuncts = new ArrayList<Expression>();
+            addConjuncts(((ProcessStreamReceiver) receiver).getFilterCondition(), conditionConjuncts);
+            Integer conditionIndex = conditionIndexes.get(conditionConjuncts);
+            if (conditionIndex == null) {
+                int[] condition = new int[conditionConjuncts.size()];
+                try {
+                    for (int j = 0; j < condition.length; j++) {
+                        Expression conjunct = conditionConjuncts.get(j);
+                        Integer conjunctIndex = conjunctIndexes.get(conjunct);
+                        if (conjunctIndex == null) {
+                            conjuncts.add(parseConjunct(conjunct, streamDefinition, executionPlanContext));
+                            conjunctIndex = conjuncts.size() - 1;
+                            conjunctIndexes.put(conjunct, conjunctIndex);
+                        }
+                        condition[j] = conjunctIndex;
+                    }
+                } catch (RuntimeException e) {
+                    // The query parser reports invalid conditions, hence such a query is only left unfiltered here
+                    log.debug("Filter condition of a query consuming stream '" + streamDefinition.getId() +
+                            "' is not shared: " + e.getMessage());
+                    unfilteredReceivers.add(i);
+                    continue;
+                }
+                conditions.add(condition);
+                conditionConjunctList.add(conditionConjuncts);
+                conditionReceivers.add(new ArrayList<Integer>());
+                conditionIndex = conditions.size() - 1;
+                conditionIndexes.put(conditionConjuncts, conditionIndex);
+            }
+            conditionReceivers.get(conditionIndex).add(i);
+            filteredReceiverCount++;
+        }
+        if (filteredReceiverCount < 2) {
+            return null;
+        }
+
+        // Index each condition on the equality attribute it shares with the most other conditions
+        List<Map<String, Object>> equalityKeys = new ArrayList<Map<String, Object>>(conditions.size());
+        Map<String, Integer> equalityAttributeCounts = new HashMap<String, Integer>();
+        for (List<Expression> conditionConjuncts : conditionConjunctList) {
+            Map<String, Object> keys = new HashMap<String, Object>();
+            for (Expression conjunct : conditionConjuncts) {
+                addEqualityKey(conjunct, streamDefinition, keys);
+            }
+            for (String attributeName : keys.keySet()) {
+                Integer count = equalityAttributeCounts.get(attributeName);
+                equalityAttributeCounts.put(attributeName, count == null ? 1 : count + 1);
+            }
+            equalityKeys.add(keys);
+        }
+        List<Integer> unindexedConditions = new ArrayList<Integer>();
+        Map<String, Map<Object, List<Integer>>> indexedConditions = new LinkedHashMap<String, Map<Object,
+                List<Integer>>>();
+        for (int i = 0; i < conditions.size(); i++) {
+            String indexAttribute = null;
+            for (String attributeName : equalityKeys.get(i).keySet()) {
+                if (indexAttribute == null || equalityAttributeCounts.get(attributeName) >
+                        equalityAttributeCounts.get(indexAttribute)) {
+                    indexAttribute = attributeName;
+                }
+            }
+            if (indexAttribute == null) {
+                unindexedConditions.add(i);
+                continue;
+            }
+            Map<Object, List<Integer>> conditionsByConstant = indexedConditions.get(indexAttribute);
+            if (conditionsByConstant == null) {
+                conditionsByConstant = new HashMap<Object, List<Integer>>();
+                indexedConditions.put(indexAttribute, conditionsByConstant);
+            }
+            Object key = equalityKeys.get(i).get(indexAttribute);
+            List<Integer> constantConditions = conditionsByConstant.get(key);
+            if (constantConditions == null) {
+                constantConditions = new ArrayList<Integer>();
+                conditionsByConstant.put(key, constantConditions);
+            }
+            constantConditions.add(i);
+        }
+        EqualityIndex[] equalityIndexes = new EqualityIndex[indexedConditions.size()];
+        int indexCount = 0;
+        for (Map.Entry<String, Map<Object, List<Integer>>> entry : indexedConditions.entrySet()) {
+            equalityIndexes[indexCount++] = new EqualityIndex(streamDefinition, entry.getKey(), entry.getValue());
+        }
+
+        int[][] conditionReceiverArray = new int[conditionReceivers.size()][];
+        for (int i = 0; i < conditionReceiverArray.length; i++) {
+            conditionReceiverArray[i] = toIntArray(conditionReceivers.get(i));
+        }
+        return new SharedFilterDispatcher(receiverArray, toIntArray(unfilteredReceivers), conditionReceiverArray,
+                conditions.toArray(new int[conditions.size()][]),
+                conjuncts.toArray(new ExpressionExecutor[conjuncts.size()]), toIntArray(unindexedConditions),
+                equalityIndexes);
+    }
+
+    /**
+     * Convert the leading filter condition of a single input stream to a form that can be evaluated on the event data
+     * of the stream independently of the query, by dropping the stream references of its variables.
+     *
+     * @param condition   filter condition
+     * @param inputStream input stream the condition filters
+     * @return the shareable condition, or null if the condition refers to anything other than the attributes of the
+     * stream and constants, such as functions or tables, which cannot safely be evaluated outside the query
+     */
+    public static Expression toSharedCondition(Expression condition, SingleInputStream inputStream) {
+        if (condition instanceof Constant) {
+            return condition;
+        } else if (condition instanceof Variable) {
+            Variable variable = (Variable) condition;
+            if (variable.isInnerStream() || variable.getStreamIndex() != null || variable.getFunctionId() != null) {
+                return null;
+            }
+            String streamId = variable.getStreamId();
+            if (streamId != null && !streamId.equals(inputStream.getStreamId())
+                    && !streamId.equals(inputStream.getStreamReferenceId())) {
+                return null;
+            }
+            return Expression.variable(variable.getAttributeName());
+        } else if (condition instanceof And) {
+            return toSharedCondition(((And) condition).getLeftExpression(), ((And) condition).getRightExpression(),
+                    condition, inputStream);
+        } else if (condition instanceof Or) {
+            return toSharedCondition(((Or) condition).getLeftExpression(), ((Or) condition).getRightExpression(),
+                    condition, inputStream);
+        } else if (condition instanceof Compare) {
+            return toSharedCondition(((Compare) condition).getLeftExpression(),
+                    ((Compare) condition).getRightExpression(), condition, inputStream);
+        } else if (condition instanceof Add) {
+            return toSharedCondition(((Add) condition).getLeftValue(), ((Add) condition).getRightValue(),
+                    condition, inputStream);
+        } else if (condition instanceof Subtract) {
+            return toSharedCondition(((Subtract) condition).getLeftValue(), ((Subtract) condition).getRightValue(),
+                    condition, inputStream);
+        } else if (condition instanceof Multiply) {
+            return toSharedCondition(((Multiply) condition).getLeftValue(), ((Multiply) condition).getRightValue(),
+                    condition, inputStream);
+        } else if (condition instanceof Divide) {
+            return toSharedCondition(((Divide) condition).getLeftValue(), ((Divide) condition).getRightValue(),
+                    condition, inputStream);
+        } else if (condition instanceof Mod) {
+            return toSharedCondition(((Mod) condition).getLeftValue(), ((Mod) condition).getRightValue(),
+                    condition, inputStream);
+        } else if (condition instanceof Not) {
+            Expression expression = toSharedCondition(((Not) condition).getExpression(), inputStream);
+            return expression == null ? null : Expression.not(expression);
+        } else if (condition instanceof IsNull) {
+            if (((IsNull) condition).getExpression() == null) {
+                return null;
+            }
+            Expression expression = toSharedCondition(((IsNull) condition).getExpression(), inputStream);
+            return expression == null ? null : Expression.isNull(expression);
+        }
+        return null;
+    }
+
+    private static Expression toSharedCondition(Expression left, Expression right, Expression condition,
+                                                SingleInputStream inputStream) {
+        Expression sharedLeft = toSharedCondition(left, inputStream);
+        if (sharedLeft == null) {
+            return null;
+        }
+        Expression sharedRight = toSharedCondition(right, inputStream);
+        if (sharedRight == null) {
+            return null;
+        }
+        if (condition instanceof And) {
+            return Expression.and(sharedLeft, sharedRight);
+        } else if (condition instanceof Or) {
+            return Expression.or(sharedLeft, sharedRight);
+        } else if (condition instanceof Compare) {
+            return Expression.compare(sharedLeft, ((Compare) condition).getOperator(), sharedRight);
+        } else if (condition instanceof Add) {
+            return Expression.add(sharedLeft, sharedRight);
+        } else if (condition instanceof Subtract) {
+            return Expression.subtract(sharedLeft, sharedRight);
+        } else if (condition instanceof Multiply) {
+            return Expression.multiply(sharedLeft, sharedRight);
+        } else if (condition instanceof Divide) {
+            return Expression.divide(sharedLeft, sharedRight);
+        } else {
+            return Expression.mod(sharedLeft, sharedRight);
+        }
+    }
+
+    private static void addConjuncts(Expression condition, List<Expression> conjuncts) {
+        if (condition instanceof And) {
+            addConjuncts(((And) condition).getLeftExpression(), conjuncts);
+            addConjuncts(((And) condition).getRightExpression(), conjuncts);
+        } else {
+            conjuncts.add(condition);
+        }
+    }
+
+    private static ExpressionExecutor parseConjunct(Expression conjunct, StreamDefinition streamDefinition,
+                                                    ExecutionPlanContext executionPlanContext) {
+        MetaStreamEvent metaStreamEvent = new MetaStreamEvent();
+        metaStreamEvent.addInputDefinition(streamDefinition);
+        List<VariableExpressionExecutor> variableExpressionExecutors = new ArrayList<VariableExpressionExecutor>();
+        ExpressionExecutor executor = ExpressionParser.parseExpression(conjunct, metaStreamEvent,
+                SiddhiConstants.UNKNOWN_STATE, new HashMap<String, EventTable>(), variableExpressionExecutors,
+                executionPlanContext, false, 0, null);
+        if (executor.getReturnType() != Attribute.Type.BOOL) {
+            throw new IllegalArgumentException("condition " + conjunct + " is not of type BOOL");
+        }
+        // Conjuncts read the event data of the stream as is
+        for (VariableExpressionExecutor variableExpressionExecutor : variableExpressionExecutors) {
+            variableExpressionExecutor.setPosition(new int[]{SiddhiConstants.OUTPUT_DATA_INDEX,
+                    streamDefinition.getAttributePosition(variableExpressionExecutor.getAttribute().getName())});
+        }
+        return executor;
+    }
+
+    /**
+     * Add the attribute and dispatch key of the given conjunct if it compares an attribute for equality with a
+     * constant of the same type, or an int constant in the case of a long attribute.
+     */
+    private static void addEqualityKey(Expression conjunct, StreamDefinition streamDefinition,
+                                       Map<String, Object> keys) {
+        if (!(conjunct instanceof Compare) || ((Compare) conjunct).getOperator() != Compare.Operator.EQUAL) {
+            return;
+        }
+        Expression left = ((Compare) conjunct).getLeftExpression();
+        Expression right = ((Compare) conjunct).getRightExpression();
+        Variable variable;
+        Expression constant;
+        if (left instanceof Variable && right instanceof Constant) {
+            variable = (Variable) left;
+            constant = right;
+        } else if (right instanceof Variable && left instanceof Constant) {
+            variable = (Variable) right;
+            constant = left;
+        } else {
+            return;
+        }
+        Object key;
+        switch (streamDefinition.getAttributeType(variable.getAttributeName())) {
+            case STRING:
+                key = constant instanceof StringConstant ? ((StringConstant) constant).getValue() : null;
+                break;
+            case INT:
+                key = constant instanceof IntConstant ? ((IntConstant) constant).getValue() : null;
+                break;
+            case LONG:
+                if (constant instanceof LongConstant) {
+                    key = ((LongConstant) constant).getValue();
+                } else if (constant instanceof IntConstant) {
+                    key = ((IntConstant) constant).getValue().longValue();
+                } else {
+                    key = null;
+                }
+                break;
+            case BOOL:
+                key = constant instanceof BoolConstant ? ((BoolConstant) constant).getValue() : null;
+                break;
+            default:
+                // Floating point equality does not agree with equals(), hence such attributes are not indexed
+                key = null;
+        }
+        if (key != null) {
+            keys.put(variable.getAttributeName(), key);
+        }
+    }
+
+    private static int[] toIntArray(List<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+
+    public void send(ComplexEvent complexEvent) {
+        Evaluation evaluation = evaluations.get().reset();
+        for (ComplexEvent event = complexEvent; event != null && !evaluation.allPassed(); event = event.getNext()) {
+            ComplexEvent.Type type = event.getType();
+            if (event.getOutputData() == null
+                    || (type != ComplexEvent.Type.CURRENT && type != ComplexEvent.Type.EXPIRED)) {
+                // Leave events that do not carry stream data to the queries themselves
+                evaluation.passAll();
+            } else {
+                evaluation.evaluate(event.getOutputData());
+            }
+        }
+        for (int receiver : evaluation.targetReceivers()) {
+            receivers[receiver].receive(complexEvent);
+        }
+    }
+
+    public void send(Event event) {
+        Evaluation evaluation = evaluations.get().reset();
+        evaluation.evaluate(event.getData());
+        for (int receiver : evaluation.targetReceivers()) {
+            receivers[receiver].receive(event);
+        }
+    }
+
+    public void send(Event[] events) {
+        Evaluation evaluation = evaluations.get().reset();
+        for (int i = 0; i < events.length && !evaluation.allPassed(); i++) {
+            evaluation.evaluate(events[i].getData());
+        }
+        for (int receiver : evaluation.targetReceivers()) {
+            receivers[receiver].receive(events);
+        }
+    }
+
+    public void send(List<Event> events) {
+        Evaluation evaluation = evaluations.get().reset();
+        for (int i = 0, size = events.size(); i < size && !evaluation.allPassed(); i++) {
+            evaluation.evaluate(events.get(i).getData());
+        }
+        for (int receiver : evaluation.targetReceivers()) {
+            receivers[receiver].receive(events.toArray(new Event[events.size()]));
+        }
+    }
+
+    public void send(long timeStamp, Object[] data) {
+        Evaluation evaluation = evaluations.get().reset();
+        evaluation.evaluate(data);
+        for (int receiver : evaluation.targetReceivers()) {
+            receivers[receiver].receive(timeStamp, data);
+        }
+    }
+
+    /**
+     * Conditions holding an equality conjunct on the same attribute, keyed by the constant it is compared with.
+     */
+    private static class EqualityIndex {
+        private final int attributePosition;
+        private final Class<?> keyClass;
+        private final int[] conditions;
+        private final Map<Object, int[]> conditionsByConstant = new HashMap<Object, int[]>();
+
+        EqualityIndex(StreamDefinition streamDefinition, String attributeName,
+                      Map<Object, List<Integer>> conditionsByConstant) {
+            this.attributePosition = streamDefinition.getAttributePosition(attributeName);
+            List<Integer> allConditions = new ArrayList<Integer>();
+            Class<?> keyClass = null;
+            for (Map.Entry<Object, List<Integer>> entry : conditionsByConstant.entrySet()) {
+                keyClass = entry.getKey().getClass();
+                this.conditionsByConstant.put(entry.getKey(), toIntArray(entry.getValue()));
+                allConditions.addAll(entry.getValue());
+            }
+            this.keyClass = keyClass;
+            this.conditions = toIntArray(allConditions);
+        }
+    }
+
+    /**
+     * Per thread state of evaluating the conditions for the events of a single send. Evaluation results are marked
+     * with stamps instead of being cleared, so that the cost of a send depends only on the conditions evaluated.
+     */
+    private final class Evaluation {
+        private final StreamEvent event = new StreamEvent(0, 0, 0);
+        private final int[] conditionStamps = new int[conditions.length];
+        private final int[] passedConditions = new int[conditions.length];
+        private final int[] conjunctStamps = new int[conjuncts.length];
+        private final boolean[] conjunctResults = new boolean[conjuncts.length];
+        private int passedCount;
+        private boolean passedAll;
+        private int sendStamp;
+        private int eventStamp;
+        private int stamp;
+
+        private Evaluation reset() {
+            passedCount = 0;
+            passedAll = false;
+            sendStamp = nextStamp();
+            return this;
+        }
+
+        private int nextStamp() {
+            if (stamp == Integer.MAX_VALUE) {
+                Arrays.fill(conditionStamps, 0);
+                Arrays.fill(conjunctStamps, 0);
+                stamp = 0;
+            }
+            return ++stamp;
+        }
+
+        private boolean allPassed() {
+            return passedAll || passedCount == conditions.length;
+        }
+
+        private void passAll() {
+            passedAll = true;
+        }
+
+        private void evaluate(Object[] data) {
+            eventStamp = nextStamp();
+            event.setOutputData(data);
+            for (int condition : unindexedConditions) {
+                evaluateCondition(condition);
+            }
+            for (EqualityIndex equalityIndex : equalityIndexes) {
+                Object value = data[equalityIndex.attributePosition];
+                if (value == null) {
+                    // No condition of the index holds, as equality with null is never satisfied
+                    continue;
+                }
+                int[] candidates;
+                if (value.getClass() == equalityIndex.keyClass) {
+                    candidates = equalityIndex.conditionsByConstant.get(value);
+                } else {
+                    // Values not of the attribute type cannot be looked up, hence evaluate all the conditions
+                    candidates = equalityIndex.conditions;
+                }
+                if (candidates != null) {
+                    for (int condition : candidates) {
+                        evaluateCondition(condition);
+                    }
+                }
+            }
+        }
+
+        private void evaluateCondition(int condition) {
+            if (conditionStamps[condition] == sendStamp) {
+                return;
+            }
+            for (int conjunct : conditions[condition]) {
+                if (conjunctStamps[conjunct] != eventStamp) {
+                    boolean result;
+                    try {
+                        result = conjuncts[conjunct].executeBoolean(event);
+                    } catch (RuntimeException e) {
+                        // Leave the failure to be reported by the query evaluating the same condition
+                        result = true;
+                    }
+                    conjunctResults[conjunct] = result;
+                    conjunctStamps[conjunct] = eventStamp;
+                }
+                if (!conjunctResults[conjunct]) {
+                    return;
+                }
+            }
+            conditionStamps[condition] = sendStamp;
+            passedConditions[passedCount++] = condition;
+        }
+
+        /**
+         * @return indexes of the receivers to hand the events over to, in the order of subscription
+         */
+        private int[] targetReceivers() {
+            if (passedAll) {
+                int[] targets = new int[receivers.length];
+                for (int i = 0; i < targets.length; i++) {
+                    targets[i] = i;
+                }
+                return targets;
+            }
+            int count = unfilteredReceivers.length;
+            for (int i = 0; i < passedCount; i++) {
+                count += conditionReceivers[passedConditions[i]].length;
+            }
+            int[] targets = Arrays.copyOf(unfilteredReceivers, count);
+            int position = unfilteredReceivers.length;
+            for (int i = 0; i < passedCount; i++) {
+                int[] receiverIndexes = conditionReceivers[passedConditions[i]];
+                System.arraycopy(receiverIndexes, 0, targets, position, receiverIndexes.length);
+                position += receiverIndexes.length;
+            }
+            Arrays.sort(targets);
+            return targets;
+        }
+    }
+}
@@ -19,6 +19,7 @@ package org.wso2.siddhi.core.stream;
 
 import com.lmax.disruptor.BlockingWaitStrategy;
 import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.InsufficientCapacityException;
 import com.lmax.disruptor.RingBuffer;
 import com.lmax.disruptor.dsl.Disruptor;
 import com.lmax.disruptor.dsl.ProducerType;
@@ -29,27 +30,42 @@ import org.wso2.siddhi.core.event.ComplexEventChunk;
 import org.wso2.siddhi.core.event.Event;
 import org.wso2.siddhi.core.event.EventFactory;
 import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.exception.ExecutionPlanRuntimeException;
+import org.wso2.siddhi.core.query.input.ProcessStreamReceiver;
 import org.wso2.siddhi.core.stream.input.InputProcessor;
 import org.wso2.siddhi.core.stream.output.StreamCallback;
 import org.wso2.siddhi.core.util.SiddhiConstants;
+import org.wso2.siddhi.core.util.statistics.BufferedEventsTracker;
+import org.wso2.siddhi.core.util.statistics.EventBufferHolder;
+import org.wso2.siddhi.core.util.statistics.IngestTimestamp;
+import org.wso2.siddhi.core.util.statistics.LatencyRecorder;
+import org.wso2.siddhi.core.util.statistics.StatisticsTrackerFactory;
 import org.wso2.siddhi.core.util.statistics.ThroughputTracker;
 import org.wso2.siddhi.core.util.timestamp.EventTimeBasedMillisTimestampGenerator;
 import org.wso2.siddhi.query.api.annotation.Annotation;
 import org.wso2.siddhi.query.api.definition.StreamDefinition;
 import org.wso2.siddhi.query.api.exception.DuplicateAnnotationException;
+import org.wso2.siddhi.query.api.exception.ExecutionPlanValidationException;
 import org.wso2.siddhi.query.api.util.AnnotationHelper;
 
 import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class StreamJunction {
     private static final Logger log = Logger.getLogger(StreamJunction.class);
+    private static final long DROPPED_SEQUENCE = -1;
     private final ExecutionPlanContext executionPlanContext;
     private final StreamDefinition streamDefinition;
     private int bufferSize;
     private List<Receiver> receivers = new CopyOnWriteArrayList<Receiver>();
+    private SharedFilterDispatcher sharedFilterDispatcher;
+    private volatile boolean receiversChanged;
     private List<Publisher> publishers = new CopyOnWriteArrayList<Publisher>();
     private ExecutorService executorService;
     private Boolean async = null;
@@ -57,6 +73,14 @@ public class StreamJunction {
     private RingBuffer<Event> ringBuffer;
     private ThroughputTracker throughputTracker = null;
     private boolean isTraceEnabled;
+    private boolean ingestTimestamped;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+    private final AtomicLong discardedSequence = new AtomicLong(-1);
+    private List<StreamHandler> streamHandlers;
+    private String metricName;
+    private BufferedEventsTracker bufferedEventsTracker;
+    private LatencyRecorder producerWaitRecorder;
+    private ThroughputTracker droppedEventsTracker;
 
     public StreamJunction(StreamDefinition streamDefinition, ExecutorService executorService, int bufferSize,
                           ExecutionPlanContext executionPlanContext) {
@@ -64,8 +88,9 @@ public class StreamJunction {
         this.bufferSize = bufferSize;
         this.executorService = executorService;
         this.executionPlanContext = executionPlanContext;
+        this.ingestTimestamped = executionPlanContext.getLatencySamplingInterval() > 0;
         if (executionPlanContext.isStatsEnabled() && executionPlanContext.getStatisticsManager() != null) {
-            String metricName = executionPlanContext.getSiddhiContext().getStatisticsConfiguration().getMatricPrefix() +
+            metricName = executionPlanContext.getSiddhiContext().getStatisticsConfiguration().getMatricPrefix() +
                     SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_EXECUTION_PLANS +
                     SiddhiConstants.METRIC_DELIMITER + executionPlanContext.getName() +
                     SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_SIDDHI +
@@ -87,11 +112,26 @@ public class StreamJunction {
                 if (bufferSizeString != null) {
                     this.bufferSize = Integer.parseInt(bufferSizeString);
                 }
+                String overflowString = annotation.getElement(SiddhiConstants.ANNOTATION_OVERFLOW);
+                if (overflowString != null) {
+                    overflowPolicy = OverflowPolicy.parse(overflowString, streamDefinition.getId());
+                }
             }
 
         } catch (DuplicateAnnotationException e) {
             throw new DuplicateAnnotationException(e.getMessage() + " for the same Stream " + streamDefinition.getId());
         }
+        if (async && metricName != null) {
+            StatisticsTrackerFactory factory = executionPlanContext.getSiddhiContext().getStatisticsConfiguration()
+                    .getFactory();
+            bufferedEventsTracker = factory.createBufferedEventsTracker(executionPlanContext.getStatisticsManager());
+            producerWaitRecorder = factory.createLatencyRecorder(metricName + ".producer.wait",
+                    executionPlanContext.getStatisticsManager());
+            if (overflowPolicy == OverflowPolicy.DROP_OLDEST || overflowPolicy == OverflowPolicy.DROP_NEWEST) {
+                droppedEventsTracker = factory.createThroughputTracker(metricName + ".dropped",
+                        executionPlanContext.getStatisticsManager());
+            }
+        }
         isTraceEnabled = log.isTraceEnabled();
     }
 
@@ -105,12 +145,17 @@ public class StreamJunction {
                 if (throughputTracker != null) {
                     throughputTracker.eventIn();
                 }
-                long sequenceNo = ringBuffer.next();
-                try {
-                    Event existingEvent = ringBuffer.get(sequenceNo);
-                    existingEvent.copyFrom(complexEventList);
-                } finally {
-                    ringBuffer.publish(sequenceNo);
+                long sequenceNo = claimSequence();
+                if (sequenceNo != DROPPED_SEQUENCE) {
+                    try {
+                        Event existingEvent = ringBuffer.get(sequenceNo);
+                        existingEvent.copyFrom(complexEventList);
+                        if (ingestTimestamped) {
+                            existingEvent.setIngestTimestamp(IngestTimestamp.get());
+                        }
+                    } finally {
+                        ringBuffer.publish(sequenceNo);
+                    }
                 }
                 complexEventList = complexEventList.getNext();
             }
@@ -123,8 +168,13 @@ public class StreamJunction {
                 }
                 throughputTracker.eventsIn(messageCount);
             }
-            for (Receiver receiver : receivers) {
-                receiver.receive(complexEvent);
+            SharedFilterDispatcher sharedFilterDispatcher = getSharedFilterDispatcher();
+            if (sharedFilterDispatcher != null) {
+                sharedFilterDispatcher.send(complexEvent);
+            } else {
+                for (Receiver receiver : receivers) {
+                    receiver.receive(complexEvent);
+                }
             }
         }
     }
@@ -137,16 +187,26 @@ public class StreamJunction {
             log.trace(event + " event is received by streamJunction " + this);
         }
         if (disruptor != null) {
-            long sequenceNo = ringBuffer.next();
-            try {
-                Event existingEvent = ringBuffer.get(sequenceNo);
-                existingEvent.copyFrom(event);
-            } finally {
-                ringBuffer.publish(sequenceNo);
+            long sequenceNo = claimSequence();
+            if (sequenceNo != DROPPED_SEQUENCE) {
+                try {
+                    Event existingEvent = ringBuffer.get(sequenceNo);
+                    existingEvent.copyFrom(event);
+                    if (ingestTimestamped) {
+                        existingEvent.setIngestTimestamp(IngestTimestamp.get());
+                    }
+                } finally {
+                    ringBuffer.publish(sequenceNo);
+                }
             }
         } else {
-            for (Receiver receiver : receivers) {
-                receiver.receive(event);
+            SharedFilterDispatcher sharedFilterDispatcher = getSharedFilterDispatcher();
+            if (sharedFilterDispatcher != null) {
+                sharedFilterDispatcher.send(event);
+            } else {
+                for (Receiver receiver : receivers) {
+                    receiver.receive(event);
+                }
             }
         }
     }
@@ -160,17 +220,27 @@ public class StreamJunction {
         }
         if (disruptor != null) {
             for (Event event : events) {   // Todo : optimize for arrays
-                long sequenceNo = ringBuffer.next();
-                try {
-                    Event existingEvent = ringBuffer.get(sequenceNo);
-                    existingEvent.copyFrom(event);
-                } finally {
-                    ringBuffer.publish(sequenceNo);
+                long sequenceNo = claimSequence();
+                if (sequenceNo != DROPPED_SEQUENCE) {
+                    try {
+                        Event existingEvent = ringBuffer.get(sequenceNo);
+                        existingEvent.copyFrom(event);
+                        if (ingestTimestamped) {
+                            existingEvent.setIngestTimestamp(IngestTimestamp.get());
+                        }
+                    } finally {
+                        ringBuffer.publish(sequenceNo);
+                    }
                 }
             }
         } else {
-            for (Receiver receiver : receivers) {
-                receiver.receive(events);
+            SharedFilterDispatcher sharedFilterDispatcher = getSharedFilterDispatcher();
+            if (sharedFilterDispatcher != null) {
+                sharedFilterDispatcher.send(events);
+            } else {
+                for (Receiver receiver : receivers) {
+                    receiver.receive(events);
+                }
             }
         }
     }
@@ -181,17 +251,27 @@ public class StreamJunction {
         }
         if (disruptor != null) {
             for (Event event : events) {   // Todo : optimize for arrays
-                long sequenceNo = ringBuffer.next();
-                try {
-                    Event existingEvent = ringBuffer.get(sequenceNo);
-                    existingEvent.copyFrom(event);
-                } finally {
-                    ringBuffer.publish(sequenceNo);
+                long sequenceNo = claimSequence();
+                if (sequenceNo != DROPPED_SEQUENCE) {
+                    try {
+                        Event existingEvent = ringBuffer.get(sequenceNo);
+                        existingEvent.copyFrom(event);
+                        if (ingestTimestamped) {
+                            existingEvent.setIngestTimestamp(IngestTimestamp.get());
+                        }
+                    } finally {
+                        ringBuffer.publish(sequenceNo);
+                    }
                 }
             }
         } else {
-            for (Receiver receiver : receivers) {
-                receiver.receive(events.toArray(new Event[events.size()]));
+            SharedFilterDispatcher sharedFilterDispatcher = getSharedFilterDispatcher();
+            if (sharedFilterDispatcher != null) {
+                sharedFilterDispatcher.send(events);
+            } else {
+                for (Receiver receiver : receivers) {
+                    receiver.receive(events.toArray(new Event[events.size()]));
+                }
             }
         }
     }
@@ -205,26 +285,113 @@ public class StreamJunction {
             throughputTracker.eventIn();
         }
         if (disruptor != null) {
-            long sequenceNo = ringBuffer.next();
-            try {
-                Event existingEvent = ringBuffer.get(sequenceNo);
-                existingEvent.setTimestamp(timeStamp);
-                existingEvent.setIsExpired(false);
-                System.arraycopy(data, 0, existingEvent.getData(), 0, data.length);
-            } finally {
-                ringBuffer.publish(sequenceNo);
+            long sequenceNo = claimSequence();
+            if (sequenceNo != DROPPED_SEQUENCE) {
+                try {
+                    Event existingEvent = ringBuffer.get(sequenceNo);
+                    existingEvent.setTimestamp(timeStamp);
+                    existingEvent.setIsExpired(false);
+                    System.arraycopy(data, 0, existingEvent.getData(), 0, data.length);
+                    if (ingestTimestamped) {
+                        existingEvent.setIngestTimestamp(IngestTimestamp.get());
+                    }
+                } finally {
+                    ringBuffer.publish(sequenceNo);
+                }
             }
         } else {
-            for (Receiver receiver : receivers) {
-                receiver.receive(timeStamp, data);
+            SharedFilterDispatcher sharedFilterDispatcher = getSharedFilterDispatcher();
+            if (sharedFilterDispatcher != null) {
+                sharedFilterDispatcher.send(timeStamp, data);
+            } else {
+                for (Receiver receiver : receivers) {
+                    receiver.receive(timeStamp, data);
+                }
             }
         }
     }
 
+    /**
+     * Claim the next slot of the ring buffer, applying the overflow policy of the stream when the buffer is full.
+     *
+     * @return sequence of the claimed slot, or {@link #DROPPED_SEQUENCE} if the event is to be dropped
+     */
+    private long claimSequence() {
+        if (overflowPolicy == OverflowPolicy.BLOCK && producerWaitRecorder == null) {
+            return ringBuffer.next();
+        }
+        try {
+            return ringBuffer.tryNext();
+        } catch (InsufficientCapacityException e) {
+            switch (overflowPolicy) {
+                case DROP_NEWEST:
+                    if (droppedEventsTracker != null) {
+                        droppedEventsTracker.eventIn();
+                    }
+                    return DROPPED_SEQUENCE;
+                case FAIL:
+                    throw new ExecutionPlanRuntimeException("Event buffer of stream '" + streamDefinition.getId() +
+                            "' with size " + bufferSize + " is full");
+                case DROP_OLDEST:
+                    discardQueuedEvents();
+                    break;
+                default:
+                    break;
+            }
+            if (producerWaitRecorder == null) {
+                return ringBuffer.next();
+            }
+            long waitStartTime = System.nanoTime();
+            long sequenceNo = ringBuffer.next();
+            producerWaitRecorder.record(System.nanoTime() - waitStartTime);
+            return sequenceNo;
+        }
+    }
+
+    /**
+     * Mark the events waiting in the full ring buffer as discarded, so that the receivers skip them and free their
+     * slots for newer events. Events being processed and the last events of the batches read by the receivers are
+     * still delivered, hence the dropped count is approximate.
+     */
+    private void discardQueuedEvents() {
+        long discardUpTo = ringBuffer.getCursor();
+        long consumedUpTo = ringBuffer.getMinimumGatingSequence() + 1;
+        long previous = discardedSequence.get();
+        while (previous < discardUpTo) {
+            if (discardedSequence.compareAndSet(previous, discardUpTo)) {
+                long discarded = discardUpTo - Math.max(previous, consumedUpTo);
+                if (droppedEventsTracker != null && discarded > 0) {
+                    droppedEventsTracker.eventsIn((int) discarded);
+                }
+                return;
+            }
+            previous = discardedSequence.get();
+        }
+    }
+
+    /**
+     * Filters shared by the receivers are indexed when the first events arrive after subscriptions change, so that
+     * plans with many queries are not re-indexed per query subscribed.
+     */
+    private SharedFilterDispatcher getSharedFilterDispatcher() {
+        if (receiversChanged) {
+            synchronized (this) {
+                if (receiversChanged) {
+                    sharedFilterDispatcher = SharedFilterDispatcher.create(streamDefinition, receivers,
+                            executionPlanContext);
+                    receiversChanged = false;
+                }
+            }
+        }
+        return sharedFilterDispatcher;
+    }
+
     /**
      * Create and start disruptor based on annotations given in the streamDefinition.
      */
     public synchronized void startProcessing() {
+        // Receivers being debugged are to receive all events
+        receiversChanged = true;
         if (!receivers.isEmpty() && async) {
             for (Constructor constructor : Disruptor.class.getConstructors()) {
                 if (constructor.getParameterTypes().length == 5) {      // If new disruptor classes available
@@ -240,10 +407,16 @@ public class StreamJunction {
                         bufferSize, executorService);
                 disruptor.handleExceptionsWith(executionPlanContext.getDisruptorExceptionHandler());
             }
+            streamHandlers = new ArrayList<StreamHandler>(receivers.size());
             for (Receiver receiver : receivers) {
-                disruptor.handleEventsWith(new StreamHandler(receiver));
+                StreamHandler streamHandler = new StreamHandler(receiver);
+                streamHandlers.add(streamHandler);
+                disruptor.handleEventsWith(streamHandler);
             }
             ringBuffer = disruptor.start();
+            if (bufferedEventsTracker != null) {
+                registerBufferedEventsMetrics();
+            }
         } else {
             for (Receiver receiver : receivers) {
                 if (receiver instanceof StreamCallback) {
@@ -253,6 +426,48 @@ public class StreamJunction {
         }
     }
 
+    /**
+     * Register gauges of the events waiting in the ring buffer and of the events each receiver lags behind the
+     * latest published event.
+     */
+    private void registerBufferedEventsMetrics() {
+        final RingBuffer<Event> ringBuffer = this.ringBuffer;
+        final Disruptor<Event> disruptor = this.disruptor;
+        bufferedEventsTracker.registerEventBufferHolder(new EventBufferHolder() {
+            @Override
+            public long getBufferedEvents() {
+                return ringBuffer.getBufferSize() - ringBuffer.remainingCapacity();
+            }
+        }, metricName + ".buffered");
+        Set<String> receiverNames = new HashSet<String>();
+        for (int i = 0; i < streamHandlers.size(); i++) {
+            final StreamHandler streamHandler = streamHandlers.get(i);
+            String receiverName = getReceiverName(streamHandler.receiver);
+            if (!receiverNames.add(receiverName)) {
+                receiverName = receiverName + "_" + i;
+                receiverNames.add(receiverName);
+            }
+            bufferedEventsTracker.registerEventBufferHolder(new EventBufferHolder() {
+                @Override
+                public long getBufferedEvents() {
+                    return ringBuffer.getCursor() - disruptor.getSequenceValueFor(streamHandler);
+                }
+            }, metricName + SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_RECEIVERS +
+                    SiddhiConstants.METRIC_DELIMITER + receiverName + ".lag");
+        }
+    }
+
+    private static String getReceiverName(Receiver receiver) {
+        if (receiver instanceof ProcessStreamReceiver && ((ProcessStreamReceiver) receiver).getQueryName() != null) {
+            return ((ProcessStreamReceiver) receiver).getQueryName();
+        }
+        Class<?> receiverClass = receiver.getClass();
+        while (receiverClass.isAnonymousClass()) {
+            receiverClass = receiverClass.getSuperclass();
+        }
+        return receiverClass.getSimpleName();
+    }
+
     public synchronized void stopProcessing() {
         if (disruptor != null) {
             disruptor.shutdown();
@@ -276,6 +491,7 @@ public class StreamJunction {
         // To have reverse order at the sequence/pattern processors.
         if (!receivers.contains(receiver)) {
             receivers.add(receiver);
+            receiversChanged = true;
         }
     }
 
@@ -287,6 +503,42 @@ public class StreamJunction {
         return streamDefinition;
     }
 
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Action taken when an event is published to an async junction whose ring buffer is full, configured through
+     * the Overflow element of the Async annotation of the stream.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Wait until the slowest receiver frees a slot.
+         */
+        BLOCK,
+        /**
+         * Discard the events waiting in the buffer in favour of newer events.
+         */
+        DROP_OLDEST,
+        /**
+         * Discard the event being published.
+         */
+        DROP_NEWEST,
+        /**
+         * Fail the publisher with an {@link ExecutionPlanRuntimeException}.
+         */
+        FAIL;
+
+        static OverflowPolicy parse(String value, String streamId) {
+            try {
+                return valueOf(value.trim().toUpperCase().replace('.', '_'));
+            } catch (IllegalArgumentException e) {
+                throw new ExecutionPlanValidationException("Overflow '" + value + "' of stream '" + streamId +
+                        "' is not supported, expected 'block', 'drop.oldest', 'drop.newest' or 'fail'");
+            }
+        }
+    }
+
     public interface Receiver {
 
         String getStreamId();
@@ -312,7 +564,19 @@ public class StreamJunction {
         }
 
         public void onEvent(Event event, long sequence, boolean endOfBatch) {
-            receiver.receive(event, endOfBatch);
+            if (overflowPolicy == OverflowPolicy.DROP_OLDEST && !endOfBatch && sequence <= discardedSequence.get()) {
+                return;
+            }
+            if (ingestTimestamped) {
+                long previousIngestTimestamp = IngestTimestamp.set(event.getIngestTimestamp());
+                try {
+                    receiver.receive(event, endOfBatch);
+                } finally {
+                    IngestTimestamp.set(previousIngestTimestamp);
+                }
+            } else {
+                receiver.receive(event, endOfBatch);
+            }
         }
     }
 
@@ -21,6 +21,7 @@ package org.wso2.siddhi.core.stream.input;
 import org.wso2.siddhi.core.config.ExecutionPlanContext;
 import org.wso2.siddhi.core.event.Event;
 import org.wso2.siddhi.core.util.ThreadBarrier;
+import org.wso2.siddhi.core.util.statistics.IngestTimestamp;
 
 import java.util.List;
 
@@ -28,34 +29,72 @@ public class InputEntryValve implements InputProcessor {
 
     private ThreadBarrier barrier;
     private InputProcessor inputProcessor;
+    private int latencySamplingInterval;
 
 
     public InputEntryValve(ExecutionPlanContext executionPlanContext, InputProcessor inputProcessor) {
         this.barrier = executionPlanContext.getThreadBarrier();
         this.inputProcessor = inputProcessor;
+        this.latencySamplingInterval = executionPlanContext.getLatencySamplingInterval();
     }
 
     @Override
     public void send(Event event, int streamIndex) {
         barrier.pass();
-        inputProcessor.send(event, streamIndex);
+        if (latencySamplingInterval > 0) {
+            long previousIngestTimestamp = IngestTimestamp.stamp(latencySamplingInterval);
+            try {
+                inputProcessor.send(event, streamIndex);
+            } finally {
+                IngestTimestamp.set(previousIngestTimestamp);
+            }
+        } else {
+            inputProcessor.send(event, streamIndex);
+        }
     }
 
     @Override
     public void send(Event[] events, int streamIndex) {
         barrier.pass();
-        inputProcessor.send(events, streamIndex);
+        if (latencySamplingInterval > 0) {
+            long previousIngestTimestamp = IngestTimestamp.stamp(latencySamplingInterval);
+            try {
+                inputProcessor.send(events, streamIndex);
+            } finally {
+                IngestTimestamp.set(previousIngestTimestamp);
+            }
+        } else {
+            inputProcessor.send(events, streamIndex);
+        }
     }
 
     @Override
     public void send(List<Event> events, int streamIndex) {
         barrier.pass();
-        inputProcessor.send(events, streamIndex);
+        if (latencySamplingInterval > 0) {
+            long previousIngestTimestamp = IngestTimestamp.stamp(latencySamplingInterval);
+            try {
+                inputProcessor.send(events, streamIndex);
+            } finally {
+                IngestTimestamp.set(previousIngestTimestamp);
+            }
+        } else {
+            inputProcessor.send(events, streamIndex);
+        }
     }
 
     @Override
     public void send(long timeStamp, Object[] data, int streamIndex) {
         barrier.pass();
-        inputProcessor.send(timeStamp, data, streamIndex);
+        if (latencySamplingInterval > 0) {
+            long previousIngestTimestamp = IngestTimestamp.stamp(latencySamplingInterval);
+            try {
+                inputProcessor.send(timeStamp, data, streamIndex);
+            } finally {
+                IngestTimestamp.set(previousIngestTimestamp);
+            }
+        } else {
+            inputProcessor.send(timeStamp, data, streamIndex);
+        }
     }
 }
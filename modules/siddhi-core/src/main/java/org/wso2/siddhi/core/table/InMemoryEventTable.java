@@ -28,6 +28,7 @@ import org.wso2.siddhi.core.event.stream.StreamEventCloner;
 import org.wso2.siddhi.core.event.stream.StreamEventPool;
 import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
 import org.wso2.siddhi.core.table.holder.EventHolder;
+import org.wso2.siddhi.core.table.holder.OffHeapEventHolder;
 import org.wso2.siddhi.core.util.collection.OverwritingStreamEventExtractor;
 import org.wso2.siddhi.core.util.collection.UpdateAttributeMapper;
 import org.wso2.siddhi.core.util.collection.operator.Finder;
@@ -36,6 +37,8 @@ import org.wso2.siddhi.core.util.collection.operator.Operator;
 import org.wso2.siddhi.core.util.parser.EventHolderPasser;
 import org.wso2.siddhi.core.util.parser.OperatorParser;
 import org.wso2.siddhi.core.util.snapshot.Snapshotable;
+import org.wso2.siddhi.core.util.statistics.memory.EventSizeEstimator;
+import org.wso2.siddhi.core.util.statistics.memory.MemoryAccountable;
 import org.wso2.siddhi.query.api.definition.TableDefinition;
 import org.wso2.siddhi.query.api.expression.Expression;
 
@@ -46,15 +49,17 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
- * In-memory event table implementation of SiddhiQL.
+ * In-memory event table implementation of SiddhiQL. Events are kept on the heap unless the table is annotated with
+ * {@code @store(type='offheap')}, in which case they are kept in an {@link OffHeapEventHolder}.
  */
-public class InMemoryEventTable implements EventTable, Snapshotable {
+public class InMemoryEventTable implements EventTable, Snapshotable, MemoryAccountable {
 
     private TableDefinition tableDefinition;
     private StreamEventCloner tableStreamEventCloner;
     private ReadWriteLock readWriteLock = new ReentrantReadWriteLock();
     private EventHolder eventHolder;
     private String elementId;
+    private EventSizeEstimator eventSizeEstimator;
 
 
     @Override
@@ -62,6 +67,7 @@ public class InMemoryEventTable implements EventTable, Snapshotable {
                      StreamEventPool tableStreamEventPool, StreamEventCloner tableStreamEventCloner,
                      ExecutionPlanContext executionPlanContext) {
         this.tableDefinition = tableDefinition;
+        this.eventSizeEstimator = new EventSizeEstimator(tableDefinition.getAttributeList());
         this.tableStreamEventCloner = tableStreamEventCloner;
 
         eventHolder = EventHolderPasser.parse(tableDefinition, tableStreamEventPool);
@@ -170,8 +176,13 @@ public class InMemoryEventTable implements EventTable, Snapshotable {
     @Override
     public Map<String, Object> currentState() {
         Map<String, Object> state = new HashMap<>();
-                state.put("EventHolder", eventHolder);
-                return state;
+        if (eventHolder instanceof OffHeapEventHolder) {
+            // off-heap rows are modified in place, so hand over a copy to be serialized after the plan resumes
+            state.put("EventHolder", ((OffHeapEventHolder) eventHolder).copy());
+        } else {
+            state.put("EventHolder", eventHolder);
+        }
+        return state;
     }
 
     @Override
@@ -183,4 +194,17 @@ public class InMemoryEventTable implements EventTable, Snapshotable {
     public String getElementId() {
         return elementId;
     }
+
+    @Override
+    public long getRetainedEventCount() {
+        return eventHolder.size();
+    }
+
+    @Override
+    public long getRetainedMemorySize() {
+        if (eventHolder instanceof OffHeapEventHolder) {
+            return ((OffHeapEventHolder) eventHolder).getMemorySize();
+        }
+        return eventSizeEstimator.estimate(getRetainedEventCount());
+    }
 }
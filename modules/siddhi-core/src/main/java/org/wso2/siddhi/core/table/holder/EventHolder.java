@@ -8,4 +8,6 @@ import org.wso2.siddhi.core.event.stream.StreamEvent;
  */
 public interface EventHolder {
     void add(ComplexEventChunk<StreamEvent> addingEventChunk);
+
+    int size();
 }
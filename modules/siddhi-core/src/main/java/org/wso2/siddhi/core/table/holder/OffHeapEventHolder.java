@@ -0,0 +1,421 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.table.holder;
+
+import org.wso2.siddhi.core.event.ComplexEvent;
+import org.wso2.siddhi.core.event.ComplexEventChunk;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.query.api.definition.Attribute;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Event holder of an in-memory table that keeps its rows outside the Java heap, selected with
+ * {@code @store(type='offheap')}. Rows are encoded in the schema derived {@link OffHeapRowLayout} and appended to
+ * direct memory segments, and are addressed through a row directory that keeps them in insertion order. When the
+ * table is indexed, a compact open addressing hash index maps the primary key to the directory position of its
+ * row. Rows are only decoded into a {@link StreamEvent} while they are being matched; deleted and outgrown rows
+ * leave garbage in the segments, which is reclaimed by compacting the live rows into new segments.
+ * <p>
+ * Reads may run concurrently, but modifications must be serialized by the owning table.
+ */
+public class OffHeapEventHolder implements EventHolder, Serializable {
+
+    public static final int DEFAULT_SEGMENT_SIZE = 1024 * 1024;
+    private static final long NO_ROW = -1;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int MIN_COMPACTION_ROWS = 1024;
+
+    private final OffHeapRowLayout layout;
+    private final int segmentSize;
+    private final int indexPosition;
+    private final String indexAttribute;
+
+    private transient List<ByteBuffer> segments;
+    private transient int segmentOffset;
+    private transient long allocatedBytes;
+    private transient long usedBytes;
+    private transient long deadBytes;
+    private transient long[] rows;
+    private transient int rowLimit;
+    private transient int rowCount;
+    private transient int[] indexSlots;
+    private transient int[] indexHashes;
+    private transient int indexSize;
+
+    public OffHeapEventHolder(List<Attribute> attributeList, int segmentSize, int indexPosition,
+                              String indexAttribute) {
+        this.layout = new OffHeapRowLayout(attributeList);
+        this.segmentSize = segmentSize;
+        this.indexPosition = indexPosition;
+        this.indexAttribute = indexAttribute;
+        init(INITIAL_CAPACITY);
+    }
+
+    private OffHeapEventHolder(OffHeapEventHolder eventHolder) {
+        this.layout = eventHolder.layout;
+        this.segmentSize = eventHolder.segmentSize;
+        this.indexPosition = eventHolder.indexPosition;
+        this.indexAttribute = eventHolder.indexAttribute;
+        init(eventHolder.rowCount);
+        eventHolder.copyRowsTo(this);
+    }
+
+    private void init(int expectedRows) {
+        segments = new ArrayList<ByteBuffer>();
+        segmentOffset = 0;
+        allocatedBytes = 0;
+        usedBytes = 0;
+        deadBytes = 0;
+        int capacity = INITIAL_CAPACITY;
+        while (capacity < expectedRows) {
+            capacity <<= 1;
+        }
+        rows = new long[capacity];
+        rowLimit = 0;
+        rowCount = 0;
+        if (indexPosition >= 0) {
+            indexSlots = new int[capacity * 2];
+            indexHashes = new int[capacity * 2];
+            indexSize = 0;
+        }
+    }
+
+    @Override
+    public void add(ComplexEventChunk<StreamEvent> addingEventChunk) {
+        addingEventChunk.reset();
+        while (addingEventChunk.hasNext()) {
+            ComplexEvent complexEvent = addingEventChunk.next();
+            Object[] data = complexEvent.getOutputData();
+            if (indexPosition >= 0) {
+                int position = find(data[indexPosition]);
+                if (position >= 0) {
+                    write(position, complexEvent.getTimestamp(), complexEvent.getType(), data);
+                    continue;
+                }
+            }
+            int length = layout.length(data);
+            long address = allocate(length);
+            layout.write(segments.get(segmentIndex(address)), segmentOffset(address), length,
+                    complexEvent.getTimestamp(), complexEvent.getType(), data);
+            addRow(address, indexPosition >= 0 ? data[indexPosition] : null);
+        }
+    }
+
+    @Override
+    public int size() {
+        return rowCount;
+    }
+
+    public String getIndexAttribute() {
+        return indexAttribute;
+    }
+
+    public int getIndexPosition() {
+        return indexPosition;
+    }
+
+    /**
+     * @return an event rows can be decoded into with {@link #read(int, StreamEvent)}
+     */
+    public StreamEvent createCandidateEvent() {
+        return new StreamEvent(0, 0, layout.getAttributeCount());
+    }
+
+    /**
+     * @return upper bound of the directory positions that may hold a row
+     */
+    public int getPositionLimit() {
+        return rowLimit;
+    }
+
+    /**
+     * Decode the row at the given directory position.
+     *
+     * @return false if the position does not hold a row, in which case the event is left untouched
+     */
+    public boolean read(int position, StreamEvent streamEvent) {
+        long address = rows[position];
+        if (address == NO_ROW) {
+            return false;
+        }
+        layout.read(segments.get(segmentIndex(address)), segmentOffset(address), streamEvent);
+        return true;
+    }
+
+    /**
+     * Look up the row of a primary key of an indexed table.
+     *
+     * @return directory position of the row, or -1 if there is no such row
+     */
+    public int find(Object key) {
+        int hash = hash(key);
+        int mask = indexSlots.length - 1;
+        for (int slot = hash & mask; indexSlots[slot] != 0; slot = (slot + 1) & mask) {
+            if (indexHashes[slot] == hash) {
+                int position = indexSlots[slot] - 1;
+                long address = rows[position];
+                if (layout.attributeEquals(segments.get(segmentIndex(address)), segmentOffset(address),
+                        indexPosition, key)) {
+                    return position;
+                }
+            }
+        }
+        return -1;
+    }
+
+    public void delete(int position) {
+        long address = rows[position];
+        if (address == NO_ROW) {
+            return;
+        }
+        if (indexPosition >= 0) {
+            removeFromIndex(position);
+        }
+        rows[position] = NO_ROW;
+        rowCount--;
+        deadBytes += layout.capacity(segments.get(segmentIndex(address)), segmentOffset(address));
+    }
+
+    /**
+     * Replace the row at the given directory position with the output data of the event. If the primary key
+     * changes, a row that already holds the new key is replaced as well, as keys are unique.
+     */
+    public void overwrite(int position, StreamEvent streamEvent) {
+        Object[] data = streamEvent.getOutputData();
+        if (indexPosition >= 0) {
+            long address = rows[position];
+            Object key = data[indexPosition];
+            if (!layout.attributeEquals(segments.get(segmentIndex(address)), segmentOffset(address), indexPosition,
+                    key)) {
+                removeFromIndex(position);
+                int existingPosition = find(key);
+                if (existingPosition >= 0) {
+                    delete(existingPosition);
+                }
+                addToIndex(hash(key), position);
+            }
+        }
+        write(position, streamEvent.getTimestamp(), streamEvent.getType(), data);
+    }
+
+    /**
+     * Reclaim the memory of deleted rows once they outweigh the live ones. Must not be called while the directory
+     * positions are being iterated.
+     */
+    public void compactIfNeeded() {
+        int deletedRows = rowLimit - rowCount;
+        if ((deadBytes >= segmentSize && deadBytes * 2 > usedBytes) ||
+                (deletedRows >= MIN_COMPACTION_ROWS && deletedRows * 2 > rowLimit)) {
+            OffHeapEventHolder compacted = new OffHeapEventHolder(this);
+            segments = compacted.segments;
+            segmentOffset = compacted.segmentOffset;
+            allocatedBytes = compacted.allocatedBytes;
+            usedBytes = compacted.usedBytes;
+            deadBytes = 0;
+            rows = compacted.rows;
+            rowLimit = compacted.rowLimit;
+            rowCount = compacted.rowCount;
+            indexSlots = compacted.indexSlots;
+            indexHashes = compacted.indexHashes;
+            indexSize = compacted.indexSize;
+        }
+    }
+
+    /**
+     * @return a compacted copy of the holder that does not share memory with it
+     */
+    public OffHeapEventHolder copy() {
+        return new OffHeapEventHolder(this);
+    }
+
+    /**
+     * @return bytes of off-heap memory allocated for the rows, together with the directory and index
+     */
+    public long getMemorySize() {
+        return allocatedBytes + rows.length * 8L + (indexPosition >= 0 ? indexSlots.length * 8L : 0);
+    }
+
+    private void write(int position, long timestamp, ComplexEvent.Type type, Object[] data) {
+        long address = rows[position];
+        ByteBuffer segment = segments.get(segmentIndex(address));
+        int capacity = layout.capacity(segment, segmentOffset(address));
+        int length = layout.length(data);
+        if (length > capacity) {
+            deadBytes += capacity;
+            address = allocate(length);
+            rows[position] = address;
+            segment = segments.get(segmentIndex(address));
+            capacity = length;
+        }
+        layout.write(segment, segmentOffset(address), capacity, timestamp, type, data);
+    }
+
+    private long allocate(int length) {
+        if (segments.isEmpty() || segmentOffset + length > segments.get(segments.size() - 1).capacity()) {
+            ByteBuffer segment = ByteBuffer.allocateDirect(Math.max(segmentSize, length));
+            segments.add(segment);
+            allocatedBytes += segment.capacity();
+            segmentOffset = 0;
+        }
+        long address = ((long) (segments.size() - 1) << 32) | segmentOffset;
+        segmentOffset += length;
+        usedBytes += length;
+        return address;
+    }
+
+    private void addRow(long address, Object key) {
+        if (rowLimit == rows.length) {
+            rows = Arrays.copyOf(rows, rowLimit * 2);
+        }
+        rows[rowLimit] = address;
+        if (indexPosition >= 0) {
+            addToIndex(hash(key), rowLimit);
+        }
+        rowLimit++;
+        rowCount++;
+    }
+
+    /**
+     * Append an encoded row, as it is laid out in the given buffer.
+     */
+    private void addRawRow(ByteBuffer source, int offset) {
+        int length = layout.capacity(source, offset);
+        long address = allocate(length);
+        ByteBuffer rowBytes = source.duplicate();
+        rowBytes.limit(offset + length);
+        rowBytes.position(offset);
+        ByteBuffer target = segments.get(segmentIndex(address)).duplicate();
+        target.position(segmentOffset(address));
+        target.put(rowBytes);
+        addRow(address, indexPosition >= 0 ? layout.readAttribute(source, offset, indexPosition) : null);
+    }
+
+    private void copyRowsTo(OffHeapEventHolder eventHolder) {
+        for (int position = 0; position < rowLimit; position++) {
+            long address = rows[position];
+            if (address != NO_ROW) {
+                eventHolder.addRawRow(segments.get(segmentIndex(address)), segmentOffset(address));
+            }
+        }
+    }
+
+    private void addToIndex(int hash, int position) {
+        if ((indexSize + 1) * 2 > indexSlots.length) {
+            int[] oldSlots = indexSlots;
+            int[] oldHashes = indexHashes;
+            indexSlots = new int[oldSlots.length * 2];
+            indexHashes = new int[oldSlots.length * 2];
+            for (int slot = 0; slot < oldSlots.length; slot++) {
+                if (oldSlots[slot] != 0) {
+                    insertIntoIndex(oldHashes[slot], oldSlots[slot]);
+                }
+            }
+        }
+        insertIntoIndex(hash, position + 1);
+        indexSize++;
+    }
+
+    private void insertIntoIndex(int hash, int entry) {
+        int mask = indexSlots.length - 1;
+        int slot = hash & mask;
+        while (indexSlots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        indexSlots[slot] = entry;
+        indexHashes[slot] = hash;
+    }
+
+    private void removeFromIndex(int position) {
+        long address = rows[position];
+        int hash = hash(layout.readAttribute(segments.get(segmentIndex(address)), segmentOffset(address),
+                indexPosition));
+        int mask = indexSlots.length - 1;
+        int hole = hash & mask;
+        while (indexSlots[hole] != position + 1) {
+            hole = (hole + 1) & mask;
+        }
+        indexSlots[hole] = 0;
+        indexSize--;
+        // shift back the entries of the probe sequence that can no longer be reached past the hole
+        for (int slot = (hole + 1) & mask; indexSlots[slot] != 0; slot = (slot + 1) & mask) {
+            int home = indexHashes[slot] & mask;
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                indexSlots[hole] = indexSlots[slot];
+                indexHashes[hole] = indexHashes[slot];
+                indexSlots[slot] = 0;
+                hole = slot;
+            }
+        }
+    }
+
+    private static int hash(Object key) {
+        int hash = key == null ? 0 : key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int segmentIndex(long address) {
+        return (int) (address >>> 32);
+    }
+
+    private static int segmentOffset(long address) {
+        return (int) address;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(rowCount);
+        byte[] bytes = new byte[0];
+        for (int position = 0; position < rowLimit; position++) {
+            long address = rows[position];
+            if (address != NO_ROW) {
+                ByteBuffer rowBytes = segments.get(segmentIndex(address)).duplicate();
+                int length = layout.capacity(rowBytes, segmentOffset(address));
+                if (bytes.length < length) {
+                    bytes = new byte[length];
+                }
+                rowBytes.position(segmentOffset(address));
+                rowBytes.get(bytes, 0, length);
+                out.writeInt(length);
+                out.write(bytes, 0, length);
+            }
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int count = in.readInt();
+        init(count);
+        byte[] bytes = new byte[0];
+        for (int i = 0; i < count; i++) {
+            int length = in.readInt();
+            if (bytes.length < length) {
+                bytes = new byte[length];
+            }
+            in.readFully(bytes, 0, length);
+            addRawRow(ByteBuffer.wrap(bytes), 0);
+        }
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.table.holder;
+
+import org.wso2.siddhi.core.event.ComplexEvent;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.exception.OperationNotSupportedException;
+import org.wso2.siddhi.query.api.definition.Attribute;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Binary row format of an {@link OffHeapEventHolder}, derived from the table schema. A row is laid out as
+ * <pre>
+ * | capacity (int) | type (byte) | timestamp (long) | null bitmap | fixed width slots | string data |
+ * </pre>
+ * where every attribute has a fixed width slot at a precomputed offset, so that a single attribute such as the
+ * primary key can be read without decoding the row. The slot of a string holds the offset of its data within the
+ * row; strings whose characters all fit in a byte are stored one byte per character, others two. All reads use
+ * absolute positions and are safe to run concurrently.
+ */
+class OffHeapRowLayout implements Serializable {
+
+    private static final int CAPACITY_OFFSET = 0;
+    private static final int TYPE_OFFSET = 4;
+    private static final int TIMESTAMP_OFFSET = 5;
+    private static final int NULL_BITMAP_OFFSET = 13;
+    private static final ComplexEvent.Type[] EVENT_TYPES = ComplexEvent.Type.values();
+
+    private final Attribute.Type[] types;
+    private final int[] slotOffsets;
+    private final int fixedLength;
+
+    OffHeapRowLayout(List<Attribute> attributeList) {
+        types = new Attribute.Type[attributeList.size()];
+        slotOffsets = new int[types.length];
+        int offset = NULL_BITMAP_OFFSET + (types.length + 7) / 8;
+        for (int i = 0; i < types.length; i++) {
+            Attribute attribute = attributeList.get(i);
+            types[i] = attribute.getType();
+            slotOffsets[i] = offset;
+            switch (types[i]) {
+                case BOOL:
+                    offset += 1;
+                    break;
+                case INT:
+                case FLOAT:
+                case STRING:
+                    offset += 4;
+                    break;
+                case LONG:
+                case DOUBLE:
+                    offset += 8;
+                    break;
+                default:
+                    throw new OperationNotSupportedException("Attribute '" + attribute.getName() + "' is of type " +
+                            types[i] + ", off-heap tables only support attributes of primitive and string types");
+            }
+        }
+        fixedLength = offset;
+    }
+
+    int getAttributeCount() {
+        return types.length;
+    }
+
+    /**
+     * @param data attribute values of the row
+     * @return number of bytes the row needs
+     */
+    int length(Object[] data) {
+        int length = fixedLength;
+        for (int i = 0; i < types.length; i++) {
+            if (types[i] == Attribute.Type.STRING && data[i] != null) {
+                String value = (String) data[i];
+                length += 4 + (isLatin1(value) ? value.length() : value.length() * 2);
+            }
+        }
+        return length;
+    }
+
+    void write(ByteBuffer buffer, int rowOffset, int capacity, long timestamp, ComplexEvent.Type type,
+               Object[] data) {
+        buffer.putInt(rowOffset + CAPACITY_OFFSET, capacity);
+        buffer.put(rowOffset + TYPE_OFFSET, (byte) type.ordinal());
+        buffer.putLong(rowOffset + TIMESTAMP_OFFSET, timestamp);
+        int dataOffset = fixedLength;
+        int bitmapOffset = rowOffset + NULL_BITMAP_OFFSET;
+        byte nullBits = 0;
+        for (int i = 0; i < types.length; i++) {
+            Object value = data[i];
+            int slot = rowOffset + slotOffsets[i];
+            if (value == null) {
+                nullBits |= 1 << (i & 7);
+            } else {
+                switch (types[i]) {
+                    case BOOL:
+                        buffer.put(slot, (Boolean) value ? (byte) 1 : (byte) 0);
+                        break;
+                    case INT:
+                        buffer.putInt(slot, (Integer) value);
+                        break;
+                    case FLOAT:
+                        buffer.putFloat(slot, (Float) value);
+                        break;
+                    case LONG:
+                        buffer.putLong(slot, (Long) value);
+                        break;
+                    case DOUBLE:
+                        buffer.putDouble(slot, (Double) value);
+                        break;
+                    default:
+                        buffer.putInt(slot, dataOffset);
+                        dataOffset = writeString(buffer, rowOffset, dataOffset, (String) value);
+                }
+            }
+            if ((i & 7) == 7 || i == types.length - 1) {
+                buffer.put(bitmapOffset + (i >> 3), nullBits);
+                nullBits = 0;
+            }
+        }
+    }
+
+    private int writeString(ByteBuffer buffer, int rowOffset, int dataOffset, String value) {
+        int length = value.length();
+        int position = rowOffset + dataOffset + 4;
+        if (isLatin1(value)) {
+            buffer.putInt(rowOffset + dataOffset, length);
+            for (int i = 0; i < length; i++) {
+                buffer.put(position + i, (byte) value.charAt(i));
+            }
+            return dataOffset + 4 + length;
+        } else {
+            buffer.putInt(rowOffset + dataOffset, -length - 1);
+            for (int i = 0; i < length; i++) {
+                buffer.putChar(position + i * 2, value.charAt(i));
+            }
+            return dataOffset + 4 + length * 2;
+        }
+    }
+
+    int capacity(ByteBuffer buffer, int rowOffset) {
+        return buffer.getInt(rowOffset + CAPACITY_OFFSET);
+    }
+
+    /**
+     * Decode the row into the output data, timestamp and type of the given event.
+     */
+    void read(ByteBuffer buffer, int rowOffset, StreamEvent streamEvent) {
+        Object[] outputData = streamEvent.getOutputData();
+        for (int i = 0; i < types.length; i++) {
+            outputData[i] = readAttribute(buffer, rowOffset, i);
+        }
+        streamEvent.setTimestamp(buffer.getLong(rowOffset + TIMESTAMP_OFFSET));
+        streamEvent.setType(EVENT_TYPES[buffer.get(rowOffset + TYPE_OFFSET)]);
+    }
+
+    Object readAttribute(ByteBuffer buffer, int rowOffset, int attributePosition) {
+        if (isNull(buffer, rowOffset, attributePosition)) {
+            return null;
+        }
+        int slot = rowOffset + slotOffsets[attributePosition];
+        switch (types[attributePosition]) {
+            case BOOL:
+                return buffer.get(slot) != 0;
+            case INT:
+                return buffer.getInt(slot);
+            case FLOAT:
+                return buffer.getFloat(slot);
+            case LONG:
+                return buffer.getLong(slot);
+            case DOUBLE:
+                return buffer.getDouble(slot);
+            default:
+                int position = rowOffset + buffer.getInt(slot);
+                int header = buffer.getInt(position);
+                position += 4;
+                if (header >= 0) {
+                    byte[] bytes = new byte[header];
+                    for (int i = 0; i < header; i++) {
+                        bytes[i] = buffer.get(position + i);
+                    }
+                    return new String(bytes, StandardCharsets.ISO_8859_1);
+                } else {
+                    char[] chars = new char[-header - 1];
+                    for (int i = 0; i < chars.length; i++) {
+                        chars[i] = buffer.getChar(position + i * 2);
+                    }
+                    return new String(chars);
+                }
+        }
+    }
+
+    /**
+     * Compare an attribute of the row with the given value, as {@link Object#equals(Object)} would after decoding
+     * it, without decoding strings.
+     */
+    boolean attributeEquals(ByteBuffer buffer, int rowOffset, int attributePosition, Object value) {
+        if (isNull(buffer, rowOffset, attributePosition)) {
+            return value == null;
+        }
+        if (value == null) {
+            return false;
+        }
+        if (types[attributePosition] != Attribute.Type.STRING) {
+            return value.equals(readAttribute(buffer, rowOffset, attributePosition));
+        }
+        if (!(value instanceof String)) {
+            return false;
+        }
+        String string = (String) value;
+        int position = rowOffset + buffer.getInt(rowOffset + slotOffsets[attributePosition]);
+        int header = buffer.getInt(position);
+        position += 4;
+        if (header >= 0) {
+            if (header != string.length()) {
+                return false;
+            }
+            for (int i = 0; i < header; i++) {
+                if ((buffer.get(position + i) & 0xFF) != string.charAt(i)) {
+                    return false;
+                }
+            }
+        } else {
+            if (-header - 1 != string.length()) {
+                return false;
+            }
+            for (int i = 0; i < string.length(); i++) {
+                if (buffer.getChar(position + i * 2) != string.charAt(i)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean isNull(ByteBuffer buffer, int rowOffset, int attributePosition) {
+        return (buffer.get(rowOffset + NULL_BITMAP_OFFSET + (attributePosition >> 3)) &
+                (1 << (attributePosition & 7))) != 0;
+    }
+
+    private static boolean isLatin1(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
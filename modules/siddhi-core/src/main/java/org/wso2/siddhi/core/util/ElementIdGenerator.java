@@ -18,18 +18,92 @@
 
 package org.wso2.siddhi.core.util;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 public class ElementIdGenerator {
 
     private String executionPlanName;
     private AtomicLong id = new AtomicLong(0);
+    // Ids of the elements created by a thread building a query, which are numbered within the query so that they do
+    // not depend on the order the threads create them
+    private ThreadLocal<Scope> scope = new ThreadLocal<Scope>();
+    private Map<String, Long> scopeSizes = new ConcurrentHashMap<String, Long>();
+    // First number of the global numbering reserved for each scope, by scope name
+    private Map<String, Long> scopeOffsets = new ConcurrentHashMap<String, Long>();
 
     public ElementIdGenerator(String executionPlanName) {
         this.executionPlanName = executionPlanName;
     }
 
     public String createNewId() {
+        Scope currentScope = scope.get();
+        if (currentScope != null) {
+            return executionPlanName + "-" + currentScope.name + "-" + (++currentScope.id);
+        }
         return executionPlanName + "-" + id.incrementAndGet();
     }
+
+    /**
+     * Number the ids created by the current thread within the given scope, until {@link #endScope()} is called
+     *
+     * @param scopeName name of the scope, which should be the same each time the execution plan is built
+     */
+    public void startScope(String scopeName) {
+        scope.set(new Scope(scopeName));
+    }
+
+    public void endScope() {
+        Scope currentScope = scope.get();
+        if (currentScope != null) {
+            scopeSizes.put(currentScope.name, currentScope.id);
+        }
+        scope.remove();
+    }
+
+    /**
+     * Reserve the numbers of the global numbering the ids of the given ended scope would have taken if they were not
+     * scoped. Scopes must be numbered in the order their elements would have been created serially, so that the
+     * other ids keep the global numbering of execution plans built without scopes.
+     *
+     * @param scopeName name of the ended scope
+     */
+    public void numberScope(String scopeName) {
+        Long size = scopeSizes.get(scopeName);
+        if (size != null) {
+            scopeOffsets.put(scopeName, id.getAndAdd(size));
+        }
+    }
+
+    /**
+     * @param elementId id of an element, which may prefix the id created for it
+     * @return the id the element had when ids were not scoped, or null if the element id is not scoped
+     */
+    public String getUnscopedId(String elementId) {
+        int numberStart = elementId.lastIndexOf('-');
+        int scopeStart = numberStart > 0 ? elementId.lastIndexOf('-', numberStart - 1) : -1;
+        if (scopeStart < 0 || !elementId.startsWith(executionPlanName, scopeStart - executionPlanName.length())) {
+            return null;
+        }
+        Long offset = scopeOffsets.get(elementId.substring(scopeStart + 1, numberStart));
+        if (offset == null) {
+            return null;
+        }
+        try {
+            return elementId.substring(0, scopeStart) + "-" +
+                    (offset + Long.parseLong(elementId.substring(numberStart + 1)));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static class Scope {
+        private final String name;
+        private long id = 0;
+
+        private Scope(String name) {
+            this.name = name;
+        }
+    }
 }
@@ -19,7 +19,6 @@
 package org.wso2.siddhi.core.util;
 
 import org.wso2.siddhi.core.config.ExecutionPlanContext;
-import org.wso2.siddhi.core.query.input.stream.single.EntryValveProcessor;
 import org.wso2.siddhi.core.util.timestamp.EventTimeBasedMillisTimestampGenerator;
 
 public class EventTimeBasedScheduler extends Scheduler {
@@ -49,8 +48,8 @@ public class EventTimeBasedScheduler extends Scheduler {
     }
 
     @Override
-    public Scheduler clone(String key, EntryValveProcessor entryValveProcessor) {
-        Scheduler scheduler = new EventTimeBasedScheduler(entryValveProcessor, executionPlanContext);
+    public Scheduler clone(String key, Schedulable singleThreadEntryValve) {
+        Scheduler scheduler = new EventTimeBasedScheduler(singleThreadEntryValve, executionPlanContext);
         scheduler.elementId = elementId + "-" + key;
         return scheduler;
     }
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util;
+
+import org.wso2.siddhi.query.api.ExecutionPlan;
+import org.wso2.siddhi.query.compiler.SiddhiCompiler;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least recently used cache of the {@link ExecutionPlan}s compiled from SiddhiQL, keyed by the SHA-256 hash of the
+ * source, so that redeploying the same execution plan does not parse it again. The cached plans are shared by the
+ * runtimes created from the same source, which only read them.
+ */
+public class ExecutionPlanCache {
+
+    public static final int DEFAULT_CACHE_SIZE = 100;
+
+    private final Map<String, ExecutionPlan> executionPlanMap;
+    private final int cacheSize;
+
+    public ExecutionPlanCache(final int cacheSize) {
+        this.cacheSize = cacheSize;
+        this.executionPlanMap = new LinkedHashMap<String, ExecutionPlan>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ExecutionPlan> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Get the execution plan compiled from the given source, compiling it if it is not cached
+     *
+     * @param source SiddhiQL source of the execution plan
+     * @return compiled execution plan
+     */
+    public ExecutionPlan getExecutionPlan(String source) {
+        if (cacheSize <= 0) {
+            return SiddhiCompiler.parse(source);
+        }
+        String key = hash(source);
+        ExecutionPlan executionPlan;
+        synchronized (executionPlanMap) {
+            executionPlan = executionPlanMap.get(key);
+        }
+        if (executionPlan == null) {
+            // Compiled outside the lock, a plan compiled concurrently from the same source is simply replaced
+            executionPlan = SiddhiCompiler.parse(source);
+            synchronized (executionPlanMap) {
+                executionPlanMap.put(key, executionPlan);
+            }
+        }
+        return executionPlan;
+    }
+
+    public boolean contains(String source) {
+        synchronized (executionPlanMap) {
+            return executionPlanMap.containsKey(hash(source));
+        }
+    }
+
+    public int size() {
+        synchronized (executionPlanMap) {
+            return executionPlanMap.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (executionPlanMap) {
+            executionPlanMap.clear();
+        }
+    }
+
+    private static String hash(String source) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(source.getBytes(StandardCharsets.UTF_8));
+            StringBuilder key = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                key.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+}
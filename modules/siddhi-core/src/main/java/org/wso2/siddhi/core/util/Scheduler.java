@@ -25,7 +25,6 @@ import org.wso2.siddhi.core.event.stream.StreamEvent;
 import org.wso2.siddhi.core.event.stream.StreamEventPool;
 import org.wso2.siddhi.core.event.stream.converter.ConversionStreamEventChunk;
 import org.wso2.siddhi.core.event.stream.converter.StreamEventConverter;
-import org.wso2.siddhi.core.query.input.stream.single.EntryValveProcessor;
 import org.wso2.siddhi.core.util.lock.LockWrapper;
 import org.wso2.siddhi.core.util.snapshot.Snapshotable;
 import org.wso2.siddhi.core.util.statistics.LatencyTracker;
@@ -58,7 +57,7 @@ public abstract class Scheduler implements Snapshotable {
 
     public abstract void schedule(long time);
 
-    public abstract Scheduler clone(String key, EntryValveProcessor entryValveProcessor);
+    public abstract Scheduler clone(String key, Schedulable singleThreadEntryValve);
 
     public void notifyAt(long time) {
         try {
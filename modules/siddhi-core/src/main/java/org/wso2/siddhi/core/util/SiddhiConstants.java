@@ -43,12 +43,30 @@ public final class SiddhiConstants {
     public static final String ANNOTATION_STATISTICS = "Statistics";
     public static final String ANNOTATION_INDEX_BY = "IndexBy";
     public static final String ANNOTATION_FROM = "from";
+    public static final String ANNOTATION_STORE = "store";
+    public static final String ANNOTATION_ELEMENT_TYPE = "type";
+    public static final String ANNOTATION_ELEMENT_SEGMENT_SIZE = "segment.size";
     public static final String ANNOTATION_BUFFER_SIZE = "BufferSize";
+    public static final String ANNOTATION_OVERFLOW = "Overflow";
+    public static final String ANNOTATION_COMPILE = "Compile";
+    public static final String ANNOTATION_COLUMNAR = "Columnar";
+    public static final String ANNOTATION_BUILD = "Build";
+    public static final String ANNOTATION_PARALLELISM = "Parallelism";
     public static final String ANNOTATION_IDLE_TIME = "IdleTime";
     public static final String ANNOTATION_INCREMENT = "Increment";
+    public static final String ANNOTATION_SNAPSHOT = "Snapshot";
+    public static final String ANNOTATION_SPILL = "Spill";
+    public static final String ANNOTATION_ELEMENT_HEAP_EVENTS = "heap.events";
+    public static final String ANNOTATION_ELEMENT_DIRECTORY = "directory";
 
     public static final String TRUE = "true";
     public static final String TRIGGER_START = "start";
+    public static final String STORE_TYPE_OFF_HEAP = "offheap";
+    public static final String SNAPSHOT_CHANGES = "changes";
+    public static final String STATISTICS_LATENCY_SAMPLING = "latency.sampling";
+    public static final String STATISTICS_LATENCY_BREAKDOWN = "latency.breakdown";
+    public static final String METRIC_INFIX_INGEST = "ingest";
+    public static final String METRIC_INFIX_RECEIVERS = "Receivers";
     public static final int DEFAULT_EVENT_BUFFER_SIZE = 1024;
     public static final int HAVING_STATE = -2;
     public static final int UNKNOWN_STATE = -1;
@@ -61,6 +79,10 @@ public final class SiddhiConstants {
     public static final String METRIC_INFIX_SIDDHI = "Siddhi";
     public static final String METRIC_INFIX_QUERIES = "Queries";
     public static final String METRIC_INFIX_WINDOWS = "Windows";
+    public static final String METRIC_INFIX_TABLES = "Tables";
+    public static final String METRIC_INFIX_TRANSPORTS = "Transports";
+    public static final String METRIC_INFIX_FUNCTIONS = "Functions";
+    public static final String METRIC_INFIX_BUILD = "Build";
     public static final String METRIC_DELIMITER = ".";
     public static final String METRIC_AGGREGATE_ANNOTATION = "[+]";
 }
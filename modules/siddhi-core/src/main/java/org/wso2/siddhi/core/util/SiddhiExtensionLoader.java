@@ -19,8 +19,11 @@
 package org.wso2.siddhi.core.util;
 
 import org.apache.log4j.Logger;
+import org.wso2.siddhi.annotation.processor.ExtensionIndexAnnotationProcessor;
 
 import java.io.*;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.regex.Pattern;
 import java.util.zip.ZipEntry;
@@ -33,14 +36,97 @@ public class SiddhiExtensionLoader {
     private static final String CLASS_EXT = "[^#]\\S+=\\S+";
     private static final String SIDDHI_EXT = ".*\\.siddhiext";
     private static final String JAR = ".*\\.jar";
+    private static final String EXTENSION_SCAN = "siddhi.extensions.scan";
     private static final Logger log = Logger.getLogger(SiddhiExtensionLoader.class);
 
     /**
-     * Helper method to load the siddhi extensions
+     * Helper method to load the siddhi extensions. Extensions are looked up once and cached, and each call returns
+     * a copy which can be modified independently.
      * @return class map
      */
     public static Map<String, Class> loadSiddhiExtensions() {
-        String classPath = System.getProperty(CLASS_PATH);
+        return new HashMap<String, Class>(ExtensionCache.EXTENSIONS);
+    }
+
+    /**
+     * Lazily initialized holder of the extensions, so that the lookup happens once on first use
+     */
+    private static class ExtensionCache {
+        private static final Map<String, Class> EXTENSIONS = Collections.unmodifiableMap(lookupSiddhiExtensions());
+    }
+
+    private static Map<String, Class> lookupSiddhiExtensions() {
+        ClassLoader classLoader = SiddhiExtensionLoader.class.getClassLoader();
+        if (classLoader == null) {
+            classLoader = ClassLoader.getSystemClassLoader();
+        }
+        return lookupSiddhiExtensions(classLoader, System.getProperty(CLASS_PATH), Boolean.getBoolean(EXTENSION_SCAN));
+    }
+
+    /**
+     * Look up the extensions from the extension indexes, and from the *.siddhiext files of the class path roots.
+     *
+     * @param classLoader class loader to look up the indexes and the extension classes from
+     * @param classPath   class path to scan, separated by the path separator
+     * @param scanIndexed whether to also scan the roots holding an index, instead of only the roots built without one
+     * @return extension classes keyed by namespace:name
+     */
+    static Map<String, Class> lookupSiddhiExtensions(ClassLoader classLoader, String classPath, boolean scanIndexed) {
+        Map<String, Class> classMap = new HashMap<String, Class>();
+        loadExtensionIndexes(classLoader, classMap);
+        // Extensions built without the extension index are only found by scanning their class path roots
+        for (Map.Entry<String, Class> extension : scanSiddhiExtensions(classLoader, classPath, scanIndexed)
+                .entrySet()) {
+            if (!classMap.containsKey(extension.getKey())) {
+                classMap.put(extension.getKey(), extension.getValue());
+            }
+        }
+        return classMap;
+    }
+
+    /**
+     * Load the extensions listed in the extension indexes generated at build time by
+     * {@link ExtensionIndexAnnotationProcessor}, looked up through the class loader as service provider files are.
+     * @param classLoader class loader to look up the indexes and the extension classes from
+     * @param classMap    map to add the extension classes to
+     */
+    private static void loadExtensionIndexes(ClassLoader classLoader, Map<String, Class> classMap) {
+        Enumeration<URL> indexes;
+        try {
+            indexes = classLoader.getResources(ExtensionIndexAnnotationProcessor.EXTENSION_INDEX);
+        } catch (IOException e) {
+            log.error("Unable to look up Siddhi extension indexes", e);
+            return;
+        }
+        while (indexes.hasMoreElements()) {
+            URL index = indexes.nextElement();
+            try {
+                BufferedReader br = new BufferedReader(new InputStreamReader(index.openStream(),
+                        StandardCharsets.UTF_8));
+                try {
+                    String extension;
+                    while ((extension = br.readLine()) != null) {
+                        extension = extension.trim();
+                        if (extension.matches(CLASS_EXT)) {
+                            String[] info = extension.split("=");
+                            try {
+                                classMap.put(info[0].trim(), Class.forName(info[1].trim(), false, classLoader));
+                            } catch (ClassNotFoundException e) {
+                                log.debug("Cannot load Siddhi extension " + extension);
+                            }
+                        }
+                    }
+                } finally {
+                    br.close();
+                }
+            } catch (IOException e) {
+                log.error("Unable to read Siddhi extension index " + index, e);
+            }
+        }
+    }
+
+    private static Map<String, Class> scanSiddhiExtensions(ClassLoader classLoader, String classPath,
+                                                           boolean scanIndexed) {
         if (classPath == null) {
             classPath = ".";
         } else {
@@ -51,7 +137,7 @@ public class SiddhiExtensionLoader {
         Collection<String> extensionsList = new ArrayList<String>();
 
         for (String element : classPathElements) {
-            extensionsList.addAll(getResources(element, pattern));
+            extensionsList.addAll(getResources(element, pattern, scanIndexed));
         }
 
         Map<String, Class> classMap = new HashMap<String, Class>();
@@ -60,7 +146,7 @@ public class SiddhiExtensionLoader {
             if (extension.matches(CLASS_EXT)) {
                 String[] info = extension.split("=");
                 try {
-                    classMap.put(info[0].trim(), Class.forName(info[1].trim()));
+                    classMap.put(info[0].trim(), Class.forName(info[1].trim(), false, classLoader));
                 } catch (ClassNotFoundException e) {
                     log.debug("Cannot load Siddhi extension " + extension);
                 }
@@ -69,8 +155,21 @@ public class SiddhiExtensionLoader {
         return classMap;
     }
 
-    private static Collection<String> getResources(String fileName, Pattern pattern) {
+    /**
+     * Read the extension files of a class path root, unless the root holds an extension index and indexed roots are
+     * not to be scanned.
+     */
+    private static Collection<String> getResources(String fileName, Pattern pattern, boolean scanIndexed) {
         File file = new File(fileName);
+        if (!scanIndexed) {
+            if (file.isDirectory()) {
+                if (new File(file, ExtensionIndexAnnotationProcessor.EXTENSION_INDEX).isFile()) {
+                    return Collections.emptyList();
+                }
+            } else if (Pattern.matches(JAR, file.getName())) {
+                return getContentFromJarFile(file, pattern, false);
+            }
+        }
         return getContent(file, pattern);
     }
 
@@ -82,7 +181,7 @@ public class SiddhiExtensionLoader {
             String fileName = file.getName();
             Pattern jar = Pattern.compile(JAR);
             if (jar.matcher(fileName).matches()) {
-                resources.addAll(getContentFromJarFile(file, pattern));
+                resources.addAll(getContentFromJarFile(file, pattern, true));
             } else if (pattern.matcher(fileName).matches()) {
                 try {
                     InputStream inputStream = new FileInputStream(file.getCanonicalPath());
@@ -107,7 +206,7 @@ public class SiddhiExtensionLoader {
         return resources;
     }
 
-    private static Collection<String> getContentFromJarFile(File file, Pattern pattern) {
+    private static Collection<String> getContentFromJarFile(File file, Pattern pattern, boolean scanIndexed) {
         List<String> resources = new ArrayList<String>();
         ZipFile zf = null;
         try {
@@ -122,6 +221,9 @@ public class SiddhiExtensionLoader {
 
         if (zf != null) {
             Enumeration e = zf.entries();
+            if (!scanIndexed && zf.getEntry(ExtensionIndexAnnotationProcessor.EXTENSION_INDEX) != null) {
+                e = Collections.emptyEnumeration();
+            }
             while (e.hasMoreElements()) {
                 ZipEntry ze = (ZipEntry) e.nextElement();
                 String fileName = ze.getName();
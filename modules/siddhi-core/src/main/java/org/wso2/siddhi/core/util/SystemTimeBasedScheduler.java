@@ -20,7 +20,6 @@ package org.wso2.siddhi.core.util;
 
 import org.apache.log4j.Logger;
 import org.wso2.siddhi.core.config.ExecutionPlanContext;
-import org.wso2.siddhi.core.query.input.stream.single.EntryValveProcessor;
 
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -56,8 +55,8 @@ public class SystemTimeBasedScheduler extends Scheduler {
     }
 
     @Override
-    public Scheduler clone(String key, EntryValveProcessor entryValveProcessor) {
-        Scheduler scheduler = new SystemTimeBasedScheduler(scheduledExecutorService, entryValveProcessor, executionPlanContext);
+    public Scheduler clone(String key, Schedulable singleThreadEntryValve) {
+        Scheduler scheduler = new SystemTimeBasedScheduler(scheduledExecutorService, singleThreadEntryValve, executionPlanContext);
         scheduler.elementId = elementId + "-" + key;
         return scheduler;
     }
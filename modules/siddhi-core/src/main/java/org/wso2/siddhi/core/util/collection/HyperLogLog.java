@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.collection;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * HyperLogLog cardinality estimator over 64 bit hashes, with 2^precision registers of one byte each.
+ * <p>
+ * When created as removable, the number of hashes of each rank is also counted per register, so that a hash that
+ * was added can be removed again. Rows of counts grow only up to the highest rank seen by the register, which is
+ * logarithmic in the number of hashes, and removable sketches are limited to {@link #MAX_REMOVABLE_PRECISION} as the
+ * rows are kept per register.
+ */
+public class HyperLogLog implements Serializable {
+
+    public static final int MIN_PRECISION = 4;
+    public static final int MAX_PRECISION = 18;
+    public static final int MAX_REMOVABLE_PRECISION = 12;
+
+    private static final long serialVersionUID = 1L;
+
+    private final int precision;
+    private final byte[] registers;
+    private final int[][] rankCounts;
+    // number of registers holding each rank, to estimate without walking all the registers
+    private final int[] rankHistogram;
+
+    /**
+     * @param precision number of index bits, between {@link #MIN_PRECISION} and {@link #MAX_PRECISION}, or
+     *                  {@link #MAX_REMOVABLE_PRECISION} when removable
+     * @param removable whether hashes can be removed
+     */
+    public HyperLogLog(int precision, boolean removable) {
+        int maxPrecision = removable ? MAX_REMOVABLE_PRECISION : MAX_PRECISION;
+        if (precision < MIN_PRECISION || precision > maxPrecision) {
+            throw new IllegalArgumentException("HyperLogLog precision has to be between " + MIN_PRECISION + " and " +
+                    maxPrecision + ", but found " + precision);
+        }
+        this.precision = precision;
+        int registerCount = 1 << precision;
+        this.registers = new byte[registerCount];
+        this.rankCounts = removable ? new int[registerCount][] : null;
+        this.rankHistogram = new int[Long.SIZE - precision + 2];
+        this.rankHistogram[0] = registerCount;
+    }
+
+    /**
+     * Lowest precision whose standard error, 1.04 / sqrt(2^precision), is within the given relative error.
+     *
+     * @param relativeError expected relative error of the estimates, in (0, 1)
+     * @param removable     whether the sketch is removable
+     * @return the precision, limited to {@link #MAX_PRECISION}, or {@link #MAX_REMOVABLE_PRECISION} when removable
+     */
+    public static int precisionFor(double relativeError, boolean removable) {
+        if (relativeError <= 0 || relativeError >= 1) {
+            throw new IllegalArgumentException("Relative error has to be between 0 and 1, but found " +
+                    relativeError);
+        }
+        double registerCount = Math.pow(1.04 / relativeError, 2);
+        int precision = (int) Math.ceil(Math.log(registerCount) / Math.log(2));
+        return Math.min(removable ? MAX_REMOVABLE_PRECISION : MAX_PRECISION, Math.max(MIN_PRECISION, precision));
+    }
+
+    /**
+     * 64 bit hash of a value, well mixed in all bits. Values of the same type that are equal have the same hash.
+     */
+    public static long hash(Object value) {
+        long bits;
+        if (value == null) {
+            bits = 0x9e3779b97f4a7c15L;
+        } else if (value instanceof String) {
+            String string = (String) value;
+            bits = 0xcbf29ce484222325L;
+            for (int i = 0; i < string.length(); i++) {
+                bits = (bits ^ string.charAt(i)) * 0x100000001b3L;
+            }
+        } else if (value instanceof Integer || value instanceof Long) {
+            bits = ((Number) value).longValue();
+        } else if (value instanceof Double) {
+            bits = Double.doubleToLongBits((Double) value);
+        } else if (value instanceof Float) {
+            bits = Float.floatToIntBits((Float) value);
+        } else {
+            bits = value.hashCode();
+        }
+        // MurmurHash3 finalizer
+        bits ^= bits >>> 33;
+        bits *= 0xff51afd7ed558ccdL;
+        bits ^= bits >>> 33;
+        bits *= 0xc4ceb9fe1a85ec53L;
+        bits ^= bits >>> 33;
+        return bits;
+    }
+
+    public void add(long hash) {
+        int index = (int) (hash >>> (Long.SIZE - precision));
+        int rank = rank(hash);
+        if (rankCounts != null) {
+            int[] counts = rankCounts[index];
+            if (counts == null) {
+                counts = new int[rank + 1];
+                rankCounts[index] = counts;
+            } else if (counts.length <= rank) {
+                counts = Arrays.copyOf(counts, rank + 1);
+                rankCounts[index] = counts;
+            }
+            counts[rank]++;
+        }
+        if (rank > registers[index]) {
+            setRegister(index, rank);
+        }
+    }
+
+    /**
+     * Remove a hash that was added before. Only supported when removable, hashes that were not added are ignored.
+     */
+    public void remove(long hash) {
+        if (rankCounts == null) {
+            throw new UnsupportedOperationException("HyperLogLog is not created as removable");
+        }
+        int index = (int) (hash >>> (Long.SIZE - precision));
+        int rank = rank(hash);
+        int[] counts = rankCounts[index];
+        if (counts == null || counts.length <= rank || counts[rank] == 0) {
+            return;
+        }
+        counts[rank]--;
+        if (counts[rank] == 0 && rank == registers[index]) {
+            int newRank = rank - 1;
+            while (newRank > 0 && counts[newRank] == 0) {
+                newRank--;
+            }
+            setRegister(index, newRank);
+            if (newRank == 0) {
+                rankCounts[index] = null;
+            }
+        }
+    }
+
+    public long estimate() {
+        int registerCount = registers.length;
+        double sum = 0;
+        for (int rank = 0; rank < rankHistogram.length; rank++) {
+            if (rankHistogram[rank] != 0) {
+                sum += rankHistogram[rank] * Math.scalb(1.0, -rank);
+            }
+        }
+        double estimate = alpha(registerCount) * registerCount * registerCount / sum;
+        int zeroRegisters = rankHistogram[0];
+        if (zeroRegisters != 0 && estimate <= 2.5 * registerCount) {
+            // linear counting for small cardinalities
+            estimate = registerCount * Math.log((double) registerCount / zeroRegisters);
+        }
+        return Math.round(estimate);
+    }
+
+    public void clear() {
+        Arrays.fill(registers, (byte) 0);
+        if (rankCounts != null) {
+            Arrays.fill(rankCounts, null);
+        }
+        Arrays.fill(rankHistogram, 0);
+        rankHistogram[0] = registers.length;
+    }
+
+    private int rank(long hash) {
+        // position of the first set bit after the index bits, the sentinel bit bounds it to 64 - precision + 1
+        return Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+    }
+
+    private void setRegister(int index, int rank) {
+        rankHistogram[registers[index]]--;
+        rankHistogram[rank]++;
+        registers[index] = (byte) rank;
+    }
+
+    private static double alpha(int registerCount) {
+        switch (registerCount) {
+            case 16:
+                return 0.673;
+            case 32:
+                return 0.697;
+            case 64:
+                return 0.709;
+            default:
+                return 0.7213 / (1 + 1.079 / registerCount);
+        }
+    }
+}
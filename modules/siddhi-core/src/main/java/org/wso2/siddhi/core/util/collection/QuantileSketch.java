@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.collection;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Mergeable quantile sketch with relative accuracy, keeping counts of values in logarithmically sized buckets
+ * (DDSketch). The bucket of a value is derived from the value alone, hence values can be removed by decrementing
+ * the count of their bucket.
+ * <p>
+ * Memory is bounded by the maximum number of buckets of each sign; when the values span more buckets, the buckets
+ * of the smallest magnitudes are collapsed into one, losing accuracy only for those values. The counts are also
+ * kept in a Fenwick tree, so that both updates and quantile lookups take time logarithmic in the number of buckets.
+ */
+public class QuantileSketch {
+
+    private static final int INITIAL_BUCKETS = 64;
+
+    private final double relativeAccuracy;
+    private final int maxBuckets;
+    private final double logGamma;
+    private final double minIndexableValue;
+    private final Buckets positiveBuckets;
+    private final Buckets negativeBuckets;
+    private long zeroCount;
+    private long count;
+
+    /**
+     * @param relativeAccuracy relative error of the returned quantiles, in (0, 1)
+     * @param maxBuckets       maximum number of buckets for each of positive and negative values
+     */
+    public QuantileSketch(double relativeAccuracy, int maxBuckets) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+            throw new IllegalArgumentException("Relative accuracy has to be between 0 and 1, but found " +
+                    relativeAccuracy);
+        }
+        if (maxBuckets < 1) {
+            throw new IllegalArgumentException("Maximum number of buckets has to be positive, but found " +
+                    maxBuckets);
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.maxBuckets = maxBuckets;
+        double gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+        this.minIndexableValue = Math.max(Math.exp((Integer.MIN_VALUE + 1) * logGamma),
+                Double.MIN_NORMAL * gamma);
+        this.positiveBuckets = new Buckets(maxBuckets);
+        this.negativeBuckets = new Buckets(maxBuckets);
+    }
+
+    public double getRelativeAccuracy() {
+        return relativeAccuracy;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void add(double value) {
+        add(value, 1);
+    }
+
+    /**
+     * Remove a value that was added before.
+     */
+    public void remove(double value) {
+        add(value, -1);
+    }
+
+    /**
+     * Add a value the given number of times, or remove it when the count is negative.
+     */
+    public void add(double value, long occurrences) {
+        if (value > minIndexableValue) {
+            positiveBuckets.add(index(value), occurrences);
+        } else if (value < -minIndexableValue) {
+            negativeBuckets.add(index(-value), occurrences);
+        } else {
+            zeroCount += occurrences;
+        }
+        count += occurrences;
+    }
+
+    /**
+     * Value at the given quantile by nearest rank, within the relative accuracy of the actual value.
+     *
+     * @param quantile quantile in [0, 1]
+     * @return the value, or null if there are no values
+     */
+    public Double getQuantile(double quantile) {
+        if (count <= 0) {
+            return null;
+        }
+        long rank = Math.max(0, (long) Math.ceil(quantile * count) - 1);
+        if (rank < negativeBuckets.count) {
+            // negative values are in descending order of magnitude
+            return -value(negativeBuckets.indexAtRank(negativeBuckets.count - 1 - rank));
+        }
+        rank -= negativeBuckets.count;
+        if (rank < zeroCount) {
+            return 0.0;
+        }
+        rank -= zeroCount;
+        return value(positiveBuckets.indexAtRank(Math.min(rank, positiveBuckets.count - 1)));
+    }
+
+    public void clear() {
+        positiveBuckets.clear();
+        negativeBuckets.clear();
+        zeroCount = 0;
+        count = 0;
+    }
+
+    /**
+     * Serialize the sketch, writing only the non empty range of buckets.
+     */
+    public byte[] toBytes() {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream output = new DataOutputStream(bytes);
+            output.writeDouble(relativeAccuracy);
+            output.writeInt(maxBuckets);
+            output.writeLong(zeroCount);
+            positiveBuckets.write(output);
+            negativeBuckets.write(output);
+            output.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot serialize quantile sketch", e);
+        }
+    }
+
+    public static QuantileSketch fromBytes(byte[] bytes) {
+        try {
+            DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes));
+            QuantileSketch sketch = new QuantileSketch(input.readDouble(), input.readInt());
+            sketch.zeroCount = input.readLong();
+            sketch.positiveBuckets.read(input);
+            sketch.negativeBuckets.read(input);
+            sketch.count = sketch.zeroCount + sketch.positiveBuckets.count + sketch.negativeBuckets.count;
+            return sketch;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot deserialize quantile sketch", e);
+        }
+    }
+
+    private int index(double value) {
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+
+    private double value(int index) {
+        // middle of the bucket (gamma^(index-1), gamma^index] in terms of relative error
+        return 2 * Math.exp(index * logGamma) / (1 + Math.exp(logGamma));
+    }
+
+    /**
+     * Counts of contiguous bucket indexes. Indexes below minIndex are counted in the minIndex bucket.
+     */
+    private static class Buckets {
+        private final int maxBuckets;
+        private long[] counts = new long[0];
+        // Fenwick tree over counts, tree[i] holding the sum of counts (i - lowest set bit of i, i]
+        private long[] tree = new long[1];
+        private int offset;
+        private int minIndex = Integer.MIN_VALUE;
+        private long count;
+
+        private Buckets(int maxBuckets) {
+            this.maxBuckets = maxBuckets;
+        }
+
+        private void add(int index, long delta) {
+            if (index < minIndex) {
+                index = minIndex;
+            }
+            if (counts.length == 0) {
+                counts = new long[Math.min(INITIAL_BUCKETS, maxBuckets)];
+                tree = new long[counts.length + 1];
+                offset = index;
+            } else if (index < offset || index >= offset + counts.length) {
+                extendRange(index);
+                if (index < minIndex) {
+                    index = minIndex;
+                }
+            }
+            counts[index - offset] += delta;
+            for (int i = index - offset + 1; i < tree.length; i += i & -i) {
+                tree[i] += delta;
+            }
+            count += delta;
+        }
+
+        private void extendRange(int index) {
+            // range of the non empty buckets and the new index, as the unused ends of counts can be dropped
+            int first = 0;
+            int last = counts.length - 1;
+            while (first <= last && counts[first] == 0) {
+                first++;
+            }
+            while (last >= first && counts[last] == 0) {
+                last--;
+            }
+            int low = first <= last ? Math.min(offset + first, index) : index;
+            int high = first <= last ? Math.max(offset + last, index) : index;
+            long[] newCounts;
+            int newOffset;
+            if ((long) high - low + 1 > maxBuckets) {
+                // collapse the lowest buckets to bring the range within maxBuckets
+                newOffset = high - maxBuckets + 1;
+                newCounts = new long[maxBuckets];
+                for (int i = first; i <= last; i++) {
+                    newCounts[Math.max(0, i + offset - newOffset)] += counts[i];
+                }
+                minIndex = newOffset;
+            } else {
+                int length = Math.min(maxBuckets, Math.max(high - low + 1, counts.length * 2));
+                newOffset = index == low ? high - length + 1 : low;
+                newCounts = new long[length];
+                if (first <= last) {
+                    System.arraycopy(counts, first, newCounts, offset + first - newOffset, last - first + 1);
+                }
+            }
+            counts = newCounts;
+            offset = newOffset;
+            buildTree();
+        }
+
+        private void buildTree() {
+            tree = new long[counts.length + 1];
+            System.arraycopy(counts, 0, tree, 1, counts.length);
+            for (int i = 1; i < tree.length; i++) {
+                int parent = i + (i & -i);
+                if (parent < tree.length) {
+                    tree[parent] += tree[i];
+                }
+            }
+        }
+
+        private int indexAtRank(long rank) {
+            // descend the tree to the last position whose cumulative count is at most the rank
+            int position = 0;
+            for (int step = Integer.highestOneBit(counts.length); step > 0; step >>= 1) {
+                if (position + step < tree.length && tree[position + step] <= rank) {
+                    position += step;
+                    rank -= tree[position];
+                }
+            }
+            return Math.min(position, counts.length - 1) + offset;
+        }
+
+        private void clear() {
+            Arrays.fill(counts, 0);
+            Arrays.fill(tree, 0);
+            minIndex = Integer.MIN_VALUE;
+            count = 0;
+        }
+
+        private void write(DataOutputStream output) throws IOException {
+            int first = 0;
+            int last = counts.length - 1;
+            while (first <= last && counts[first] == 0) {
+                first++;
+            }
+            while (last >= first && counts[last] == 0) {
+                last--;
+            }
+            output.writeInt(minIndex);
+            output.writeInt(first + offset);
+            output.writeInt(last - first + 1);
+            for (int i = first; i <= last; i++) {
+                output.writeLong(counts[i]);
+            }
+        }
+
+        private void read(DataInputStream input) throws IOException {
+            minIndex = input.readInt();
+            int first = input.readInt();
+            int length = input.readInt();
+            counts = new long[length == 0 ? 0 : Math.max(length, Math.min(INITIAL_BUCKETS, maxBuckets))];
+            offset = first;
+            count = 0;
+            for (int i = 0; i < length; i++) {
+                counts[i] = input.readLong();
+                count += counts[i];
+            }
+            buildTree();
+        }
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.collection;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stream-Summary structure of the Space-Saving algorithm: keys with counter values, kept in buckets of equal values
+ * that are linked in ascending order. Incrementing a key and removing the key with the minimum value are O(1).
+ * Keys of equal value are kept in the order they reached that value.
+ *
+ * @param <K> type of the keys
+ */
+public class StreamSummary<K> {
+
+    private final Map<K, Counter<K>> counters = new HashMap<K, Counter<K>>();
+    private Bucket<K> minBucket;
+    private Bucket<K> maxBucket;
+
+    public int size() {
+        return counters.size();
+    }
+
+    public boolean contains(K key) {
+        return counters.containsKey(key);
+    }
+
+    /**
+     * @param key key of the counter
+     * @return value of the counter, or -1 if the key is not present
+     */
+    public long getValue(K key) {
+        Counter<K> counter = counters.get(key);
+        return counter == null ? -1 : counter.bucket.value;
+    }
+
+    /**
+     * Add a key that is not present. O(1) when the value is not greater than the minimum value or not less than
+     * the maximum value, otherwise linear in the number of distinct values below it.
+     *
+     * @param key   key of the counter
+     * @param value initial value of the counter
+     */
+    public void add(K key, long value) {
+        Counter<K> counter = new Counter<K>(key);
+        if (counters.put(key, counter) != null) {
+            throw new IllegalArgumentException("Key " + key + " is already present");
+        }
+        Bucket<K> bucket = minBucket;
+        if (maxBucket != null && value >= maxBucket.value) {
+            bucket = maxBucket;
+        }
+        while (bucket != null && bucket.value < value) {
+            bucket = bucket.next;
+        }
+        if (bucket == null || bucket.value != value) {
+            bucket = insertBucketBefore(bucket, value);
+        }
+        bucket.append(counter);
+    }
+
+    /**
+     * Increment the counter of a present key by one.
+     *
+     * @param key key of the counter
+     * @return the incremented value
+     */
+    public long increment(K key) {
+        Counter<K> counter = counters.get(key);
+        Bucket<K> bucket = counter.bucket;
+        long value = bucket.value + 1;
+        if (bucket.first == bucket.last && (bucket.next == null || bucket.next.value != value)) {
+            // Only counter of the bucket, which stays in order with the incremented value
+            bucket.value = value;
+            return value;
+        }
+        Bucket<K> nextBucket = bucket.next;
+        if (nextBucket == null || nextBucket.value != value) {
+            nextBucket = insertBucketBefore(nextBucket, value);
+        }
+        detach(counter);
+        nextBucket.append(counter);
+        return value;
+    }
+
+    /**
+     * @return minimum value of the counters, or -1 if there are no keys
+     */
+    public long getMinValue() {
+        return minBucket == null ? -1 : minBucket.value;
+    }
+
+    /**
+     * @return the earliest key among the keys with the minimum value, or null if there are no keys
+     */
+    public K peekMinKey() {
+        return minBucket == null ? null : minBucket.first.key;
+    }
+
+    /**
+     * Remove the earliest key among the keys with the minimum value.
+     *
+     * @return the removed key, or null if there are no keys
+     */
+    public K removeMin() {
+        if (minBucket == null) {
+            return null;
+        }
+        Counter<K> counter = minBucket.first;
+        counters.remove(counter.key);
+        detach(counter);
+        return counter.key;
+    }
+
+    /**
+     * @param key key of the counter
+     * @return value of the removed counter, or -1 if the key is not present
+     */
+    public long remove(K key) {
+        Counter<K> counter = counters.remove(key);
+        if (counter == null) {
+            return -1;
+        }
+        long value = counter.bucket.value;
+        detach(counter);
+        return value;
+    }
+
+    public void clear() {
+        counters.clear();
+        minBucket = null;
+        maxBucket = null;
+    }
+
+    /**
+     * @return the values of all the keys
+     */
+    public Map<K, Long> toMap() {
+        Map<K, Long> values = new HashMap<K, Long>(counters.size());
+        for (Bucket<K> bucket = minBucket; bucket != null; bucket = bucket.next) {
+            for (Counter<K> counter = bucket.first; counter != null; counter = counter.next) {
+                values.put(counter.key, bucket.value);
+            }
+        }
+        return values;
+    }
+
+    private Bucket<K> insertBucketBefore(Bucket<K> nextBucket, long value) {
+        Bucket<K> bucket = new Bucket<K>(value);
+        bucket.next = nextBucket;
+        if (nextBucket == null) {
+            bucket.previous = maxBucket;
+            maxBucket = bucket;
+        } else {
+            bucket.previous = nextBucket.previous;
+            nextBucket.previous = bucket;
+        }
+        if (bucket.previous == null) {
+            minBucket = bucket;
+        } else {
+            bucket.previous.next = bucket;
+        }
+        return bucket;
+    }
+
+    private void detach(Counter<K> counter) {
+        Bucket<K> bucket = counter.bucket;
+        if (counter.previous == null) {
+            bucket.first = counter.next;
+        } else {
+            counter.previous.next = counter.next;
+        }
+        if (counter.next == null) {
+            bucket.last = counter.previous;
+        } else {
+            counter.next.previous = counter.previous;
+        }
+        counter.previous = null;
+        counter.next = null;
+        counter.bucket = null;
+        if (bucket.first == null) {
+            if (bucket.previous == null) {
+                minBucket = bucket.next;
+            } else {
+                bucket.previous.next = bucket.next;
+            }
+            if (bucket.next == null) {
+                maxBucket = bucket.previous;
+            } else {
+                bucket.next.previous = bucket.previous;
+            }
+        }
+    }
+
+    private static class Bucket<K> {
+        private long value;
+        private Bucket<K> previous;
+        private Bucket<K> next;
+        private Counter<K> first;
+        private Counter<K> last;
+
+        private Bucket(long value) {
+            this.value = value;
+        }
+
+        private void append(Counter<K> counter) {
+            counter.bucket = this;
+            counter.previous = last;
+            if (last == null) {
+                first = counter;
+            } else {
+                last.next = counter;
+            }
+            last = counter;
+        }
+    }
+
+    private static class Counter<K> {
+        private final K key;
+        private Bucket<K> bucket;
+        private Counter<K> previous;
+        private Counter<K> next;
+
+        private Counter(K key) {
+            this.key = key;
+        }
+    }
+}
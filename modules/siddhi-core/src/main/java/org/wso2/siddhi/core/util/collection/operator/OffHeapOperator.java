@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.collection.operator;
+
+import org.wso2.siddhi.core.event.ComplexEventChunk;
+import org.wso2.siddhi.core.event.state.StateEvent;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.event.stream.StreamEventCloner;
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.table.holder.OffHeapEventHolder;
+import org.wso2.siddhi.core.util.collection.OverwritingStreamEventExtractor;
+import org.wso2.siddhi.core.util.collection.UpdateAttributeMapper;
+
+/**
+ * Operator which is related to non-indexed off-heap table operations. Each row is decoded into a single candidate
+ * event to evaluate the condition, and a pooled copy is only made of the rows that match.
+ */
+public class OffHeapOperator implements Operator {
+    private final ExpressionExecutor expressionExecutor;
+    private final int candidateEventPosition;
+
+    public OffHeapOperator(ExpressionExecutor expressionExecutor, int candidateEventPosition) {
+        this.expressionExecutor = expressionExecutor;
+        this.candidateEventPosition = candidateEventPosition;
+    }
+
+    @Override
+    public Finder cloneFinder(String key) {
+        return new OffHeapOperator(expressionExecutor.cloneExecutor(key), candidateEventPosition);
+    }
+
+    @Override
+    public StreamEvent find(StateEvent matchingEvent, Object candidateEvents, StreamEventCloner candidateEventCloner) {
+        OffHeapEventHolder eventHolder = (OffHeapEventHolder) candidateEvents;
+        ComplexEventChunk<StreamEvent> returnEventChunk = new ComplexEventChunk<StreamEvent>(false);
+        StreamEvent candidateEvent = eventHolder.createCandidateEvent();
+        try {
+            matchingEvent.setEvent(candidateEventPosition, candidateEvent);
+            for (int position = 0, limit = eventHolder.getPositionLimit(); position < limit; position++) {
+                if (eventHolder.read(position, candidateEvent) && (Boolean) expressionExecutor.execute(matchingEvent)) {
+                    returnEventChunk.add(candidateEventCloner.copyStreamEvent(candidateEvent));
+                }
+            }
+        } finally {
+            matchingEvent.setEvent(candidateEventPosition, null);
+        }
+        return returnEventChunk.getFirst();
+    }
+
+    @Override
+    public boolean contains(StateEvent matchingEvent, Object candidateEvents) {
+        OffHeapEventHolder eventHolder = (OffHeapEventHolder) candidateEvents;
+        StreamEvent candidateEvent = eventHolder.createCandidateEvent();
+        try {
+            matchingEvent.setEvent(candidateEventPosition, candidateEvent);
+            for (int position = 0, limit = eventHolder.getPositionLimit(); position < limit; position++) {
+                if (eventHolder.read(position, candidateEvent) && (Boolean) expressionExecutor.execute(matchingEvent)) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            matchingEvent.setEvent(candidateEventPosition, null);
+        }
+    }
+
+    @Override
+    public void delete(ComplexEventChunk<StateEvent> deletingEventChunk, Object candidateEvents) {
+        OffHeapEventHolder eventHolder = (OffHeapEventHolder) candidateEvents;
+        if (eventHolder.size() > 0) {
+            StreamEvent candidateEvent = eventHolder.createCandidateEvent();
+            deletingEventChunk.reset();
+            while (deletingEventChunk.hasNext()) {
+                StateEvent deletingEvent = deletingEventChunk.next();
+                try {
+                    deletingEvent.setEvent(candidateEventPosition, candidateEvent);
+                    for (int position = 0, limit = eventHolder.getPositionLimit(); position < limit; position++) {
+                        if (eventHolder.read(position, candidateEvent) &&
+                                (Boolean) expressionExecutor.execute(deletingEvent)) {
+                            eventHolder.delete(position);
+                        }
+                    }
+                } finally {
+                    deletingEvent.setEvent(candidateEventPosition, null);
+                }
+            }
+            eventHolder.compactIfNeeded();
+        }
+    }
+
+    @Override
+    public void update(ComplexEventChunk<StateEvent> updatingEventChunk, Object candidateEvents,
+                       UpdateAttributeMapper[] updateAttributeMappers) {
+        OffHeapEventHolder eventHolder = (OffHeapEventHolder) candidateEvents;
+        if (eventHolder.size() > 0) {
+            StreamEvent candidateEvent = eventHolder.createCandidateEvent();
+            updatingEventChunk.reset();
+            while (updatingEventChunk.hasNext()) {
+                StateEvent updatingEvent = updatingEventChunk.next();
+                try {
+                    update(updatingEvent, candidateEvent, eventHolder, updateAttributeMappers);
+                } finally {
+                    updatingEvent.setEvent(candidateEventPosition, null);
+                }
+            }
+            eventHolder.compactIfNeeded();
+        }
+    }
+
+    @Override
+    public ComplexEventChunk<StreamEvent> overwriteOrAdd(ComplexEventChunk<StateEvent> overwritingOrAddingEventChunk,
+                                                         Object candidateEvents,
+                                                         UpdateAttributeMapper[] updateAttributeMappers,
+                                                         OverwritingStreamEventExtractor overwritingStreamEventExtractor) {
+        OffHeapEventHolder eventHolder = (OffHeapEventHolder) candidateEvents;
+        StreamEvent candidateEvent = eventHolder.createCandidateEvent();
+        overwritingOrAddingEventChunk.reset();
+        ComplexEventChunk<StreamEvent> failedEventChunk = new ComplexEventChunk<StreamEvent>(overwritingOrAddingEventChunk.isBatch());
+        while (overwritingOrAddingEventChunk.hasNext()) {
+            StateEvent overwritingOrAddingEvent = overwritingOrAddingEventChunk.next();
+            try {
+                if (!update(overwritingOrAddingEvent, candidateEvent, eventHolder, updateAttributeMappers)) {
+                    failedEventChunk.add(overwritingStreamEventExtractor.getOverwritingStreamEvent(overwritingOrAddingEvent));
+                }
+            } finally {
+                overwritingOrAddingEvent.setEvent(candidateEventPosition, null);
+            }
+        }
+        eventHolder.compactIfNeeded();
+        return failedEventChunk;
+    }
+
+    private boolean update(StateEvent updatingEvent, StreamEvent candidateEvent, OffHeapEventHolder eventHolder,
+                           UpdateAttributeMapper[] updateAttributeMappers) {
+        boolean updated = false;
+        updatingEvent.setEvent(candidateEventPosition, candidateEvent);
+        for (int position = 0, limit = eventHolder.getPositionLimit(); position < limit; position++) {
+            if (eventHolder.read(position, candidateEvent) && (Boolean) expressionExecutor.execute(updatingEvent)) {
+                for (UpdateAttributeMapper updateAttributeMapper : updateAttributeMappers) {
+                    candidateEvent.setOutputData(updateAttributeMapper.getOutputData(updatingEvent),
+                            updateAttributeMapper.getCandidateAttributePosition());
+                }
+                eventHolder.overwrite(position, candidateEvent);
+                updated = true;
+            }
+        }
+        return updated;
+    }
+}
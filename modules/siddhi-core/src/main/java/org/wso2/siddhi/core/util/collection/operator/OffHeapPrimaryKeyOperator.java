@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.collection.operator;
+
+import org.wso2.siddhi.core.event.ComplexEventChunk;
+import org.wso2.siddhi.core.event.state.StateEvent;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.event.stream.StreamEventCloner;
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.table.holder.OffHeapEventHolder;
+import org.wso2.siddhi.core.util.collection.OverwritingStreamEventExtractor;
+import org.wso2.siddhi.core.util.collection.UpdateAttributeMapper;
+
+/**
+ * Operator which is related to off-heap table operations on the primary key, which are served from the hash index
+ * of the table without decoding any other row.
+ */
+public class OffHeapPrimaryKeyOperator implements Operator {
+
+    private final ExpressionExecutor expressionExecutor;
+    private final int candidateEventPosition;
+
+    public OffHeapPrimaryKeyOperator(ExpressionExecutor expressionExecutor, int candidateEventPosition) {
+        this.expressionExecutor = expressionExecutor;
+        this.candidateEventPosition = candidateEventPosition;
+    }
+
+    @Override
+    public Finder cloneFinder(String key) {
+        return new OffHeapPrimaryKeyOperator(expressionExecutor.cloneExecutor(key), candidateEventPosition);
+    }
+
+    @Override
+    public StreamEvent find(StateEvent matchingEvent, Object candidateEvents, StreamEventCloner candidateEventCloner) {
+        OffHeapEventHolder eventHolder = (OffHeapEventHolder) candidateEvents;
+        int position = eventHolder.find(expressionExecutor.execute(matchingEvent));
+        if (position < 0) {
+            return null;
+        }
+        StreamEvent candidateEvent = eventHolder.createCandidateEvent();
+        eventHolder.read(position, candidateEvent);
+        return candidateEventCloner.copyStreamEvent(candidateEvent);
+    }
+
+    @Override
+    public boolean contains(StateEvent matchingEvent, Object candidateEvents) {
+        return ((OffHeapEventHolder) candidateEvents).find(expressionExecutor.execute(matchingEvent)) >= 0;
+    }
+
+    @Override
+    public void delete(ComplexEventChunk<StateEvent> deletingEventChunk, Object candidateEvents) {
+        OffHeapEventHolder eventHolder = (OffHeapEventHolder) candidateEvents;
+        deletingEventChunk.reset();
+        while (deletingEventChunk.hasNext()) {
+            int position = eventHolder.find(expressionExecutor.execute(deletingEventChunk.next()));
+            if (position >= 0) {
+                eventHolder.delete(position);
+            }
+        }
+        eventHolder.compactIfNeeded();
+    }
+
+    @Override
+    public void update(ComplexEventChunk<StateEvent> updatingEventChunk, Object candidateEvents,
+                       UpdateAttributeMapper[] updateAttributeMappers) {
+        OffHeapEventHolder eventHolder = (OffHeapEventHolder) candidateEvents;
+        StreamEvent candidateEvent = eventHolder.createCandidateEvent();
+        updatingEventChunk.reset();
+        while (updatingEventChunk.hasNext()) {
+            update(updatingEventChunk.next(), candidateEvent, eventHolder, updateAttributeMappers);
+        }
+        eventHolder.compactIfNeeded();
+    }
+
+    @Override
+    public ComplexEventChunk<StreamEvent> overwriteOrAdd(ComplexEventChunk<StateEvent> overwritingOrAddingEventChunk,
+                                                         Object candidateEvents,
+                                                         UpdateAttributeMapper[] updateAttributeMappers,
+                                                         OverwritingStreamEventExtractor overwritingStreamEventExtractor) {
+        OffHeapEventHolder eventHolder = (OffHeapEventHolder) candidateEvents;
+        StreamEvent candidateEvent = eventHolder.createCandidateEvent();
+        overwritingOrAddingEventChunk.reset();
+        ComplexEventChunk<StreamEvent> failedEventChunk = new ComplexEventChunk<StreamEvent>(overwritingOrAddingEventChunk.isBatch());
+        while (overwritingOrAddingEventChunk.hasNext()) {
+            StateEvent overwritingOrAddingEvent = overwritingOrAddingEventChunk.next();
+            if (!update(overwritingOrAddingEvent, candidateEvent, eventHolder, updateAttributeMappers)) {
+                failedEventChunk.add(overwritingStreamEventExtractor.getOverwritingStreamEvent(overwritingOrAddingEvent));
+            }
+        }
+        eventHolder.compactIfNeeded();
+        return failedEventChunk;
+    }
+
+    private boolean update(StateEvent updatingEvent, StreamEvent candidateEvent, OffHeapEventHolder eventHolder,
+                           UpdateAttributeMapper[] updateAttributeMappers) {
+        int position = eventHolder.find(expressionExecutor.execute(updatingEvent));
+        if (position < 0) {
+            return false;
+        }
+        eventHolder.read(position, candidateEvent);
+        for (UpdateAttributeMapper updateAttributeMapper : updateAttributeMappers) {
+            candidateEvent.setOutputData(updateAttributeMapper.getOutputData(updatingEvent),
+                    updateAttributeMapper.getCandidateAttributePosition());
+        }
+        eventHolder.overwrite(position, candidateEvent);
+        return true;
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.collection.spill;
+
+import org.apache.log4j.Logger;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.exception.ExecutionPlanRuntimeException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Memory mapped file holding a run of spilled events in arrival order. Events are appended at the write position
+ * and consumed from the read position. The file is unlinked as soon as it is mapped so that it is reclaimed by the
+ * operating system once the mapping is released, even when the JVM exits abruptly. Segments that are no longer used
+ * are unmapped with {@link #release()} instead of waiting for the garbage collector to release their mapping.
+ */
+final class EventSegment {
+
+    private static final Logger log = Logger.getLogger(EventSegment.class);
+    private static final BufferReleaser RELEASER = BufferReleaser.create();
+
+    private final MappedByteBuffer buffer;
+    private int writePosition = 0;
+    private int readPosition = 0;
+
+    EventSegment(File directory, int size) {
+        File file = null;
+        try {
+            file = File.createTempFile("siddhi-spill-", ".segment", directory);
+            try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+                buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+            }
+        } catch (IOException e) {
+            throw new ExecutionPlanRuntimeException("Cannot create spill segment of " + size + " bytes in " +
+                    directory + ", " + e.getMessage(), e);
+        } finally {
+            if (file != null && !file.delete()) {
+                log.debug("Spill segment " + file + " will be deleted on exit");
+                file.deleteOnExit();
+            }
+        }
+    }
+
+    int capacity() {
+        return buffer.capacity();
+    }
+
+    boolean hasRemaining(int length) {
+        return buffer.capacity() - writePosition >= length;
+    }
+
+    void write(byte[] bytes, int length) {
+        buffer.position(writePosition);
+        buffer.put(bytes, 0, length);
+        writePosition += length;
+    }
+
+    boolean isConsumed() {
+        return readPosition == writePosition;
+    }
+
+    /**
+     * Decode the next unread event and move the read position past it.
+     */
+    StreamEvent read(StreamEventSerializer serializer) {
+        buffer.position(readPosition);
+        StreamEvent streamEvent = serializer.deserialize(buffer);
+        readPosition = buffer.position();
+        return streamEvent;
+    }
+
+    /**
+     * @return copy of the encoded unread events
+     */
+    byte[] unreadBytes() {
+        byte[] bytes = new byte[writePosition - readPosition];
+        unread().get(bytes);
+        return bytes;
+    }
+
+    /**
+     * @return view of the unread events that does not disturb the read position of the segment
+     */
+    ByteBuffer unread() {
+        ByteBuffer view = buffer.duplicate();
+        view.limit(writePosition);
+        view.position(readPosition);
+        return view;
+    }
+
+    void reset() {
+        writePosition = 0;
+        readPosition = 0;
+    }
+
+    /**
+     * Unmap the segment, which must not be used afterwards.
+     */
+    void release() {
+        RELEASER.release(buffer);
+    }
+
+    /**
+     * Unmaps memory mapped buffers through the cleaner of the JVM, sun.misc.Unsafe#invokeCleaner from Java 9 and
+     * the cleaner of the buffer before, leaving them to the garbage collector when neither is accessible.
+     */
+    private abstract static class BufferReleaser {
+
+        abstract void release(MappedByteBuffer buffer);
+
+        static BufferReleaser create() {
+            try {
+                Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                final Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+                Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+                theUnsafe.setAccessible(true);
+                final Object unsafe = theUnsafe.get(null);
+                return new BufferReleaser() {
+                    @Override
+                    void release(MappedByteBuffer buffer) {
+                        try {
+                            invokeCleaner.invoke(unsafe, buffer);
+                        } catch (Exception e) {
+                            log.debug("Cannot unmap spill segment, " + e.getMessage(), e);
+                        }
+                    }
+                };
+            } catch (Exception e) {
+                log.debug("sun.misc.Unsafe#invokeCleaner is not available, " + e.getMessage());
+            }
+            return new BufferReleaser() {
+                @Override
+                void release(MappedByteBuffer buffer) {
+                    try {
+                        Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                        cleanerMethod.setAccessible(true);
+                        Object cleaner = cleanerMethod.invoke(buffer);
+                        if (cleaner != null) {
+                            cleaner.getClass().getMethod("clean").invoke(cleaner);
+                        }
+                    } catch (Exception e) {
+                        log.debug("Cannot unmap spill segment, it is released when garbage collected, " +
+                                e.getMessage());
+                    }
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.collection.spill;
+
+import org.wso2.siddhi.core.util.SiddhiConstants;
+import org.wso2.siddhi.query.api.annotation.Annotation;
+import org.wso2.siddhi.query.api.annotation.Element;
+import org.wso2.siddhi.query.api.exception.ExecutionPlanValidationException;
+
+import java.io.File;
+
+/**
+ * Spill settings of window event queues, given with {@code @plan:spill(heap.events='100000')} for all the
+ * supported windows of a plan or with {@code @spill(...)} on a query, which overrides the plan settings.
+ * <ul>
+ * <li>heap.events - number of the most recent events kept on heap, older events are spilled (required)</li>
+ * <li>segment.size - size in bytes of each memory mapped segment file, 64MB by default</li>
+ * <li>directory - directory of the segment files, the temporary directory by default</li>
+ * </ul>
+ */
+public class SpillConfiguration {
+
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private final int heapEventLimit;
+    private final int segmentSize;
+    private final File directory;
+
+    public SpillConfiguration(int heapEventLimit, int segmentSize, File directory) {
+        this.heapEventLimit = heapEventLimit;
+        this.segmentSize = segmentSize;
+        this.directory = directory;
+    }
+
+    /**
+     * Parse a spill annotation.
+     *
+     * @param annotation the spill annotation
+     * @param defaults   settings used for the elements that are not given, can be null
+     * @param owner      description of the plan or query the annotation belongs to, used in error messages
+     * @return the spill configuration
+     */
+    public static SpillConfiguration parse(Annotation annotation, SpillConfiguration defaults, String owner) {
+        int heapEventLimit = defaults != null ? defaults.heapEventLimit : -1;
+        int segmentSize = defaults != null ? defaults.segmentSize : DEFAULT_SEGMENT_SIZE;
+        File directory = defaults != null ? defaults.directory : null;
+        for (Element element : annotation.getElements()) {
+            String key = element.getKey();
+            if (SiddhiConstants.ANNOTATION_ELEMENT_HEAP_EVENTS.equalsIgnoreCase(key)) {
+                heapEventLimit = parsePositiveInt(element.getValue(), key, owner);
+            } else if (SiddhiConstants.ANNOTATION_ELEMENT_SEGMENT_SIZE.equalsIgnoreCase(key)) {
+                segmentSize = parsePositiveInt(element.getValue(), key, owner);
+            } else if (SiddhiConstants.ANNOTATION_ELEMENT_DIRECTORY.equalsIgnoreCase(key)) {
+                directory = new File(element.getValue());
+                if (!directory.isDirectory()) {
+                    throw new ExecutionPlanValidationException("Spill directory '" + element.getValue() + "' of " +
+                            owner + " does not exist");
+                }
+            } else {
+                throw new ExecutionPlanValidationException("Spill annotation of " + owner + " accepts only " +
+                        SiddhiConstants.ANNOTATION_ELEMENT_HEAP_EVENTS + ", " +
+                        SiddhiConstants.ANNOTATION_ELEMENT_SEGMENT_SIZE + " and " +
+                        SiddhiConstants.ANNOTATION_ELEMENT_DIRECTORY + " but found " + key);
+            }
+        }
+        if (heapEventLimit < 0) {
+            throw new ExecutionPlanValidationException("Spill annotation of " + owner + " requires " +
+                    SiddhiConstants.ANNOTATION_ELEMENT_HEAP_EVENTS);
+        }
+        return new SpillConfiguration(heapEventLimit, segmentSize, directory);
+    }
+
+    private static int parsePositiveInt(String value, String key, String owner) {
+        int intValue;
+        try {
+            intValue = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            intValue = 0;
+        }
+        if (intValue < 1) {
+            throw new ExecutionPlanValidationException("Spill " + key + " of " + owner +
+                    " should be a positive integer, but found '" + value + "'");
+        }
+        return intValue;
+    }
+
+    public int getHeapEventLimit() {
+        return heapEventLimit;
+    }
+
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * @return directory of the segment files, null for the temporary directory
+     */
+    public File getDirectory() {
+        return directory;
+    }
+}
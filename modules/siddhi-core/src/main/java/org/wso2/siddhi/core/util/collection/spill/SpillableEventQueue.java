@@ -0,0 +1,378 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.collection.spill;
+
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.AbstractCollection;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * First in first out queue of window events. Without a {@link SpillConfiguration} all events are kept on heap as a
+ * linked event chain. With one, only the most recent events are kept on heap; when they exceed the heap limit the
+ * older half of them are encoded into memory mapped segment files in arrival order, and expiry reads them back
+ * sequentially from the oldest segment. Finders iterate the queue as a {@link java.util.Collection}. Consumed and
+ * cleared segments are kept for reuse until {@link #release()} unmaps them.
+ * <p>
+ * The queue is not thread safe, windows access it while holding their own lock.
+ */
+public class SpillableEventQueue extends AbstractCollection<StreamEvent> {
+
+    private SpillConfiguration configuration;
+    private StreamEvent first;
+    private StreamEvent last;
+    private long heapEventCount = 0;
+
+    private final ArrayDeque<EventSegment> segments = new ArrayDeque<EventSegment>();
+    private long spilledEventCount = 0;
+    private StreamEvent spilledHead;
+    private final ArrayDeque<EventSegment> spareSegments = new ArrayDeque<EventSegment>();
+    private StreamEventSerializer serializer;
+
+    public SpillableEventQueue(SpillConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    /**
+     * Change the spill settings, spilling the events that exceed the new heap limit.
+     *
+     * @param configuration the spill configuration, null to keep all further events on heap
+     */
+    public void setConfiguration(SpillConfiguration configuration) {
+        this.configuration = configuration;
+        spillIfNeeded();
+    }
+
+    /**
+     * Add an event as the newest event of the queue.
+     */
+    @Override
+    public boolean add(StreamEvent streamEvent) {
+        streamEvent.setNext(null);
+        if (first == null) {
+            first = streamEvent;
+        } else {
+            last.setNext(streamEvent);
+        }
+        last = streamEvent;
+        heapEventCount++;
+        spillIfNeeded();
+        return true;
+    }
+
+    /**
+     * @return the oldest event of the queue without removing it, null if the queue is empty
+     */
+    public StreamEvent peek() {
+        if (spilledEventCount > 0) {
+            if (spilledHead == null) {
+                EventSegment segment = segments.peekFirst();
+                spilledHead = segment.read(getSerializer());
+                if (segment.isConsumed()) {
+                    // keep the consumed segment for reuse, so that a window in steady state does not map new files
+                    segments.pollFirst();
+                    segment.reset();
+                    spareSegments.addLast(segment);
+                }
+            }
+            return spilledHead;
+        }
+        return first;
+    }
+
+    /**
+     * @return the oldest event of the queue after removing it, null if the queue is empty
+     */
+    public StreamEvent poll() {
+        StreamEvent streamEvent = peek();
+        if (streamEvent == null) {
+            return null;
+        }
+        if (spilledEventCount > 0) {
+            spilledHead = null;
+            spilledEventCount--;
+        } else {
+            first = streamEvent.getNext();
+            if (first == null) {
+                last = null;
+            }
+            streamEvent.setNext(null);
+            heapEventCount--;
+        }
+        return streamEvent;
+    }
+
+    @Override
+    public Iterator<StreamEvent> iterator() {
+        return new QueueIterator();
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.min(getEventCount(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return first == null && spilledEventCount == 0;
+    }
+
+    public long getEventCount() {
+        return heapEventCount + spilledEventCount;
+    }
+
+    public long getHeapEventCount() {
+        return heapEventCount;
+    }
+
+    public long getSpilledEventCount() {
+        return spilledEventCount;
+    }
+
+    /**
+     * Remove all the events, keeping the segments for reuse.
+     */
+    @Override
+    public void clear() {
+        first = null;
+        last = null;
+        heapEventCount = 0;
+        for (EventSegment segment : segments) {
+            segment.reset();
+            spareSegments.addLast(segment);
+        }
+        segments.clear();
+        spilledHead = null;
+        spilledEventCount = 0;
+    }
+
+    /**
+     * Remove all the events and unmap the segments, when the window stops. Events added afterwards spill to new
+     * segments.
+     */
+    public void release() {
+        clear();
+        for (EventSegment segment : spareSegments) {
+            segment.release();
+        }
+        spareSegments.clear();
+    }
+
+    /**
+     * The state of the queue, the event chain of the queue when no events are spilled, so that the snapshots of
+     * windows that do not spill stay as they were; otherwise the encoded unread events of each segment, copied as
+     * they are, and the encoded events on heap.
+     *
+     * @return state to be restored with {@link #restoreState(Object)}
+     */
+    public Object currentState() {
+        if (spilledEventCount == 0) {
+            return first;
+        }
+        StreamEventSerializer serializer = getSerializer();
+        List<byte[]> spilledEvents = new ArrayList<byte[]>(segments.size() + 1);
+        if (spilledHead != null) {
+            serializer.serialize(spilledHead);
+            spilledEvents.add(Arrays.copyOf(serializer.getBuffer(), serializer.getLength()));
+        }
+        for (EventSegment segment : segments) {
+            spilledEvents.add(segment.unreadBytes());
+        }
+        // events on heap are encoded as well, as serializing a long event chain recurses through every event
+        ByteArrayOutputStream heapEvents = new ByteArrayOutputStream();
+        for (StreamEvent streamEvent = first; streamEvent != null; streamEvent = streamEvent.getNext()) {
+            serializer.serialize(streamEvent);
+            heapEvents.write(serializer.getBuffer(), 0, serializer.getLength());
+        }
+        return new SpilledState(spilledEventCount, spilledEvents.toArray(new byte[spilledEvents.size()][]),
+                heapEvents.toByteArray());
+    }
+
+    /**
+     * Replace the events of the queue with the ones of the given state. Spilled events are copied into segments as
+     * they are, unless the queue does not spill.
+     *
+     * @param state an event chain or spilled events returned by {@link #currentState()}, can be null
+     */
+    public void restoreState(Object state) {
+        clear();
+        if (state instanceof SpilledState) {
+            SpilledState spilledState = (SpilledState) state;
+            for (byte[] spilledEvents : spilledState.spilledEvents) {
+                if (configuration != null) {
+                    spill(spilledEvents, spilledEvents.length);
+                } else {
+                    addEncoded(spilledEvents);
+                }
+            }
+            if (configuration != null) {
+                spilledEventCount = spilledState.spilledEventCount;
+            }
+            addEncoded(spilledState.heapEvents);
+        } else {
+            StreamEvent streamEvent = (StreamEvent) state;
+            while (streamEvent != null) {
+                StreamEvent next = streamEvent.getNext();
+                add(streamEvent);
+                streamEvent = next;
+            }
+        }
+    }
+
+    private void addEncoded(byte[] encodedEvents) {
+        ByteBuffer buffer = ByteBuffer.wrap(encodedEvents);
+        StreamEventSerializer serializer = getSerializer();
+        while (buffer.hasRemaining()) {
+            add(serializer.deserialize(buffer));
+        }
+    }
+
+    private void spillIfNeeded() {
+        if (configuration == null || heapEventCount <= configuration.getHeapEventLimit()) {
+            return;
+        }
+        StreamEventSerializer serializer = getSerializer();
+        long retained = configuration.getHeapEventLimit() / 2;
+        while (heapEventCount > retained) {
+            StreamEvent streamEvent = first;
+            first = streamEvent.getNext();
+            streamEvent.setNext(null);
+            heapEventCount--;
+
+            serializer.serialize(streamEvent);
+            spill(serializer.getBuffer(), serializer.getLength());
+            spilledEventCount++;
+        }
+        if (first == null) {
+            last = null;
+        }
+    }
+
+    /**
+     * Append encoded events to the newest segment, or to a spare or new segment when they do not fit.
+     */
+    private void spill(byte[] encodedEvents, int length) {
+        EventSegment segment = segments.peekLast();
+        if (segment == null || !segment.hasRemaining(length)) {
+            EventSegment spareSegment = spareSegments.peekFirst();
+            if (spareSegment != null && spareSegment.hasRemaining(length)) {
+                segment = spareSegments.pollFirst();
+            } else {
+                segment = createSegment(length);
+            }
+            segments.addLast(segment);
+        }
+        segment.write(encodedEvents, length);
+    }
+
+    private EventSegment createSegment(int minimumSize) {
+        File directory = configuration.getDirectory();
+        if (directory == null) {
+            directory = new File(System.getProperty("java.io.tmpdir"));
+        }
+        return new EventSegment(directory, Math.max(configuration.getSegmentSize(), minimumSize));
+    }
+
+    private StreamEventSerializer getSerializer() {
+        if (serializer == null) {
+            serializer = new StreamEventSerializer();
+        }
+        return serializer;
+    }
+
+    /**
+     * Spilled events of a queue, each array holding whole encoded events in arrival order.
+     */
+    private static final class SpilledState implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long spilledEventCount;
+        private final byte[][] spilledEvents;
+        private final byte[] heapEvents;
+
+        private SpilledState(long spilledEventCount, byte[][] spilledEvents, byte[] heapEvents) {
+            this.spilledEventCount = spilledEventCount;
+            this.spilledEvents = spilledEvents;
+            this.heapEvents = heapEvents;
+        }
+    }
+
+    /**
+     * Iterates the decoded head, the unread events of each segment and then the events on heap, in arrival order.
+     */
+    private class QueueIterator implements Iterator<StreamEvent> {
+
+        private final Iterator<EventSegment> segmentIterator = segments.iterator();
+        private final StreamEventSerializer iteratorSerializer = new StreamEventSerializer();
+        private ByteBuffer segmentView;
+        private long spilledRemaining = spilledEventCount;
+        private StreamEvent next;
+        private boolean heapStarted = false;
+
+        QueueIterator() {
+            if (spilledHead != null) {
+                next = spilledHead;
+                spilledRemaining--;
+            } else {
+                advance();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public StreamEvent next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            StreamEvent current = next;
+            advance();
+            return current;
+        }
+
+        private void advance() {
+            if (heapStarted) {
+                next = next.getNext();
+                return;
+            }
+            if (spilledRemaining > 0) {
+                while (segmentView == null || !segmentView.hasRemaining()) {
+                    segmentView = segmentIterator.next().unread();
+                }
+                next = iteratorSerializer.deserialize(segmentView);
+                spilledRemaining--;
+                return;
+            }
+            heapStarted = true;
+            next = first;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.collection.spill;
+
+import org.wso2.siddhi.core.event.ComplexEvent;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.exception.ExecutionPlanRuntimeException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Self describing binary encoding of a {@link StreamEvent}: timestamp, type and the before window, on after window
+ * and output data, each value tagged with its type. Values of other than the primitive and string types are
+ * encoded with Java serialization. Events are encoded into a reusable buffer.
+ */
+final class StreamEventSerializer {
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte INT = 2;
+    private static final byte LONG = 3;
+    private static final byte FLOAT = 4;
+    private static final byte DOUBLE = 5;
+    private static final byte TRUE = 6;
+    private static final byte FALSE = 7;
+    private static final byte OBJECT = 8;
+    private static final ComplexEvent.Type[] EVENT_TYPES = ComplexEvent.Type.values();
+
+    private byte[] buffer = new byte[256];
+    private int length;
+
+    /**
+     * Encode the event into the buffer of the serializer, replacing what was encoded before.
+     */
+    void serialize(StreamEvent streamEvent) {
+        length = 0;
+        putLong(streamEvent.getTimestamp());
+        ensureCapacity(1);
+        buffer[length++] = (byte) streamEvent.getType().ordinal();
+        putData(streamEvent.getBeforeWindowData());
+        putData(streamEvent.getOnAfterWindowData());
+        putData(streamEvent.getOutputData());
+    }
+
+    byte[] getBuffer() {
+        return buffer;
+    }
+
+    int getLength() {
+        return length;
+    }
+
+    /**
+     * Decode an event from the current position of the buffer, advancing it past the event.
+     */
+    StreamEvent deserialize(ByteBuffer source) {
+        long timestamp = source.getLong();
+        ComplexEvent.Type type = EVENT_TYPES[source.get()];
+        Object[] beforeWindowData = getData(source);
+        Object[] onAfterWindowData = getData(source);
+        Object[] outputData = getData(source);
+        StreamEvent streamEvent = new StreamEvent(0, 0, 0);
+        streamEvent.setTimestamp(timestamp);
+        streamEvent.setType(type);
+        streamEvent.setBeforeWindowData(beforeWindowData);
+        streamEvent.setOnAfterWindowData(onAfterWindowData);
+        streamEvent.setOutputData(outputData);
+        return streamEvent;
+    }
+
+    private void putData(Object[] data) {
+        if (data == null) {
+            putInt(-1);
+            return;
+        }
+        putInt(data.length);
+        for (Object value : data) {
+            if (value == null) {
+                putTag(NULL);
+            } else if (value instanceof String) {
+                putTag(STRING);
+                putBytes(((String) value).getBytes(StandardCharsets.UTF_8));
+            } else if (value instanceof Integer) {
+                putTag(INT);
+                putInt((Integer) value);
+            } else if (value instanceof Long) {
+                putTag(LONG);
+                putLong((Long) value);
+            } else if (value instanceof Float) {
+                putTag(FLOAT);
+                putInt(Float.floatToRawIntBits((Float) value));
+            } else if (value instanceof Double) {
+                putTag(DOUBLE);
+                putLong(Double.doubleToRawLongBits((Double) value));
+            } else if (value instanceof Boolean) {
+                putTag((Boolean) value ? TRUE : FALSE);
+            } else {
+                putTag(OBJECT);
+                try {
+                    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                    ObjectOutputStream out = new ObjectOutputStream(bytes);
+                    out.writeObject(value);
+                    out.close();
+                    putBytes(bytes.toByteArray());
+                } catch (IOException e) {
+                    throw new ExecutionPlanRuntimeException("Cannot spill event attribute of " + value.getClass() +
+                            ", " + e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    private Object[] getData(ByteBuffer source) {
+        int size = source.getInt();
+        if (size < 0) {
+            return null;
+        }
+        Object[] data = new Object[size];
+        for (int i = 0; i < size; i++) {
+            byte tag = source.get();
+            switch (tag) {
+                case NULL:
+                    break;
+                case STRING:
+                    data[i] = new String(getBytes(source), StandardCharsets.UTF_8);
+                    break;
+                case INT:
+                    data[i] = source.getInt();
+                    break;
+                case LONG:
+                    data[i] = source.getLong();
+                    break;
+                case FLOAT:
+                    data[i] = Float.intBitsToFloat(source.getInt());
+                    break;
+                case DOUBLE:
+                    data[i] = Double.longBitsToDouble(source.getLong());
+                    break;
+                case TRUE:
+                    data[i] = Boolean.TRUE;
+                    break;
+                case FALSE:
+                    data[i] = Boolean.FALSE;
+                    break;
+                default:
+                    try {
+                        data[i] = new ObjectInputStream(new ByteArrayInputStream(getBytes(source))).readObject();
+                    } catch (IOException | ClassNotFoundException e) {
+                        throw new ExecutionPlanRuntimeException("Cannot read spilled event attribute, " +
+                                e.getMessage(), e);
+                    }
+            }
+        }
+        return data;
+    }
+
+    private void putTag(byte tag) {
+        ensureCapacity(1);
+        buffer[length++] = tag;
+    }
+
+    private void putInt(int value) {
+        ensureCapacity(4);
+        buffer[length++] = (byte) (value >>> 24);
+        buffer[length++] = (byte) (value >>> 16);
+        buffer[length++] = (byte) (value >>> 8);
+        buffer[length++] = (byte) value;
+    }
+
+    private void putLong(long value) {
+        putInt((int) (value >>> 32));
+        putInt((int) value);
+    }
+
+    private void putBytes(byte[] bytes) {
+        putInt(bytes.length);
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+    }
+
+    private static byte[] getBytes(ByteBuffer source) {
+        byte[] bytes = new byte[source.getInt()];
+        source.get(bytes);
+        return bytes;
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (length + bytes > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + bytes));
+        }
+    }
+}
@@ -39,7 +39,7 @@ public class LockSynchronizer {
      * @param lockWrapperOne lock wrapper one
      * @param lockWrapperTwo lock wrapper two
      */
-    public void sync(LockWrapper lockWrapperOne, LockWrapper lockWrapperTwo) {
+    public synchronized void sync(LockWrapper lockWrapperOne, LockWrapper lockWrapperTwo) {
         boolean leftHolderExists = holderMap.containsKey(lockWrapperOne);
         boolean rightHolderExists = holderMap.containsKey(lockWrapperTwo);
 
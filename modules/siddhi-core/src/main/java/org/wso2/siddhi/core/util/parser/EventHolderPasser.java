@@ -5,9 +5,11 @@ import org.wso2.siddhi.core.event.stream.converter.ZeroStreamEventConverter;
 import org.wso2.siddhi.core.exception.OperationNotSupportedException;
 import org.wso2.siddhi.core.table.holder.EventHolder;
 import org.wso2.siddhi.core.table.holder.ListEventHolder;
+import org.wso2.siddhi.core.table.holder.OffHeapEventHolder;
 import org.wso2.siddhi.core.table.holder.PrimaryKeyEventHolder;
 import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.query.api.annotation.Annotation;
+import org.wso2.siddhi.query.api.annotation.Element;
 import org.wso2.siddhi.query.api.definition.AbstractDefinition;
 import org.wso2.siddhi.query.api.exception.ExecutionPlanValidationException;
 import org.wso2.siddhi.query.api.util.AnnotationHelper;
@@ -19,7 +21,37 @@ public class EventHolderPasser {
     public static EventHolder parse(AbstractDefinition tableDefinition, StreamEventPool tableStreamEventPool) {
         ZeroStreamEventConverter eventConverter = new ZeroStreamEventConverter();
 
+        // storage.
+        boolean offHeap = false;
+        int segmentSize = OffHeapEventHolder.DEFAULT_SEGMENT_SIZE;
+        if (AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_STORE, tableDefinition.getAnnotations()) != null) {
+            Element typeElement = AnnotationHelper.getAnnotationElement(SiddhiConstants.ANNOTATION_STORE,
+                    SiddhiConstants.ANNOTATION_ELEMENT_TYPE, tableDefinition.getAnnotations());
+            if (typeElement == null || !SiddhiConstants.STORE_TYPE_OFF_HEAP.equalsIgnoreCase(typeElement.getValue())) {
+                throw new ExecutionPlanValidationException(SiddhiConstants.ANNOTATION_STORE + " annotation of table '" +
+                        tableDefinition.getId() + "' must be of type '" + SiddhiConstants.STORE_TYPE_OFF_HEAP +
+                        "', other stores are defined with the " + SiddhiConstants.ANNOTATION_FROM + " annotation");
+            }
+            offHeap = true;
+            Element segmentSizeElement = AnnotationHelper.getAnnotationElement(SiddhiConstants.ANNOTATION_STORE,
+                    SiddhiConstants.ANNOTATION_ELEMENT_SEGMENT_SIZE, tableDefinition.getAnnotations());
+            if (segmentSizeElement != null) {
+                try {
+                    segmentSize = Integer.parseInt(segmentSizeElement.getValue());
+                } catch (NumberFormatException e) {
+                    segmentSize = 0;
+                }
+                if (segmentSize <= 0) {
+                    throw new ExecutionPlanValidationException(SiddhiConstants.ANNOTATION_ELEMENT_SEGMENT_SIZE +
+                            " of table '" + tableDefinition.getId() + "' must be a positive number of bytes, but found '" +
+                            segmentSizeElement.getValue() + "'");
+                }
+            }
+        }
+
         // indexes.
+        String indexAttribute = null;
+        int indexPosition = -1;
         Annotation indexByAnnotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_INDEX_BY,
                 tableDefinition.getAnnotations());
         if (indexByAnnotation != null) {
@@ -32,8 +64,14 @@ public class EventHolderPasser {
                 throw new ExecutionPlanValidationException(SiddhiConstants.ANNOTATION_INDEX_BY + " annotation contains "
                         + indexByAnnotation.getElements().size() + " element");
             }
-            String indexAttribute = indexByAnnotation.getElements().get(0).getValue();
-            int indexPosition = tableDefinition.getAttributePosition(indexAttribute);
+            indexAttribute = indexByAnnotation.getElements().get(0).getValue();
+            indexPosition = tableDefinition.getAttributePosition(indexAttribute);
+        }
+
+        if (offHeap) {
+            return new OffHeapEventHolder(tableDefinition.getAttributeList(), segmentSize, indexPosition,
+                    indexAttribute);
+        } else if (indexAttribute != null) {
             return new PrimaryKeyEventHolder(tableStreamEventPool, eventConverter, indexPosition, indexAttribute);
         } else {
             return new ListEventHolder(tableStreamEventPool, eventConverter);
@@ -29,6 +29,7 @@ import org.wso2.siddhi.core.util.ElementIdGenerator;
 import org.wso2.siddhi.core.util.ExecutionPlanRuntimeBuilder;
 import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.core.util.ThreadBarrier;
+import org.wso2.siddhi.core.util.collection.spill.SpillConfiguration;
 import org.wso2.siddhi.core.util.persistence.PersistenceService;
 import org.wso2.siddhi.core.util.snapshot.SnapshotService;
 import org.wso2.siddhi.core.util.statistics.LatencyTracker;
@@ -50,9 +51,15 @@ import org.wso2.siddhi.query.api.util.AnnotationHelper;
 import org.wso2.siddhi.query.compiler.SiddhiCompiler;
 import org.wso2.siddhi.query.compiler.exception.SiddhiParserException;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class ExecutionPlanParser {
     private static final Logger log = Logger.getLogger(ExecutionPlanRuntimeBuilder.class);
@@ -68,6 +75,7 @@ public class ExecutionPlanParser {
 
         ExecutionPlanContext executionPlanContext = new ExecutionPlanContext();
         executionPlanContext.setSiddhiContext(siddhiContext);
+        int buildParallelism = siddhiContext.getBuildParallelism();
 
         try {
             Element element = AnnotationHelper.getAnnotationElement(SiddhiConstants.ANNOTATION_NAME, null,
@@ -113,9 +121,81 @@ public class ExecutionPlanParser {
                             .getStatisticsConfiguration()
                             .getFactory()
                             .createStatisticsManager(annotation.getElements()));
+                    // @plan:statistics(latency.sampling = '100', latency.breakdown = 'true') measures the ingest
+                    // to output latency of one in every 100 events and the time spent by each processor, the
+                    // ingest latency is not measured unless sampling is given
+                    for (Element statisticsElement : annotation.getElements()) {
+                        if (SiddhiConstants.STATISTICS_LATENCY_SAMPLING.equalsIgnoreCase(
+                                statisticsElement.getKey())) {
+                            int samplingInterval;
+                            try {
+                                samplingInterval = Integer.parseInt(statisticsElement.getValue());
+                            } catch (NumberFormatException e) {
+                                throw new ExecutionPlanValidationException("Latency sampling interval of execution " +
+                                        "plan " + executionPlanContext.getName() + " should be an integer, but " +
+                                        "found " + statisticsElement.getValue(), e);
+                            }
+                            if (samplingInterval < 0) {
+                                throw new ExecutionPlanValidationException("Latency sampling interval of execution " +
+                                        "plan " + executionPlanContext.getName() + " should not be negative, but " +
+                                        "found " + samplingInterval);
+                            }
+                            executionPlanContext.setLatencySamplingInterval(samplingInterval);
+                        } else if (SiddhiConstants.STATISTICS_LATENCY_BREAKDOWN.equalsIgnoreCase(
+                                statisticsElement.getKey())) {
+                            executionPlanContext.setLatencyBreakdownEnabled(
+                                    Boolean.valueOf(statisticsElement.getValue()));
+                        }
+                    }
                 }
             }
 
+            // @plan:compile enables compiled expressions, @plan:compile('false') disables them for the plan
+            executionPlanContext.setExpressionCompilationEnabled(siddhiContext.isExpressionCompilationEnabled());
+            Element compileElement = AnnotationHelper.getAnnotationElement(SiddhiConstants.ANNOTATION_COMPILE, null,
+                    executionPlan.getAnnotations());
+            if (AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_COMPILE,
+                    executionPlan.getAnnotations()) != null) {
+                executionPlanContext.setExpressionCompilationEnabled(compileElement == null ||
+                        Boolean.valueOf(compileElement.getValue()));
+            }
+
+            // @plan:columnar filters the batches of events received by queries by attribute columns
+            if (AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_COLUMNAR,
+                    executionPlan.getAnnotations()) != null) {
+                Element columnarElement = AnnotationHelper.getAnnotationElement(SiddhiConstants.ANNOTATION_COLUMNAR,
+                        null, executionPlan.getAnnotations());
+                executionPlanContext.setColumnarProcessingEnabled(columnarElement == null ||
+                        Boolean.valueOf(columnarElement.getValue()));
+            }
+
+            // @plan:build(parallelism = '4') constructs the independent queries of the plan with 4 threads
+            annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_BUILD,
+                    executionPlan.getAnnotations());
+            if (annotation != null) {
+                String parallelismString = annotation.getElement(SiddhiConstants.ANNOTATION_PARALLELISM);
+                if (parallelismString != null) {
+                    try {
+                        buildParallelism = Integer.parseInt(parallelismString.trim());
+                    } catch (NumberFormatException e) {
+                        buildParallelism = 0;
+                    }
+                    if (buildParallelism < 1) {
+                        throw new ExecutionPlanValidationException("Build parallelism of execution plan " +
+                                executionPlanContext.getName() + " should be a positive integer, but found '" +
+                                parallelismString + "'");
+                    }
+                }
+            }
+
+            // @plan:spill(heap.events = '100000') spills the older events of long time windows to memory mapped files
+            annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_SPILL,
+                    executionPlan.getAnnotations());
+            if (annotation != null) {
+                executionPlanContext.setSpillConfiguration(SpillConfiguration.parse(annotation, null,
+                        "execution plan " + executionPlanContext.getName()));
+            }
+
             executionPlanContext.setThreadBarrier(new ThreadBarrier());
 
             executionPlanContext.setExecutorService(Executors.newCachedThreadPool(
@@ -201,15 +281,26 @@ public class ExecutionPlanParser {
             eventWindow.init(executionPlanRuntimeBuilder.getEventTableMap(), executionPlanRuntimeBuilder.getEventWindowMap(), latencyTracker, eventWindow.getWindowDefinition().getId());
         }
         try {
-            for (ExecutionElement executionElement : executionPlan.getExecutionElementList()) {
-                if (executionElement instanceof Query) {
-                    QueryRuntime queryRuntime = QueryParser.parse((Query) executionElement, executionPlanContext,
-                            executionPlanRuntimeBuilder.getStreamDefinitionMap(),
-                            executionPlanRuntimeBuilder.getTableDefinitionMap(),
-                            executionPlanRuntimeBuilder.getWindowDefinitionMap(),
-                            executionPlanRuntimeBuilder.getEventTableMap(),
-                            executionPlanRuntimeBuilder.getEventWindowMap(),
-                            executionPlanRuntimeBuilder.getLockSynchronizer());
+            List<ExecutionElement> executionElements = executionPlan.getExecutionElementList();
+            for (int i = 0; i < executionElements.size(); i++) {
+                ExecutionElement executionElement = executionElements.get(i);
+                int independentQueriesEnd = i + 1;
+                if (buildParallelism > 1 && executionElement instanceof Query) {
+                    independentQueriesEnd = findIndependentQueriesEnd(executionElements, i,
+                            executionPlanRuntimeBuilder);
+                }
+                if (independentQueriesEnd - i > 1) {
+                    List<QueryRuntime> queryRuntimes = parseQueries(executionElements, i, independentQueriesEnd,
+                            buildParallelism, executionPlanContext, executionPlanRuntimeBuilder);
+                    for (int index = i; index < independentQueriesEnd; index++) {
+                        executionPlanContext.getElementIdGenerator().numberScope(getQueryScope(index));
+                        executionPlanRuntimeBuilder.addQuery(queryRuntimes.get(index - i));
+                    }
+                    i = independentQueriesEnd - 1;
+                } else if (executionElement instanceof Query) {
+                    QueryRuntime queryRuntime = parseQuery(executionElements, i, executionPlanContext,
+                            executionPlanRuntimeBuilder);
+                    executionPlanContext.getElementIdGenerator().numberScope(getQueryScope(i));
                     executionPlanRuntimeBuilder.addQuery(queryRuntime);
                 } else if (executionElement instanceof Subscription) {
                     SubscriptionRuntime subscriptionRuntime = SubscriptionParser.parse((Subscription) executionElement, executionPlanContext,
@@ -240,6 +331,116 @@ public class ExecutionPlanParser {
         return executionPlanRuntimeBuilder;
     }
 
+    /**
+     * Find the consecutive queries from the given index whose input streams are already defined, which can therefore
+     * be constructed independently of each other
+     *
+     * @param executionElements           execution elements of the plan
+     * @param start                       index of the first query
+     * @param executionPlanRuntimeBuilder builder holding the definitions of the plan
+     * @return index after the last independent query
+     */
+    private static int findIndependentQueriesEnd(List<ExecutionElement> executionElements, int start,
+                                                 ExecutionPlanRuntimeBuilder executionPlanRuntimeBuilder) {
+        int end = start;
+        while (end < executionElements.size() && executionElements.get(end) instanceof Query) {
+            for (String streamId : ((Query) executionElements.get(end)).getInputStream().getUniqueStreamIds()) {
+                if (!executionPlanRuntimeBuilder.getStreamDefinitionMap().containsKey(streamId) &&
+                        !executionPlanRuntimeBuilder.getTableDefinitionMap().containsKey(streamId) &&
+                        !executionPlanRuntimeBuilder.getWindowDefinitionMap().containsKey(streamId)) {
+                    // Consumes the output of a preceding query, which is defined once that query is added
+                    return end;
+                }
+            }
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * Construct the runtime of the query at the given index. The element ids of the query are scoped to its index in
+     * the plan, so that they are the same whether or not the queries are constructed in parallel, and persisted
+     * state can be restored with any build parallelism. The scope is numbered afterwards, in the order of the
+     * queries, for the state persisted with unscoped ids to be restored as well.
+     *
+     * @return the query runtime
+     */
+    private static QueryRuntime parseQuery(List<ExecutionElement> executionElements, int index,
+                                           ExecutionPlanContext executionPlanContext,
+                                           ExecutionPlanRuntimeBuilder executionPlanRuntimeBuilder) {
+        ElementIdGenerator elementIdGenerator = executionPlanContext.getElementIdGenerator();
+        elementIdGenerator.startScope(getQueryScope(index));
+        try {
+            return QueryParser.parse((Query) executionElements.get(index), executionPlanContext,
+                    executionPlanRuntimeBuilder.getStreamDefinitionMap(),
+                    executionPlanRuntimeBuilder.getTableDefinitionMap(),
+                    executionPlanRuntimeBuilder.getWindowDefinitionMap(),
+                    executionPlanRuntimeBuilder.getEventTableMap(),
+                    executionPlanRuntimeBuilder.getEventWindowMap(),
+                    executionPlanRuntimeBuilder.getLockSynchronizer());
+        } finally {
+            elementIdGenerator.endScope();
+        }
+    }
+
+    private static String getQueryScope(int index) {
+        return "query" + index;
+    }
+
+    /**
+     * Construct the runtimes of independent queries with the given number of threads, including the calling thread.
+     *
+     * @return query runtimes in the order of the queries
+     */
+    private static List<QueryRuntime> parseQueries(final List<ExecutionElement> executionElements, final int start,
+                                                   final int end, int buildParallelism,
+                                                   final ExecutionPlanContext executionPlanContext,
+                                                   final ExecutionPlanRuntimeBuilder executionPlanRuntimeBuilder) {
+        final QueryRuntime[] queryRuntimes = new QueryRuntime[end - start];
+        final RuntimeException[] exceptions = new RuntimeException[end - start];
+        final AtomicInteger nextIndex = new AtomicInteger(start);
+        Runnable queryBuilder = new Runnable() {
+            @Override
+            public void run() {
+                int index;
+                while ((index = nextIndex.getAndIncrement()) < end) {
+                    try {
+                        queryRuntimes[index - start] = parseQuery(executionElements, index, executionPlanContext,
+                                executionPlanRuntimeBuilder);
+                    } catch (RuntimeException e) {
+                        exceptions[index - start] = e;
+                    }
+                }
+            }
+        };
+        List<Future<?>> futures = new ArrayList<Future<?>>();
+        for (int i = 1; i < Math.min(buildParallelism, end - start); i++) {
+            futures.add(executionPlanContext.getExecutorService().submit(queryBuilder));
+        }
+        queryBuilder.run();
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ExecutionPlanCreationException("Interrupted while constructing the queries", e);
+            } catch (ExecutionException e) {
+                throw new ExecutionPlanCreationException(e.getCause().getMessage(), e.getCause());
+            }
+        }
+        // Report the failure of the first query, as when the queries are constructed serially
+        for (RuntimeException exception : exceptions) {
+            if (exception != null) {
+                throw exception;
+            }
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Constructed " + (end - start) + " independent queries of execution plan " +
+                    executionPlanContext.getName() + " with " + (futures.size() + 1) + " threads");
+        }
+        return Arrays.asList(queryRuntimes);
+    }
+
     private static void defineTriggerDefinitions(ExecutionPlanRuntimeBuilder executionPlanRuntimeBuilder,
                                                  Map<String, TriggerDefinition> triggerDefinitionMap) {
         for (TriggerDefinition definition : triggerDefinitionMap.values()) {
@@ -167,75 +167,80 @@ public class ExpressionParser {
             ExpressionExecutor left = parseExpression(((Multiply) expression).getLeftValue(), metaEvent, currentState, eventTableMap, executorList, executionPlanContext, groupBy, defaultStreamEventIndex, queryName);
             ExpressionExecutor right = parseExpression(((Multiply) expression).getRightValue(), metaEvent, currentState, eventTableMap, executorList, executionPlanContext, groupBy, defaultStreamEventIndex, queryName);
             Attribute.Type type = parseArithmeticOperationResultType(left, right);
+            boolean primitiveExecution = isPrimitiveExecutable(left, right);
             switch (type) {
                 case INT:
-                    return new MultiplyExpressionExecutorInt(left, right);
+                    return new MultiplyExpressionExecutorInt(left, right, primitiveExecution);
                 case LONG:
-                    return new MultiplyExpressionExecutorLong(left, right);
+                    return new MultiplyExpressionExecutorLong(left, right, primitiveExecution);
                 case FLOAT:
-                    return new MultiplyExpressionExecutorFloat(left, right);
+                    return new MultiplyExpressionExecutorFloat(left, right, primitiveExecution);
                 case DOUBLE:
-                    return new MultiplyExpressionExecutorDouble(left, right);
+                    return new MultiplyExpressionExecutorDouble(left, right, primitiveExecution);
                 default: //Will not happen. Handled in parseArithmeticOperationResultType()
             }
         } else if (expression instanceof Add) {
             ExpressionExecutor left = parseExpression(((Add) expression).getLeftValue(), metaEvent, currentState, eventTableMap, executorList, executionPlanContext, groupBy, defaultStreamEventIndex, queryName);
             ExpressionExecutor right = parseExpression(((Add) expression).getRightValue(), metaEvent, currentState, eventTableMap, executorList, executionPlanContext, groupBy, defaultStreamEventIndex, queryName);
             Attribute.Type type = parseArithmeticOperationResultType(left, right);
+            boolean primitiveExecution = isPrimitiveExecutable(left, right);
             switch (type) {
                 case INT:
-                    return new AddExpressionExecutorInt(left, right);
+                    return new AddExpressionExecutorInt(left, right, primitiveExecution);
                 case LONG:
-                    return new AddExpressionExecutorLong(left, right);
+                    return new AddExpressionExecutorLong(left, right, primitiveExecution);
                 case FLOAT:
-                    return new AddExpressionExecutorFloat(left, right);
+                    return new AddExpressionExecutorFloat(left, right, primitiveExecution);
                 case DOUBLE:
-                    return new AddExpressionExecutorDouble(left, right);
+                    return new AddExpressionExecutorDouble(left, right, primitiveExecution);
                 default: //Will not happen. Handled in parseArithmeticOperationResultType()
             }
         } else if (expression instanceof Subtract) {
             ExpressionExecutor left = parseExpression(((Subtract) expression).getLeftValue(), metaEvent, currentState, eventTableMap, executorList, executionPlanContext, groupBy, defaultStreamEventIndex, queryName);
             ExpressionExecutor right = parseExpression(((Subtract) expression).getRightValue(), metaEvent, currentState, eventTableMap, executorList, executionPlanContext, groupBy, defaultStreamEventIndex, queryName);
             Attribute.Type type = parseArithmeticOperationResultType(left, right);
+            boolean primitiveExecution = isPrimitiveExecutable(left, right);
             switch (type) {
                 case INT:
-                    return new SubtractExpressionExecutorInt(left, right);
+                    return new SubtractExpressionExecutorInt(left, right, primitiveExecution);
                 case LONG:
-                    return new SubtractExpressionExecutorLong(left, right);
+                    return new SubtractExpressionExecutorLong(left, right, primitiveExecution);
                 case FLOAT:
-                    return new SubtractExpressionExecutorFloat(left, right);
+                    return new SubtractExpressionExecutorFloat(left, right, primitiveExecution);
                 case DOUBLE:
-                    return new SubtractExpressionExecutorDouble(left, right);
+                    return new SubtractExpressionExecutorDouble(left, right, primitiveExecution);
                 default: //Will not happen. Handled in parseArithmeticOperationResultType()
             }
         } else if (expression instanceof Mod) {
             ExpressionExecutor left = parseExpression(((Mod) expression).getLeftValue(), metaEvent, currentState, eventTableMap, executorList, executionPlanContext, groupBy, defaultStreamEventIndex, queryName);
             ExpressionExecutor right = parseExpression(((Mod) expression).getRightValue(), metaEvent, currentState, eventTableMap, executorList, executionPlanContext, groupBy, defaultStreamEventIndex, queryName);
             Attribute.Type type = parseArithmeticOperationResultType(left, right);
+            boolean primitiveExecution = isPrimitiveExecutable(left, right);
             switch (type) {
                 case INT:
-                    return new ModExpressionExecutorInt(left, right);
+                    return new ModExpressionExecutorInt(left, right, primitiveExecution);
                 case LONG:
-                    return new ModExpressionExecutorLong(left, right);
+                    return new ModExpressionExecutorLong(left, right, primitiveExecution);
                 case FLOAT:
-                    return new ModExpressionExecutorFloat(left, right);
+                    return new ModExpressionExecutorFloat(left, right, primitiveExecution);
                 case DOUBLE:
-                    return new ModExpressionExecutorDouble(left, right);
+                    return new ModExpressionExecutorDouble(left, right, primitiveExecution);
                 default: //Will not happen. Handled in parseArithmeticOperationResultType()
             }
         } else if (expression instanceof Divide) {
             ExpressionExecutor left = parseExpression(((Divide) expression).getLeftValue(), metaEvent, currentState, eventTableMap, executorList, executionPlanContext, groupBy, defaultStreamEventIndex, queryName);
             ExpressionExecutor right = parseExpression(((Divide) expression).getRightValue(), metaEvent, currentState, eventTableMap, executorList, executionPlanContext, groupBy, defaultStreamEventIndex, queryName);
             Attribute.Type type = parseArithmeticOperationResultType(left, right);
+            boolean primitiveExecution = isPrimitiveExecutable(left, right);
             switch (type) {
                 case INT:
-                    return new DivideExpressionExecutorInt(left, right);
+                    return new DivideExpressionExecutorInt(left, right, primitiveExecution);
                 case LONG:
-                    return new DivideExpressionExecutorLong(left, right);
+                    return new DivideExpressionExecutorLong(left, right, primitiveExecution);
                 case FLOAT:
-                    return new DivideExpressionExecutorFloat(left, right);
+                    return new DivideExpressionExecutorFloat(left, right, primitiveExecution);
                 case DOUBLE:
-                    return new DivideExpressionExecutorDouble(left, right);
+                    return new DivideExpressionExecutorDouble(left, right, primitiveExecution);
                 default: //Will not happen. Handled in parseArithmeticOperationResultType()
             }
 
@@ -1094,6 +1099,14 @@ public class ExpressionParser {
         }
     }
 
+    /**
+     * Math executors of operands that are both primitive executable evaluate them unboxed, so that nested math
+     * and compare executors stay unboxed up to the executor whose result is stored.
+     */
+    private static boolean isPrimitiveExecutable(ExpressionExecutor left, ExpressionExecutor right) {
+        return left.isPrimitiveExecutable() && right.isPrimitiveExecutable();
+    }
+
     /**
      * Calculate the return type of arithmetic operation executors.(Ex: add, subtract, etc)
      *
@@ -7,6 +7,7 @@ import org.wso2.siddhi.core.exception.OperationNotSupportedException;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
 import org.wso2.siddhi.core.table.EventTable;
+import org.wso2.siddhi.core.table.holder.OffHeapEventHolder;
 import org.wso2.siddhi.core.table.holder.PrimaryKeyEventHolder;
 import org.wso2.siddhi.core.util.collection.operator.*;
 import org.wso2.siddhi.query.api.expression.Expression;
@@ -30,39 +31,29 @@ public class OperatorParser {
                                              List<VariableExpressionExecutor> variableExpressionExecutors,
                                              Map<String, EventTable> eventTableMap, String queryName) {
         if (candidateEvents instanceof PrimaryKeyEventHolder) {
-            if (expression instanceof Compare && ((Compare) expression).getOperator() == Compare.Operator.EQUAL) {
-                Compare compare = (Compare) expression;
-                if ((compare.getLeftExpression() instanceof Variable || compare.getLeftExpression() instanceof Constant)
-                        && (compare.getRightExpression() instanceof Variable || compare.getRightExpression() instanceof Constant)) {
-
-                    boolean leftSideIndexed = false;
-                    boolean rightSideIndexed = false;
-
-                    if (isTableIndexVariable(matchingMetaStateHolder, compare.getLeftExpression(), ((PrimaryKeyEventHolder) candidateEvents).getIndexAttribute())) {
-                        leftSideIndexed = true;
-                    }
-
-                    if (isTableIndexVariable(matchingMetaStateHolder, compare.getRightExpression(), ((PrimaryKeyEventHolder) candidateEvents).getIndexAttribute())) {
-                        rightSideIndexed = true;
-                    }
-
-                    if (leftSideIndexed && !rightSideIndexed) {
-                        ExpressionExecutor expressionExecutor = ExpressionParser.parseExpression(compare.getRightExpression(),
-                                matchingMetaStateHolder.getMetaStateEvent(), matchingMetaStateHolder.getDefaultStreamEventIndex(), eventTableMap, variableExpressionExecutors, executionPlanContext, false, 0, queryName);
-                        return new PrimaryKeyOperator(expressionExecutor, matchingMetaStateHolder.getCandidateEventIndex(), ((PrimaryKeyEventHolder) candidateEvents).getIndexPosition());
-
-                    } else if (!leftSideIndexed && rightSideIndexed) {
-                        ExpressionExecutor expressionExecutor = ExpressionParser.parseExpression(compare.getLeftExpression(),
-                                matchingMetaStateHolder.getMetaStateEvent(), matchingMetaStateHolder.getDefaultStreamEventIndex(), eventTableMap, variableExpressionExecutors, executionPlanContext, false, 0, queryName);
-                        return new PrimaryKeyOperator(expressionExecutor, matchingMetaStateHolder.getCandidateEventIndex(), ((PrimaryKeyEventHolder) candidateEvents).getIndexPosition());
-
-                    }
-                }
+            Expression keyExpression = getPrimaryKeyExpression(expression, matchingMetaStateHolder,
+                    ((PrimaryKeyEventHolder) candidateEvents).getIndexAttribute());
+            if (keyExpression != null) {
+                ExpressionExecutor expressionExecutor = ExpressionParser.parseExpression(keyExpression,
+                        matchingMetaStateHolder.getMetaStateEvent(), matchingMetaStateHolder.getDefaultStreamEventIndex(), eventTableMap, variableExpressionExecutors, executionPlanContext, false, 0, queryName);
+                return new PrimaryKeyOperator(expressionExecutor, matchingMetaStateHolder.getCandidateEventIndex(), ((PrimaryKeyEventHolder) candidateEvents).getIndexPosition());
             }
             //fallback to not using primary key
             ExpressionExecutor expressionExecutor = ExpressionParser.parseExpression(expression,
                     matchingMetaStateHolder.getMetaStateEvent(), matchingMetaStateHolder.getDefaultStreamEventIndex(), eventTableMap, variableExpressionExecutors, executionPlanContext, false, 0, queryName);
             return new MapOperator(expressionExecutor, matchingMetaStateHolder.getCandidateEventIndex());
+        } else if (candidateEvents instanceof OffHeapEventHolder) {
+            String indexAttribute = ((OffHeapEventHolder) candidateEvents).getIndexAttribute();
+            Expression keyExpression = indexAttribute == null ? null :
+                    getPrimaryKeyExpression(expression, matchingMetaStateHolder, indexAttribute);
+            if (keyExpression != null) {
+                ExpressionExecutor expressionExecutor = ExpressionParser.parseExpression(keyExpression,
+                        matchingMetaStateHolder.getMetaStateEvent(), matchingMetaStateHolder.getDefaultStreamEventIndex(), eventTableMap, variableExpressionExecutors, executionPlanContext, false, 0, queryName);
+                return new OffHeapPrimaryKeyOperator(expressionExecutor, matchingMetaStateHolder.getCandidateEventIndex());
+            }
+            ExpressionExecutor expressionExecutor = ExpressionParser.parseExpression(expression,
+                    matchingMetaStateHolder.getMetaStateEvent(), matchingMetaStateHolder.getDefaultStreamEventIndex(), eventTableMap, variableExpressionExecutors, executionPlanContext, false, 0, queryName);
+            return new OffHeapOperator(expressionExecutor, matchingMetaStateHolder.getCandidateEventIndex());
         } else if (candidateEvents instanceof ComplexEventChunk) {
             ExpressionExecutor expressionExecutor = ExpressionParser.parseExpression(expression,
                     matchingMetaStateHolder.getMetaStateEvent(), matchingMetaStateHolder.getDefaultStreamEventIndex(), eventTableMap, variableExpressionExecutors, executionPlanContext, false, 0, queryName);
@@ -80,6 +71,31 @@ public class OperatorParser {
         }
     }
 
+    /**
+     * @return the side of an equality on the primary key that is not the key itself, or null if the expression
+     * cannot be served by the primary key
+     */
+    private static Expression getPrimaryKeyExpression(Expression expression,
+                                                      MatchingMetaStateHolder matchingMetaStateHolder,
+                                                      String indexAttribute) {
+        if (expression instanceof Compare && ((Compare) expression).getOperator() == Compare.Operator.EQUAL) {
+            Compare compare = (Compare) expression;
+            if ((compare.getLeftExpression() instanceof Variable || compare.getLeftExpression() instanceof Constant)
+                    && (compare.getRightExpression() instanceof Variable || compare.getRightExpression() instanceof Constant)) {
+
+                boolean leftSideIndexed = isTableIndexVariable(matchingMetaStateHolder, compare.getLeftExpression(), indexAttribute);
+                boolean rightSideIndexed = isTableIndexVariable(matchingMetaStateHolder, compare.getRightExpression(), indexAttribute);
+
+                if (leftSideIndexed && !rightSideIndexed) {
+                    return compare.getRightExpression();
+                } else if (!leftSideIndexed && rightSideIndexed) {
+                    return compare.getLeftExpression();
+                }
+            }
+        }
+        return null;
+    }
+
     private static boolean isTableIndexVariable(MatchingMetaStateHolder matchingMetaStateHolder, Expression expression, String indexAttribute) {
         if (expression instanceof Variable) {
             Variable variable = (Variable) expression;
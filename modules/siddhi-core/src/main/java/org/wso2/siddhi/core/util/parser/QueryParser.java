@@ -23,21 +23,29 @@ import org.wso2.siddhi.core.event.state.populater.StateEventPopulatorFactory;
 import org.wso2.siddhi.core.event.stream.MetaStreamEvent;
 import org.wso2.siddhi.core.exception.ExecutionPlanCreationException;
 import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
+import org.wso2.siddhi.core.executor.compiled.ExpressionCompiler;
 import org.wso2.siddhi.core.query.QueryRuntime;
 import org.wso2.siddhi.core.query.input.stream.StreamRuntime;
 import org.wso2.siddhi.core.query.input.stream.join.JoinStreamRuntime;
 import org.wso2.siddhi.core.query.input.stream.single.SingleStreamRuntime;
+import org.wso2.siddhi.core.query.input.stream.state.PartialMatchGauge;
+import org.wso2.siddhi.core.query.input.stream.state.StateStreamRuntime;
+import org.wso2.siddhi.core.query.input.stream.state.StreamPreStateProcessor;
 import org.wso2.siddhi.core.query.output.callback.OutputCallback;
 import org.wso2.siddhi.core.query.output.ratelimit.OutputRateLimiter;
 import org.wso2.siddhi.core.query.output.ratelimit.snapshot.WrappedSnapshotOutputRateLimiter;
+import org.wso2.siddhi.core.query.processor.Processor;
+import org.wso2.siddhi.core.query.processor.stream.window.WindowProcessor;
 import org.wso2.siddhi.core.query.selector.QuerySelector;
 import org.wso2.siddhi.core.table.EventTable;
 import org.wso2.siddhi.core.util.SiddhiConstants;
+import org.wso2.siddhi.core.util.collection.spill.SpillConfiguration;
 import org.wso2.siddhi.core.util.lock.LockSynchronizer;
 import org.wso2.siddhi.core.util.lock.LockWrapper;
 import org.wso2.siddhi.core.util.parser.helper.QueryParserHelper;
 import org.wso2.siddhi.core.util.statistics.LatencyTracker;
 import org.wso2.siddhi.core.window.EventWindow;
+import org.wso2.siddhi.query.api.annotation.Annotation;
 import org.wso2.siddhi.query.api.annotation.Element;
 import org.wso2.siddhi.query.api.definition.AbstractDefinition;
 import org.wso2.siddhi.query.api.exception.DuplicateDefinitionException;
@@ -78,6 +86,7 @@ public class QueryParser {
         QueryRuntime queryRuntime;
         Element nameElement = null;
         LatencyTracker latencyTracker = null;
+        String metricName = null;
         LockWrapper lockWrapper = null;
         try {
             nameElement = AnnotationHelper.getAnnotationElement("info", "name", query.getAnnotations());
@@ -89,7 +98,7 @@ public class QueryParser {
             }
             if (executionPlanContext.isStatsEnabled() && executionPlanContext.getStatisticsManager() != null) {
                 if (nameElement != null) {
-                    String metricName =
+                    metricName =
                             executionPlanContext.getSiddhiContext().getStatisticsConfiguration().getMatricPrefix() +
                                     SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_EXECUTION_PLANS +
                                     SiddhiConstants.METRIC_DELIMITER + executionPlanContext.getName() +
@@ -109,6 +118,31 @@ public class QueryParser {
             }
             StreamRuntime streamRuntime = InputStreamParser.parse(query.getInputStream(),
                     executionPlanContext, streamDefinitionMap, tableDefinitionMap, windowDefinitionMap, eventTableMap, eventWindowMap, executors, latencyTracker, outputExpectsExpiredEvents, queryName);
+            if (metricName != null && streamRuntime instanceof StateStreamRuntime) {
+                PartialMatchGauge partialMatchGauge = new PartialMatchGauge();
+                for (SingleStreamRuntime singleStreamRuntime :
+                        ((StateStreamRuntime) streamRuntime).getSingleStreamRuntimes()) {
+                    ((StreamPreStateProcessor) singleStreamRuntime.getProcessorChain())
+                            .setPartialMatchGauge(partialMatchGauge);
+                }
+                executionPlanContext.getStatisticsManager().getRegistry().register(metricName +
+                        SiddhiConstants.METRIC_DELIMITER + "partialMatches", partialMatchGauge);
+            }
+            // @spill(...) on the query overrides the spill settings of the plan for the windows of the query
+            Annotation spillAnnotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_SPILL,
+                    query.getAnnotations());
+            if (spillAnnotation != null) {
+                SpillConfiguration spillConfiguration = SpillConfiguration.parse(spillAnnotation,
+                        executionPlanContext.getSpillConfiguration(), "query " + queryName);
+                for (SingleStreamRuntime singleStreamRuntime : streamRuntime.getSingleStreamRuntimes()) {
+                    for (Processor processor = singleStreamRuntime.getProcessorChain(); processor != null;
+                         processor = processor.getNextProcessor()) {
+                        if (processor instanceof WindowProcessor) {
+                            ((WindowProcessor) processor).setSpillConfiguration(spillConfiguration);
+                        }
+                    }
+                }
+            }
             QuerySelector selector = SelectorParser.parse(query.getSelector(), query.getOutputStream(),
                     executionPlanContext, streamRuntime.getMetaComplexEvent(), eventTableMap, executors, queryName);
             boolean isWindow = query.getInputStream() instanceof JoinInputStream;
@@ -170,6 +204,12 @@ public class QueryParser {
                     executionPlanContext.getScheduledExecutorService(), executionPlanContext, queryName);
             if (outputRateLimiter instanceof WrappedSnapshotOutputRateLimiter) {
                 selector.setBatchingEnabled(false);
+                Element snapshotElement = AnnotationHelper.getAnnotationElement(SiddhiConstants.ANNOTATION_SNAPSHOT,
+                        null, query.getAnnotations());
+                if (snapshotElement != null &&
+                        SiddhiConstants.SNAPSHOT_CHANGES.equalsIgnoreCase(snapshotElement.getValue())) {
+                    ((WrappedSnapshotOutputRateLimiter) outputRateLimiter).setChangesOnly(true);
+                }
             }
             executionPlanContext.addEternalReferencedHolder(outputRateLimiter);
 
@@ -178,6 +218,9 @@ public class QueryParser {
 
             QueryParserHelper.reduceMetaComplexEvent(streamRuntime.getMetaComplexEvent());
             QueryParserHelper.updateVariablePosition(streamRuntime.getMetaComplexEvent(), executors);
+            if (executionPlanContext.isExpressionCompilationEnabled()) {
+                ExpressionCompiler.compileQuery(streamRuntime, selector, queryName);
+            }
             QueryParserHelper.initStreamRuntime(streamRuntime, streamRuntime.getMetaComplexEvent(), lockWrapper, queryName);
             selector.setEventPopulator(StateEventPopulatorFactory.constructEventPopulator(streamRuntime.getMetaComplexEvent()));
             queryRuntime = new QueryRuntime(query, executionPlanContext, streamRuntime, selector, outputRateLimiter,
@@ -189,6 +232,20 @@ public class QueryParser {
                         .init(streamRuntime.getMetaComplexEvent().getOutputStreamDefinition().getAttributeList().size(),
                                 selector.getAttributeProcessorList(), streamRuntime.getMetaComplexEvent());
             }
+            if (metricName != null) {
+                outputRateLimiter.setLatencyTracker(latencyTracker);
+                if (executionPlanContext.getLatencySamplingInterval() > 0) {
+                    outputRateLimiter.setIngestLatencyRecorder(executionPlanContext.getSiddhiContext()
+                            .getStatisticsConfiguration()
+                            .getFactory()
+                            .createLatencyRecorder(metricName + SiddhiConstants.METRIC_DELIMITER +
+                                    SiddhiConstants.METRIC_INFIX_INGEST, executionPlanContext.getStatisticsManager()));
+                }
+                if (executionPlanContext.isLatencyBreakdownEnabled()) {
+                    QueryParserHelper.addLatencyRecordingProcessors(streamRuntime, selector, metricName,
+                            executionPlanContext);
+                }
+            }
             outputRateLimiter.init(executionPlanContext, lockWrapper, queryName);
 
         } catch (DuplicateDefinitionException e) {
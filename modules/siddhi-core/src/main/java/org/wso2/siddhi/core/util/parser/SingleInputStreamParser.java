@@ -25,6 +25,9 @@ import org.wso2.siddhi.core.exception.ExecutionPlanCreationException;
 import org.wso2.siddhi.core.exception.OperationNotSupportedException;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
+import org.wso2.siddhi.core.executor.columnar.AndColumnarCondition;
+import org.wso2.siddhi.core.executor.columnar.ColumnarCondition;
+import org.wso2.siddhi.core.executor.columnar.ColumnarConditionParser;
 import org.wso2.siddhi.core.query.input.ProcessStreamReceiver;
 import org.wso2.siddhi.core.query.input.stream.single.EntryValveProcessor;
 import org.wso2.siddhi.core.query.input.stream.single.SingleStreamRuntime;
@@ -35,6 +38,7 @@ import org.wso2.siddhi.core.query.processor.stream.AbstractStreamProcessor;
 import org.wso2.siddhi.core.query.processor.stream.StreamProcessor;
 import org.wso2.siddhi.core.query.processor.stream.function.StreamFunctionProcessor;
 import org.wso2.siddhi.core.query.processor.stream.window.WindowProcessor;
+import org.wso2.siddhi.core.stream.SharedFilterDispatcher;
 import org.wso2.siddhi.core.table.EventTable;
 import org.wso2.siddhi.core.util.Scheduler;
 import org.wso2.siddhi.core.util.SiddhiClassLoader;
@@ -44,6 +48,7 @@ import org.wso2.siddhi.core.util.extension.holder.StreamProcessorExtensionHolder
 import org.wso2.siddhi.core.util.extension.holder.WindowProcessorExtensionHolder;
 import org.wso2.siddhi.query.api.definition.AbstractDefinition;
 import org.wso2.siddhi.query.api.definition.Attribute;
+import org.wso2.siddhi.query.api.definition.StreamDefinition;
 import org.wso2.siddhi.query.api.execution.query.input.handler.Filter;
 import org.wso2.siddhi.query.api.execution.query.input.handler.StreamFunction;
 import org.wso2.siddhi.query.api.execution.query.input.handler.StreamHandler;
@@ -125,12 +130,54 @@ public class SingleInputStreamParser {
             }
         }
 
+        // Queries that start with a filter can be skipped for events the filter rejects, unless the receiver also
+        // tracks the state of patterns and sequences
+        if (processStreamReceiver.getClass() == ProcessStreamReceiver.class
+                && !inputStream.getStreamHandlers().isEmpty()
+                && inputStream.getStreamHandlers().get(0) instanceof Filter) {
+            processStreamReceiver.setFilterCondition(SharedFilterDispatcher.toSharedCondition(
+                    inputStream.getStreamHandlers().get(0).getParameters()[0], inputStream));
+            if (executionPlanContext.isColumnarProcessingEnabled()
+                    && metaStreamEvent.getLastInputDefinition() instanceof StreamDefinition) {
+                parseColumnarCondition(inputStream, (StreamDefinition) metaStreamEvent.getLastInputDefinition(),
+                        processStreamReceiver);
+            }
+        }
+
         metaStreamEvent.initializeAfterWindowData();
         return new SingleStreamRuntime(processStreamReceiver, processor, metaComplexEvent);
 
     }
 
 
+    /**
+     * Let the receiver filter the batches of events it receives by columns, with the conditions of the filters the
+     * query starts with that can be evaluated that way.
+     */
+    private static void parseColumnarCondition(SingleInputStream inputStream, StreamDefinition streamDefinition,
+                                               ProcessStreamReceiver processStreamReceiver) {
+        ColumnarCondition columnarCondition = null;
+        int filterCount = 0;
+        for (StreamHandler handler : inputStream.getStreamHandlers()) {
+            if (!(handler instanceof Filter)) {
+                break;
+            }
+            Expression sharedCondition = SharedFilterDispatcher.toSharedCondition(handler.getParameters()[0],
+                    inputStream);
+            ColumnarCondition condition = sharedCondition == null ? null :
+                    ColumnarConditionParser.parse(sharedCondition, streamDefinition);
+            if (condition == null) {
+                break;
+            }
+            columnarCondition = columnarCondition == null ? condition :
+                    new AndColumnarCondition(columnarCondition, condition);
+            filterCount++;
+        }
+        if (columnarCondition != null) {
+            processStreamReceiver.setColumnarCondition(columnarCondition, filterCount, streamDefinition);
+        }
+    }
+
     public static Processor generateProcessor(StreamHandler streamHandler, MetaComplexEvent metaEvent, List<VariableExpressionExecutor> variableExpressionExecutors, ExecutionPlanContext executionPlanContext, Map<String, EventTable> eventTableMap, boolean supportsBatchProcessing, boolean outputExpectsExpiredEvents, String queryName) {
         Expression[] parameters = streamHandler.getParameters();
         MetaStreamEvent metaStreamEvent;
@@ -20,7 +20,10 @@ package org.wso2.siddhi.core.util.parser;
 import org.wso2.siddhi.core.config.ExecutionPlanContext;
 import org.wso2.siddhi.core.event.state.MetaStateEvent;
 import org.wso2.siddhi.core.exception.OperationNotSupportedException;
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
 import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.AndConditionExpressionExecutor;
+import org.wso2.siddhi.core.executor.condition.compare.equal.EqualCompareConditionExpressionExecutor;
 import org.wso2.siddhi.core.query.input.ProcessStreamReceiver;
 import org.wso2.siddhi.core.query.input.stream.single.SingleStreamRuntime;
 import org.wso2.siddhi.core.query.input.stream.state.*;
@@ -29,10 +32,13 @@ import org.wso2.siddhi.core.query.input.stream.state.receiver.PatternSingleProce
 import org.wso2.siddhi.core.query.input.stream.state.receiver.SequenceMultiProcessStreamReceiver;
 import org.wso2.siddhi.core.query.input.stream.state.receiver.SequenceSingleProcessStreamReceiver;
 import org.wso2.siddhi.core.query.input.stream.state.runtime.*;
+import org.wso2.siddhi.core.query.processor.Processor;
+import org.wso2.siddhi.core.query.processor.filter.FilterProcessor;
 import org.wso2.siddhi.core.table.EventTable;
 import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.core.util.statistics.LatencyTracker;
 import org.wso2.siddhi.query.api.definition.AbstractDefinition;
+import org.wso2.siddhi.query.api.definition.Attribute;
 import org.wso2.siddhi.query.api.execution.query.input.state.*;
 import org.wso2.siddhi.query.api.execution.query.input.stream.BasicSingleInputStream;
 import org.wso2.siddhi.query.api.execution.query.input.stream.StateInputStream;
@@ -84,9 +90,122 @@ public class StateInputStreamParser {
 
         ((StreamPreStateProcessor) innerStateRuntime.getFirstProcessor()).setThisLastProcessor((StreamPostStateProcessor) innerStateRuntime.getLastProcessor());
 
+        if (stateInputStream.getStateType() == StateInputStream.Type.PATTERN) {
+            indexCorrelatedStates(innerStateRuntime);
+            scheduleWithinExpiry(innerStateRuntime, executionPlanContext);
+        }
+
         return stateStreamRuntime;
     }
 
+    /**
+     * Detect pattern states whose condition requires an attribute of the incoming event to be equal to an attribute
+     * of an earlier state, such as e2=B[e2.id == e1.id], and index their pending state events by that attribute.
+     * Only states that hold a single event are used as keys, as their events do not change once matched.
+     */
+    private static void indexCorrelatedStates(InnerStateRuntime innerStateRuntime) {
+        Set<Integer> singleEventStateIds = new HashSet<Integer>();
+        for (SingleStreamRuntime singleStreamRuntime : innerStateRuntime.getSingleStreamRuntimeList()) {
+            Processor processor = singleStreamRuntime.getProcessorChain();
+            if (processor.getClass() == StreamPreStateProcessor.class) {
+                singleEventStateIds.add(((StreamPreStateProcessor) processor).getStateId());
+            }
+        }
+        for (SingleStreamRuntime singleStreamRuntime : innerStateRuntime.getSingleStreamRuntimeList()) {
+            Processor processor = singleStreamRuntime.getProcessorChain();
+            if (processor.getClass() != StreamPreStateProcessor.class) {
+                continue;
+            }
+            StreamPreStateProcessor streamPreStateProcessor = (StreamPreStateProcessor) processor;
+            List<ExpressionExecutor> conditions = new ArrayList<ExpressionExecutor>();
+            processor = processor.getNextProcessor();
+            while (processor instanceof FilterProcessor) {
+                addConjuncts(((FilterProcessor) processor).getConditionExecutor(), conditions);
+                processor = processor.getNextProcessor();
+            }
+            if (processor != streamPreStateProcessor.getThisStatePostProcessor()) {
+                // Other processors may change the incoming event before it is evaluated
+                continue;
+            }
+            for (ExpressionExecutor condition : conditions) {
+                if (setCorrelation(streamPreStateProcessor, condition, singleEventStateIds)) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Schedule the pattern states that have within conditions to evict their expired partial matches, so that they
+     * do not accumulate while no events arrive at those states. Count and logical states do not apply within
+     * conditions themselves, and sequences hold at most one partial match per state.
+     */
+    private static void scheduleWithinExpiry(InnerStateRuntime innerStateRuntime,
+                                             ExecutionPlanContext executionPlanContext) {
+        for (SingleStreamRuntime singleStreamRuntime : innerStateRuntime.getSingleStreamRuntimeList()) {
+            Processor processor = singleStreamRuntime.getProcessorChain();
+            if (processor.getClass() == StreamPreStateProcessor.class &&
+                    !((StreamPreStateProcessor) processor).getWithinStates().isEmpty()) {
+                StreamPreStateProcessor streamPreStateProcessor = (StreamPreStateProcessor) processor;
+                streamPreStateProcessor.setScheduler(SchedulerParser.parse(
+                        executionPlanContext.getScheduledExecutorService(), streamPreStateProcessor,
+                        executionPlanContext));
+            }
+        }
+    }
+
+    private static void addConjuncts(ExpressionExecutor condition, List<ExpressionExecutor> conditions) {
+        if (condition instanceof AndConditionExpressionExecutor) {
+            addConjuncts(((AndConditionExpressionExecutor) condition).getLeftConditionExecutor(), conditions);
+            addConjuncts(((AndConditionExpressionExecutor) condition).getRightConditionExecutor(), conditions);
+        } else {
+            conditions.add(condition);
+        }
+    }
+
+    private static boolean setCorrelation(StreamPreStateProcessor streamPreStateProcessor,
+                                          ExpressionExecutor condition, Set<Integer> singleEventStateIds) {
+        if (!(condition instanceof EqualCompareConditionExpressionExecutor)) {
+            return false;
+        }
+        ExpressionExecutor left = ((EqualCompareConditionExpressionExecutor) condition).getLeftExpressionExecutor();
+        ExpressionExecutor right = ((EqualCompareConditionExpressionExecutor) condition).getRightExpressionExecutor();
+        if (!(left instanceof VariableExpressionExecutor && right instanceof VariableExpressionExecutor)) {
+            return false;
+        }
+        Attribute.Type type = left.getReturnType();
+        if (type != right.getReturnType() || type == Attribute.Type.FLOAT || type == Attribute.Type.DOUBLE
+                || type == Attribute.Type.OBJECT) {
+            // Floating point equality differs from the equality of their boxed keys
+            return false;
+        }
+        int stateId = streamPreStateProcessor.getStateId();
+        VariableExpressionExecutor incoming;
+        VariableExpressionExecutor pending;
+        if (isIncomingVariable((VariableExpressionExecutor) left, stateId)) {
+            incoming = (VariableExpressionExecutor) left;
+            pending = (VariableExpressionExecutor) right;
+        } else if (isIncomingVariable((VariableExpressionExecutor) right, stateId)) {
+            incoming = (VariableExpressionExecutor) right;
+            pending = (VariableExpressionExecutor) left;
+        } else {
+            return false;
+        }
+        int pendingStateId = pending.getPosition()[SiddhiConstants.STREAM_EVENT_CHAIN_INDEX];
+        if (pendingStateId == stateId || !singleEventStateIds.contains(pendingStateId)) {
+            return false;
+        }
+        streamPreStateProcessor.setCorrelationKeyExecutors(pending, incoming);
+        return true;
+    }
+
+    private static boolean isIncomingVariable(VariableExpressionExecutor variableExpressionExecutor, int stateId) {
+        int[] position = variableExpressionExecutor.getPosition();
+        return position[SiddhiConstants.STREAM_EVENT_CHAIN_INDEX] == stateId &&
+                (position[SiddhiConstants.STREAM_EVENT_INDEX] == 0 ||
+                        position[SiddhiConstants.STREAM_EVENT_INDEX] == SiddhiConstants.CURRENT);
+    }
+
     private static InnerStateRuntime parse(StateElement stateElement, Map<String, AbstractDefinition> streamDefinitionMap,
                                            Map<String, AbstractDefinition> tableDefinitionMap,
                                            Map<String, AbstractDefinition> windowDefinitionMap, Map<String, EventTable> eventTableMap,
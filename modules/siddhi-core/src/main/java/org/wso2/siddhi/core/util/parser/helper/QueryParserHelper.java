@@ -18,6 +18,7 @@
 
 package org.wso2.siddhi.core.util.parser.helper;
 
+import org.wso2.siddhi.core.config.ExecutionPlanContext;
 import org.wso2.siddhi.core.event.MetaComplexEvent;
 import org.wso2.siddhi.core.event.state.MetaStateEvent;
 import org.wso2.siddhi.core.event.state.MetaStateEventAttribute;
@@ -27,15 +28,24 @@ import org.wso2.siddhi.core.event.stream.MetaStreamEvent;
 import org.wso2.siddhi.core.event.stream.StreamEventCloner;
 import org.wso2.siddhi.core.event.stream.StreamEventPool;
 import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
+import org.wso2.siddhi.core.query.input.MultiProcessStreamReceiver;
 import org.wso2.siddhi.core.query.input.ProcessStreamReceiver;
 import org.wso2.siddhi.core.query.input.stream.StreamRuntime;
 import org.wso2.siddhi.core.query.input.stream.join.JoinProcessor;
+import org.wso2.siddhi.core.query.input.stream.single.EntryValveProcessor;
 import org.wso2.siddhi.core.query.input.stream.single.SingleStreamRuntime;
+import org.wso2.siddhi.core.query.input.stream.state.StateStreamRuntime;
 import org.wso2.siddhi.core.query.input.stream.state.StreamPreStateProcessor;
+import org.wso2.siddhi.core.query.processor.LatencyRecordingProcessor;
 import org.wso2.siddhi.core.query.processor.Processor;
 import org.wso2.siddhi.core.query.processor.SchedulingProcessor;
+import org.wso2.siddhi.core.query.processor.filter.FilterProcessor;
 import org.wso2.siddhi.core.query.processor.stream.AbstractStreamProcessor;
+import org.wso2.siddhi.core.query.processor.stream.window.WindowProcessor;
+import org.wso2.siddhi.core.query.selector.QuerySelector;
+import org.wso2.siddhi.core.util.Scheduler;
 import org.wso2.siddhi.core.util.lock.LockWrapper;
+import org.wso2.siddhi.core.util.statistics.LatencyRecorder;
 import org.wso2.siddhi.query.api.definition.Attribute;
 
 import java.util.HashSet;
@@ -205,10 +215,96 @@ public class QueryParserHelper {
                 if (metaComplexEvent instanceof MetaStateEvent) {
                     ((StreamPreStateProcessor) processor).setStateEventCloner(new StateEventCloner(((MetaStateEvent) metaComplexEvent), stateEventPool));
                 }
+                Scheduler scheduler = ((StreamPreStateProcessor) processor).getScheduler();
+                if (scheduler != null) {
+                    scheduler.setStreamEventPool(streamEventPool);
+                    scheduler.init(lockWrapper, queryName);
+                }
             }
 
             processor = processor.getNextProcessor();
         }
     }
 
+    /**
+     * Insert processors recording the time spent by each processor of the query and by its selector, for the
+     * latency breakdown of the query. The join processors and the window in between them are measured together as
+     * the join, and the time of the output rate limiter is counted with the selector which drives it. Processors of
+     * the same kind share a recorder. Pattern and sequence queries, and joins of a stream with itself, are not
+     * broken down.
+     *
+     * @param streamRuntime        stream runtime of the query
+     * @param selector             selector of the query
+     * @param metricName           metric name of the query
+     * @param executionPlanContext execution plan context
+     */
+    public static void addLatencyRecordingProcessors(StreamRuntime streamRuntime, QuerySelector selector,
+                                                     String metricName, ExecutionPlanContext executionPlanContext) {
+        if (streamRuntime instanceof StateStreamRuntime) {
+            return;
+        }
+        for (SingleStreamRuntime singleStreamRuntime : streamRuntime.getSingleStreamRuntimes()) {
+            if (singleStreamRuntime.getProcessStreamReceiver() instanceof MultiProcessStreamReceiver) {
+                return;
+            }
+        }
+        LatencyRecordingProcessor selectorRecorder = createLatencyRecordingProcessor(metricName, "selector",
+                executionPlanContext);
+        if (selectorRecorder == null) {
+            return;
+        }
+        selectorRecorder.setNextProcessor(selector);
+        for (SingleStreamRuntime singleStreamRuntime : streamRuntime.getSingleStreamRuntimes()) {
+            Processor previous = null;
+            Processor processor = singleStreamRuntime.getProcessorChain();
+            boolean joined = false;
+            while (processor != null && processor != selector) {
+                Processor next = processor.getNextProcessor();
+                if (!joined && !(processor instanceof EntryValveProcessor)) {
+                    joined = processor instanceof JoinProcessor;
+                    LatencyRecordingProcessor recorder = createLatencyRecordingProcessor(metricName,
+                            getStageName(processor), executionPlanContext);
+                    recorder.setNextProcessor(processor);
+                    if (previous == null) {
+                        singleStreamRuntime.setProcessorChain(recorder);
+                    } else {
+                        previous.setNextProcessor(recorder);
+                    }
+                }
+                previous = processor;
+                processor = next;
+            }
+            if (previous == null) {
+                singleStreamRuntime.setProcessorChain(selectorRecorder);
+            } else {
+                previous.setNextProcessor(selectorRecorder);
+            }
+            singleStreamRuntime.getProcessStreamReceiver().setNext(singleStreamRuntime.getProcessorChain());
+        }
+    }
+
+    private static LatencyRecordingProcessor createLatencyRecordingProcessor(String metricName, String stageName,
+                                                                             ExecutionPlanContext executionPlanContext) {
+        LatencyRecorder latencyRecorder = executionPlanContext.getSiddhiContext().getStatisticsConfiguration()
+                .getFactory().createLatencyRecorder(metricName + METRIC_DELIMITER + stageName,
+                        executionPlanContext.getStatisticsManager());
+        if (latencyRecorder == null) {
+            return null;
+        }
+        return new LatencyRecordingProcessor(latencyRecorder, executionPlanContext.getLatencySamplingInterval() > 1);
+    }
+
+    private static String getStageName(Processor processor) {
+        if (processor instanceof FilterProcessor) {
+            return "filter";
+        } else if (processor instanceof JoinProcessor) {
+            return "join";
+        } else if (processor instanceof WindowProcessor) {
+            return "window";
+        } else if (processor instanceof AbstractStreamProcessor) {
+            return "streamProcessor";
+        } else {
+            return processor.getClass().getSimpleName();
+        }
+    }
 }
@@ -109,7 +109,7 @@ public class SnapshotService {
             for (Map.Entry<String, List<Snapshotable>> entry : snapshotableMap.entrySet()) {
                 snapshotableList = entry.getValue();
                 for (Snapshotable snapshotable : snapshotableList) {
-                    snapshotable.restoreState(snapshots.get(snapshotable.getElementId()));
+                    snapshotable.restoreState(getState(snapshots, snapshotable.getElementId()));
                 }
             }
         } finally {
@@ -117,4 +117,18 @@ public class SnapshotService {
         }
     }
 
+    /**
+     * Snapshots taken before the element ids of queries were scoped hold the state of the elements by their unscoped
+     * ids, which is used when there is no state for the element id.
+     */
+    private Map<String, Object> getState(Map<String, Map<String, Object>> snapshots, String elementId) {
+        if (!snapshots.containsKey(elementId) && executionPlanContext.getElementIdGenerator() != null) {
+            String unscopedId = executionPlanContext.getElementIdGenerator().getUnscopedId(elementId);
+            if (unscopedId != null) {
+                return snapshots.get(unscopedId);
+            }
+        }
+        return snapshots.get(elementId);
+    }
+
 }
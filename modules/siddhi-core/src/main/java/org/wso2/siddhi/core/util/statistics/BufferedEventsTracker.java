@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.statistics;
+
+/**
+ * Report the number of events buffered by the registered holders.
+ */
+public interface BufferedEventsTracker {
+
+    /**
+     * Register a holder whose buffered events are to be reported. Registering again with the same name replaces the
+     * previously registered holder, as holders are recreated when the execution plan restarts.
+     *
+     * @param eventBufferHolder holder of the buffered events
+     * @param name              an unique value to identify the holder
+     */
+    void registerEventBufferHolder(EventBufferHolder eventBufferHolder, String name);
+
+    /**
+     * @param eventBufferHolder holder of the buffered events
+     * @return name of the metric reporting the holder, or null if the holder is not registered
+     */
+    String getName(EventBufferHolder eventBufferHolder);
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.statistics;
+
+/**
+ * Ingest time of the event being processed by the current thread, stamped when the event is sent through an
+ * {@link org.wso2.siddhi.core.stream.input.InputHandler} and carried over asynchronous stream junctions by the
+ * events, so that the queries can measure the latency from ingestion to the output the event triggers. Only a
+ * sample of the events are stamped, and the time of events that are not stamped is {@link #NONE}.
+ */
+public final class IngestTimestamp {
+
+    public static final long NONE = 0;
+
+    private static final ThreadLocal<long[]> CURRENT = new ThreadLocal<long[]>() {
+        @Override
+        protected long[] initialValue() {
+            // The ingest time and the count of events sent by the thread
+            return new long[2];
+        }
+    };
+
+    private IngestTimestamp() {
+    }
+
+    /**
+     * @return ingest time in nanoseconds of the event being processed by the current thread, or {@link #NONE}
+     */
+    public static long get() {
+        return CURRENT.get()[0];
+    }
+
+    /**
+     * Set the ingest time of the event to be processed by the current thread.
+     *
+     * @param ingestTimestamp ingest time in nanoseconds, or {@link #NONE}
+     * @return the ingest time that was set before, to be restored once the event is processed
+     */
+    public static long set(long ingestTimestamp) {
+        long[] current = CURRENT.get();
+        long previous = current[0];
+        current[0] = ingestTimestamp;
+        return previous;
+    }
+
+    /**
+     * Stamp the event ingested by the current thread, if it falls into the sample.
+     *
+     * @param samplingInterval one in every samplingInterval events of the thread are stamped
+     * @return the ingest time that was set before, to be restored once the event is processed
+     */
+    public static long stamp(int samplingInterval) {
+        long[] current = CURRENT.get();
+        long previous = current[0];
+        current[0] = current[1]++ % samplingInterval == 0 ? System.nanoTime() : NONE;
+        return previous;
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.statistics;
+
+/**
+ * Records latencies measured elsewhere, such as the time taken from the ingestion of an event to the output it
+ * triggers, or the time spent by a processor of a query.
+ */
+public interface LatencyRecorder {
+
+    /**
+     * @param latency latency in nanoseconds
+     */
+    void record(long latency);
+
+    /**
+     * @return Name of the latency recorder
+     */
+    String getName();
+
+}
@@ -3,7 +3,9 @@ package org.wso2.siddhi.core.util.statistics;
 /**
  * Calculates the process latency. markIn and markOut is used to denote start
  * and end of processing events respectively. Latency is the time gap between
- * markIn and markOut calls of given thread.
+ * markIn and markOut calls of given thread. The calls may nest when the events
+ * emitted by the processing are processed again by the same thread, hence
+ * each markOut ends the latest markIn of the thread.
  */
 public interface LatencyTracker {
     /**
@@ -16,6 +18,15 @@ public interface LatencyTracker {
      *  */
     void markOut();
 
+    /**
+     * This is to be called when the processed events are emitted, before they are
+     * sent to the callbacks, so that the time taken by the callbacks is not counted.
+     * The latest markIn of the thread is still to be ended by markOut.
+     */
+    default void markOutput() {
+        markOut();
+    }
+
     /**
      * @return Name of the latency tracker
      */
@@ -8,10 +8,31 @@ public interface StatisticsTrackerFactory {
 
     LatencyTracker createLatencyTracker(String name, StatisticsManager statisticsManager);
 
+    /**
+     * Create a recorder of latencies measured by Siddhi itself, such as the ingest to output latency of a query.
+     *
+     * @param name              name of the recorder
+     * @param statisticsManager statistics manager of the execution plan
+     * @return latency recorder, or null if such latencies are not to be recorded
+     */
+    default LatencyRecorder createLatencyRecorder(String name, StatisticsManager statisticsManager) {
+        return null;
+    }
+
     ThroughputTracker createThroughputTracker(String name, StatisticsManager statisticsManager);
 
     MemoryUsageTracker createMemoryUsageTracker(StatisticsManager statisticsManager);
 
+    /**
+     * Create a tracker of the events buffered by async stream junctions and their receivers.
+     *
+     * @param statisticsManager statistics manager of the execution plan
+     * @return buffered events tracker, or null if buffered events are not to be tracked
+     */
+    default BufferedEventsTracker createBufferedEventsTracker(StatisticsManager statisticsManager) {
+        return null;
+    }
+
     StatisticsManager createStatisticsManager(List<Element> elements);
 
 }
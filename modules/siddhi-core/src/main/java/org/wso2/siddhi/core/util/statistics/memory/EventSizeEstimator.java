@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.statistics.memory;
+
+import org.wso2.siddhi.query.api.definition.Attribute;
+
+import java.util.List;
+
+/**
+ * Estimates the memory held by a retained stream event from the attribute types of its schema, so that memory
+ * accountable components can keep their size by counting events. Strings are assumed to be of a typical length and
+ * {@link Boolean} values to be the shared instances, hence the estimate is only approximate.
+ */
+public class EventSizeEstimator {
+
+    private static final int STRING_LENGTH_ESTIMATE = 16;
+    private static final MemoryLayoutSpecification LAYOUT = getMemoryLayoutSpecification();
+
+    private final long eventSize;
+
+    public EventSizeEstimator(List<Attribute> attributes) {
+        // The timestamp and the references to the three data arrays, the type and the next event
+        long size = align(LAYOUT.getObjectHeaderSize() + 8 + 5 * LAYOUT.getReferenceSize());
+        // Data arrays, with each attribute referenced once
+        size += 3 * align(LAYOUT.getArrayHeaderSize()) + align(attributes.size() * LAYOUT.getReferenceSize());
+        for (Attribute attribute : attributes) {
+            size += getValueSize(attribute.getType());
+        }
+        this.eventSize = size;
+    }
+
+    /**
+     * @return approximate size in bytes of an event of the schema
+     */
+    public long getEventSize() {
+        return eventSize;
+    }
+
+    /**
+     * @param eventCount number of events
+     * @return approximate size in bytes of the given number of events of the schema
+     */
+    public long estimate(long eventCount) {
+        return eventCount * eventSize;
+    }
+
+    /**
+     * Estimate the memory held by a hash map entry keyed by the given string, whose value is an object of the given
+     * number of reference or primitive fields, such as the per group state of an aggregation.
+     *
+     * @param key        key of the entry
+     * @param fieldCount number of fields of the value object
+     * @return approximate size in bytes of the entry
+     */
+    public static long estimateKeyedEntry(String key, int fieldCount) {
+        // The map node with its hash and key, value and next references
+        long size = align(LAYOUT.getObjectHeaderSize() + 4 + 3 * LAYOUT.getReferenceSize());
+        size += align(LAYOUT.getObjectHeaderSize() + 4 + LAYOUT.getReferenceSize())
+                + align(LAYOUT.getArrayHeaderSize() + 2 * key.length());
+        size += align(LAYOUT.getObjectHeaderSize() + 8 * fieldCount);
+        return size;
+    }
+
+    /**
+     * Measure the object graph of the given object, to be used for occasional calibration only as it walks the whole
+     * graph.
+     *
+     * @param object object to be measured
+     * @return size in bytes, or 0 if the size cannot be calculated on this VM
+     */
+    public static long measure(Object object) {
+        try {
+            return ObjectSizeCalculator.getObjectSize(object);
+        } catch (UnsupportedOperationException e) {
+            return 0;
+        }
+    }
+
+    private static long getValueSize(Attribute.Type type) {
+        switch (type) {
+            case BOOL:
+                return 0;
+            case INT:
+            case FLOAT:
+                return align(LAYOUT.getObjectHeaderSize() + 4);
+            case LONG:
+            case DOUBLE:
+                return align(LAYOUT.getObjectHeaderSize() + 8);
+            case STRING:
+                // The string with its hash and value array, and the characters
+                return align(LAYOUT.getObjectHeaderSize() + 4 + LAYOUT.getReferenceSize())
+                        + align(LAYOUT.getArrayHeaderSize() + 2 * STRING_LENGTH_ESTIMATE);
+            default:
+                return align(LAYOUT.getObjectHeaderSize() + LAYOUT.getReferenceSize());
+        }
+    }
+
+    private static long align(long size) {
+        long padding = LAYOUT.getObjectPadding();
+        return (size + padding - 1) / padding * padding;
+    }
+
+    private static MemoryLayoutSpecification getMemoryLayoutSpecification() {
+        try {
+            return ObjectSizeCalculator.getEffectiveMemoryLayoutSpecification();
+        } catch (UnsupportedOperationException e) {
+            // Assume a 64 bit VM with compressed references
+            return new MemoryLayoutSpecification() {
+                @Override
+                public int getArrayHeaderSize() {
+                    return 16;
+                }
+
+                @Override
+                public int getObjectHeaderSize() {
+                    return 12;
+                }
+
+                @Override
+                public int getObjectPadding() {
+                    return 8;
+                }
+
+                @Override
+                public int getReferenceSize() {
+                    return 4;
+                }
+
+                @Override
+                public int getSuperclassFieldPadding() {
+                    return 4;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.statistics.memory;
+
+/**
+ * Component that keeps an incremental account of the events it retains, such as a window or an event table, so that
+ * its memory usage can be reported without walking its object graph. The accounts are approximate, and are
+ * calibrated by the memory usage tracker with an occasional {@link ObjectSizeCalculator} walk.
+ */
+public interface MemoryAccountable {
+
+    /**
+     * @return number of events, or other entries such as aggregation groups, currently retained
+     */
+    long getRetainedEventCount();
+
+    /**
+     * @return approximate size in bytes of the events currently retained
+     */
+    long getRetainedMemorySize();
+
+    /**
+     * @return whether the accounts cover all the state the component retains; otherwise its memory usage is measured
+     * by walking its object graph on every report
+     */
+    default boolean isAccountable() {
+        return true;
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.statistics.metrics;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Reservoir;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+import org.HdrHistogram.Recorder;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reservoir of latencies backed by an HdrHistogram {@link Recorder}, which records values without locking or
+ * allocating and keeps the full distribution of the values at a fixed precision, instead of a sample of them.
+ * Latencies up to an hour are recorded in nanoseconds with two significant digits, in histograms that grow only to
+ * the range of the recorded values.
+ * <p>
+ * Snapshots hold the values recorded since the previous snapshot, so that percentiles reflect the latest reporting
+ * interval; snapshots taken by several reporters within {@link #MIN_INTERVAL} share the same interval.
+ */
+public class HdrHistogramReservoir implements Reservoir {
+
+    private static final long HIGHEST_TRACKABLE_VALUE = TimeUnit.HOURS.toNanos(1);
+    private static final int SIGNIFICANT_VALUE_DIGITS = 2;
+    private static final long MIN_INTERVAL = TimeUnit.SECONDS.toMillis(1);
+
+    private final Recorder recorder = new Recorder(SIGNIFICANT_VALUE_DIGITS);
+    private Histogram intervalHistogram;
+    private long intervalEndTime;
+
+    /**
+     * Get the timer of the given name from the registry, registering one backed by this reservoir if there is none.
+     *
+     * @param metricRegistry metric registry
+     * @param name           name of the timer
+     * @return the timer
+     */
+    static Timer getOrRegisterTimer(MetricRegistry metricRegistry, String name) {
+        Timer timer = metricRegistry.getTimers().get(name);
+        if (timer == null) {
+            try {
+                timer = metricRegistry.register(name, new Timer(new HdrHistogramReservoir()));
+            } catch (IllegalArgumentException e) {
+                // Registered concurrently
+                timer = metricRegistry.getTimers().get(name);
+            }
+        }
+        return timer;
+    }
+
+    @Override
+    public synchronized int size() {
+        return intervalHistogram == null ? 0 : (int) Math.min(Integer.MAX_VALUE, intervalHistogram.getTotalCount());
+    }
+
+    @Override
+    public void update(long value) {
+        recorder.recordValue(Math.min(Math.max(value, 0), HIGHEST_TRACKABLE_VALUE));
+    }
+
+    @Override
+    public synchronized Snapshot getSnapshot() {
+        long currentTime = System.currentTimeMillis();
+        if (intervalHistogram == null || currentTime - intervalEndTime >= MIN_INTERVAL) {
+            // a new histogram each interval, as the snapshots of the previous interval may still be in use
+            intervalHistogram = recorder.getIntervalHistogram();
+            intervalEndTime = currentTime;
+        }
+        return new HistogramSnapshot(intervalHistogram);
+    }
+
+    private static class HistogramSnapshot extends Snapshot {
+
+        private final Histogram histogram;
+
+        HistogramSnapshot(Histogram histogram) {
+            this.histogram = histogram;
+        }
+
+        @Override
+        public double getValue(double quantile) {
+            return histogram.getValueAtPercentile(quantile * 100);
+        }
+
+        /**
+         * @return the distinct recorded values at the precision of the histogram, in ascending order
+         */
+        @Override
+        public long[] getValues() {
+            long[] values = new long[16];
+            int index = 0;
+            for (HistogramIterationValue value : histogram.recordedValues()) {
+                if (index == values.length) {
+                    values = Arrays.copyOf(values, index * 2);
+                }
+                values[index++] = value.getValueIteratedTo();
+            }
+            return Arrays.copyOf(values, index);
+        }
+
+        @Override
+        public int size() {
+            return (int) Math.min(Integer.MAX_VALUE, histogram.getTotalCount());
+        }
+
+        @Override
+        public long getMax() {
+            return histogram.getMaxValue();
+        }
+
+        @Override
+        public double getMean() {
+            return histogram.getMean();
+        }
+
+        @Override
+        public long getMin() {
+            return histogram.getMinValue();
+        }
+
+        @Override
+        public double getStdDev() {
+            return histogram.getStdDeviation();
+        }
+
+        @Override
+        public void dump(OutputStream output) {
+            PrintWriter printWriter = new PrintWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            for (HistogramIterationValue value : histogram.recordedValues()) {
+                printWriter.printf("%d %d%n", value.getValueIteratedTo(), value.getCountAtValueIteratedTo());
+            }
+            printWriter.flush();
+        }
+    }
+}
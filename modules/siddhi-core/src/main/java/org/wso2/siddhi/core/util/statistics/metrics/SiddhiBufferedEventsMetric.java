@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.statistics.metrics;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import org.wso2.siddhi.core.util.statistics.BufferedEventsTracker;
+import org.wso2.siddhi.core.util.statistics.EventBufferHolder;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Buffered events tracker reporting the events buffered by each registered holder as a gauge.
+ */
+public class SiddhiBufferedEventsMetric implements BufferedEventsTracker {
+    private final ConcurrentMap<EventBufferHolder, String> registeredHolders =
+            new ConcurrentHashMap<EventBufferHolder, String>();
+    private final MetricRegistry metricRegistry;
+
+    public SiddhiBufferedEventsMetric(MetricRegistry metricRegistry) {
+        this.metricRegistry = metricRegistry;
+    }
+
+    @Override
+    public synchronized void registerEventBufferHolder(final EventBufferHolder eventBufferHolder, String name) {
+        metricRegistry.remove(name);
+        registeredHolders.values().remove(name);
+        metricRegistry.register(name, new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return eventBufferHolder.getBufferedEvents();
+            }
+        });
+        registeredHolders.put(eventBufferHolder, name);
+    }
+
+    @Override
+    public String getName(EventBufferHolder eventBufferHolder) {
+        return registeredHolders.get(eventBufferHolder);
+    }
+}
@@ -4,22 +4,21 @@ import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
 import org.wso2.siddhi.core.util.statistics.LatencyTracker;
 
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
 public class SiddhiLatencyMetric implements LatencyTracker {
-    // Using thread local variables to keep the timer track the time of the same execution path by different threads.
-    private ThreadLocal<Timer> execLatencyTimer;
-    private ThreadLocal<Timer.Context> context;
+    private final Timer execLatencyTimer;
+    // Using thread local variables to keep track of the start times of the same execution path by different threads.
+    private final ThreadLocal<Marks> marks;
     private String metricName;
 
     public SiddhiLatencyMetric(String name, final MetricRegistry metricRegistry){
         this.metricName = name + ".latency";
-        execLatencyTimer = new ThreadLocal<Timer>(){
-            protected Timer initialValue() {
-                return metricRegistry.timer(metricName);
-            }
-        };
-        context = new ThreadLocal<Timer.Context>(){
-            protected Timer.Context initialValue() {
-                return null;
+        execLatencyTimer = HdrHistogramReservoir.getOrRegisterTimer(metricRegistry, metricName);
+        marks = new ThreadLocal<Marks>(){
+            protected Marks initialValue() {
+                return new Marks();
             }
         };
     }
@@ -27,26 +26,37 @@ public class SiddhiLatencyMetric implements LatencyTracker {
     /**
      * This is called when the processing of the event is started. This is
      * called at ProcessStreamReceiver#receive before the event is passed into
-     * process chain
+     * process chain. It can be called again before markOut, when the events
+     * emitted by the processing are processed again by the same thread.
      */
     public void markIn() {
-        if (context.get() != null){
-            throw new IllegalStateException("MarkIn consecutively called without calling markOut in " + metricName);
+        marks.get().push(System.nanoTime());
+    }
+
+    /**
+     * This is called at OutputRateLimiter#sendToCallBacks when the event is processed by the full chain
+     * and emitted out, so that the time taken by the callbacks is not measured.
+     */
+    @Override
+    public void markOutput() {
+        Marks threadMarks = marks.get();
+        if (threadMarks.depth > 0 && !threadMarks.recorded[threadMarks.depth - 1]) {
+            threadMarks.recorded[threadMarks.depth - 1] = true;
+            execLatencyTimer.update(System.nanoTime() - threadMarks.startTimes[threadMarks.depth - 1],
+                    TimeUnit.NANOSECONDS);
         }
-        context.set(execLatencyTimer.get().time());
     }
 
     /**
-     * This is called to when the processing of an event is finished. This is called at
-     * two places,
-     * 1. OutputRateLimiter#sendToCallBacks - When the event is processed and by the full chain and emitted out
-     * 2. ProcessStreamReceiver#receive - When event is not processed by full process chain(e.g. Filtered out by a filter)
+     * This is called to when the processing of an event is finished, at ProcessStreamReceiver#receive.
+     * The latency is recorded here if the event was not emitted out (e.g. Filtered out by a filter)
      */
     @Override
     public void markOut() {
-        if (context.get() != null){
-            context.get().stop();
-            context.set(null);
+        Marks threadMarks = marks.get();
+        if (threadMarks.depth > 0) {
+            markOutput();
+            threadMarks.depth--;
         }
     }
 
@@ -57,4 +67,23 @@ public class SiddhiLatencyMetric implements LatencyTracker {
     public String getName() {
         return metricName;
     }
+
+    /**
+     * Start times of the nested markIn calls of a thread
+     */
+    private static class Marks {
+        private long[] startTimes = new long[4];
+        private boolean[] recorded = new boolean[4];
+        private int depth;
+
+        private void push(long startTime) {
+            if (depth == startTimes.length) {
+                startTimes = Arrays.copyOf(startTimes, depth * 2);
+                recorded = Arrays.copyOf(recorded, depth * 2);
+            }
+            startTimes[depth] = startTime;
+            recorded[depth] = false;
+            depth++;
+        }
+    }
 }
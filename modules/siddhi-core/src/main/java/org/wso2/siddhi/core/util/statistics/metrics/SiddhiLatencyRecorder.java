@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.statistics.metrics;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import org.wso2.siddhi.core.util.statistics.LatencyRecorder;
+
+import java.util.concurrent.TimeUnit;
+
+public class SiddhiLatencyRecorder implements LatencyRecorder {
+    private final Timer latencyTimer;
+    private final String metricName;
+
+    public SiddhiLatencyRecorder(String name, MetricRegistry metricRegistry) {
+        this.metricName = name + ".latency";
+        this.latencyTimer = HdrHistogramReservoir.getOrRegisterTimer(metricRegistry, metricName);
+    }
+
+    @Override
+    public void record(long latency) {
+        latencyTimer.update(latency, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String getName() {
+        return metricName;
+    }
+}
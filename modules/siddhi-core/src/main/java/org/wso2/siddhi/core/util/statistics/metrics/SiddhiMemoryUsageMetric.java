@@ -3,12 +3,21 @@ package org.wso2.siddhi.core.util.statistics.metrics;
 import com.codahale.metrics.Gauge;
 import com.codahale.metrics.MetricRegistry;
 import org.wso2.siddhi.core.util.statistics.MemoryUsageTracker;
-import org.wso2.siddhi.core.util.statistics.memory.ObjectSizeCalculator;
+import org.wso2.siddhi.core.util.statistics.memory.EventSizeEstimator;
+import org.wso2.siddhi.core.util.statistics.memory.MemoryAccountable;
 
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
+/**
+ * Memory usage tracker reporting the memory of registered objects as gauges. Objects that are
+ * {@link MemoryAccountable} are reported from their incremental accounts, corrected by a full object graph walk done
+ * only on the first report and once every calibration interval; other objects, and accountable objects whose accounts
+ * do not cover all their state, are walked on every report.
+ */
 public class SiddhiMemoryUsageMetric implements MemoryUsageTracker {
+    private static final long CALIBRATION_INTERVAL = 5 * 60 * 1000;
+
     private ConcurrentMap<Object, ObjectMetric> registeredObjects = new ConcurrentHashMap<Object, ObjectMetric>();
     private MetricRegistry metricRegistry;
 
@@ -45,6 +54,8 @@ public class SiddhiMemoryUsageMetric implements MemoryUsageTracker {
 
         private final Object object;
         private String name;
+        private long residualMemorySize;
+        private long lastCalibrationTime = Long.MIN_VALUE;
 
         public ObjectMetric(final Object object, String name) {
             this.object = object;
@@ -57,17 +68,50 @@ public class SiddhiMemoryUsageMetric implements MemoryUsageTracker {
         }
 
         private void initMetric() {
-            metricRegistry.register(name,
-                    new Gauge<Long>() {
-                        @Override
-                        public Long getValue() {
-                            try {
-                                return ObjectSizeCalculator.getObjectSize(object);
-                            } catch (UnsupportedOperationException e) {
-                                return 0l;
+            if (object instanceof MemoryAccountable) {
+                final MemoryAccountable memoryAccountable = (MemoryAccountable) object;
+                metricRegistry.register(name,
+                        new Gauge<Long>() {
+                            @Override
+                            public Long getValue() {
+                                return getAccountedMemorySize(memoryAccountable);
+                            }
+                        });
+            } else {
+                metricRegistry.register(name,
+                        new Gauge<Long>() {
+                            @Override
+                            public Long getValue() {
+                                return EventSizeEstimator.measure(object);
                             }
-                        }
-                    });
+                        });
+            }
+        }
+
+        /**
+         * The size of the retained events is accounted incrementally, while the residual size of the rest of the
+         * object graph, such as the processors and the executors, is expected to be mostly constant and is measured
+         * only when calibrating.
+         */
+        private synchronized long getAccountedMemorySize(MemoryAccountable memoryAccountable) {
+            if (!memoryAccountable.isAccountable()) {
+                // calibrate again once the accounts cover all the state
+                lastCalibrationTime = Long.MIN_VALUE;
+                return EventSizeEstimator.measure(object);
+            }
+            long currentTime = System.currentTimeMillis();
+            if (lastCalibrationTime == Long.MIN_VALUE || currentTime - lastCalibrationTime >= CALIBRATION_INTERVAL) {
+                lastCalibrationTime = currentTime;
+                long measuredSize = EventSizeEstimator.measure(object);
+                if (measuredSize == 0) {
+                    // The object graph cannot be walked on this VM, hence report the accounts as they are
+                    residualMemorySize = 0;
+                    return memoryAccountable.getRetainedMemorySize();
+                }
+                residualMemorySize = Math.max(0, measuredSize - memoryAccountable.getRetainedMemorySize());
+                return measuredSize;
+            }
+            return residualMemorySize + memoryAccountable.getRetainedMemorySize();
         }
     }
 }
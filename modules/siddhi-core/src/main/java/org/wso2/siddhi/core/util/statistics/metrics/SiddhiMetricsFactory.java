@@ -13,6 +13,11 @@ public class SiddhiMetricsFactory implements StatisticsTrackerFactory {
         return new SiddhiLatencyMetric(name, statisticsManager.getRegistry());
     }
 
+    @Override
+    public LatencyRecorder createLatencyRecorder(String name, StatisticsManager statisticsManager) {
+        return new SiddhiLatencyRecorder(name, statisticsManager.getRegistry());
+    }
+
     public ThroughputTracker createThroughputTracker(String name, StatisticsManager statisticsManager) {
         return new SiddhiThroughputMetric(name, statisticsManager.getRegistry());
     }
@@ -21,6 +26,11 @@ public class SiddhiMetricsFactory implements StatisticsTrackerFactory {
         return new SiddhiMemoryUsageMetric(statisticsManager.getRegistry());
     }
 
+    @Override
+    public BufferedEventsTracker createBufferedEventsTracker(StatisticsManager statisticsManager) {
+        return new SiddhiBufferedEventsMetric(statisticsManager.getRegistry());
+    }
+
     @Override
     public StatisticsManager createStatisticsManager(List<Element> elements) {
         return new SiddhiStatisticsManager(elements);
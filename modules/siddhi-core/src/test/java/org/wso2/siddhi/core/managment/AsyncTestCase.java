@@ -25,9 +25,11 @@ import org.junit.Test;
 import org.wso2.siddhi.core.ExecutionPlanRuntime;
 import org.wso2.siddhi.core.SiddhiManager;
 import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.exception.ExecutionPlanRuntimeException;
 import org.wso2.siddhi.core.stream.input.InputHandler;
 import org.wso2.siddhi.core.stream.output.StreamCallback;
 import org.wso2.siddhi.core.util.EventPrinter;
+import org.wso2.siddhi.query.api.exception.ExecutionPlanValidationException;
 
 public class AsyncTestCase {
     static final Logger log = Logger.getLogger(AsyncTestCase.class);
@@ -317,4 +319,108 @@ public class AsyncTestCase {
 
     }
 
+    @Test
+    public void asyncTest5() throws InterruptedException {
+        log.info("async test 5 - drop newest events on overflow");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String executionPlan = "" +
+                "@Async(BufferSize='2', Overflow='drop.newest') " +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream " +
+                "select * " +
+                "insert into outputStream ;";
+
+        ExecutionPlanRuntime executionPlanRuntime = siddhiManager.createExecutionPlanRuntime(executionPlan);
+
+        executionPlanRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                count += events.length;
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("cseEventStream");
+        executionPlanRuntime.start();
+        for (int i = 0; i < 20; i++) {
+            inputHandler.send(new Object[]{"WSO2", 55.6f, i});
+        }
+
+        Thread.sleep(1000);
+        executionPlanRuntime.shutdown();
+        Assert.assertTrue(count > 0);
+        Assert.assertTrue(count < 20);
+
+    }
+
+    @Test(expected = ExecutionPlanRuntimeException.class)
+    public void asyncTest6() throws InterruptedException {
+        log.info("async test 6 - fail publishers on overflow");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String executionPlan = "" +
+                "@Async(BufferSize='2', Overflow='fail') " +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream " +
+                "select * " +
+                "insert into outputStream ;";
+
+        ExecutionPlanRuntime executionPlanRuntime = siddhiManager.createExecutionPlanRuntime(executionPlan);
+
+        executionPlanRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(Event[] events) {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("cseEventStream");
+        executionPlanRuntime.start();
+        try {
+            for (int i = 0; i < 20; i++) {
+                inputHandler.send(new Object[]{"WSO2", 55.6f, i});
+            }
+        } finally {
+            executionPlanRuntime.shutdown();
+        }
+
+    }
+
+    @Test(expected = ExecutionPlanValidationException.class)
+    public void asyncTest7() throws InterruptedException {
+        log.info("async test 7 - unsupported overflow policy");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String executionPlan = "" +
+                "@Async(BufferSize='2', Overflow='spill') " +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream " +
+                "select * " +
+                "insert into outputStream ;";
+
+        siddhiManager.createExecutionPlanRuntime(executionPlan);
+    }
 }
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.managment;
+
+import org.apache.log4j.Logger;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.wso2.siddhi.core.ExecutionPlanRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.output.StreamCallback;
+import org.wso2.siddhi.core.util.EventPrinter;
+import org.wso2.siddhi.core.util.persistence.InMemoryPersistenceStore;
+import org.wso2.siddhi.query.api.exception.ExecutionPlanValidationException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class BuildTestCase {
+    static final Logger log = Logger.getLogger(BuildTestCase.class);
+
+    private static final String QUERIES = "" +
+            "define stream StockStream (symbol string, price float, volume int);" +
+            "" +
+            "@info(name = 'query1') " +
+            "from StockStream[price > 10]#window.length(2) " +
+            "select symbol, sum(volume) as total " +
+            "insert into TotalStream;" +
+            "" +
+            "@info(name = 'query2') " +
+            "from StockStream[price > 50]#window.length(3) " +
+            "select symbol, sum(volume) as total " +
+            "insert into TotalStream;" +
+            "" +
+            "@info(name = 'query3') " +
+            "from StockStream#window.lengthBatch(2) " +
+            "select symbol, max(price) as maxPrice " +
+            "insert into MaxStream;" +
+            "" +
+            "@info(name = 'query4') " +
+            "from TotalStream[total > 100] " +
+            "select symbol, total " +
+            "insert into OutStream;";
+
+    private List<String> outputs;
+
+    @Before
+    public void init() {
+        outputs = new ArrayList<String>();
+    }
+
+    private List<String> runExecutionPlan(SiddhiManager siddhiManager, String executionPlan)
+            throws InterruptedException {
+        outputs = new ArrayList<String>();
+        ExecutionPlanRuntime executionPlanRuntime = siddhiManager.createExecutionPlanRuntime(executionPlan);
+        StreamCallback streamCallback = new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    outputs.add(Arrays.toString(event.getData()));
+                }
+            }
+        };
+        executionPlanRuntime.addCallback("OutStream", streamCallback);
+        executionPlanRuntime.addCallback("MaxStream", streamCallback);
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("StockStream");
+        executionPlanRuntime.start();
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        inputHandler.send(new Object[]{"WSO2", 55.6f, 30});
+        inputHandler.send(new Object[]{"ORACLE", 45.6f, 200});
+        inputHandler.send(new Object[]{"WSO2", 57.6f, 60});
+        inputHandler.send(new Object[]{"IBM", 5.6f, 10});
+        Thread.sleep(100);
+        executionPlanRuntime.shutdown();
+        return outputs;
+    }
+
+    @Test
+    public void buildTest1() throws InterruptedException {
+        log.info("build test 1 - independent queries constructed in parallel");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        List<String> serial = runExecutionPlan(siddhiManager, QUERIES);
+        List<String> parallel = runExecutionPlan(siddhiManager, "@plan:build(parallelism = '4') " + QUERIES);
+        siddhiManager.setBuildParallelism(2);
+        List<String> managerParallel = runExecutionPlan(siddhiManager, QUERIES);
+        siddhiManager.shutdown();
+
+        Assert.assertFalse(serial.isEmpty());
+        Assert.assertEquals(serial, parallel);
+        Assert.assertEquals(serial, managerParallel);
+    }
+
+    @Test
+    public void buildTest2() throws InterruptedException {
+        log.info("build test 2 - restoring the state of queries constructed in parallel");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(new InMemoryPersistenceStore());
+        String executionPlan = "@plan:name('Test') @plan:build(parallelism = '4') " + QUERIES;
+
+        ExecutionPlanRuntime executionPlanRuntime = siddhiManager.createExecutionPlanRuntime(executionPlan);
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("StockStream");
+        executionPlanRuntime.start();
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        Thread.sleep(100);
+        executionPlanRuntime.persist();
+        Thread.sleep(100);
+        executionPlanRuntime.shutdown();
+
+        // The compiled plan is taken from the cache, and the queries get the same element ids
+        executionPlanRuntime = siddhiManager.createExecutionPlanRuntime(executionPlan);
+        executionPlanRuntime.addCallback("OutStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    outputs.add(Arrays.toString(event.getData()));
+                }
+            }
+        });
+        inputHandler = executionPlanRuntime.getInputHandler("StockStream");
+        executionPlanRuntime.start();
+        executionPlanRuntime.restoreLastRevision();
+        inputHandler.send(new Object[]{"WSO2", 55.6f, 30});
+        Thread.sleep(100);
+        executionPlanRuntime.shutdown();
+        siddhiManager.shutdown();
+
+        Assert.assertEquals(Arrays.asList("[WSO2, 130]", "[WSO2, 130]"), outputs);
+    }
+
+    @Test(expected = ExecutionPlanValidationException.class)
+    public void buildTest3() throws InterruptedException {
+        log.info("build test 3 - invalid build parallelism");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.createExecutionPlanRuntime("@plan:build(parallelism = 'all') " + QUERIES);
+    }
+
+    @Test
+    public void buildTest4() throws InterruptedException {
+        log.info("build test 4 - restoring the state of queries constructed in parallel into serially constructed ones");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(new InMemoryPersistenceStore());
+
+        ExecutionPlanRuntime executionPlanRuntime = siddhiManager.createExecutionPlanRuntime(
+                "@plan:name('Test') @plan:build(parallelism = '4') " + QUERIES);
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("StockStream");
+        executionPlanRuntime.start();
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        Thread.sleep(100);
+        executionPlanRuntime.persist();
+        Thread.sleep(100);
+        executionPlanRuntime.shutdown();
+
+        // The element ids of the queries do not depend on the build parallelism
+        executionPlanRuntime = siddhiManager.createExecutionPlanRuntime("@plan:name('Test') " + QUERIES);
+        executionPlanRuntime.addCallback("OutStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    outputs.add(Arrays.toString(event.getData()));
+                }
+            }
+        });
+        inputHandler = executionPlanRuntime.getInputHandler("StockStream");
+        executionPlanRuntime.start();
+        executionPlanRuntime.restoreLastRevision();
+        inputHandler.send(new Object[]{"WSO2", 55.6f, 30});
+        Thread.sleep(100);
+        executionPlanRuntime.shutdown();
+        siddhiManager.shutdown();
+
+        Assert.assertEquals(Arrays.asList("[WSO2, 130]", "[WSO2, 130]"), outputs);
+    }
+}
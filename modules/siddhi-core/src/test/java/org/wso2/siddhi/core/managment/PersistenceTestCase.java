@@ -31,6 +31,10 @@ import org.wso2.siddhi.core.stream.input.InputHandler;
 import org.wso2.siddhi.core.util.EventPrinter;
 import org.wso2.siddhi.core.util.persistence.InMemoryPersistenceStore;
 import org.wso2.siddhi.core.util.persistence.PersistenceStore;
+import org.wso2.siddhi.core.util.snapshot.ByteSerializer;
+
+import java.util.HashMap;
+import java.util.Map;
 
 public class PersistenceTestCase {
     static final Logger log = Logger.getLogger(PersistenceTestCase.class);
@@ -587,4 +591,67 @@ public class PersistenceTestCase {
 
     }
 
+    @Test
+    public void persistenceTest8() throws InterruptedException {
+        log.info("persistence test 8 - restoring a snapshot taken with unscoped element ids");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String executionPlan = "" +
+                "@plan:name('Test') " +
+                "" +
+                "define stream StockStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1')" +
+                "from StockStream[price>10]#window.length(10) " +
+                "select symbol, price, sum(volume) as totalVol " +
+                "insert into OutStream ";
+
+        QueryCallback queryCallback = new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                eventArrived = true;
+                for (Event inEvent : inEvents) {
+                    count++;
+                    lastValue = (Long) inEvent.getData(2);
+                }
+            }
+        };
+
+        ExecutionPlanRuntime executionPlanRuntime = siddhiManager.createExecutionPlanRuntime(executionPlan);
+        executionPlanRuntime.addCallback("query1", queryCallback);
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("StockStream");
+        executionPlanRuntime.start();
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        inputHandler.send(new Object[]{"WSO2", 75.6f, 100});
+        Thread.sleep(100);
+        byte[] snapshot = executionPlanRuntime.snapshot();
+        executionPlanRuntime.shutdown();
+
+        // Element ids were numbered across the plan before they were scoped to the queries, the elements of the
+        // first query being numbered from 1 as well
+        HashMap<String, Map<String, Object>> snapshots =
+                (HashMap<String, Map<String, Object>>) ByteSerializer.BToO(snapshot);
+        HashMap<String, Map<String, Object>> unscopedSnapshots = new HashMap<String, Map<String, Object>>();
+        for (Map.Entry<String, Map<String, Object>> entry : snapshots.entrySet()) {
+            Assert.assertTrue(entry.getKey().contains("-Test-query0-"));
+            unscopedSnapshots.put(entry.getKey().replace("-Test-query0-", "-Test-"), entry.getValue());
+        }
+
+        executionPlanRuntime = siddhiManager.createExecutionPlanRuntime(executionPlan);
+        executionPlanRuntime.addCallback("query1", queryCallback);
+        inputHandler = executionPlanRuntime.getInputHandler("StockStream");
+        executionPlanRuntime.start();
+        executionPlanRuntime.restore(ByteSerializer.OToB(unscopedSnapshots));
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        Thread.sleep(100);
+        executionPlanRuntime.shutdown();
+        siddhiManager.shutdown();
+
+        Assert.assertTrue(eventArrived);
+        Assert.assertEquals(3, count);
+        Assert.assertEquals(300L, lastValue);
+    }
+
 }
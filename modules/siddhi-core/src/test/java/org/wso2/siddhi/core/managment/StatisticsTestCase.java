@@ -29,6 +29,7 @@ import org.wso2.siddhi.core.stream.input.InputHandler;
 import org.wso2.siddhi.core.stream.output.StreamCallback;
 import org.wso2.siddhi.core.util.EventPrinter;
 import org.wso2.siddhi.core.util.SiddhiConstants;
+import org.wso2.siddhi.query.api.exception.ExecutionPlanValidationException;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
@@ -111,4 +112,220 @@ public class StatisticsTestCase {
 
         log.info(output);
     }
+
+    @Test
+    public void statisticsTest2() throws InterruptedException {
+        log.info("statistics test 2 - memory of windows and tables");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String executionPlan = "" +
+                "@plan:statistics(reporter = 'console', interval = '2' )" +
+                " " +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "define table StockTable (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream#window.length(2) " +
+                "select symbol, sum(price) as totalPrice " +
+                "group by symbol " +
+                "insert into outputStream ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from cseEventStream " +
+                "insert into StockTable ;";
+
+        ExecutionPlanRuntime executionPlanRuntime = siddhiManager.createExecutionPlanRuntime(executionPlan);
+        executionPlanRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                eventArrived = true;
+            }
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("cseEventStream");
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PrintStream ps = new PrintStream(baos);
+        PrintStream old = System.out;
+        System.setOut(ps);
+
+        executionPlanRuntime.start();
+        inputHandler.send(new Object[]{"WSO2", 55.6f, 100});
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        inputHandler.send(new Object[]{"WSO2", 57.6f, 100});
+
+        Thread.sleep(2010);
+        executionPlanRuntime.shutdown();
+        Assert.assertTrue(eventArrived);
+
+        System.out.flush();
+        System.setOut(old);
+        String output = baos.toString();
+
+        Assert.assertTrue(output.contains("query1.memory"));
+        Assert.assertTrue(output.contains(SiddhiConstants.METRIC_INFIX_SIDDHI + SiddhiConstants.METRIC_DELIMITER +
+                SiddhiConstants.METRIC_INFIX_TABLES + SiddhiConstants.METRIC_DELIMITER + "StockTable.memory"));
+
+        log.info(output);
+    }
+
+    @Test
+    public void statisticsTest3() throws InterruptedException {
+        log.info("statistics test 3 - ingest and per processor latency");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String executionPlan = "" +
+                "@plan:statistics(reporter = 'console', interval = '2', latency.sampling = '1', " +
+                "latency.breakdown = 'true' )" +
+                " " +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[price > 10]#window.length(2) " +
+                "select symbol, sum(price) as totalPrice " +
+                "insert into outputStream ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from outputStream " +
+                "select symbol, totalPrice " +
+                "insert into outputStream2 ;";
+
+        ExecutionPlanRuntime executionPlanRuntime = siddhiManager.createExecutionPlanRuntime(executionPlan);
+        executionPlanRuntime.addCallback("outputStream2", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                count += events.length;
+            }
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("cseEventStream");
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PrintStream ps = new PrintStream(baos);
+        PrintStream old = System.out;
+        System.setOut(ps);
+
+        executionPlanRuntime.start();
+        inputHandler.send(new Object[]{"WSO2", 55.6f, 100});
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        inputHandler.send(new Object[]{"WSO2", 57.6f, 100});
+
+        Thread.sleep(2010);
+        executionPlanRuntime.shutdown();
+        Assert.assertEquals(3, count);
+
+        System.out.flush();
+        System.setOut(old);
+        String output = baos.toString();
+
+        Assert.assertTrue(output.contains("query1.latency"));
+        Assert.assertTrue(output.contains("query1.ingest.latency"));
+        Assert.assertTrue(output.contains("query2.ingest.latency"));
+        Assert.assertTrue(output.contains("query1.filter.latency"));
+        Assert.assertTrue(output.contains("query1.window.latency"));
+        Assert.assertTrue(output.contains("query1.selector.latency"));
+
+        log.info(output);
+    }
+
+    @Test
+    public void statisticsTest4() throws InterruptedException {
+        log.info("statistics test 4 - buffered events of async streams");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String executionPlan = "" +
+                "@plan:statistics(reporter = 'console', interval = '2' )" +
+                " " +
+                "@Async(BufferSize='16', Overflow='drop.oldest') " +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[price > 10] " +
+                "select symbol, price " +
+                "insert into outputStream ;";
+
+        ExecutionPlanRuntime executionPlanRuntime = siddhiManager.createExecutionPlanRuntime(executionPlan);
+        executionPlanRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                eventArrived = true;
+            }
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("cseEventStream");
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PrintStream ps = new PrintStream(baos);
+        PrintStream old = System.out;
+        System.setOut(ps);
+
+        executionPlanRuntime.start();
+        inputHandler.send(new Object[]{"WSO2", 55.6f, 100});
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+
+        Thread.sleep(2010);
+        executionPlanRuntime.shutdown();
+        Assert.assertTrue(eventArrived);
+
+        System.out.flush();
+        System.setOut(old);
+        String output = baos.toString();
+
+        Assert.assertTrue(output.contains("cseEventStream.buffered"));
+        Assert.assertTrue(output.contains("cseEventStream." + SiddhiConstants.METRIC_INFIX_RECEIVERS +
+                ".query1.lag"));
+        Assert.assertTrue(output.contains("cseEventStream.producer.wait.latency"));
+        Assert.assertTrue(output.contains("cseEventStream.dropped.throughput"));
+
+        log.info(output);
+    }
+
+    @Test
+    public void statisticsTest5() throws InterruptedException {
+        log.info("statistics test 5 - execution plan build time");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String executionPlan = "" +
+                "@plan:statistics(reporter = 'console', interval = '2' )" +
+                " " +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[price > 10] " +
+                "select symbol, price " +
+                "insert into outputStream ;";
+
+        ExecutionPlanRuntime executionPlanRuntime = siddhiManager.createExecutionPlanRuntime(executionPlan);
+        Assert.assertTrue(executionPlanRuntime.getCompileTime() >= 0);
+        Assert.assertTrue(executionPlanRuntime.getConstructionTime() >= 0);
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PrintStream ps = new PrintStream(baos);
+        PrintStream old = System.out;
+        System.setOut(ps);
+
+        executionPlanRuntime.start();
+        Thread.sleep(2010);
+        executionPlanRuntime.shutdown();
+
+        System.out.flush();
+        System.setOut(old);
+        String output = baos.toString();
+
+        Assert.assertTrue(output.contains(SiddhiConstants.METRIC_INFIX_SIDDHI + "." +
+                SiddhiConstants.METRIC_INFIX_BUILD + ".compile"));
+        Assert.assertTrue(output.contains(SiddhiConstants.METRIC_INFIX_SIDDHI + "." +
+                SiddhiConstants.METRIC_INFIX_BUILD + ".construction"));
+
+        log.info(output);
+    }
+
+    @Test(expected = ExecutionPlanValidationException.class)
+    public void statisticsTest6() throws InterruptedException {
+        log.info("statistics test 6 - invalid latency sampling");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.createExecutionPlanRuntime("" +
+                "@plan:statistics(reporter = 'console', latency.sampling = 'often') " +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "@info(name = 'query1') " +
+                "from cseEventStream " +
+                "select symbol " +
+                "insert into outputStream ;");
+    }
 }
@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.query;
+
+import junit.framework.Assert;
+import org.apache.log4j.Logger;
+import org.junit.Test;
+import org.wso2.siddhi.core.ExecutionPlanRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.config.ExecutionPlanContext;
+import org.wso2.siddhi.core.config.SiddhiContext;
+import org.wso2.siddhi.core.event.ComplexEventChunk;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.executor.ConstantExpressionExecutor;
+import org.wso2.siddhi.core.query.QueryRuntime;
+import org.wso2.siddhi.core.query.input.ProcessStreamReceiver;
+import org.wso2.siddhi.core.query.input.stream.single.SingleStreamRuntime;
+import org.wso2.siddhi.core.query.processor.Processor;
+import org.wso2.siddhi.core.query.processor.filter.FilterProcessor;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.output.StreamCallback;
+import org.wso2.siddhi.core.table.EventTable;
+import org.wso2.siddhi.core.util.ElementIdGenerator;
+import org.wso2.siddhi.core.util.EventPrinter;
+import org.wso2.siddhi.core.util.lock.LockSynchronizer;
+import org.wso2.siddhi.core.util.parser.QueryParser;
+import org.wso2.siddhi.core.util.snapshot.SnapshotService;
+import org.wso2.siddhi.core.window.EventWindow;
+import org.wso2.siddhi.query.api.definition.AbstractDefinition;
+import org.wso2.siddhi.query.api.definition.Attribute;
+import org.wso2.siddhi.query.compiler.SiddhiCompiler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ColumnarFilterTestCase {
+    static final Logger log = Logger.getLogger(ColumnarFilterTestCase.class);
+
+    private static final String STREAM_DEFINITION = "" +
+            "define stream cseEventStream (symbol string, price float, volume long, quantity int, " +
+            "discount double, active bool);";
+    private static final Object[][] EVENTS = new Object[][]{
+            {"IBM", 700f, 100L, 5, 0.5, true},
+            {"WSO2", 60.5f, 200L, 0, 2.0, false},
+            {"WSO2", 75.6f, null, 3, null, true},
+            {null, 55.6f, 80L, 8, 1.5, null},
+            {"ORACLE", null, 150L, null, 0.0, true},
+            {"WSO2", 57.6f, 300L, 2, 0.25, true},
+            {"IBM", 56f, 56L, 56, 56.0, false}
+    };
+
+    private List<String> runQuery(SiddhiManager siddhiManager, String planAnnotation, String query)
+            throws InterruptedException {
+        final List<String> outputs = new ArrayList<String>();
+        ExecutionPlanRuntime executionPlanRuntime = siddhiManager.createExecutionPlanRuntime(planAnnotation +
+                STREAM_DEFINITION + query);
+        executionPlanRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    outputs.add(Arrays.toString(event.getData()));
+                }
+            }
+        });
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("cseEventStream");
+        executionPlanRuntime.start();
+        Event[] batch = new Event[EVENTS.length];
+        for (int i = 0; i < EVENTS.length; i++) {
+            batch[i] = new Event(System.currentTimeMillis(), EVENTS[i].clone());
+        }
+        inputHandler.send(batch);
+        inputHandler.send(batch[0]);
+        inputHandler.send(Arrays.copyOfRange(batch, 2, 5));
+        Thread.sleep(100);
+        executionPlanRuntime.shutdown();
+        return outputs;
+    }
+
+    /**
+     * Send the events to the receiver of the query, after replacing the filter of the query by one passing all the
+     * events and counting the batches it processes, so that only the receiver can drop the failing events.
+     *
+     * @return data of the events reaching the processor after the filter, followed by the number of batches
+     * processed by the filter
+     */
+    private List<String> receive(boolean columnar, String query, Object[][] data) {
+        Map<String, AbstractDefinition> streamDefinitionMap = new HashMap<String, AbstractDefinition>();
+        streamDefinitionMap.put("cseEventStream", SiddhiCompiler.parseStreamDefinition(STREAM_DEFINITION));
+        ExecutionPlanContext context = new ExecutionPlanContext();
+        context.setSiddhiContext(new SiddhiContext());
+        context.setElementIdGenerator(new ElementIdGenerator(context.getName()));
+        context.setSnapshotService(new SnapshotService(context));
+        context.setColumnarProcessingEnabled(columnar);
+        QueryRuntime queryRuntime = QueryParser.parse(SiddhiCompiler.parseQuery(query), context, streamDefinitionMap,
+                new HashMap<String, AbstractDefinition>(), new HashMap<String, AbstractDefinition>(),
+                new HashMap<String, EventTable>(), new HashMap<String, EventWindow>(), new LockSynchronizer());
+        ProcessStreamReceiver processStreamReceiver =
+                ((SingleStreamRuntime) queryRuntime.getStreamRuntime()).getProcessStreamReceiver();
+
+        final List<String> outputs = new ArrayList<String>();
+        final int[] filteredBatches = new int[1];
+        FilterProcessor filterProcessor = new FilterProcessor(new ConstantExpressionExecutor(true,
+                Attribute.Type.BOOL)) {
+            @Override
+            public void process(ComplexEventChunk complexEventChunk) {
+                filteredBatches[0]++;
+                super.process(complexEventChunk);
+            }
+        };
+        filterProcessor.setNextProcessor(new Processor() {
+            @Override
+            public void process(ComplexEventChunk complexEventChunk) {
+                complexEventChunk.reset();
+                while (complexEventChunk.hasNext()) {
+                    outputs.add(Arrays.toString(((StreamEvent) complexEventChunk.next()).getOutputData()));
+                }
+            }
+
+            @Override
+            public Processor getNextProcessor() {
+                return null;
+            }
+
+            @Override
+            public void setNextProcessor(Processor processor) {
+            }
+
+            @Override
+            public void setToLast(Processor processor) {
+            }
+
+            @Override
+            public Processor cloneProcessor(String key) {
+                return this;
+            }
+        });
+        processStreamReceiver.setNext(filterProcessor);
+
+        Event[] batch = new Event[data.length];
+        for (int i = 0; i < data.length; i++) {
+            batch[i] = new Event(System.currentTimeMillis(), data[i].clone());
+        }
+        processStreamReceiver.receive(batch);
+        outputs.add("filtered batches " + filteredBatches[0]);
+        return outputs;
+    }
+
+    private void assertColumnarOutput(String query) throws InterruptedException {
+        SiddhiManager siddhiManager = new SiddhiManager();
+        List<String> rowByRow = runQuery(siddhiManager, "", query);
+        List<String> columnar = runQuery(siddhiManager, "@plan:columnar ", query);
+        Assert.assertFalse(rowByRow.isEmpty());
+        Assert.assertEquals(rowByRow, columnar);
+        siddhiManager.shutdown();
+    }
+
+    @Test
+    public void columnarFilterTest1() throws InterruptedException {
+        log.info("Columnar filter test1");
+        assertColumnarOutput("" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[price > 56 and quantity >= 2 or not active] " +
+                "select symbol, price, volume " +
+                "insert into outputStream;");
+    }
+
+    @Test
+    public void columnarFilterTest2() throws InterruptedException {
+        log.info("Columnar filter test2 - null operands");
+        assertColumnarOutput("" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[symbol != 'IBM' and (volume != price or discount == 0.0 or price is null)] " +
+                "select symbol, quantity " +
+                "insert into outputStream;");
+    }
+
+    @Test
+    public void columnarFilterTest3() throws InterruptedException {
+        log.info("Columnar filter test3 - mixed types and constants on the left");
+        assertColumnarOutput("" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[56 <= price and volume == quantity or 100 > volume and discount < price] " +
+                "select symbol, price, volume, quantity " +
+                "insert into outputStream;");
+    }
+
+    @Test
+    public void columnarFilterTest4() throws InterruptedException {
+        log.info("Columnar filter test4 - filters followed by math, functions and a window");
+        assertColumnarOutput("" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[active == true][volume * 2 > 150][symbol == 'WSO2' or symbol is null]" +
+                "#window.length(2) " +
+                "select symbol, sum(volume) as totalVolume " +
+                "insert into outputStream;");
+    }
+
+    @Test
+    public void columnarFilterTest5() throws InterruptedException {
+        log.info("Columnar filter test5 - no events passing the filter");
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[quantity > 100] " +
+                "select symbol " +
+                "insert into outputStream;";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        Assert.assertTrue(runQuery(siddhiManager, "", query).isEmpty());
+        Assert.assertTrue(runQuery(siddhiManager, "@plan:columnar ", query).isEmpty());
+        siddhiManager.shutdown();
+    }
+
+    @Test
+    public void columnarFilterTest6() throws InterruptedException {
+        log.info("Columnar filter test6 - events filtered by columns before reaching the processors");
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[quantity >= 2 and active] " +
+                "select symbol " +
+                "insert into outputStream;";
+        Assert.assertEquals(Arrays.asList("[IBM]", "[WSO2]", "[WSO2]", "[null]", "[ORACLE]", "[WSO2]", "[IBM]",
+                "filtered batches 1"), receive(false, query, EVENTS));
+        Assert.assertEquals(Arrays.asList("[IBM]", "[WSO2]", "[WSO2]", "filtered batches 0"),
+                receive(true, query, EVENTS));
+
+        // events whose data does not match the stream definition are left to the filters
+        Object[][] events = new Object[][]{
+                {"IBM", 700f, 100L, 5L, 0.5, true},
+                {"WSO2", 60.5f, 200L, 0, 2.0, false}
+        };
+        Assert.assertEquals(Arrays.asList("[IBM]", "[WSO2]", "filtered batches 1"), receive(true, query, events));
+    }
+}
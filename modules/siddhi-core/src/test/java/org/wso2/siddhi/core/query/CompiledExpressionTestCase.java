@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.query;
+
+import junit.framework.Assert;
+import org.apache.log4j.Logger;
+import org.junit.Before;
+import org.junit.Test;
+import org.wso2.siddhi.core.ExecutionPlanRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.executor.compiled.ExpressionCompiler;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.output.StreamCallback;
+import org.wso2.siddhi.core.util.EventPrinter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class CompiledExpressionTestCase {
+    static final Logger log = Logger.getLogger(CompiledExpressionTestCase.class);
+
+    private static final String STREAM_DEFINITION = "" +
+            "define stream cseEventStream (symbol string, price float, volume long, quantity int, " +
+            "discount double, active bool);";
+    private static final Object[][] EVENTS = new Object[][]{
+            {"IBM", 700f, 100L, 5, 0.5, true},
+            {"WSO2", 60.5f, 200L, 0, 2.0, false},
+            {"WSO2", 75.6f, null, 3, null, true},
+            {null, 55.6f, 80L, 8, 1.5, null},
+            {"ORACLE", null, 150L, null, 0.0, true},
+            {"WSO2", 57.6f, 300L, 2, 0.25, true}
+    };
+
+    private List<String> outputs;
+
+    @Before
+    public void init() {
+        outputs = new ArrayList<String>();
+    }
+
+    private List<String> runQuery(SiddhiManager siddhiManager, String planAnnotation, String query)
+            throws InterruptedException {
+        outputs = new ArrayList<String>();
+        ExecutionPlanRuntime executionPlanRuntime = siddhiManager.createExecutionPlanRuntime(planAnnotation +
+                STREAM_DEFINITION + query);
+        executionPlanRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    outputs.add(Arrays.toString(event.getData()));
+                }
+            }
+        });
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("cseEventStream");
+        executionPlanRuntime.start();
+        for (Object[] event : EVENTS) {
+            inputHandler.send(event.clone());
+        }
+        Thread.sleep(100);
+        executionPlanRuntime.shutdown();
+        return outputs;
+    }
+
+    private void assertCompiledOutput(String query) throws InterruptedException {
+        SiddhiManager siddhiManager = new SiddhiManager();
+        long compiledCount = ExpressionCompiler.getCompiledExpressionCount();
+        List<String> interpreted = runQuery(siddhiManager, "", query);
+        Assert.assertEquals("Expressions compiled without @plan:compile", compiledCount,
+                ExpressionCompiler.getCompiledExpressionCount());
+        List<String> compiled = runQuery(siddhiManager, "@plan:compile ", query);
+        Assert.assertTrue("No expression compiled with @plan:compile",
+                ExpressionCompiler.getCompiledExpressionCount() > compiledCount);
+        Assert.assertFalse(interpreted.isEmpty());
+        Assert.assertEquals(interpreted, compiled);
+        siddhiManager.shutdown();
+    }
+
+    @Test
+    public void compiledFilterTest1() throws InterruptedException {
+        log.info("Compiled filter test1");
+        assertCompiledOutput("" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[price > 56 and volume * quantity >= 200 or not active] " +
+                "select symbol, price, volume " +
+                "insert into outputStream;");
+    }
+
+    @Test
+    public void compiledFilterTest2() throws InterruptedException {
+        log.info("Compiled filter test2 - null operands and division by zero");
+        assertCompiledOutput("" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[symbol != 'IBM' and (volume / quantity > 50 or discount == 0.0)] " +
+                "select symbol, quantity " +
+                "insert into outputStream;");
+    }
+
+    @Test
+    public void compiledProjectionTest1() throws InterruptedException {
+        log.info("Compiled projection test1");
+        assertCompiledOutput("" +
+                "@info(name = 'query1') " +
+                "from cseEventStream " +
+                "select volume, price * volume - discount as total, volume % quantity as remainder, " +
+                "quantity / 2 as half, symbol == 'WSO2' as isWso2, active " +
+                "insert into outputStream;");
+    }
+
+    @Test
+    public void compiledProjectionTest2() throws InterruptedException {
+        log.info("Compiled projection test2 - functions are interpreted");
+        assertCompiledOutput("" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[volume > 90] " +
+                "select convert(price, 'double') + discount as total, symbol " +
+                "insert into outputStream;");
+    }
+
+    @Test
+    public void compiledPartitionTest1() throws InterruptedException {
+        log.info("Compiled partition test1");
+        assertCompiledOutput("" +
+                "partition with (symbol of cseEventStream) " +
+                "begin " +
+                "   @info(name = 'query1') " +
+                "   from cseEventStream[price < 700] " +
+                "   select symbol, price + quantity as total " +
+                "   insert into outputStream;" +
+                "end;");
+    }
+
+    @Test
+    public void compiledSiddhiManagerTest1() throws InterruptedException {
+        log.info("Compiled expressions enabled through SiddhiManager");
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[quantity > 2] " +
+                "select symbol, volume - quantity as remaining " +
+                "insert into outputStream;";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        List<String> interpreted = runQuery(siddhiManager, "", query);
+        siddhiManager.setExpressionCompilationEnabled(true);
+        long compiledCount = ExpressionCompiler.getCompiledExpressionCount();
+        List<String> compiled = runQuery(siddhiManager, "", query);
+        // the filter and the projection
+        Assert.assertEquals(compiledCount + 2, ExpressionCompiler.getCompiledExpressionCount());
+        List<String> disabled = runQuery(siddhiManager, "@plan:compile('false') ", query);
+        Assert.assertEquals(compiledCount + 2, ExpressionCompiler.getCompiledExpressionCount());
+        Assert.assertEquals(Arrays.asList("[IBM, 95]", "[WSO2, null]", "[null, 72]"), interpreted);
+        Assert.assertEquals(interpreted, compiled);
+        Assert.assertEquals(interpreted, disabled);
+        siddhiManager.shutdown();
+    }
+}
@@ -26,6 +26,7 @@ import org.wso2.siddhi.core.SiddhiManager;
 import org.wso2.siddhi.core.event.Event;
 import org.wso2.siddhi.core.query.output.callback.QueryCallback;
 import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.output.StreamCallback;
 import org.wso2.siddhi.core.util.EventPrinter;
 import org.wso2.siddhi.query.api.ExecutionPlan;
 import org.wso2.siddhi.query.api.annotation.Annotation;
@@ -38,6 +39,10 @@ import org.wso2.siddhi.query.api.execution.query.selection.Selector;
 import org.wso2.siddhi.query.api.expression.Expression;
 import org.wso2.siddhi.query.api.expression.condition.Compare;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 public class FilterTestCase {
     static final Logger log = Logger.getLogger(FilterTestCase.class);
     private volatile int count;
@@ -4365,4 +4370,210 @@ public class FilterTestCase {
 
     }
 
+    @Test
+    public void filterTest122() throws InterruptedException {
+        log.info("filter test122 - nested math and compare with null operands and zero divisors");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String cseEventStream = "define stream cseEventStream (symbol string, price float, volume long, quantity int);";
+        String query = "@info(name = 'query1') " +
+                "from cseEventStream[(price * quantity) / (volume - 100) + 1 > 0 or volume % quantity != 2] " +
+                "select symbol, (volume - 100) * (price + quantity) as total, volume / (quantity - 1) as ratio " +
+                "insert into outputStream ;";
+
+        ExecutionPlanRuntime executionPlanRuntime = siddhiManager.createExecutionPlanRuntime(cseEventStream + query);
+        final List<Object[]> outputs = new ArrayList<Object[]>();
+        executionPlanRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                for (Event event : inEvents) {
+                    outputs.add(event.getData());
+                }
+                count = count + inEvents.length;
+                eventArrived = true;
+            }
+
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("cseEventStream");
+
+        executionPlanRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 10f, 200L, 3});
+        inputHandler.send(new Object[]{"WSO2", 10f, 100L, 1});
+        inputHandler.send(new Object[]{"ORACLE", null, 103L, 4});
+        inputHandler.send(new Object[]{"GOOG", 100f, 50L, 4});
+        Thread.sleep(100);
+        Assert.assertEquals(3, count);
+        Assert.assertTrue(eventArrived);
+        Assert.assertEquals(1300f, outputs.get(0)[1]);
+        Assert.assertEquals(100L, outputs.get(0)[2]);
+        Assert.assertEquals(0f, outputs.get(1)[1]);
+        Assert.assertNull(outputs.get(1)[2]);
+        Assert.assertNull(outputs.get(2)[1]);
+        Assert.assertEquals(34L, outputs.get(2)[2]);
+        executionPlanRuntime.shutdown();
+
+    }
+
+    @Test
+    public void filterTest123() throws InterruptedException {
+        log.info("filter test123 - queries sharing filter conditions and condition prefixes");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String cseEventStream = "define stream cseEventStream (symbol string, price float, volume long);";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[symbol == 'WSO2' and price > 50] " +
+                "select symbol, price " +
+                "insert into outputStream1 ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from cseEventStream[cseEventStream.symbol == 'WSO2' and cseEventStream.price > 50] " +
+                "select symbol, volume " +
+                "insert into outputStream2 ;" +
+                "" +
+                "@info(name = 'query3') " +
+                "from cseEventStream[symbol == 'WSO2' and price > 50 and volume < 150] " +
+                "select symbol, volume " +
+                "insert into outputStream3 ;" +
+                "" +
+                "@info(name = 'query4') " +
+                "from cseEventStream[symbol == 'IBM' or price is null] " +
+                "select symbol " +
+                "insert into outputStream4 ;";
+
+        ExecutionPlanRuntime executionPlanRuntime = siddhiManager.createExecutionPlanRuntime(cseEventStream + query);
+        final List<String> outputs = new ArrayList<String>();
+        for (final String queryName : new String[]{"query1", "query2", "query3", "query4"}) {
+            executionPlanRuntime.addCallback(queryName, new QueryCallback() {
+                @Override
+                public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                    EventPrinter.print(timeStamp, inEvents, removeEvents);
+                    for (Event event : inEvents) {
+                        outputs.add(queryName + ":" + event.getData(0));
+                    }
+                    count = count + inEvents.length;
+                }
+            });
+        }
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("cseEventStream");
+
+        executionPlanRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 700f, 100L});
+        inputHandler.send(new Object[]{"WSO2", 60.5f, 200L});
+        inputHandler.send(new Object[]{"WSO2", 40.5f, 100L});
+        inputHandler.send(new Event[]{
+                new Event(System.currentTimeMillis(), new Object[]{"WSO2", 55.5f, 100L}),
+                new Event(System.currentTimeMillis(), new Object[]{"ORACLE", null, 100L})});
+        Thread.sleep(100);
+        Assert.assertEquals(7, count);
+        Assert.assertEquals(Arrays.asList("query4:IBM", "query1:WSO2", "query2:WSO2", "query1:WSO2",
+                "query2:WSO2", "query3:WSO2", "query4:ORACLE"), outputs);
+        executionPlanRuntime.shutdown();
+
+    }
+
+    @Test
+    public void filterTest124() throws InterruptedException {
+        log.info("filter test124 - shared filters alongside unfiltered and function based filters");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String cseEventStream = "define stream cseEventStream (symbol string, price float, volume long);";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[volume > 150] " +
+                "select symbol " +
+                "insert into outputStream ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from cseEventStream " +
+                "select symbol " +
+                "insert into outputStream ;" +
+                "" +
+                "@info(name = 'query3') " +
+                "from cseEventStream[convert(volume, 'double') > 150.0] " +
+                "select symbol " +
+                "insert into outputStream ;" +
+                "" +
+                "@info(name = 'query4') " +
+                "from cseEventStream[volume > 150]#window.length(2) " +
+                "select symbol " +
+                "insert into outputStream ;";
+
+        ExecutionPlanRuntime executionPlanRuntime = siddhiManager.createExecutionPlanRuntime(cseEventStream + query);
+        final List<String> outputs = new ArrayList<String>();
+        executionPlanRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    outputs.add((String) event.getData(0));
+                }
+            }
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("cseEventStream");
+
+        executionPlanRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 700f, 100L});
+        inputHandler.send(new Object[]{"WSO2", 60.5f, 200L});
+        Thread.sleep(100);
+        Assert.assertEquals(Arrays.asList("IBM", "WSO2", "WSO2", "WSO2", "WSO2"), outputs);
+        executionPlanRuntime.shutdown();
+
+    }
+
+    @Test
+    public void filterTest125() throws InterruptedException {
+        log.info("filter test125 - queries dispatched on attribute equals constant conditions");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String cseEventStream = "define stream cseEventStream (symbol string, price float, volume long);";
+        StringBuilder query = new StringBuilder();
+        String[] symbols = new String[]{"IBM", "WSO2", "ORACLE", "GOOG"};
+        for (int i = 0; i < symbols.length; i++) {
+            query.append("@info(name = 'query").append(i).append("') ")
+                    .append("from cseEventStream['").append(symbols[i]).append("' == symbol and price > 50] ")
+                    .append("select symbol, price ")
+                    .append("insert into outputStream ;");
+        }
+        query.append("@info(name = 'query4') " +
+                "from cseEventStream[symbol == 'WSO2' and volume == 100] " +
+                "select symbol, price " +
+                "insert into outputStream ;");
+
+        ExecutionPlanRuntime executionPlanRuntime = siddhiManager.createExecutionPlanRuntime(cseEventStream +
+                query);
+        final List<String> outputs = new ArrayList<String>();
+        executionPlanRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    outputs.add(event.getData(0) + ":" + event.getData(1));
+                }
+            }
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("cseEventStream");
+
+        executionPlanRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 700f, 100L});
+        inputHandler.send(new Object[]{"WSO2", 60.5f, 100L});
+        inputHandler.send(new Object[]{"WSO2", 40.5f, 200L});
+        inputHandler.send(new Object[]{"MSFT", 80.5f, 100L});
+        inputHandler.send(new Object[]{null, 90.5f, 100L});
+        inputHandler.send(new Object[]{"GOOG", 55.5f, 100L});
+        Thread.sleep(100);
+        Assert.assertEquals(Arrays.asList("IBM:700.0", "WSO2:60.5", "WSO2:60.5", "GOOG:55.5"), outputs);
+        executionPlanRuntime.shutdown();
+
+    }
+
 }
@@ -205,4 +205,19 @@ public class ExtensionTestCase {
         Assert.assertTrue(eventArrived);
         executionPlanRuntime.shutdown();
     }
+
+    @Test
+    public void extensionTest5() {
+        log.info("extension test5 - extensions are loaded once and copied to each SiddhiManager");
+        SiddhiManager siddhiManager1 = new SiddhiManager();
+        siddhiManager1.setExtension("email:getAllNew", StringConcatAggregatorString.class);
+        SiddhiManager siddhiManager2 = new SiddhiManager();
+
+        Assert.assertEquals(CustomFunctionExtension.class, siddhiManager1.getExtensions().get("custom:plus"));
+        Assert.assertEquals(CustomFunctionExtension.class, siddhiManager2.getExtensions().get("custom:plus"));
+        Assert.assertTrue(siddhiManager1.getExtensions().containsKey("email:getAllNew"));
+        Assert.assertFalse(siddhiManager2.getExtensions().containsKey("email:getAllNew"));
+        siddhiManager1.shutdown();
+        siddhiManager2.shutdown();
+    }
 }
@@ -534,5 +534,74 @@ public class EveryPatternTestCase {
         executionPlanRuntime.shutdown();
     }
 
+    @Test
+    public void testQuery9() throws InterruptedException {
+        log.info("testPatternEvery9 - OUT 3");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String streams = "" +
+                "define stream Stream1 (symbol string, price float, volume int); " +
+                "define stream Stream2 (symbol string, price float, volume int); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from every e1=Stream1 -> e2=Stream2[symbol == e1.symbol and price > e1.price] " +
+                "select e1.symbol as symbol, e1.price as price1, e2.price as price2 " +
+                "insert into OutputStream ;";
+
+        ExecutionPlanRuntime executionPlanRuntime = siddhiManager.createExecutionPlanRuntime(streams + query);
+
+        executionPlanRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                if (inEvents != null) {
+                    for (Event event : inEvents) {
+                        inEventCount++;
+                        switch (inEventCount) {
+                            case 1:
+                                Assert.assertArrayEquals(new Object[]{"WSO2", 20.0f, 25.0f}, event.getData());
+                                break;
+                            case 2:
+                                Assert.assertArrayEquals(new Object[]{"IBM", 10.0f, 20.0f}, event.getData());
+                                break;
+                            case 3:
+                                Assert.assertArrayEquals(new Object[]{"IBM", 30.0f, 35.0f}, event.getData());
+                                break;
+                            default:
+                                Assert.assertSame(3, inEventCount);
+                        }
+                    }
+                }
+                if (removeEvents != null) {
+                    removeEventCount = removeEventCount + removeEvents.length;
+                }
+                eventArrived = true;
+            }
+
+        });
+
+        InputHandler stream1 = executionPlanRuntime.getInputHandler("Stream1");
+        InputHandler stream2 = executionPlanRuntime.getInputHandler("Stream2");
+
+        executionPlanRuntime.start();
+
+        stream1.send(new Object[]{"IBM", 10.0f, 100});
+        stream1.send(new Object[]{"WSO2", 20.0f, 100});
+        stream1.send(new Object[]{"IBM", 30.0f, 100});
+        stream1.send(new Object[]{"GOOG", 5.0f, 100});
+        Thread.sleep(100);
+        stream2.send(new Object[]{"WSO2", 25.0f, 100});
+        stream2.send(new Object[]{"IBM", 20.0f, 100});
+        stream2.send(new Object[]{"IBM", 35.0f, 100});
+        stream2.send(new Object[]{"ORACLE", 1.0f, 100});
+        Thread.sleep(100);
+
+        Assert.assertEquals("Number of success events", 3, inEventCount);
+        Assert.assertEquals("Number of remove events", 0, removeEventCount);
+        Assert.assertEquals("Event arrived", true, eventArrived);
+
+        executionPlanRuntime.shutdown();
+    }
 
 }
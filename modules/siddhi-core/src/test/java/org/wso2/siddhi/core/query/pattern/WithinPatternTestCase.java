@@ -208,6 +208,72 @@ public class WithinPatternTestCase {
         executionPlanRuntime.shutdown();
     }
 
+    @Test
+    public void testQuery4() throws InterruptedException {
+        log.info("testPatternWithin4 - OUT 2");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String streams = "" +
+                "define stream Stream1 (symbol string, price float, volume int); " +
+                "define stream Stream2 (symbol string, price float, volume int); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from every e1=Stream1 -> e2=Stream2[symbol == e1.symbol] within 1 sec " +
+                "select e1.symbol as symbol, e1.price as price1, e2.price as price2 " +
+                "insert into OutputStream ;";
+
+        ExecutionPlanRuntime executionPlanRuntime = siddhiManager.createExecutionPlanRuntime(streams + query);
+
+        executionPlanRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                if (inEvents != null) {
+                    for (Event event : inEvents) {
+                        inEventCount++;
+                        switch (inEventCount) {
+                            case 1:
+                                Assert.assertArrayEquals(new Object[]{"WSO2", 57.6f, 58.6f}, event.getData());
+                                break;
+                            case 2:
+                                Assert.assertArrayEquals(new Object[]{"IBM", 75.6f, 76.6f}, event.getData());
+                                break;
+                            default:
+                                Assert.assertSame(2, inEventCount);
+                        }
+                    }
+                }
+                if (removeEvents != null) {
+                    removeEventCount = removeEventCount + removeEvents.length;
+                }
+                eventArrived = true;
+            }
+
+        });
+
+        InputHandler stream1 = executionPlanRuntime.getInputHandler("Stream1");
+        InputHandler stream2 = executionPlanRuntime.getInputHandler("Stream2");
+
+        executionPlanRuntime.start();
+
+        // Partial matches of WSO2 and IBM expire while no events arrive at Stream2
+        stream1.send(new Object[]{"WSO2", 55.6f, 100});
+        stream1.send(new Object[]{"IBM", 55.7f, 100});
+        Thread.sleep(1500);
+        stream1.send(new Object[]{"WSO2", 57.6f, 100});
+        stream2.send(new Object[]{"IBM", 56.6f, 100});
+        Thread.sleep(500);
+        stream2.send(new Object[]{"WSO2", 58.6f, 100});
+        stream1.send(new Object[]{"IBM", 75.6f, 100});
+        stream2.send(new Object[]{"IBM", 76.6f, 100});
+        Thread.sleep(100);
 
+        Assert.assertEquals("Number of success events", 2, inEventCount);
+        Assert.assertEquals("Number of remove events", 0, removeEventCount);
+        Assert.assertEquals("Event arrived", true, eventArrived);
+
+        executionPlanRuntime.shutdown();
+    }
 
 }
@@ -1684,4 +1684,108 @@ public class SnapshotOutputRateLimitTestCase {
         executionPlanRuntime.shutdown();
 
     }
+
+    @Test
+    public void testSnapshotOutputRateLimitQuery29() throws InterruptedException {
+        log.info("SnapshotOutputRateLimit test29 - changed groups only");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String executionPlan = "" +
+                "@Plan:name('SnapshotOutputRateLimitTest29') " +
+                "" +
+                "define stream LoginEvents (timeStamp long, ip string, calls int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "@snapshot('changes') " +
+                "from LoginEvents#window.time(5 sec) " +
+                "select sum(calls) as totalCalls " +
+                "group by ip " +
+                "output snapshot every 1 sec " +
+                "insert all events into uniqueIps ;";
+
+
+        ExecutionPlanRuntime executionPlanRuntime = siddhiManager.createExecutionPlanRuntime(executionPlan);
+
+        log.info("Running : " + executionPlanRuntime.getName());
+
+        executionPlanRuntime.addCallback("uniqueIps", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                eventArrived = true;
+                count.incrementAndGet();
+                value += events.length;
+            }
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("LoginEvents");
+
+        executionPlanRuntime.start();
+
+        Thread.sleep(1100);
+        inputHandler.send(new Object[]{System.currentTimeMillis(), "192.10.1.5", 3});
+        inputHandler.send(new Object[]{System.currentTimeMillis(), "192.10.1.3", 6});
+        Thread.sleep(2200);
+        inputHandler.send(new Object[]{System.currentTimeMillis(), "192.10.1.5", 2});
+        Thread.sleep(7200);
+        Assert.assertEquals("Event arrived", true, eventArrived);
+        Assert.assertEquals("Number of output event bundles", 3, count.get());
+        Assert.assertEquals("Number of output event value", 4, value);
+
+        executionPlanRuntime.shutdown();
+
+    }
+
+    @Test
+    public void testSnapshotOutputRateLimitQuery30() throws InterruptedException {
+        log.info("SnapshotOutputRateLimit test30 - changed groups only");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String executionPlan = "" +
+                "@Plan:name('SnapshotOutputRateLimitTest30') " +
+                "" +
+                "define stream LoginEvents (timeStamp long, ip string, calls int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "@snapshot('changes') " +
+                "from LoginEvents#window.time(5 sec) " +
+                "select ip, sum(calls) as totalCalls " +
+                "group by ip " +
+                "output snapshot every 1 sec " +
+                "insert all events into uniqueIps ;";
+
+
+        ExecutionPlanRuntime executionPlanRuntime = siddhiManager.createExecutionPlanRuntime(executionPlan);
+
+        log.info("Running : " + executionPlanRuntime.getName());
+
+        executionPlanRuntime.addCallback("uniqueIps", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                eventArrived = true;
+                count.incrementAndGet();
+                value += events.length;
+            }
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("LoginEvents");
+
+        executionPlanRuntime.start();
+
+        Thread.sleep(1100);
+        inputHandler.send(new Object[]{System.currentTimeMillis(), "192.10.1.5", 3});
+        inputHandler.send(new Object[]{System.currentTimeMillis(), "192.10.1.3", 6});
+        Thread.sleep(2200);
+        inputHandler.send(new Object[]{System.currentTimeMillis(), "192.10.1.5", 2});
+        Thread.sleep(7200);
+        Assert.assertEquals("Event arrived", true, eventArrived);
+        Assert.assertEquals("Number of output event bundles", 3, count.get());
+        Assert.assertEquals("Number of output event value", 5, value);
+
+        executionPlanRuntime.shutdown();
+
+    }
 }
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.query.selector.attribute.aggregator;
+
+import org.apache.log4j.Logger;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.wso2.siddhi.core.ExecutionPlanRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.output.StreamCallback;
+import org.wso2.siddhi.core.util.collection.HyperLogLog;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ApproxDistinctCountAttributeAggregatorTestCase {
+    private static final Logger log = Logger.getLogger(ApproxDistinctCountAttributeAggregatorTestCase.class);
+    private volatile int count;
+    private List<Object[]> outputs;
+
+    @Before
+    public void init() {
+        count = 0;
+        outputs = new ArrayList<Object[]>();
+    }
+
+    @Test
+    public void approxDistinctCountTest1() throws InterruptedException {
+        log.info("Approximate Distinct Count TestCase 1 - sliding window");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String inStreamDefinition = "" +
+                "define stream inputStream (userID string, pageID string); ";
+
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from inputStream#window.length(3) " +
+                "select approxDistinctCount(pageID) as distinctPages, " +
+                "approxDistinctCountForever(pageID) as allDistinctPages " +
+                "insert into outputStream; ";
+
+        ExecutionPlanRuntime executionPlanRuntime = siddhiManager.createExecutionPlanRuntime(inStreamDefinition + query);
+        executionPlanRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    outputs.add(event.getData());
+                }
+            }
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("inputStream");
+        executionPlanRuntime.start();
+
+        inputHandler.send(new Object[]{"USER_1", "WEB_PAGE_1"});
+        inputHandler.send(new Object[]{"USER_1", "WEB_PAGE_2"});
+        inputHandler.send(new Object[]{"USER_1", "WEB_PAGE_1"});
+        inputHandler.send(new Object[]{"USER_1", "WEB_PAGE_3"});
+        inputHandler.send(new Object[]{"USER_1", "WEB_PAGE_3"});
+        inputHandler.send(new Object[]{"USER_1", "WEB_PAGE_3"});
+
+        Thread.sleep(100);
+        executionPlanRuntime.shutdown();
+        long[][] expected = new long[][]{{1, 1}, {2, 2}, {2, 2}, {3, 3}, {2, 3}, {1, 3}};
+        Assert.assertEquals("Event count", expected.length, outputs.size());
+        for (int i = 0; i < expected.length; i++) {
+            Assert.assertEquals("Distinct Pages", expected[i][0], outputs.get(i)[0]);
+            Assert.assertEquals("All Distinct Pages", expected[i][1], outputs.get(i)[1]);
+        }
+    }
+
+    @Test
+    public void approxDistinctCountTest2() throws InterruptedException {
+        log.info("Approximate Distinct Count TestCase 2 - group by with relative error");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String inStreamDefinition = "" +
+                "define stream inputStream (userID string, pageID string); ";
+
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from inputStream " +
+                "select userID, approxDistinctCountForever(pageID, 0.05) as distinctPages " +
+                "group by userID " +
+                "insert into outputStream; ";
+
+        ExecutionPlanRuntime executionPlanRuntime = siddhiManager.createExecutionPlanRuntime(inStreamDefinition + query);
+        executionPlanRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    if ("USER_1".equals(event.getData(0))) {
+                        outputs.add(event.getData());
+                    } else {
+                        Assert.assertTrue("Distinct Pages", (Long) event.getData(1) <= 10L);
+                    }
+                    count++;
+                }
+            }
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("inputStream");
+        executionPlanRuntime.start();
+
+        for (int i = 0; i < 2000; i++) {
+            inputHandler.send(new Object[]{"USER_1", "WEB_PAGE_" + (i % 1000)});
+            inputHandler.send(new Object[]{"USER_2", "WEB_PAGE_" + (i % 10)});
+        }
+
+        Thread.sleep(100);
+        executionPlanRuntime.shutdown();
+        Assert.assertEquals("Event count", 4000, count);
+        long distinctPages = (Long) outputs.get(outputs.size() - 1)[1];
+        Assert.assertTrue("Distinct Pages " + distinctPages, distinctPages > 900 && distinctPages < 1100);
+    }
+
+    @Test
+    public void approxDistinctCountRemoveTest() {
+        log.info("approxDistinctCount remove test");
+        HyperLogLog hyperLogLog = new HyperLogLog(HyperLogLog.MAX_REMOVABLE_PRECISION, true);
+        for (int i = 0; i < 1000; i++) {
+            hyperLogLog.add(HyperLogLog.hash("page" + i));
+        }
+        // hashes that were never added are ignored
+        hyperLogLog.remove(HyperLogLog.hash("unknown"));
+        hyperLogLog.remove(HyperLogLog.hash("page0"));
+        hyperLogLog.remove(HyperLogLog.hash("page0"));
+        long estimate = hyperLogLog.estimate();
+        Assert.assertTrue("Distinct Pages " + estimate, estimate > 950 && estimate < 1050);
+        for (int i = 1; i < 1000; i++) {
+            hyperLogLog.remove(HyperLogLog.hash("page" + i));
+        }
+        Assert.assertEquals("Distinct Pages", 0L, hyperLogLog.estimate());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void approxDistinctCountRemovablePrecisionTest() {
+        log.info("approxDistinctCount removable precision test");
+        new HyperLogLog(HyperLogLog.MAX_REMOVABLE_PRECISION + 1, true);
+    }
+}
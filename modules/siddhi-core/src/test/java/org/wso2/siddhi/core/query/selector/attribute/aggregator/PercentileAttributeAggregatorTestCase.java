@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.query.selector.attribute.aggregator;
+
+import org.apache.log4j.Logger;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.wso2.siddhi.core.ExecutionPlanRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.output.StreamCallback;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class PercentileAttributeAggregatorTestCase {
+    private static final Logger log = Logger.getLogger(PercentileAttributeAggregatorTestCase.class);
+    private List<Object[]> outputs;
+
+    @Before
+    public void init() {
+        outputs = new ArrayList<Object[]>();
+    }
+
+    @Test
+    public void percentileTest1() throws InterruptedException {
+        log.info("Percentile TestCase 1 - sliding window");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String inStreamDefinition = "" +
+                "define stream latencyStream (service string, latency long); ";
+
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from latencyStream#window.length(3) " +
+                "select percentile(latency, 0.5) as median, approxPercentile(latency, 0.5) as approxMedian " +
+                "insert into outputStream; ";
+
+        ExecutionPlanRuntime executionPlanRuntime = siddhiManager.createExecutionPlanRuntime(inStreamDefinition + query);
+        executionPlanRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    outputs.add(event.getData());
+                }
+            }
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("latencyStream");
+        executionPlanRuntime.start();
+
+        for (long latency = 10; latency <= 60; latency += 10) {
+            inputHandler.send(new Object[]{"checkout", latency});
+        }
+
+        Thread.sleep(100);
+        executionPlanRuntime.shutdown();
+        double[] expected = new double[]{10, 10, 20, 30, 40, 50};
+        Assert.assertEquals("Event count", expected.length, outputs.size());
+        for (int i = 0; i < expected.length; i++) {
+            Assert.assertEquals("Median", expected[i], outputs.get(i)[0]);
+            Assert.assertEquals("Approximate median", expected[i], (Double) outputs.get(i)[1], expected[i] * 0.01);
+        }
+    }
+
+    @Test
+    public void percentileTest2() throws InterruptedException {
+        log.info("Percentile TestCase 2 - group by with relative accuracy");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String inStreamDefinition = "" +
+                "define stream latencyStream (service string, latency long); ";
+
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from latencyStream " +
+                "select service, percentile(latency, 0.99) as p99, approxPercentile(latency, 0.99, 0.05) as approxP99 " +
+                "group by service " +
+                "insert into outputStream; ";
+
+        final Map<Object, Object[]> lastOutputs = new HashMap<Object, Object[]>();
+        ExecutionPlanRuntime executionPlanRuntime = siddhiManager.createExecutionPlanRuntime(inStreamDefinition + query);
+        executionPlanRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    lastOutputs.put(event.getData(0), event.getData());
+                }
+            }
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("latencyStream");
+        executionPlanRuntime.start();
+
+        for (long i = 1; i <= 1000; i++) {
+            inputHandler.send(new Object[]{"checkout", i});
+            inputHandler.send(new Object[]{"search", i * 2});
+        }
+
+        Thread.sleep(100);
+        executionPlanRuntime.shutdown();
+        Assert.assertEquals("P99", 990.0, lastOutputs.get("checkout")[1]);
+        Assert.assertEquals("P99", 1980.0, lastOutputs.get("search")[1]);
+        Assert.assertEquals("Approximate P99", 990.0, (Double) lastOutputs.get("checkout")[2], 990.0 * 0.05);
+        Assert.assertEquals("Approximate P99", 1980.0, (Double) lastOutputs.get("search")[2], 1980.0 * 0.05);
+    }
+
+    @Test
+    public void percentileTest3() throws InterruptedException {
+        log.info("Percentile TestCase 3 - more distinct values than kept exactly");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String inStreamDefinition = "" +
+                "define stream latencyStream (service string, latency long); ";
+
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from latencyStream#window.length(15000) " +
+                "select percentile(latency, 0.5) as median " +
+                "insert into outputStream; ";
+
+        ExecutionPlanRuntime executionPlanRuntime = siddhiManager.createExecutionPlanRuntime(inStreamDefinition + query);
+        executionPlanRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    outputs.add(event.getData());
+                }
+            }
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("latencyStream");
+        executionPlanRuntime.start();
+
+        for (long latency = 1; latency <= 20000; latency++) {
+            inputHandler.send(new Object[]{"checkout", latency});
+        }
+
+        Thread.sleep(100);
+        executionPlanRuntime.shutdown();
+        Assert.assertEquals("Event count", 20000, outputs.size());
+        Assert.assertEquals("Median", 5000.0, outputs.get(9999)[0]);
+        // beyond 10000 distinct values the median is estimated within 1%
+        Assert.assertEquals("Median", 12500.0, (Double) outputs.get(19999)[0], 12500.0 * 0.01);
+    }
+}
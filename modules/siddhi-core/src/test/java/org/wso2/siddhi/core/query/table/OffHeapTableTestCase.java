@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.query.table;
+
+import org.apache.log4j.Logger;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.wso2.siddhi.core.ExecutionPlanRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.query.output.callback.QueryCallback;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.test.util.SiddhiTestHelper;
+import org.wso2.siddhi.core.util.EventPrinter;
+import org.wso2.siddhi.core.util.persistence.InMemoryPersistenceStore;
+import org.wso2.siddhi.query.api.exception.ExecutionPlanValidationException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class OffHeapTableTestCase {
+    private static final Logger log = Logger.getLogger(OffHeapTableTestCase.class);
+    private AtomicInteger inEventCount = new AtomicInteger(0);
+    private List<Object[]> inEventsList;
+
+    private static final String QUERIES = "" +
+            "@info(name = 'query1') " +
+            "from StockStream " +
+            "insert into StockTable ;" +
+            "" +
+            "@info(name = 'query2') " +
+            "from DeleteStockStream " +
+            "delete StockTable " +
+            "   on StockTable.symbol==symbol;" +
+            "" +
+            "@info(name = 'query3') " +
+            "from UpdateStockStream " +
+            "update StockTable " +
+            "   on StockTable.symbol==symbol;" +
+            "" +
+            "@info(name = 'query4') " +
+            "from CheckStockStream join StockTable " +
+            " on CheckStockStream.symbol==StockTable.symbol " +
+            "select CheckStockStream.symbol, StockTable.price, StockTable.volume " +
+            "insert into OutStream;";
+
+    @Before
+    public void init() {
+        inEventCount.set(0);
+        inEventsList = new ArrayList<Object[]>();
+    }
+
+    private String streams(String tableAnnotations) {
+        return "" +
+                "@plan:name('OffHeapTableTest') " +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "define stream DeleteStockStream (symbol string); " +
+                "define stream UpdateStockStream (symbol string, price float, volume long); " +
+                "define stream CheckStockStream (symbol string); " +
+                tableAnnotations +
+                "define table StockTable (symbol string, price float, volume long); ";
+    }
+
+    private ExecutionPlanRuntime createExecutionPlanRuntime(SiddhiManager siddhiManager, String tableAnnotations) {
+        ExecutionPlanRuntime executionPlanRuntime = siddhiManager.createExecutionPlanRuntime(
+                streams(tableAnnotations) + QUERIES);
+        executionPlanRuntime.addCallback("query4", new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                if (inEvents != null) {
+                    for (Event event : inEvents) {
+                        inEventsList.add(event.getData());
+                        inEventCount.incrementAndGet();
+                    }
+                }
+            }
+        });
+        return executionPlanRuntime;
+    }
+
+    private void assertTableOperations(String tableAnnotations) throws InterruptedException {
+        SiddhiManager siddhiManager = new SiddhiManager();
+        ExecutionPlanRuntime executionPlanRuntime = createExecutionPlanRuntime(siddhiManager, tableAnnotations);
+        try {
+            InputHandler stockStream = executionPlanRuntime.getInputHandler("StockStream");
+            InputHandler deleteStockStream = executionPlanRuntime.getInputHandler("DeleteStockStream");
+            InputHandler updateStockStream = executionPlanRuntime.getInputHandler("UpdateStockStream");
+            InputHandler checkStockStream = executionPlanRuntime.getInputHandler("CheckStockStream");
+
+            executionPlanRuntime.start();
+            stockStream.send(new Object[]{"WSO2", 55.6f, 100L});
+            stockStream.send(new Object[]{"IBM", null, 75L});
+            stockStream.send(new Object[]{"ORACLE", 65.6f, 10L});
+            checkStockStream.send(new Object[]{"IBM"});
+            updateStockStream.send(new Object[]{"IBM", 77.6f, 200L});
+            deleteStockStream.send(new Object[]{"ORACLE"});
+            updateStockStream.send(new Object[]{"WSO2", 57.6f, 100L});
+            checkStockStream.send(new Object[]{"IBM"});
+            checkStockStream.send(new Object[]{"ORACLE"});
+            checkStockStream.send(new Object[]{"WSO2"});
+
+            List<Object[]> expected = Arrays.asList(
+                    new Object[]{"IBM", null, 75L},
+                    new Object[]{"IBM", 77.6f, 200L},
+                    new Object[]{"WSO2", 57.6f, 100L}
+            );
+            SiddhiTestHelper.waitForEvents(100, 3, inEventCount, 60000);
+            Assert.assertEquals("In events matched", true, SiddhiTestHelper.isEventsMatch(inEventsList, expected));
+            Assert.assertEquals("Number of success events", 3, inEventCount.get());
+        } finally {
+            executionPlanRuntime.shutdown();
+        }
+    }
+
+    @Test
+    public void offHeapTableTest1() throws InterruptedException {
+        log.info("offHeapTableTest1 - scanning operators");
+        assertTableOperations("@store(type='offheap') ");
+    }
+
+    @Test
+    public void offHeapTableTest2() throws InterruptedException {
+        log.info("offHeapTableTest2 - primary key operators");
+        assertTableOperations("@store(type='offheap') @IndexBy('symbol') ");
+    }
+
+    @Test
+    public void offHeapTableTest3() throws InterruptedException {
+        log.info("offHeapTableTest3 - rows spanning many small segments");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        ExecutionPlanRuntime executionPlanRuntime = createExecutionPlanRuntime(siddhiManager,
+                "@store(type='offheap', segment.size='64') @IndexBy('symbol') ");
+        try {
+            InputHandler stockStream = executionPlanRuntime.getInputHandler("StockStream");
+            InputHandler deleteStockStream = executionPlanRuntime.getInputHandler("DeleteStockStream");
+            InputHandler updateStockStream = executionPlanRuntime.getInputHandler("UpdateStockStream");
+            InputHandler checkStockStream = executionPlanRuntime.getInputHandler("CheckStockStream");
+
+            executionPlanRuntime.start();
+            for (int i = 0; i < 1000; i++) {
+                stockStream.send(new Object[]{"SYMBOL-" + i, (float) i, (long) i});
+            }
+            for (int i = 0; i < 1000; i += 2) {
+                deleteStockStream.send(new Object[]{"SYMBOL-" + i});
+            }
+            updateStockStream.send(new Object[]{"SYMBOL-999", 1f, 1L});
+            checkStockStream.send(new Object[]{"SYMBOL-500"});
+            checkStockStream.send(new Object[]{"SYMBOL-501"});
+            checkStockStream.send(new Object[]{"SYMBOL-999"});
+
+            List<Object[]> expected = Arrays.asList(
+                    new Object[]{"SYMBOL-501", 501f, 501L},
+                    new Object[]{"SYMBOL-999", 1f, 1L}
+            );
+            SiddhiTestHelper.waitForEvents(100, 2, inEventCount, 60000);
+            Assert.assertEquals("In events matched", true, SiddhiTestHelper.isEventsMatch(inEventsList, expected));
+            Assert.assertEquals("Number of success events", 2, inEventCount.get());
+        } finally {
+            executionPlanRuntime.shutdown();
+        }
+    }
+
+    @Test
+    public void offHeapTableTest4() throws InterruptedException {
+        log.info("offHeapTableTest4 - persistence");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(new InMemoryPersistenceStore());
+        String tableAnnotations = "@store(type='offheap') @IndexBy('symbol') ";
+
+        ExecutionPlanRuntime executionPlanRuntime = createExecutionPlanRuntime(siddhiManager, tableAnnotations);
+        executionPlanRuntime.start();
+        executionPlanRuntime.getInputHandler("StockStream").send(new Object[]{"WSO2", 55.6f, 100L});
+        executionPlanRuntime.getInputHandler("StockStream").send(new Object[]{"IBM", 75.6f, 10L});
+        executionPlanRuntime.persist();
+        Thread.sleep(500);
+        executionPlanRuntime.getInputHandler("DeleteStockStream").send(new Object[]{"WSO2"});
+        executionPlanRuntime.shutdown();
+
+        executionPlanRuntime = createExecutionPlanRuntime(siddhiManager, tableAnnotations);
+        try {
+            executionPlanRuntime.start();
+            executionPlanRuntime.restoreLastRevision();
+            executionPlanRuntime.getInputHandler("CheckStockStream").send(new Object[]{"WSO2"});
+            executionPlanRuntime.getInputHandler("CheckStockStream").send(new Object[]{"IBM"});
+
+            List<Object[]> expected = Arrays.asList(
+                    new Object[]{"WSO2", 55.6f, 100L},
+                    new Object[]{"IBM", 75.6f, 10L}
+            );
+            SiddhiTestHelper.waitForEvents(100, 2, inEventCount, 60000);
+            Assert.assertEquals("In events matched", true, SiddhiTestHelper.isEventsMatch(inEventsList, expected));
+            Assert.assertEquals("Number of success events", 2, inEventCount.get());
+        } finally {
+            executionPlanRuntime.shutdown();
+        }
+    }
+
+    @Test(expected = ExecutionPlanValidationException.class)
+    public void offHeapTableTest5() throws InterruptedException {
+        log.info("offHeapTableTest5 - unknown store type");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.createExecutionPlanRuntime(streams("@store(type='disk') ") + QUERIES);
+    }
+}
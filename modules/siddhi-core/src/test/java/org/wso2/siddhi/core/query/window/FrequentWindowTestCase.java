@@ -26,9 +26,14 @@ import org.wso2.siddhi.core.ExecutionPlanRuntime;
 import org.wso2.siddhi.core.SiddhiManager;
 import org.wso2.siddhi.core.event.Event;
 import org.wso2.siddhi.core.query.output.callback.QueryCallback;
+import org.wso2.siddhi.core.query.processor.stream.window.FrequentWindowProcessor;
 import org.wso2.siddhi.core.stream.input.InputHandler;
 import org.wso2.siddhi.core.util.EventPrinter;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 public class FrequentWindowTestCase {
     static final Logger log = Logger.getLogger(FrequentWindowTestCase.class);
 
@@ -142,4 +147,67 @@ public class FrequentWindowTestCase {
 
     }
 
+    @Test
+    public void frequentUniqueWindowTest3() throws InterruptedException {
+        log.info("frequentWindow test3 - attribute values are not concatenated into the key");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String cseEventStream = "" +
+                "define stream purchase (cardNo string, cardType string, price float);";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from purchase#window.frequent(1, cardNo, cardType) " +
+                "select cardNo, cardType, price " +
+                "insert all events into PotentialFraud ;";
+
+        ExecutionPlanRuntime executionPlanRuntime = siddhiManager.createExecutionPlanRuntime(cseEventStream + query);
+
+        executionPlanRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                if (inEvents != null) {
+                    inEventCount += inEvents.length;
+                }
+                if (removeEvents != null) {
+                    removeEventCount += removeEvents.length;
+                    Assert.assertEquals("12", removeEvents[0].getData(0));
+                }
+                eventArrived = true;
+            }
+
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("purchase");
+        executionPlanRuntime.start();
+
+        inputHandler.send(new Object[]{"12", "3", 73.36f});
+        inputHandler.send(new Object[]{"1", "23", 46.36f});
+        inputHandler.send(new Object[]{"1", "23", 78.36f});
+        Thread.sleep(500);
+        Assert.assertEquals("Event arrived", true, eventArrived);
+        Assert.assertEquals("In Event count", 3, inEventCount);
+        Assert.assertEquals("Out Event count", 1, removeEventCount);
+
+        executionPlanRuntime.shutdown();
+
+    }
+
+    @Test
+    public void frequentWindowLegacyStateTest() {
+        log.info("frequentWindow legacy state test");
+
+        ConcurrentHashMap<String, Integer> legacyCountMap = new ConcurrentHashMap<String, Integer>();
+        legacyCountMap.put("IBM", 2);
+        Map<String, Object> legacyState = new HashMap<String, Object>();
+        legacyState.put("CountMap", legacyCountMap);
+
+        FrequentWindowProcessor frequentWindowProcessor = new FrequentWindowProcessor();
+        frequentWindowProcessor.restoreState(legacyState);
+        Map<String, Object> state = frequentWindowProcessor.currentState();
+        Assert.assertTrue(((Map) state.get("Counts")).isEmpty());
+        Assert.assertTrue(((Map) state.get("Events")).isEmpty());
+    }
+
 }
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.query.window;
+
+import junit.framework.Assert;
+import org.apache.log4j.Logger;
+import org.junit.Test;
+import org.wso2.siddhi.core.ExecutionPlanRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.output.StreamCallback;
+import org.wso2.siddhi.query.api.exception.ExecutionPlanValidationException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class SpillableWindowTestCase {
+    private static final Logger log = Logger.getLogger(SpillableWindowTestCase.class);
+
+    private static final String STREAM_DEFINITION = "" +
+            "define stream StockStream (symbol string, timeStamp long, price double, volume int);";
+
+    private List<String> runQuery(String planAnnotation, String query, int snapshotAt) throws InterruptedException {
+        SiddhiManager siddhiManager = new SiddhiManager();
+        final List<String> outputs = new ArrayList<String>();
+        StreamCallback streamCallback = new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    outputs.add(event.getTimestamp() + (event.isExpired() ? " expired " : " current ") +
+                            Arrays.toString(event.getData()));
+                }
+            }
+        };
+        String executionPlan = "@plan:playback " + planAnnotation + STREAM_DEFINITION + query;
+        ExecutionPlanRuntime executionPlanRuntime = siddhiManager.createExecutionPlanRuntime(executionPlan);
+        executionPlanRuntime.addCallback("OutStream", streamCallback);
+        executionPlanRuntime.start();
+
+        long timestamp = 1000;
+        for (int i = 0; i < 200; i++) {
+            timestamp += i % 10 == 0 ? 60 : 3;
+            if (i == snapshotAt) {
+                byte[] snapshot = executionPlanRuntime.snapshot();
+                executionPlanRuntime.shutdown();
+                executionPlanRuntime = siddhiManager.createExecutionPlanRuntime(executionPlan);
+                executionPlanRuntime.addCallback("OutStream", streamCallback);
+                executionPlanRuntime.start();
+                executionPlanRuntime.restore(snapshot);
+            }
+            InputHandler inputHandler = executionPlanRuntime.getInputHandler("StockStream");
+            inputHandler.send(timestamp, new Object[]{i % 3 == 0 ? "IBM" : "WSO2", timestamp, i * 1.5,
+                    i % 7 == 0 ? null : i});
+        }
+        executionPlanRuntime.shutdown();
+        siddhiManager.shutdown();
+        return outputs;
+    }
+
+    private void assertSpilledOutput(String spillAnnotation, String query, int snapshotAt)
+            throws InterruptedException {
+        List<String> expected = runQuery("", query, -1);
+        List<String> spilled = runQuery(spillAnnotation, query, snapshotAt);
+        Assert.assertFalse(expected.isEmpty());
+        Assert.assertEquals(expected, spilled);
+    }
+
+    @Test
+    public void spillableTimeWindowTest1() throws InterruptedException {
+        log.info("Spillable time window test1");
+        assertSpilledOutput("@plan:spill(heap.events = '4', segment.size = '128') ", "" +
+                "@info(name = 'query1') " +
+                "from StockStream#window.time(40) " +
+                "select symbol, sum(price) as totalPrice, volume " +
+                "insert all events into OutStream;", -1);
+    }
+
+    @Test
+    public void spillableTimeWindowTest2() throws InterruptedException {
+        log.info("Spillable time window test2 - query spill annotation");
+        assertSpilledOutput("", "" +
+                "@info(name = 'query1') @spill(heap.events = '1', segment.size = '64') " +
+                "from StockStream#window.time(40) " +
+                "select symbol, timeStamp, price, volume " +
+                "insert all events into OutStream;", -1);
+    }
+
+    @Test
+    public void spillableExternalTimeWindowTest1() throws InterruptedException {
+        log.info("Spillable externalTime window test1 - restored from a snapshot");
+        assertSpilledOutput("@plan:spill(heap.events = '2', segment.size = '96') ", "" +
+                "@info(name = 'query1') " +
+                "from StockStream#window.externalTime(timeStamp, 40) " +
+                "select symbol, timeStamp, avg(price) as avgPrice " +
+                "insert all events into OutStream;", 95);
+    }
+
+    @Test
+    public void spillableTimeBatchWindowTest1() throws InterruptedException {
+        log.info("Spillable timeBatch window test1");
+        assertSpilledOutput("@plan:spill(heap.events = '3', segment.size = '128') ", "" +
+                "@info(name = 'query1') " +
+                "from StockStream#window.timeBatch(40) " +
+                "select symbol, price, volume " +
+                "insert all events into OutStream;", 101);
+    }
+
+    @Test
+    public void spillableWindowJoinTest1() throws InterruptedException {
+        log.info("Spillable window join test1 - finding from spilled events");
+        assertSpilledOutput("@plan:spill(heap.events = '2', segment.size = '128') ", "" +
+                "@info(name = 'query1') " +
+                "from StockStream[volume > 0]#window.length(1) as S join StockStream#window.time(100) as W " +
+                "   on S.symbol == W.symbol and W.volume < S.volume - 10 " +
+                "select W.symbol, W.price, W.volume " +
+                "insert into OutStream;", -1);
+    }
+
+    @Test(expected = ExecutionPlanValidationException.class)
+    public void spillableWindowTest1() throws InterruptedException {
+        log.info("Spillable window test1 - invalid heap events");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.createExecutionPlanRuntime("@plan:spill(heap.events = 'many') " + STREAM_DEFINITION +
+                "@info(name = 'query1') " +
+                "from StockStream#window.time(1 sec) " +
+                "select symbol " +
+                "insert into OutStream;");
+    }
+}
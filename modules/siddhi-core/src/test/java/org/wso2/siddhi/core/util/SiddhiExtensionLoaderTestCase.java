@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util;
+
+import org.apache.log4j.Logger;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wso2.siddhi.annotation.processor.ExtensionIndexAnnotationProcessor;
+import org.wso2.siddhi.core.ConcatFunctionExtension;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+public class SiddhiExtensionLoaderTestCase {
+    static final Logger log = Logger.getLogger(SiddhiExtensionLoaderTestCase.class);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void extensionLoaderTest1() throws IOException {
+        log.info("extension loader test 1 - indexed and unindexed class path roots");
+
+        File indexed = folder.newFolder("indexed");
+        write(new File(indexed, ExtensionIndexAnnotationProcessor.EXTENSION_INDEX),
+                "indexed:plus=" + ConcatFunctionExtension.class.getName() + "\n" +
+                        "indexed:missing=org.wso2.siddhi.core.MissingExtension\n");
+        // extension files of indexed roots are already covered by their index, so they are not scanned
+        write(new File(indexed, "stale.siddhiext"), "concat=" + ConcatFunctionExtension.class.getName() + "\n");
+        File unindexed = folder.newFolder("unindexed");
+        write(new File(unindexed, "legacy.siddhiext"), "concat=" + ConcatFunctionExtension.class.getName() + "\n");
+
+        URLClassLoader classLoader = new URLClassLoader(new URL[]{indexed.toURI().toURL(),
+                unindexed.toURI().toURL()}, SiddhiExtensionLoaderTestCase.class.getClassLoader());
+        String classPath = indexed.getPath() + File.pathSeparator + unindexed.getPath();
+        Map<String, Class> extensions = SiddhiExtensionLoader.lookupSiddhiExtensions(classLoader, classPath, false);
+
+        Assert.assertEquals(ConcatFunctionExtension.class, extensions.get("indexed:plus"));
+        Assert.assertFalse(extensions.containsKey("indexed:missing"));
+        Assert.assertFalse(extensions.containsKey("stale:concat"));
+        Assert.assertEquals(ConcatFunctionExtension.class, extensions.get("legacy:concat"));
+
+        extensions = SiddhiExtensionLoader.lookupSiddhiExtensions(classLoader, classPath, true);
+        Assert.assertEquals(ConcatFunctionExtension.class, extensions.get("indexed:plus"));
+        Assert.assertEquals(ConcatFunctionExtension.class, extensions.get("stale:concat"));
+        Assert.assertEquals(ConcatFunctionExtension.class, extensions.get("legacy:concat"));
+    }
+
+    private void write(File file, String content) throws IOException {
+        Assert.assertTrue(file.getParentFile().isDirectory() || file.getParentFile().mkdirs());
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8);
+        try {
+            writer.write(content);
+        } finally {
+            writer.close();
+        }
+    }
+}
@@ -23,18 +23,34 @@ import org.wso2.siddhi.core.exception.ExecutionPlanRuntimeException;
 import org.wso2.siddhi.core.function.EvalScript;
 import org.wso2.siddhi.query.api.definition.Attribute;
 
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.Invocable;
 import javax.script.ScriptEngine;
+import javax.script.ScriptEngineFactory;
 import javax.script.ScriptEngineManager;
 import javax.script.ScriptException;
 
+/**
+ * Evaluates JavaScript functions. The function is compiled once per engine and invoked with the arguments passed as
+ * they are, instead of being written into the script as literals; an invoker compiled along with the function
+ * converts the Java array of the arguments into the JavaScript array data. Engines are not shared between threads,
+ * each thread evaluating the function gets its own engine holding the compiled function.
+ */
 public class EvalJavaScript implements EvalScript {
 
-    private ScriptEngine engine;
+    private static final String INVOKER_PREFIX = "siddhi$invoke$";
+
+    private ScriptEngineFactory engineFactory;
+    private ThreadLocal<Invocable> invocables;
     private Attribute.Type returnType;
     String functionName;
 
     public EvalJavaScript() {
-        engine = new ScriptEngineManager().getEngineByName("JavaScript");
+        ScriptEngine engine = new ScriptEngineManager().getEngineByName("JavaScript");
+        if (engine != null) {
+            engineFactory = engine.getFactory();
+        }
     }
 
     @Override
@@ -43,35 +59,88 @@ public class EvalJavaScript implements EvalScript {
         if (returnType == null) {
             throw new ExecutionPlanCreationException("Cannot find the return type of the function " + functionName);
         }
+        if (engineFactory == null) {
+            throw new ExecutionPlanCreationException("Cannot find a JavaScript engine to compile the function " +
+                    functionName);
+        }
+        final String source = "function " + name + "(data)" + "{" + body + "}\n" +
+                "function " + INVOKER_PREFIX + name + "(args){return " + name + "(Java.from(args));}";
+        final Invocable invocable;
         try {
-            engine.eval("function " + name + "(data)" + "{" + body + "}");
+            invocable = compile(source);
         } catch (ScriptException e) {
             throw new ExecutionPlanCreationException("Compilation Failure of the JavaScript Function " + name, e);
         }
+        invocables = new ThreadLocal<Invocable>() {
+            private boolean initialValueUsed = false;
+
+            @Override
+            protected synchronized Invocable initialValue() {
+                if (!initialValueUsed) {
+                    initialValueUsed = true;
+                    return invocable;
+                }
+                try {
+                    return compile(source);
+                } catch (ScriptException e) {
+                    throw new ExecutionPlanRuntimeException("Compilation Failure of the JavaScript Function " +
+                            functionName, e);
+                }
+            }
+        };
+    }
+
+    private Invocable compile(String source) throws ScriptException {
+        ScriptEngine engine = engineFactory.getScriptEngine();
+        if (engine instanceof Compilable) {
+            CompiledScript compiledScript = ((Compilable) engine).compile(source);
+            compiledScript.eval();
+        } else {
+            engine.eval(source);
+        }
+        return (Invocable) engine;
     }
 
     @Override
     public Object eval(String name, Object[] args) {
-        StringBuilder jsArray = new StringBuilder("var data = [");
-        for (int i = 0; i < args.length - 1; i++) {
-            if (args[i] instanceof String) {
-                jsArray.append("\"").append(args[i].toString()).append("\"");
-            } else {
-                jsArray.append(args[i].toString());
+        // JavaScript numbers are doubles, floats are converted through their decimal representation so that the
+        // function gets 0.1 rather than the binary value of 0.1f, and longs are converted as the engine does not
+        // treat them as numbers; the arguments array is created per call by the executor and is reused
+        for (int i = 0; i < args.length; i++) {
+            if (args[i] instanceof Float) {
+                args[i] = Double.parseDouble(args[i].toString());
+            } else if (args[i] instanceof Long) {
+                args[i] = ((Long) args[i]).doubleValue();
             }
-            jsArray.append(",");
-        }
-        if (args[args.length - 1] instanceof String) {
-            jsArray.append("\"").append(args[args.length - 1].toString()).append("\"");
-        } else {
-            jsArray.append(args[args.length - 1].toString());
         }
-        jsArray.append("]");
         try {
-            engine.eval(jsArray.toString());
-            return engine.eval(name + "(data);");
+            return toReturnType(invocables.get().invokeFunction(INVOKER_PREFIX + functionName, (Object) args));
         } catch (ScriptException e) {
             throw new ExecutionPlanRuntimeException("Error evaluating JavaScript Function " + name, e);
+        } catch (NoSuchMethodException e) {
+            throw new ExecutionPlanRuntimeException("Cannot find JavaScript Function " + name, e);
+        }
+    }
+
+    /**
+     * JavaScript has a single number type, so numeric results are converted to the declared return type.
+     */
+    private Object toReturnType(Object result) {
+        if (!(result instanceof Number)) {
+            return result;
+        }
+        Number number = (Number) result;
+        switch (returnType) {
+            case INT:
+                return number.intValue();
+            case LONG:
+                return number.longValue();
+            case FLOAT:
+                return number.floatValue();
+            case DOUBLE:
+                return number.doubleValue();
+            default:
+                return result;
         }
     }
 
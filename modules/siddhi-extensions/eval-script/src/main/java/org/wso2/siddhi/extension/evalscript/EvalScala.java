@@ -24,6 +24,10 @@ import org.wso2.siddhi.core.function.EvalScript;
 import org.wso2.siddhi.query.api.definition.Attribute;
 import scala.Function1;
 
+/**
+ * Evaluates Scala functions. The function is compiled once at init into a function object, which is applied to
+ * the arguments as they are and can be called from multiple threads as long as the function body keeps no state.
+ */
 public class EvalScala implements EvalScript {
 
     private Function1<Object[], Object> scalaFunction;
@@ -340,6 +340,86 @@ public class EvalScriptTestCase {
         executionPlanRuntime.shutdown();
     }
 
+    @Test
+    public void testJavaScriptTypedArgumentsAndReturnType() throws InterruptedException {
+
+        log.info("testJavaScriptTypedArgumentsAndReturnType");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setExtension("evalscript:javascript", org.wso2.siddhi.extension.evalscript.EvalJavaScript.class);
+        siddhiManager.setExtension("evalscript:scala", org.wso2.siddhi.extension.evalscript.EvalScala.class);
+
+        String scoreFunc = "define function scoreJ[JavaScript] return long {\n" +
+                "  return data[0].length + data[1] * data[2];\n" +
+                "};";
+
+        String cseEventStream = "define stream cseEventStream (symbol string, price float, volume long);";
+        String query = ("@info(name = 'query1') from cseEventStream select scoreJ(symbol, price, volume) as score " +
+                "insert into mailOutput;");
+        ExecutionPlanRuntime executionPlanRuntime = siddhiManager.createExecutionPlanRuntime(scoreFunc +
+                cseEventStream + query);
+
+        executionPlanRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                Object value = inEvents[inEvents.length - 1].getData(0);
+                // Symbols are passed as they are, quotes do not need escaping
+                Assert.assertEquals(4L + 9L, value);
+                count.incrementAndGet();
+            }
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("cseEventStream");
+        executionPlanRuntime.start();
+        inputHandler.send(new Object[]{"W\"O2", 4.5f, 2L});
+        SiddhiTestHelper.waitForEvents(100, 1, count, 60000);
+        Assert.assertEquals(1, count.get());
+
+        executionPlanRuntime.shutdown();
+    }
+
+    @Test
+    public void testJavaScriptArrayMethodsAndFloats() throws InterruptedException {
+
+        log.info("testJavaScriptArrayMethodsAndFloats");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setExtension("evalscript:javascript", org.wso2.siddhi.extension.evalscript.EvalJavaScript.class);
+        siddhiManager.setExtension("evalscript:scala", org.wso2.siddhi.extension.evalscript.EvalScala.class);
+
+        String describeFunc = "define function describeJ[JavaScript] return string {\n" +
+                "  return Array.isArray(data) + ':' + data.map(function (value) {\n" +
+                "    return typeof value === 'number' ? value * 2 : value;\n" +
+                "  }).join(',');\n" +
+                "};";
+
+        String cseEventStream = "define stream cseEventStream (symbol string, price float, volume long);";
+        String query = ("@info(name = 'query1') from cseEventStream select describeJ(symbol, price, volume) as " +
+                "description insert into mailOutput;");
+        ExecutionPlanRuntime executionPlanRuntime = siddhiManager.createExecutionPlanRuntime(describeFunc +
+                cseEventStream + query);
+
+        executionPlanRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                Object value = inEvents[inEvents.length - 1].getData(0);
+                // Arguments form a JavaScript array of numbers, 0.1f is seen as 0.1 and not 0.10000000149011612
+                Assert.assertEquals("true:IBM,0.2,4", value);
+                count.incrementAndGet();
+            }
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("cseEventStream");
+        executionPlanRuntime.start();
+        inputHandler.send(new Object[]{"IBM", 0.1f, 2L});
+        SiddhiTestHelper.waitForEvents(100, 1, count, 60000);
+        Assert.assertEquals(1, count.get());
+
+        executionPlanRuntime.shutdown();
+    }
+
     @Test(expected=ExecutionPlanValidationException.class)
     public void testMissingReturnType() {
 
@@ -21,7 +21,10 @@ package org.wso2.siddhi.extension.eventtable;
 import com.hazelcast.client.HazelcastClient;
 import com.hazelcast.client.config.ClientConfig;
 import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.JoinConfig;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.NearCacheConfig;
 import com.hazelcast.core.Hazelcast;
 import com.hazelcast.core.HazelcastInstance;
 import org.apache.log4j.Logger;
@@ -88,6 +91,8 @@ public class HazelcastEventTable implements EventTable {
         String clusterPassword;
         String hosts;
         String collectionName;
+        String nearCache;
+        String nearCacheMaxSize;
         boolean serverMode;
 
         Store store = tableDefinition.getStore();
@@ -108,6 +113,10 @@ public class HazelcastEventTable implements EventTable {
                     HazelcastEventTableConstants.ANNOTATION_ELEMENT_HAZELCAST_CLUSTER_ADDRESSES);
             collectionName = getStoreOptions.get(
                     HazelcastEventTableConstants.ANNOTATION_ELEMENT_HAZELCAST_CLUSTER_COLLECTION);
+            nearCache = getStoreOptions.get(
+                    HazelcastEventTableConstants.ANNOTATION_ELEMENT_HAZELCAST_NEAR_CACHE);
+            nearCacheMaxSize = getStoreOptions.get(
+                    HazelcastEventTableConstants.ANNOTATION_ELEMENT_HAZELCAST_NEAR_CACHE_MAX_SIZE);
 
             serverMode = (hosts == null || hosts.isEmpty());
             if (serverMode) {
@@ -123,6 +132,10 @@ public class HazelcastEventTable implements EventTable {
                     HazelcastEventTableConstants.ANNOTATION_ELEMENT_HAZELCAST_CLUSTER_ADDRESSES);
             collectionName = fromAnnotation.getElement(
                     HazelcastEventTableConstants.ANNOTATION_ELEMENT_HAZELCAST_CLUSTER_COLLECTION);
+            nearCache = fromAnnotation.getElement(
+                    HazelcastEventTableConstants.ANNOTATION_ELEMENT_HAZELCAST_NEAR_CACHE);
+            nearCacheMaxSize = fromAnnotation.getElement(
+                    HazelcastEventTableConstants.ANNOTATION_ELEMENT_HAZELCAST_NEAR_CACHE_MAX_SIZE);
 
             serverMode = (hosts == null || hosts.isEmpty());
             if (serverMode) {
@@ -142,7 +155,24 @@ public class HazelcastEventTable implements EventTable {
         for (Attribute attribute : tableDefinition.getAttributeList()) {
             metaStreamEvent.addOutputData(attribute);
         }
-        HazelcastInstance hzInstance = getHazelcastInstance(serverMode, clusterName, clusterPassword, hosts);
+        NearCacheConfig nearCacheConfig = null;
+        if (Boolean.parseBoolean(nearCache)) {
+            if (annotation == null) {
+                logger.warn("Near cache is only supported on Hazelcast tables with " + SiddhiConstants.ANNOTATION_INDEX_BY +
+                        ", hence ignoring near cache configuration of table " + tableDefinition.getId());
+            } else {
+                nearCacheConfig = new NearCacheConfig();
+                nearCacheConfig.setName(collectionName);
+                nearCacheConfig.setInvalidateOnChange(true);
+                nearCacheConfig.setCacheLocalEntries(true);
+                nearCacheConfig.setInMemoryFormat(InMemoryFormat.OBJECT);
+                if (nearCacheMaxSize != null && !nearCacheMaxSize.isEmpty()) {
+                    nearCacheConfig.setMaxSize(Integer.parseInt(nearCacheMaxSize));
+                }
+            }
+        }
+        HazelcastInstance hzInstance = getHazelcastInstance(serverMode, clusterName, clusterPassword, hosts,
+                nearCacheConfig);
 
         if (annotation != null) {
             if (annotation.getElements().size() != 1) {
@@ -164,21 +194,31 @@ public class HazelcastEventTable implements EventTable {
     /**
      * Called to get the most suitable Hazelcast Instance for the given set of parameters.
      *
-     * @param groupName     Hazelcast cluster name.
-     * @param groupPassword Hazelcast cluster password.
-     * @param addresses     Hazelcast node addresses ("ip1,ip2,..").
+     * @param groupName       Hazelcast cluster name.
+     * @param groupPassword   Hazelcast cluster password.
+     * @param addresses       Hazelcast node addresses ("ip1,ip2,..").
+     * @param nearCacheConfig Near cache configuration of the table map, or null if near cache is not enabled. It is
+     *                        only applied to instances created for the table, as the configuration of a running
+     *                        instance is shared with the other users of its maps.
      * @return Hazelcast Instance
      */
     protected HazelcastInstance getHazelcastInstance(boolean serverMode, String groupName,
-                                                     String groupPassword, String addresses) {
+                                                     String groupPassword, String addresses,
+                                                     NearCacheConfig nearCacheConfig) {
+        HazelcastInstance hazelcastInstance;
         if (HazelcastEventTableServiceValueHolder.getHazelcastInstance() != null && addresses == null) {
-            return HazelcastEventTableServiceValueHolder.getHazelcastInstance();
+            hazelcastInstance = HazelcastEventTableServiceValueHolder.getHazelcastInstance();
+            ignoreNearCache(nearCacheConfig, hazelcastInstance);
         } else {
-            if (serverMode) {
+            String instanceName = HazelcastEventTableConstants.HAZELCAST_INSTANCE_PREFIX +
+                    executionPlanContext.getName();
+            if (serverMode && Hazelcast.getHazelcastInstanceByName(instanceName) != null) {
+                hazelcastInstance = Hazelcast.getHazelcastInstanceByName(instanceName);
+                ignoreNearCache(nearCacheConfig, hazelcastInstance);
+            } else if (serverMode) {
                 Config config = new Config();
                 config.setProperty("hazelcast.logging.type", "log4j");
-                config.setInstanceName(HazelcastEventTableConstants.HAZELCAST_INSTANCE_PREFIX +
-                        executionPlanContext.getName());
+                config.setInstanceName(instanceName);
                 if (groupName != null && !groupName.isEmpty()) {
                     config.getGroupConfig().setName(groupName);
                 }
@@ -193,7 +233,10 @@ public class HazelcastEventTable implements EventTable {
                         joinConfig.getTcpIpConfig().addMember(ip);
                     }
                 }
-                return Hazelcast.getOrCreateHazelcastInstance(config);
+                if (nearCacheConfig != null) {
+                    config.addMapConfig(new MapConfig(nearCacheConfig.getName()).setNearCacheConfig(nearCacheConfig));
+                }
+                hazelcastInstance = Hazelcast.getOrCreateHazelcastInstance(config);
             } else {
                 ClientConfig clientConfig = new ClientConfig();
                 clientConfig.setProperty("hazelcast.logging.type", "log4j");
@@ -203,10 +246,22 @@ public class HazelcastEventTable implements EventTable {
                 if (groupPassword != null && !groupPassword.isEmpty()) {
                     clientConfig.getGroupConfig().setPassword(groupPassword);
                 }
+                if (nearCacheConfig != null) {
+                    clientConfig.addNearCacheConfig(nearCacheConfig);
+                }
                 clientConfig.setNetworkConfig(clientConfig.getNetworkConfig().addAddress(addresses.split(",")));
                 return HazelcastClient.newHazelcastClient(clientConfig);
             }
         }
+        return hazelcastInstance;
+    }
+
+    private void ignoreNearCache(NearCacheConfig nearCacheConfig, HazelcastInstance hazelcastInstance) {
+        if (nearCacheConfig != null) {
+            logger.warn("Near cache of table " + tableDefinition.getId() + " is not configured, as the Hazelcast " +
+                    "instance '" + hazelcastInstance.getName() + "' is shared and not created for the table; " +
+                    "configure the near cache of map '" + nearCacheConfig.getName() + "' on the instance instead");
+        }
     }
 
     @Override
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.extension.eventtable.hazelcast;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.DataSerializable;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Compact Hazelcast representation of an event table row. Only the timestamp and the output attributes of the
+ * event are stored, each attribute written with its primitive type instead of Java serialization.
+ */
+public class HazelcastEventRow implements DataSerializable {
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte INT = 2;
+    private static final byte LONG = 3;
+    private static final byte FLOAT = 4;
+    private static final byte DOUBLE = 5;
+    private static final byte BOOL = 6;
+    private static final byte OBJECT = 7;
+
+    private long timestamp;
+    private Object[] data;
+
+    public HazelcastEventRow() {
+        //Used by Hazelcast when de-serializing
+    }
+
+    public HazelcastEventRow(long timestamp, Object[] data) {
+        this.timestamp = timestamp;
+        this.data = data;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public Object[] getData() {
+        return data;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeLong(timestamp);
+        out.writeInt(data.length);
+        for (Object value : data) {
+            if (value == null) {
+                out.writeByte(NULL);
+            } else if (value instanceof String) {
+                out.writeByte(STRING);
+                out.writeUTF((String) value);
+            } else if (value instanceof Integer) {
+                out.writeByte(INT);
+                out.writeInt((Integer) value);
+            } else if (value instanceof Long) {
+                out.writeByte(LONG);
+                out.writeLong((Long) value);
+            } else if (value instanceof Float) {
+                out.writeByte(FLOAT);
+                out.writeFloat((Float) value);
+            } else if (value instanceof Double) {
+                out.writeByte(DOUBLE);
+                out.writeDouble((Double) value);
+            } else if (value instanceof Boolean) {
+                out.writeByte(BOOL);
+                out.writeBoolean((Boolean) value);
+            } else {
+                out.writeByte(OBJECT);
+                out.writeObject(value);
+            }
+        }
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        timestamp = in.readLong();
+        data = new Object[in.readInt()];
+        for (int i = 0; i < data.length; i++) {
+            switch (in.readByte()) {
+                case NULL:
+                    break;
+                case STRING:
+                    data[i] = in.readUTF();
+                    break;
+                case INT:
+                    data[i] = in.readInt();
+                    break;
+                case LONG:
+                    data[i] = in.readLong();
+                    break;
+                case FLOAT:
+                    data[i] = in.readFloat();
+                    break;
+                case DOUBLE:
+                    data[i] = in.readDouble();
+                    break;
+                case BOOL:
+                    data[i] = in.readBoolean();
+                    break;
+                default:
+                    data[i] = in.readObject();
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        HazelcastEventRow that = (HazelcastEventRow) o;
+        return timestamp == that.timestamp && Arrays.equals(data, that.data);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = (int) (timestamp ^ (timestamp >>> 32));
+        result = 31 * result + Arrays.hashCode(data);
+        return result;
+    }
+}
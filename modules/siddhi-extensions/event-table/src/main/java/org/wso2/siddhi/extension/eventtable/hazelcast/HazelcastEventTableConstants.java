@@ -31,5 +31,7 @@ public final class HazelcastEventTableConstants {
     public static final String ANNOTATION_ELEMENT_HAZELCAST_CLUSTER_ADDRESSES = "cluster.addresses";
     public static final String ANNOTATION_ELEMENT_HAZELCAST_WELL_KNOWN_ADDRESSES = "well.known.addresses";
     public static final String ANNOTATION_ELEMENT_HAZELCAST_CLUSTER_COLLECTION = "collection.name";
+    public static final String ANNOTATION_ELEMENT_HAZELCAST_NEAR_CACHE = "near.cache";
+    public static final String ANNOTATION_ELEMENT_HAZELCAST_NEAR_CACHE_MAX_SIZE = "near.cache.max.size";
 
 }
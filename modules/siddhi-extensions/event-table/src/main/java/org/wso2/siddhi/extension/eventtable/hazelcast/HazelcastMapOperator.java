@@ -52,7 +52,7 @@ public class HazelcastMapOperator extends MapOperator {
                 for (Map.Entry<Object, StreamEvent> candidateEventEntry : ((HazelcastPrimaryKeyEventHolder) candidateEvents).entrySet()) {
                     deletingEvent.setEvent(candidateEventPosition, candidateEventEntry.getValue());
                     if ((Boolean) expressionExecutor.execute(deletingEvent)) {
-                        ((HazelcastPrimaryKeyEventHolder) candidateEvents).remove(candidateEventEntry.getKey());
+                        ((HazelcastPrimaryKeyEventHolder) candidateEvents).delete(candidateEventEntry.getKey());
                     }
                 }
             } finally {
@@ -81,7 +81,7 @@ public class HazelcastMapOperator extends MapOperator {
                             candidateEventEntry.getValue().setOutputData(updateAttributeMapper.getOutputData(updatingEvent),
                                     updateAttributeMapper.getCandidateAttributePosition());
                         }
-                        ((HazelcastPrimaryKeyEventHolder) candidateEvents).replace(candidateEventEntry.getKey(), candidateEventEntry.getValue());
+                        ((HazelcastPrimaryKeyEventHolder) candidateEvents).overwrite(candidateEventEntry.getKey(), candidateEventEntry.getValue());
                     }
                 }
             } finally {
@@ -106,7 +106,7 @@ public class HazelcastMapOperator extends MapOperator {
                             candidateEventEntry.getValue().setOutputData(updateAttributeMapper.getOutputData(overwritingOrAddingEvent),
                                     updateAttributeMapper.getCandidateAttributePosition());
                         }
-                        ((HazelcastPrimaryKeyEventHolder) candidateEvents).replace(candidateEventEntry.getKey(), candidateEventEntry.getValue());
+                        ((HazelcastPrimaryKeyEventHolder) candidateEvents).overwrite(candidateEventEntry.getKey(), candidateEventEntry.getValue());
                         updated = true;
                     }
                 }
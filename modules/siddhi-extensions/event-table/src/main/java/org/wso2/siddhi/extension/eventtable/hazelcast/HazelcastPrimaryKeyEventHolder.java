@@ -6,18 +6,28 @@ import org.wso2.siddhi.core.event.ComplexEventChunk;
 import org.wso2.siddhi.core.event.stream.StreamEvent;
 import org.wso2.siddhi.core.event.stream.StreamEventPool;
 import org.wso2.siddhi.core.event.stream.converter.StreamEventConverter;
+import org.wso2.siddhi.core.exception.ExecutionPlanRuntimeException;
 import org.wso2.siddhi.core.table.holder.EventHolder;
 
+import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 /**
  * Created by suho on 5/22/16.
+ * <p>
+ * Rows are kept in the {@link IMap} as compact {@link HazelcastEventRow}s and are materialised into pooled
+ * {@link StreamEvent}s when read. Maps written by earlier versions hold the {@link StreamEvent}s themselves, which
+ * are still read, and are replaced by rows as they are updated.
  */
 public class HazelcastPrimaryKeyEventHolder implements EventHolder, Map<Object, StreamEvent> {
 
-    private IMap<Object, StreamEvent> candidateDataMap;
+    private IMap<Object, Object> candidateDataMap;
     private StreamEventPool tableStreamEventPool;
     private StreamEventConverter eventConverter;
     private int indexPosition;
@@ -36,9 +46,8 @@ public class HazelcastPrimaryKeyEventHolder implements EventHolder, Map<Object,
         addingEventChunk.reset();
         while (addingEventChunk.hasNext()) {
             ComplexEvent complexEvent = addingEventChunk.next();
-            StreamEvent streamEvent = tableStreamEventPool.borrowEvent();
-            eventConverter.convertComplexEvent(complexEvent, streamEvent);
-            candidateDataMap.put(streamEvent.getOutputData()[indexPosition], streamEvent);
+            Object[] data = complexEvent.getOutputData();
+            candidateDataMap.set(data[indexPosition], new HazelcastEventRow(complexEvent.getTimestamp(), data));
         }
     }
 
@@ -50,6 +59,49 @@ public class HazelcastPrimaryKeyEventHolder implements EventHolder, Map<Object,
         return indexPosition;
     }
 
+    /**
+     * Stores the event against the given key without fetching the previous value from the cluster.
+     *
+     * @param key   primary key
+     * @param value event to be stored
+     */
+    public void overwrite(Object key, StreamEvent value) {
+        candidateDataMap.set(key, toRow(value));
+    }
+
+    /**
+     * Removes the event of the given key without fetching the previous value from the cluster.
+     *
+     * @param key primary key
+     */
+    public void delete(Object key) {
+        candidateDataMap.delete(key);
+    }
+
+    private HazelcastEventRow toRow(StreamEvent streamEvent) {
+        return new HazelcastEventRow(streamEvent.getTimestamp(), streamEvent.getOutputData());
+    }
+
+    private StreamEvent toStreamEvent(Object value) {
+        if (value == null) {
+            return null;
+        }
+        StreamEvent streamEvent = tableStreamEventPool.borrowEvent();
+        if (value instanceof HazelcastEventRow) {
+            HazelcastEventRow row = (HazelcastEventRow) value;
+            eventConverter.convertData(row.getTimestamp(), row.getData(), streamEvent);
+        } else if (value instanceof StreamEvent) {
+            StreamEvent storedEvent = (StreamEvent) value;
+            eventConverter.convertData(storedEvent.getTimestamp(), storedEvent.getOutputData(), streamEvent);
+        } else {
+            throw new ExecutionPlanRuntimeException("Hazelcast map '" + candidateDataMap.getName() + "' of table " +
+                    "indexed by '" + indexAttribute + "' holds a value of unsupported type " +
+                    value.getClass().getName() + ", expected " + HazelcastEventRow.class.getName() + " or " +
+                    StreamEvent.class.getName() + "; the map may be used by another application");
+        }
+        return streamEvent;
+    }
+
     @Override
     public int size() {
         return candidateDataMap.size();
@@ -67,32 +119,36 @@ public class HazelcastPrimaryKeyEventHolder implements EventHolder, Map<Object,
 
     @Override
     public boolean containsValue(Object value) {
-        return containsValue(value);
+        return value instanceof StreamEvent && candidateDataMap.containsValue(toRow((StreamEvent) value));
     }
 
     @Override
     public StreamEvent get(Object key) {
-        return candidateDataMap.get(key);
+        return toStreamEvent(candidateDataMap.get(key));
     }
 
     @Override
     public StreamEvent put(Object key, StreamEvent value) {
-        return candidateDataMap.put(key, value);
+        return toStreamEvent(candidateDataMap.put(key, toRow(value)));
     }
 
 
     public StreamEvent replace(Object key, StreamEvent value) {
-        return candidateDataMap.replace(key, value);
+        return toStreamEvent(candidateDataMap.replace(key, toRow(value)));
     }
 
     @Override
     public StreamEvent remove(Object key) {
-        return candidateDataMap.remove(key);
+        return toStreamEvent(candidateDataMap.remove(key));
     }
 
     @Override
     public void putAll(Map<?, ? extends StreamEvent> m) {
-        candidateDataMap.putAll(m);
+        Map<Object, Object> rows = new HashMap<Object, Object>(m.size());
+        for (Entry<?, ? extends StreamEvent> entry : m.entrySet()) {
+            rows.put(entry.getKey(), toRow(entry.getValue()));
+        }
+        candidateDataMap.putAll(rows);
     }
 
     @Override
@@ -107,11 +163,21 @@ public class HazelcastPrimaryKeyEventHolder implements EventHolder, Map<Object,
 
     @Override
     public Collection<StreamEvent> values() {
-        return candidateDataMap.values();
+        Collection<Object> rows = candidateDataMap.values();
+        List<StreamEvent> streamEvents = new ArrayList<StreamEvent>(rows.size());
+        for (Object row : rows) {
+            streamEvents.add(toStreamEvent(row));
+        }
+        return streamEvents;
     }
 
     @Override
     public Set<Entry<Object, StreamEvent>> entrySet() {
-        return candidateDataMap.entrySet();
+        Set<Entry<Object, Object>> rows = candidateDataMap.entrySet();
+        Set<Entry<Object, StreamEvent>> entries = new LinkedHashSet<Entry<Object, StreamEvent>>(rows.size());
+        for (Entry<Object, Object> row : rows) {
+            entries.add(new AbstractMap.SimpleEntry<Object, StreamEvent>(row.getKey(), toStreamEvent(row.getValue())));
+        }
+        return entries;
     }
 }
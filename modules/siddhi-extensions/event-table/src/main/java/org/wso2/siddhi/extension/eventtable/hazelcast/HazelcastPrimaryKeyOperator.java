@@ -73,7 +73,7 @@ public class HazelcastPrimaryKeyOperator implements Operator {
         while (deletingEventChunk.hasNext()) {
             StateEvent deletingEvent = deletingEventChunk.next();
             Object matchingKey = expressionExecutor.execute(deletingEvent);
-            ((HazelcastPrimaryKeyEventHolder) candidateEvents).remove(matchingKey);
+            ((HazelcastPrimaryKeyEventHolder) candidateEvents).delete(matchingKey);
         }
 
     }
@@ -90,7 +90,7 @@ public class HazelcastPrimaryKeyOperator implements Operator {
                     streamEvent.setOutputData(updateAttributeMapper.getOutputData(updatingEvent),
                             updateAttributeMapper.getCandidateAttributePosition());
                 }
-                ((HazelcastPrimaryKeyEventHolder) candidateEvents).replace(matchingKey, streamEvent);
+                ((HazelcastPrimaryKeyEventHolder) candidateEvents).overwrite(matchingKey, streamEvent);
 
             }
         }
@@ -112,7 +112,7 @@ public class HazelcastPrimaryKeyOperator implements Operator {
                     streamEvent.setOutputData(updateAttributeMapper.getOutputData(overwritingOrAddingEvent),
                             updateAttributeMapper.getCandidateAttributePosition());
                 }
-                ((HazelcastPrimaryKeyEventHolder) candidateEvents).replace(matchingKey, streamEvent);
+                ((HazelcastPrimaryKeyEventHolder) candidateEvents).overwrite(matchingKey, streamEvent);
             } else {
                 failedEventChunk.add(overwritingStreamEventExtractor.getOverwritingStreamEvent(overwritingOrAddingEvent));
             }
@@ -18,6 +18,7 @@
 
 package org.wso2.siddhi.extension.eventtable.hazelcast;
 
+import com.hazelcast.core.Hazelcast;
 import org.apache.log4j.Logger;
 import org.junit.Assert;
 import org.junit.Before;
@@ -25,6 +26,7 @@ import org.junit.Test;
 import org.wso2.siddhi.core.ExecutionPlanRuntime;
 import org.wso2.siddhi.core.SiddhiManager;
 import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
 import org.wso2.siddhi.core.query.output.callback.QueryCallback;
 import org.wso2.siddhi.core.stream.input.InputHandler;
 import org.wso2.siddhi.core.util.EventPrinter;
@@ -566,4 +568,156 @@ public class IndexedTableTestCase {
             executionPlanRuntime.shutdown();
         }
     }
+
+    @Test
+    public void indexedTableTest8() throws InterruptedException {
+        log.info("indexedTableTest8 - near cache");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String streams = "" +
+                "@Plan:name('IndexedTableExecutionPlan')" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "define stream CheckStockStream (symbol string, volume long); " +
+                "define stream UpdateStockStream (symbol string, price float, volume long);" +
+                "define stream DeleteStockStream (symbol string);" +
+                "@from(eventtable = 'hazelcast', near.cache = 'true', near.cache.max.size = '1000')" +
+                "@IndexBy('symbol') " +
+                "define table StockTableT081 (symbol string, price float, volume long); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from StockStream " +
+                "insert into StockTableT081 ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from UpdateStockStream " +
+                "update StockTableT081 " +
+                "   on StockTableT081.symbol==symbol;" +
+                "" +
+                "@info(name = 'query3') " +
+                "from DeleteStockStream " +
+                "delete StockTableT081 " +
+                "   on StockTableT081.symbol==symbol;" +
+                "" +
+                "@info(name = 'query4') " +
+                "from CheckStockStream join StockTableT081 " +
+                " on CheckStockStream.symbol==StockTableT081.symbol " +
+                "select CheckStockStream.symbol, StockTableT081.volume " +
+                "insert into OutStream;";
+
+        ExecutionPlanRuntime executionPlanRuntime = siddhiManager.createExecutionPlanRuntime(streams + query);
+        try {
+            executionPlanRuntime.addCallback("query4", new QueryCallback() {
+                @Override
+                public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                    EventPrinter.print(timeStamp, inEvents, removeEvents);
+                    if (inEvents != null) {
+                        for (Event event : inEvents) {
+                            inEventsList.add(event.getData());
+                            inEventCount.incrementAndGet();
+                        }
+                        eventArrived = true;
+                    }
+                    if (removeEvents != null) {
+                        removeEventCount = removeEventCount + removeEvents.length;
+                    }
+                    eventArrived = true;
+                }
+            });
+
+            InputHandler stockStream = executionPlanRuntime.getInputHandler("StockStream");
+            InputHandler checkStockStream = executionPlanRuntime.getInputHandler("CheckStockStream");
+            InputHandler updateStockStream = executionPlanRuntime.getInputHandler("UpdateStockStream");
+            InputHandler deleteStockStream = executionPlanRuntime.getInputHandler("DeleteStockStream");
+
+            executionPlanRuntime.start();
+            stockStream.send(new Object[]{"WSO2", 55.6f, 100l});
+            stockStream.send(new Object[]{"IBM", 55.6f, 100l});
+            checkStockStream.send(new Object[]{"IBM", 100l});
+            checkStockStream.send(new Object[]{"IBM", 100l});
+            updateStockStream.send(new Object[]{"IBM", 77.6f, 200l});
+            deleteStockStream.send(new Object[]{"WSO2"});
+            Thread.sleep(1000);
+            checkStockStream.send(new Object[]{"IBM", 100l});
+            checkStockStream.send(new Object[]{"WSO2", 100l});
+
+            List<Object[]> expected = Arrays.asList(
+                    new Object[]{"IBM", 100l},
+                    new Object[]{"IBM", 100l},
+                    new Object[]{"IBM", 200l}
+            );
+            SiddhiTestHelper.waitForEvents(100, 3, inEventCount, 60000);
+            Assert.assertEquals("In events matched", true, SiddhiTestHelper.isEventsMatch(inEventsList, expected));
+            Assert.assertEquals("Number of success events", 3, inEventCount.get());
+            Assert.assertEquals("Number of remove events", 0, removeEventCount);
+            Assert.assertEquals("Event arrived", true, eventArrived);
+        } finally {
+            executionPlanRuntime.shutdown();
+        }
+    }
+
+    @Test
+    public void indexedTableTest9() throws InterruptedException {
+        log.info("indexedTableTest9 - reading events stored by earlier versions");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String streams = "" +
+                "@Plan:name('IndexedTableExecutionPlan9')" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "define stream CheckStockStream (symbol string, volume long); " +
+                "@from(eventtable = 'hazelcast', collection.name = 'legacyStockTable')" +
+                "@IndexBy('symbol') " +
+                "define table StockTableT091 (symbol string, price float, volume long); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from StockStream " +
+                "insert into StockTableT091 ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from CheckStockStream join StockTableT091 " +
+                " on CheckStockStream.symbol==StockTableT091.symbol " +
+                "select CheckStockStream.symbol, StockTableT091.volume " +
+                "insert into OutStream;";
+
+        ExecutionPlanRuntime executionPlanRuntime = siddhiManager.createExecutionPlanRuntime(streams + query);
+        try {
+            executionPlanRuntime.addCallback("query2", new QueryCallback() {
+                @Override
+                public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                    EventPrinter.print(timeStamp, inEvents, removeEvents);
+                    if (inEvents != null) {
+                        for (Event event : inEvents) {
+                            inEventsList.add(event.getData());
+                            inEventCount.incrementAndGet();
+                        }
+                    }
+                    eventArrived = true;
+                }
+            });
+
+            StreamEvent legacyEvent = new StreamEvent(0, 0, 3);
+            legacyEvent.setTimestamp(System.currentTimeMillis());
+            legacyEvent.setOutputData(new Object[]{"IBM", 55.6f, 100L});
+            Hazelcast.getHazelcastInstanceByName(HazelcastEventTableConstants.HAZELCAST_INSTANCE_PREFIX +
+                    "IndexedTableExecutionPlan9").getMap("legacyStockTable").set("IBM", legacyEvent);
+
+            InputHandler stockStream = executionPlanRuntime.getInputHandler("StockStream");
+            InputHandler checkStockStream = executionPlanRuntime.getInputHandler("CheckStockStream");
+
+            executionPlanRuntime.start();
+            stockStream.send(new Object[]{"WSO2", 57.6f, 200L});
+            checkStockStream.send(new Object[]{"IBM", 100L});
+            checkStockStream.send(new Object[]{"WSO2", 100L});
+
+            List<Object[]> expected = Arrays.asList(
+                    new Object[]{"IBM", 100L},
+                    new Object[]{"WSO2", 200L}
+            );
+            SiddhiTestHelper.waitForEvents(100, 2, inEventCount, 60000);
+            Assert.assertEquals("In events matched", true, SiddhiTestHelper.isEventsMatch(inEventsList, expected));
+            Assert.assertEquals("Number of success events", 2, inEventCount.get());
+            Assert.assertEquals("Event arrived", true, eventArrived);
+        } finally {
+            executionPlanRuntime.shutdown();
+        }
+    }
 }
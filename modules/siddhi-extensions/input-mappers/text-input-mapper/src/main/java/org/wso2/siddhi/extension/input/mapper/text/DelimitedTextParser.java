@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.extension.input.mapper.text;
+
+import org.wso2.siddhi.query.api.definition.Attribute;
+
+import java.nio.charset.Charset;
+
+/**
+ * Single pass parser for delimiter separated text. Fields are located without splitting the text and numeric fields
+ * are parsed in place into the type of their attribute, so that only string attributes allocate.
+ * <p>
+ * UTF-8 encoded bytes can be parsed through {@link Utf8Text} without decoding the whole payload, as the
+ * delimiter is an ASCII character and never occurs inside multi-byte UTF-8 sequences.
+ */
+class DelimitedTextParser {
+
+    private static final int MAX_EXACT_DOUBLE_DIGITS = 15;
+    private static final int MAX_EXACT_FLOAT_DIGITS = 7;
+    private static final int MAX_LONG_DIGITS = 18;
+    private static final double[] DOUBLE_POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+    private static final float[] FLOAT_POWERS_OF_TEN = {1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f,
+            1e10f};
+
+    private final Attribute.Type[] attributeTypes;
+    private final char delimiter;
+
+    DelimitedTextParser(Attribute.Type[] attributeTypes, char delimiter) {
+        this.attributeTypes = attributeTypes;
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * Parse the fields of text[start, end) into data, in the order of the attributes.
+     *
+     * @param text  the text holding the delimiter separated fields
+     * @param start index of the first character
+     * @param end   index after the last character
+     * @param data  array to write the attribute values to
+     * @return false if the text does not have a valid value for each attribute
+     */
+    boolean parse(CharSequence text, int start, int end, Object[] data) {
+        int field = 0;
+        int fieldStart = start;
+        try {
+            for (int i = start; i <= end; i++) {
+                if (i == end || text.charAt(i) == delimiter) {
+                    if (field == attributeTypes.length) {
+                        return false;
+                    }
+                    data[field] = parseField(text, fieldStart, i, attributeTypes[field]);
+                    field++;
+                    fieldStart = i + 1;
+                }
+            }
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        return field == attributeTypes.length;
+    }
+
+    private static Object parseField(CharSequence text, int start, int end, Attribute.Type type) {
+        switch (type) {
+            case STRING:
+            case OBJECT:
+                return toString(text, start, end);
+            default:
+                break;
+        }
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        if (start == end) {
+            throw new NumberFormatException("Empty value for attribute of type " + type);
+        }
+        switch (type) {
+            case INT:
+                long intValue = parseLong(text, start, end);
+                if (intValue < Integer.MIN_VALUE || intValue > Integer.MAX_VALUE) {
+                    throw new NumberFormatException("Value out of range for int: " + toString(text, start, end));
+                }
+                return (int) intValue;
+            case LONG:
+                return parseLong(text, start, end);
+            case DOUBLE:
+                return parseDouble(text, start, end);
+            case FLOAT:
+                return parseFloat(text, start, end);
+            case BOOL:
+                return end - start == 4 && regionMatchesIgnoreCase(text, start, "true");
+            default:
+                return toString(text, start, end);
+        }
+    }
+
+    private static long parseLong(CharSequence text, int start, int end) {
+        boolean negative = false;
+        int i = start;
+        char first = text.charAt(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+        }
+        if (i == end || end - i > MAX_LONG_DIGITS) {
+            return Long.parseLong(toString(text, start, end));
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("Invalid number: " + toString(text, start, end));
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Plain decimals with at most 15 significant digits are parsed as an exact mantissa divided by an exact power
+     * of ten, which gives the correctly rounded double. Anything else is left to {@link Double#parseDouble}.
+     */
+    private static double parseDouble(CharSequence text, int start, int end) {
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        boolean negative = false;
+        int i = start;
+        char first = text.charAt(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+        }
+        for (; i < end; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+            } else if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                return Double.parseDouble(toString(text, start, end));
+            }
+        }
+        if (digits == 0 || digits > MAX_EXACT_DOUBLE_DIGITS) {
+            return Double.parseDouble(toString(text, start, end));
+        }
+        double value = (fractionDigits > 0) ? mantissa / DOUBLE_POWERS_OF_TEN[fractionDigits] : mantissa;
+        return negative ? -value : value;
+    }
+
+    /**
+     * Same as {@link #parseDouble(CharSequence, int, int)} within the 7 significant digits that float represents
+     * exactly.
+     */
+    private static float parseFloat(CharSequence text, int start, int end) {
+        int mantissa = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        boolean negative = false;
+        int i = start;
+        char first = text.charAt(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+        }
+        for (; i < end; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (digits == MAX_EXACT_FLOAT_DIGITS) {
+                    return Float.parseFloat(toString(text, start, end));
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+            } else if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                return Float.parseFloat(toString(text, start, end));
+            }
+        }
+        if (digits == 0) {
+            return Float.parseFloat(toString(text, start, end));
+        }
+        float value = (fractionDigits > 0) ? mantissa / FLOAT_POWERS_OF_TEN[fractionDigits] : mantissa;
+        return negative ? -value : value;
+    }
+
+    private static boolean regionMatchesIgnoreCase(CharSequence text, int start, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (Character.toLowerCase(text.charAt(start + i)) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String toString(CharSequence text, int start, int end) {
+        if (text instanceof Utf8Text) {
+            return ((Utf8Text) text).decode(start, end);
+        }
+        return text.subSequence(start, end).toString();
+    }
+
+    /**
+     * UTF-8 encoded bytes viewed as characters for locating delimiters and parsing numbers. Bytes of multi-byte
+     * sequences are not valid in either, and string fields are decoded from their byte range.
+     */
+    static class Utf8Text implements CharSequence {
+        private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+        private byte[] bytes;
+
+        void wrap(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        String decode(int start, int end) {
+            return new String(bytes, start, end - start, UTF_8);
+        }
+
+        @Override
+        public int length() {
+            return bytes.length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (bytes[index] & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return decode(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return decode(0, bytes.length);
+        }
+    }
+}
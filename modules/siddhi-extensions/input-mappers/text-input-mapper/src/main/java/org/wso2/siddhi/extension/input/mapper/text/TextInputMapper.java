@@ -43,6 +43,12 @@ import java.util.regex.Pattern;
 /**
  * This mapper converts TEXT string input to {@link ComplexEventChunk}. This extension accepts optional regex mapping to
  * select specific attributes from the stream.
+ * <p>
+ * Without a regex mapping the attributes are read in order from delimiter separated text, given as a String, any
+ * other CharSequence, or UTF-8 encoded bytes. Each line of a multi-line payload is an event, and the events of a
+ * payload are sent as a single chunk. Lines that cannot be parsed as delimiter separated values fall back to a regex
+ * mapping taking the attributes from the leading fields of the line, split at the same delimiter. If a line cannot
+ * be mapped at all, none of the events of the payload are sent.
  */
 public class TextInputMapper implements InputMapper {
 
@@ -56,6 +62,16 @@ public class TextInputMapper implements InputMapper {
      */
     public static final String DEFAULT_MAPPING_REGEX = "([^,;]+)";
 
+    /**
+     * Option to set the character separating the attributes when no regex mapping is given.
+     */
+    public static final String OPTION_DELIMITER = "delimiter";
+
+    /**
+     * Default delimiter of the attributes when no regex mapping is given.
+     */
+    public static final String DEFAULT_DELIMITER = ",";
+
     /**
      * Output StreamDefinition of the input mapper.
      */
@@ -86,6 +102,16 @@ public class TextInputMapper implements InputMapper {
      */
     private MappingPositionData[] mappingPositions;
 
+    /**
+     * Parser for delimiter separated attributes, null when regex mapping is given.
+     */
+    private DelimitedTextParser delimitedTextParser;
+
+    /**
+     * Reusable view of byte payloads as text, guarded by this mapper.
+     */
+    private DelimitedTextParser.Utf8Text utf8Text = new DelimitedTextParser.Utf8Text();
+
 
     /**
      * Initialize the mapper and the mapping configurations.
@@ -141,14 +167,35 @@ public class TextInputMapper implements InputMapper {
                 this.mappingPositions[i] = new MappingPositionData(position, regex, index);
             }
         } else {
+            String delimiter = options.get(OPTION_DELIMITER);
+            if (delimiter == null) {
+                delimiter = DEFAULT_DELIMITER;
+            }
+            if (delimiter.length() != 1 || delimiter.charAt(0) > 0x7F) {
+                throw new ExecutionPlanValidationException("The " + OPTION_DELIMITER + " of text mapping must be a " +
+                        "single ASCII character, but found '" + delimiter + "'");
+            }
+
+            String fieldRegex;
+            if (DEFAULT_DELIMITER.equals(delimiter)) {
+                fieldRegex = DEFAULT_MAPPING_REGEX + ",?";
+            } else {
+                String escapedDelimiter = Character.isLetterOrDigit(delimiter.charAt(0)) ? delimiter : "\\" + delimiter;
+                fieldRegex = "([^" + escapedDelimiter + "]+)" + escapedDelimiter + "?";
+            }
             StringBuilder regexBuilder = new StringBuilder();
             for (int i = 0; i < attributesSize; i++) {
-                regexBuilder.append(DEFAULT_MAPPING_REGEX).append(",?");
+                regexBuilder.append(fieldRegex);
             }
             String regex = regexBuilder.toString();
             for (int i = 0; i < attributesSize; i++) {
-                this.mappingPositions[i] = new MappingPositionData(i, regexBuilder.toString(), i + 1);
+                this.mappingPositions[i] = new MappingPositionData(i, regex, i + 1);
+            }
+            Attribute.Type[] attributeTypes = new Attribute.Type[attributesSize];
+            for (int i = 0; i < attributesSize; i++) {
+                attributeTypes[i] = streamAttributes.get(i).getType();
             }
+            this.delimitedTextParser = new DelimitedTextParser(attributeTypes, delimiter.charAt(0));
         }
 
     }
@@ -157,14 +204,74 @@ public class TextInputMapper implements InputMapper {
      * Receive TEXT string from {@link InputTransport}, convert to {@link ComplexEventChunk} and send to the
      * {@link OutputCallback}.
      *
-     * @param eventObject the TEXT string
+     * @param eventObject the TEXT string, CharSequence or UTF-8 encoded bytes
      */
     @Override
     public void onEvent(Object eventObject) {
         synchronized (this) {
-            StreamEvent borrowedEvent = streamEventPool.borrowEvent();
-            streamEventConverter.convertEvent(convertToEvent(eventObject), borrowedEvent);
-            outputCallback.send(new ComplexEventChunk<StreamEvent>(borrowedEvent, borrowedEvent, true));
+            if (delimitedTextParser == null) {
+                StreamEvent borrowedEvent = streamEventPool.borrowEvent();
+                streamEventConverter.convertEvent(convertToEvent(eventObject), borrowedEvent);
+                outputCallback.send(new ComplexEventChunk<StreamEvent>(borrowedEvent, borrowedEvent, true));
+            } else if (eventObject instanceof byte[]) {
+                utf8Text.wrap((byte[]) eventObject);
+                try {
+                    onEvents(utf8Text);
+                } finally {
+                    utf8Text.wrap(null);
+                }
+            } else if (eventObject instanceof CharSequence) {
+                onEvents((CharSequence) eventObject);
+            } else {
+                // Let the regex mapping report the invalid input
+                convertToEvent(eventObject);
+            }
+        }
+    }
+
+    /**
+     * Convert each line of the given text to a pooled {@link StreamEvent} and send them as one chunk.
+     *
+     * @param text delimiter separated attributes, one event per line
+     */
+    private void onEvents(CharSequence text) {
+        ComplexEventChunk<StreamEvent> eventChunk = new ComplexEventChunk<StreamEvent>(true);
+        long timestamp = System.currentTimeMillis();
+        int length = text.length();
+        int lineStart = 0;
+        StreamEvent borrowedEvent = null;
+        try {
+            while (lineStart < length) {
+                int lineEnd = lineStart;
+                while (lineEnd < length && text.charAt(lineEnd) != '\n') {
+                    lineEnd++;
+                }
+                int nextLineStart = lineEnd + 1;
+                if (lineEnd > lineStart && text.charAt(lineEnd - 1) == '\r') {
+                    lineEnd--;
+                }
+                if (lineEnd > lineStart) {
+                    borrowedEvent = streamEventPool.borrowEvent();
+                    Object[] outputData = borrowedEvent.getOutputData();
+                    if (!delimitedTextParser.parse(text, lineStart, lineEnd, outputData)) {
+                        Object[] data = convertToEvent(text.subSequence(lineStart, lineEnd).toString()).getData();
+                        System.arraycopy(data, 0, outputData, 0, data.length);
+                    }
+                    borrowedEvent.setType(StreamEvent.Type.CURRENT);
+                    borrowedEvent.setTimestamp(timestamp);
+                    eventChunk.add(borrowedEvent);
+                    borrowedEvent = null;
+                }
+                lineStart = nextLineStart;
+            }
+        } catch (RuntimeException e) {
+            // The payload is dropped as a whole, hence return all the events borrowed for it
+            streamEventPool.returnEvents(borrowedEvent);
+            streamEventPool.returnEvents(eventChunk.getFirst());
+            throw e;
+        }
+        if (eventChunk.getFirst() != null) {
+            outputCallback.send(eventChunk);
         }
     }
 
@@ -216,6 +323,11 @@ public class TextInputMapper implements InputMapper {
          */
         private String regex;
 
+        /**
+         * Compiled regex, compiled once per mapping.
+         */
+        private Pattern pattern;
+
         /**
          * The group index to be used for mapping in the given regex.
          */
@@ -224,6 +336,7 @@ public class TextInputMapper implements InputMapper {
         public MappingPositionData(int position, String regex, int groupIndex) {
             this.position = position;
             this.regex = regex;
+            this.pattern = Pattern.compile(regex);
             this.groupIndex = groupIndex;
         }
 
@@ -241,6 +354,7 @@ public class TextInputMapper implements InputMapper {
 
         public void setRegex(String regex) {
             this.regex = regex;
+            this.pattern = Pattern.compile(regex);
         }
 
         public int getGroupIndex() {
@@ -259,7 +373,6 @@ public class TextInputMapper implements InputMapper {
          */
         public String match(String text) {
             String matchedText;
-            Pattern pattern = Pattern.compile(this.regex);
             Matcher matcher = pattern.matcher(text);
             if (matcher.find()) {
                 matchedText = matcher.group(this.groupIndex);
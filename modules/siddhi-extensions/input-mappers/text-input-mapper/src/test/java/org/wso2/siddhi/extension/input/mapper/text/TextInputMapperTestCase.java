@@ -19,6 +19,7 @@
 package org.wso2.siddhi.extension.input.mapper.text;
 
 import org.apache.log4j.Logger;
+import org.junit.Assert;
 import org.junit.Test;
 import org.wso2.siddhi.core.ExecutionPlanRuntime;
 import org.wso2.siddhi.core.SiddhiManager;
@@ -34,6 +35,12 @@ import org.wso2.siddhi.query.api.execution.Subscription;
 import org.wso2.siddhi.query.api.execution.io.Transport;
 import org.wso2.siddhi.query.api.execution.io.map.Mapping;
 
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class TextInputMapperTestCase {
     static final Logger log = Logger.getLogger(TextInputMapperTestCase.class);
 
@@ -151,4 +158,96 @@ public class TextInputMapperTestCase {
 
         executionPlanRuntime.shutdown();
     }
+
+    /**
+     * Expected input format:
+     * WSO2|55.6|100\nIBM|75.6|10
+     */
+    @Test
+    public void subscriptionTest10() throws InterruptedException {
+        log.info("Subscription Test 10: Test an in memory transport with delimited multi-line text and bytes");
+
+        Subscription subscription = Subscription.Subscribe(Transport.transport("inMemory").option("topic", "stock"));
+        subscription.map(Mapping.format("text").option("delimiter", "|"));
+        subscription.insertInto("FooStream");
+
+        ExecutionPlan executionPlan = ExecutionPlan.executionPlan();
+        executionPlan.defineStream(StreamDefinition.id("FooStream")
+                .attribute("symbol", Attribute.Type.STRING)
+                .attribute("price", Attribute.Type.FLOAT)
+                .attribute("volume", Attribute.Type.LONG)
+                .attribute("change", Attribute.Type.DOUBLE)
+                .attribute("active", Attribute.Type.BOOL));
+        executionPlan.addSubscription(subscription);
+
+        final List<Event> receivedEvents = new ArrayList<Event>();
+        final AtomicInteger chunkCount = new AtomicInteger(0);
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setExtension("inputtransport:inMemory", InMemoryInputTransport.class);
+        ExecutionPlanRuntime executionPlanRuntime = siddhiManager.createExecutionPlanRuntime(executionPlan);
+        executionPlanRuntime.addCallback("FooStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                chunkCount.incrementAndGet();
+                Collections.addAll(receivedEvents, events);
+            }
+        });
+
+        executionPlanRuntime.start();
+
+        InMemoryBroker.publish("stock", "WSO2|55.6|100|-1.25|true\r\nIBM|75.6|10|12345678.123456789|false\n");
+        InMemoryBroker.publish("stock", "Str\u00f6m|0.5|-7|1e3|TRUE".getBytes(Charset.forName("UTF-8")));
+
+        Assert.assertEquals(2, chunkCount.get());
+        Assert.assertEquals(3, receivedEvents.size());
+        Assert.assertArrayEquals(new Object[]{"WSO2", 55.6f, 100L, -1.25, true}, receivedEvents.get(0).getData());
+        Assert.assertArrayEquals(new Object[]{"IBM", 75.6f, 10L, 12345678.123456789, false},
+                receivedEvents.get(1).getData());
+        Assert.assertArrayEquals(new Object[]{"Str\u00f6m", 0.5f, -7L, 1000.0, true}, receivedEvents.get(2).getData());
+
+        executionPlanRuntime.shutdown();
+    }
+
+    /**
+     * Expected input format:
+     * WSO2|55.6|100|extra\nIBM|75.6|10
+     */
+    @Test
+    public void subscriptionTest11() throws InterruptedException {
+        log.info("Subscription Test 11: Test the fallback of delimited text with extra fields to the regex mapping");
+
+        Subscription subscription = Subscription.Subscribe(Transport.transport("inMemory").option("topic", "stock"));
+        subscription.map(Mapping.format("text").option("delimiter", "|"));
+        subscription.insertInto("FooStream");
+
+        ExecutionPlan executionPlan = ExecutionPlan.executionPlan();
+        executionPlan.defineStream(StreamDefinition.id("FooStream")
+                .attribute("symbol", Attribute.Type.STRING)
+                .attribute("price", Attribute.Type.FLOAT)
+                .attribute("volume", Attribute.Type.LONG));
+        executionPlan.addSubscription(subscription);
+
+        final List<Event> receivedEvents = new ArrayList<Event>();
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setExtension("inputtransport:inMemory", InMemoryInputTransport.class);
+        ExecutionPlanRuntime executionPlanRuntime = siddhiManager.createExecutionPlanRuntime(executionPlan);
+        executionPlanRuntime.addCallback("FooStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                Collections.addAll(receivedEvents, events);
+            }
+        });
+
+        executionPlanRuntime.start();
+
+        InMemoryBroker.publish("stock", "WSO2|55.6|100|extra\nIBM|75.6|10");
+
+        Assert.assertEquals(2, receivedEvents.size());
+        Assert.assertArrayEquals(new Object[]{"WSO2", 55.6f, 100L}, receivedEvents.get(0).getData());
+        Assert.assertArrayEquals(new Object[]{"IBM", 75.6f, 10L}, receivedEvents.get(1).getData());
+
+        executionPlanRuntime.shutdown();
+    }
 }
@@ -18,9 +18,12 @@
 package org.wso2.siddhi.extension.output.mapper.json;
 
 import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonNull;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.publisher.MappingTemplate;
 import org.wso2.siddhi.core.publisher.OutputMapper;
 import org.wso2.siddhi.query.api.definition.StreamDefinition;
 
@@ -44,6 +47,30 @@ public class JSONOutputMapper extends OutputMapper {
         this.streamDefinition = streamDefinition;
     }
 
+    /**
+     * Default JSON template of the stream, compiled once and rendered for events without arbitrary data
+     *
+     * @param streamDefinition The stream definition
+     * @return the template rendering the event attributes as a JSON object
+     */
+    @Override
+    protected MappingTemplate createDefaultTemplate(StreamDefinition streamDefinition) {
+        MappingTemplate.Builder builder = new MappingTemplate.Builder().literal("{\"" + EVENT_PARENT_TAG + "\":{");
+        String[] attributeNames = streamDefinition.getAttributeNameArray();
+        for (int i = 0; i < attributeNames.length; i++) {
+            if (i > 0) {
+                builder.literal(EVENT_ATTRIBUTE_SEPARATOR);
+            }
+            builder.literal("\"" + attributeNames[i] + "\":").attribute(i, MappingTemplate.Encoding.JSON);
+        }
+        return builder.literal("}}").build();
+    }
+
+    @Override
+    protected String getMappedAttributeSeparator() {
+        return EVENT_ATTRIBUTE_SEPARATOR + "\n";
+    }
+
     /**
      * Convert the given {@link Event} to JSON string
      *
@@ -76,6 +103,9 @@ public class JSONOutputMapper extends OutputMapper {
                 } else if (attributeValue instanceof Boolean) {
                     innerParentObject.addProperty(attributeName, (Boolean) attributeValue);
                 }
+            } else {
+                // written as null, the same as the default template
+                innerParentObject.add(attributeName, JsonNull.INSTANCE);
             }
         }
 
@@ -91,7 +121,7 @@ public class JSONOutputMapper extends OutputMapper {
             JsonParser parser = new JsonParser();
             JsonObject jsonObject = parser.parse(eventText).getAsJsonObject();
             jsonObject.getAsJsonObject(EVENT_PARENT_TAG).add(EVENT_ARBITRARY_DATA_MAP_TAG, gson.toJsonTree(arbitraryDataMap));
-            eventText = gson.toJson(jsonObject);
+            eventText = new GsonBuilder().serializeNulls().create().toJson(jsonObject);
         }
 
         return eventText;
@@ -29,6 +29,7 @@ import org.wso2.siddhi.core.stream.input.InputHandler;
 import org.wso2.siddhi.core.util.transport.InMemoryBroker;
 import org.wso2.siddhi.core.util.transport.InMemoryOutputTransport;
 
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -111,6 +112,119 @@ public class JSONOutputMapperWithSiddhiQLTestCase {
         InMemoryBroker.unsubscribe(subscriberIBM);
     }
 
+    //    from FooStream
+    //    select symbol,price,volume
+    //    publish inMemory options ("topic", "{{symbol}}")
+    //    map json options ("binary", "true")
+    @Test
+    public void testJSONOutputDefaultMappingAsBinaryWithSiddhiQL() throws InterruptedException {
+        log.info("Test default json mapping published as bytes with SiddhiQL");
+        List<Object> onMessageList = new ArrayList<Object>();
+
+        InMemoryBroker.Subscriber subscriberWSO2 = new InMemoryBroker.Subscriber() {
+            @Override
+            public void onMessage(Object msg) {
+                wso2Count.incrementAndGet();
+                onMessageList.add(msg);
+            }
+
+            @Override
+            public String getTopic() {
+                return "WSO2";
+            }
+        };
+        //subscribe to "inMemory" broker per topic
+        InMemoryBroker.subscribe(subscriberWSO2);
+
+        String streams = "" +
+                "@Plan:name('TestExecutionPlan')" +
+                "define stream FooStream (symbol string, price float, volume long); ";
+
+        String query = "" +
+                "from FooStream " +
+                "select symbol,price,volume " +
+                "publish inMemory options (topic '{{symbol}}') " +
+                "map json options (binary 'true'); ";
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setExtension("outputtransport:inMemory", InMemoryOutputTransport.class);
+        ExecutionPlanRuntime executionPlanRuntime = siddhiManager.createExecutionPlanRuntime(streams + query);
+        InputHandler stockStream = executionPlanRuntime.getInputHandler("FooStream");
+
+        executionPlanRuntime.start();
+        stockStream.send(new Object[]{"WSO2", 55.6f, 100L});
+        stockStream.send(new Object[]{"WSO2", 57.6f, 200L});
+        Thread.sleep(100);
+
+        //assert event count
+        Assert.assertEquals("Number of WSO2 events", 2, wso2Count.get());
+        //assert json bytes
+        Assert.assertTrue(onMessageList.get(0) instanceof byte[]);
+        Assert.assertEquals("{\"event\":{\"symbol\":\"WSO2\",\"price\":55.6,\"volume\":100}}",
+                new String((byte[]) onMessageList.get(0), Charset.forName("UTF-8")));
+        Assert.assertEquals("{\"event\":{\"symbol\":\"WSO2\",\"price\":57.6,\"volume\":200}}",
+                new String((byte[]) onMessageList.get(1), Charset.forName("UTF-8")));
+        executionPlanRuntime.shutdown();
+
+        //unsubscribe from "inMemory" broker per topic
+        InMemoryBroker.unsubscribe(subscriberWSO2);
+    }
+
+    //    from FooStream
+    //    select symbol,name,price,volume
+    //    publish inMemory options ("topic", "{{symbol}}")
+    //    map json
+    @Test
+    public void testJSONOutputDefaultMappingOfSpecialValuesWithSiddhiQL() throws InterruptedException {
+        log.info("Test default json mapping of non finite numbers and html characters with SiddhiQL");
+        List<Object> onMessageList = new ArrayList<Object>();
+
+        InMemoryBroker.Subscriber subscriberWSO2 = new InMemoryBroker.Subscriber() {
+            @Override
+            public void onMessage(Object msg) {
+                wso2Count.incrementAndGet();
+                onMessageList.add(msg);
+            }
+
+            @Override
+            public String getTopic() {
+                return "WSO2";
+            }
+        };
+        //subscribe to "inMemory" broker per topic
+        InMemoryBroker.subscribe(subscriberWSO2);
+
+        String streams = "" +
+                "@Plan:name('TestExecutionPlan')" +
+                "define stream FooStream (symbol string, name string, price double, volume float); ";
+
+        String query = "" +
+                "from FooStream " +
+                "select symbol,name,price,volume " +
+                "publish inMemory options (topic '{{symbol}}') " +
+                "map json; ";
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setExtension("outputtransport:inMemory", InMemoryOutputTransport.class);
+        ExecutionPlanRuntime executionPlanRuntime = siddhiManager.createExecutionPlanRuntime(streams + query);
+        InputHandler stockStream = executionPlanRuntime.getInputHandler("FooStream");
+
+        executionPlanRuntime.start();
+        stockStream.send(new Object[]{"WSO2", "<b>A&B's</b>", Double.NaN, Float.NEGATIVE_INFINITY});
+        Thread.sleep(100);
+
+        //assert event count
+        Assert.assertEquals("Number of WSO2 events", 1, wso2Count.get());
+        //assert valid json, escaped the same way as Gson
+        Assert.assertEquals("{\"event\":{\"symbol\":\"WSO2\"," +
+                "\"name\":\"\\u003cb\\u003eA\\u0026B\\u0027s\\u003c/b\\u003e\"," +
+                "\"price\":\"NaN\",\"volume\":\"-Infinity\"}}", onMessageList.get(0));
+        executionPlanRuntime.shutdown();
+
+        //unsubscribe from "inMemory" broker per topic
+        InMemoryBroker.unsubscribe(subscriberWSO2);
+    }
+
     //    from FooStream
     //    select symbol,price
     //    publish inMemory options ("topic", "{{symbol}}")
@@ -24,6 +24,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.wso2.siddhi.core.ExecutionPlanRuntime;
 import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.Event;
 import org.wso2.siddhi.core.stream.input.InputHandler;
 import org.wso2.siddhi.core.util.transport.InMemoryBroker;
 import org.wso2.siddhi.core.util.transport.InMemoryOutputTransport;
@@ -39,7 +40,9 @@ import org.wso2.siddhi.query.api.execution.query.selection.Selector;
 import org.wso2.siddhi.query.api.expression.Variable;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class JSONOutputMapperWithSiddhiQueryAPITestCase {
@@ -233,4 +236,28 @@ public class JSONOutputMapperWithSiddhiQueryAPITestCase {
         InMemoryBroker.unsubscribe(subscriberWSO2);
         InMemoryBroker.unsubscribe(subscriberIBM);
     }
+
+    @Test
+    public void testJSONOutputMapperWithNullAttributes() {
+        log.info("Test default json mapping of null attributes with and without arbitrary data");
+
+        StreamDefinition streamDefinition = StreamDefinition.id("FooStream")
+                .attribute("symbol", Attribute.Type.STRING)
+                .attribute("price", Attribute.Type.FLOAT)
+                .attribute("volume", Attribute.Type.LONG);
+        JSONOutputMapper outputMapper = new JSONOutputMapper();
+        outputMapper.init(streamDefinition, Mapping.format("json"));
+
+        //events without arbitrary data are rendered through the default template
+        Event event = new Event(System.currentTimeMillis(), new Object[]{"WSO2", null, 100L});
+        Assert.assertEquals("{\"event\":{\"symbol\":\"WSO2\",\"price\":null,\"volume\":100}}",
+                outputMapper.mapEvent(event));
+
+        //events with arbitrary data are converted through Gson
+        Map<String, Object> arbitraryDataMap = new HashMap<String, Object>();
+        arbitraryDataMap.put("source", "feed");
+        event.setArbitraryDataMap(arbitraryDataMap);
+        Assert.assertEquals("{\"event\":{\"symbol\":\"WSO2\",\"price\":null,\"volume\":100," +
+                "\"arbitraryDataMap\":{\"source\":\"feed\"}}}", outputMapper.mapEvent(event));
+    }
 }
@@ -19,6 +19,7 @@
 package org.wso2.siddhi.extension.output.mapper.text;
 
 import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.publisher.MappingTemplate;
 import org.wso2.siddhi.core.publisher.OutputMapper;
 import org.wso2.siddhi.query.api.definition.StreamDefinition;
 
@@ -41,6 +42,31 @@ public class TextOutputMapper extends OutputMapper {
         this.streamDefinition = streamDefinition;
     }
 
+    /**
+     * Default TEXT template of the stream, compiled once and rendered for events without arbitrary data
+     *
+     * @param streamDefinition The stream definition
+     * @return the template rendering attribute name and value pairs
+     */
+    @Override
+    protected MappingTemplate createDefaultTemplate(StreamDefinition streamDefinition) {
+        MappingTemplate.Builder builder = new MappingTemplate.Builder();
+        String[] attributeNames = streamDefinition.getAttributeNameArray();
+        for (int i = 0; i < attributeNames.length; i++) {
+            if (i > 0) {
+                builder.literal(EVENT_ATTRIBUTE_SEPARATOR + "\n");
+            }
+            builder.literal(attributeNames[i] + EVENT_ATTRIBUTE_VALUE_SEPARATOR)
+                    .attribute(i, MappingTemplate.Encoding.NONE);
+        }
+        return builder.build();
+    }
+
+    @Override
+    protected String getMappedAttributeSeparator() {
+        return EVENT_ATTRIBUTE_SEPARATOR + "\n";
+    }
+
     /**
      * Convert the given {@link Event} to TEXT string
      *
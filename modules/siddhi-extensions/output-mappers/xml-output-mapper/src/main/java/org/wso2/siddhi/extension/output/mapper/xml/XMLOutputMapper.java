@@ -21,6 +21,7 @@ import org.apache.axiom.om.OMAbstractFactory;
 import org.apache.axiom.om.OMElement;
 import org.apache.axiom.om.OMFactory;
 import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.publisher.MappingTemplate;
 import org.wso2.siddhi.core.publisher.OutputMapper;
 import org.wso2.siddhi.query.api.definition.StreamDefinition;
 
@@ -46,6 +47,30 @@ public class XMLOutputMapper extends OutputMapper {
         this.streamDefinition = streamDefinition;
     }
 
+    /**
+     * Default XML template of the stream, compiled once and rendered for events without arbitrary data
+     *
+     * @param streamDefinition The stream definition
+     * @return the template rendering the event attributes as XML elements
+     */
+    @Override
+    protected MappingTemplate createDefaultTemplate(StreamDefinition streamDefinition) {
+        MappingTemplate.Builder builder = new MappingTemplate.Builder()
+                .literal("<" + EVENTS_PARENT_TAG + "><" + EVENT_PARENT_TAG + ">");
+        String[] attributeNames = streamDefinition.getAttributeNameArray();
+        for (int i = 0; i < attributeNames.length; i++) {
+            builder.literal("<" + attributeNames[i] + ">")
+                    .attribute(i, MappingTemplate.Encoding.XML)
+                    .literal("</" + attributeNames[i] + ">");
+        }
+        return builder.literal("</" + EVENT_PARENT_TAG + "></" + EVENTS_PARENT_TAG + ">").build();
+    }
+
+    @Override
+    protected String getMappedAttributeSeparator() {
+        return EVENT_ATTRIBUTE_SEPARATOR + "\n";
+    }
+
     /**
      * Convert the given {@link Event} to XML string
      *
@@ -18,48 +18,61 @@
 
 package org.wso2.siddhi.extension.output.transport.http;
 
-import org.apache.commons.httpclient.HostConfiguration;
-import org.apache.commons.httpclient.HttpClient;
-import org.apache.commons.httpclient.HttpConnectionManager;
-import org.apache.commons.httpclient.HttpHost;
-import org.apache.commons.httpclient.MultiThreadedHttpConnectionManager;
-import org.apache.commons.httpclient.methods.EntityEnclosingMethod;
-import org.apache.commons.httpclient.methods.PostMethod;
-import org.apache.commons.httpclient.methods.StringRequestEntity;
-import org.apache.http.conn.params.ConnRoutePNames;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpPut;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.nio.reactor.IOReactorException;
 import org.apache.log4j.Logger;
+import org.wso2.siddhi.core.config.ExecutionPlanContext;
 import org.wso2.siddhi.core.exception.ConnectionUnavailableException;
 import org.wso2.siddhi.core.exception.OutputTransportException;
 import org.wso2.siddhi.core.exception.TestConnectionNotSupportedException;
 import org.wso2.siddhi.core.publisher.MessageType;
 import org.wso2.siddhi.core.publisher.OutputTransport;
+import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.query.api.execution.io.Transport;
 
 import javax.xml.bind.DatatypeConverter;
-import java.net.URL;
-import java.net.UnknownHostException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
-import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
-
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * HTTP output transport backed by a non-blocking, connection pooled HTTP client. Mapped events, given as
+ * strings or as UTF-8 encoded byte arrays, are batched into a single request payload, the number of
+ * requests in flight is bounded, and failed requests are retried with exponential backoff. Events with different
+ * dynamic URL, credentials or headers are batched separately.
+ */
 public class HttpOutputTransport extends OutputTransport {
     public static final String ADAPTER_TYPE_HTTP = "http";
     public static final String ADAPTER_MESSAGE_URL = "http.url";
     public static final String ADAPTER_MESSAGE_URL_HINT = "http.url.hint";
-    public static final int ADAPTER_MIN_THREAD_POOL_SIZE = 8;
-    public static final int ADAPTER_MAX_THREAD_POOL_SIZE = 100;
-    public static final int ADAPTER_EXECUTOR_JOB_QUEUE_SIZE = 2000;
-    public static final long DEFAULT_KEEP_ALIVE_TIME_IN_MILLIS = 20000;
-    public static final String ADAPTER_MIN_THREAD_POOL_SIZE_NAME = "minThread";
-    public static final String ADAPTER_MAX_THREAD_POOL_SIZE_NAME = "maxThread";
-    public static final String ADAPTER_KEEP_ALIVE_TIME_NAME = "keepAliveTimeInMillis";
-    public static final String ADAPTER_EXECUTOR_JOB_QUEUE_SIZE_NAME = "jobQueueSize";
     public static final String ADAPTER_PROXY_HOST = "http.proxy.host";
     public static final String ADAPTER_PROXY_HOST_HINT = "http.proxy.host.hint";
     public static final String ADAPTER_PROXY_PORT = "http.proxy.port";
@@ -70,55 +83,117 @@ public class HttpOutputTransport extends OutputTransport {
     public static final String ADAPTER_PASSWORD_HINT = "http.password.hint";
     public static final String ADAPTER_HEADERS = "http.headers";
     public static final String ADAPTER_HEADERS_HINT = "http.headers.hint";
+    public static final String ADAPTER_CONTENT_TYPE = "http.content.type";
+    public static final String DEFAULT_CONTENT_TYPE = "application/json";
     public static final String HEADER_SEPARATOR = ",";
     public static final String ENTRY_SEPARATOR = ":";
     public static final String ADAPTER_HTTP_CLIENT_METHOD = "http.client.method";
     public static final String CONSTANT_HTTP_POST = "HttpPost";
     public static final String CONSTANT_HTTP_PUT = "HttpPut";
-    //configurations for the httpConnectionManager
+    //configurations for the connection pool
     public static final String DEFAULT_MAX_CONNECTIONS_PER_HOST = "defaultMaxConnectionsPerHost";
     public static final int DEFAULT_DEFAULT_MAX_CONNECTIONS_PER_HOST = 2;
     public static final String MAX_TOTAL_CONNECTIONS = "maxTotalConnections";
     public static final int DEFAULT_MAX_TOTAL_CONNECTIONS = 20;
+    //configurations for batching, back pressure and retries
+    public static final String MAX_IN_FLIGHT_REQUESTS = "maxInFlightRequests";
+    public static final int DEFAULT_MAX_IN_FLIGHT_REQUESTS = 100;
+    public static final String BATCH_SIZE = "batchSize";
+    public static final int DEFAULT_BATCH_SIZE = 1;
+    public static final String BATCH_FLUSH_INTERVAL = "batchFlushIntervalInMillis";
+    public static final long DEFAULT_BATCH_FLUSH_INTERVAL = 1000;
+    public static final String BATCH_FORMAT = "batchFormat";
+    public static final String BATCH_FORMAT_JSON_ARRAY = "jsonArray";
+    public static final String BATCH_FORMAT_NEW_LINE = "newLine";
+    public static final String GZIP = "gzip";
+    public static final String MAX_RETRIES = "maxRetries";
+    public static final int DEFAULT_MAX_RETRIES = 3;
+    public static final String RETRY_BACKOFF = "retryBackoffInMillis";
+    public static final long DEFAULT_RETRY_BACKOFF = 100;
+    public static final String SHUTDOWN_TIMEOUT = "shutdownTimeoutInMillis";
+    public static final long DEFAULT_SHUTDOWN_TIMEOUT = 30000;
 
     private static final Logger log = Logger.getLogger(HttpOutputTransport.class);
-    private static ExecutorService executorService;
-    private static HttpConnectionManager connectionManager;
-    private String contentType;
-    private HttpClient httpClient = null;
-    private HostConfiguration hostConfiguration = null;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private String url;
+    private String clientMethod;
+    private RequestTarget defaultTarget;
+    private ContentType contentType;
+    private int maxConnectionsPerHost;
+    private int maxTotalConnections;
+    private int batchSize;
+    private long batchFlushInterval;
+    private boolean jsonArrayBatch;
+    private boolean gzip;
+    private int maxRetries;
+    private long retryBackoff;
+    private long shutdownTimeout;
     private Map<String, String> options;
 
+    private CloseableHttpAsyncClient httpClient;
+    private ScheduledExecutorService scheduledExecutorService;
+    private ScheduledFuture batchFlusher;
+    private Semaphore inFlightRequests;
+    private int maxInFlightRequests;
+    private Map<RequestTarget, List<byte[]>> pendingPayloads;
+    private final AtomicInteger pendingEventCount = new AtomicInteger(0);
+    private Timer publishLatency;
+
     @Override
     public void init(Transport transportOptions, Map<String, String> unmappedDynamicOptions)
             throws OutputTransportException {
         options = transportOptions.getOptions();
-        if (executorService == null) {
-            int minThread = (options.get(ADAPTER_MIN_THREAD_POOL_SIZE_NAME) != null)
-                    ? Integer.parseInt(options.get(ADAPTER_MIN_THREAD_POOL_SIZE_NAME))
-                    : ADAPTER_MIN_THREAD_POOL_SIZE;
-            int maxThread = (options.get(ADAPTER_MAX_THREAD_POOL_SIZE_NAME) != null)
-                    ? Integer.parseInt(options.get(ADAPTER_MAX_THREAD_POOL_SIZE_NAME))
-                    : ADAPTER_MAX_THREAD_POOL_SIZE;
-            long defaultKeepAliveTime = (options.get(ADAPTER_KEEP_ALIVE_TIME_NAME) != null)
-                    ? Integer.parseInt(options.get(ADAPTER_KEEP_ALIVE_TIME_NAME))
-                    : DEFAULT_KEEP_ALIVE_TIME_IN_MILLIS;
-            int jobQueSize = (options.get(ADAPTER_EXECUTOR_JOB_QUEUE_SIZE_NAME) != null)
-                    ? Integer.parseInt(options.get(ADAPTER_EXECUTOR_JOB_QUEUE_SIZE_NAME))
-                    : ADAPTER_EXECUTOR_JOB_QUEUE_SIZE;
-            int defaultMaxConnectionsPerHost = (options.get(DEFAULT_MAX_CONNECTIONS_PER_HOST) != null)
-                    ? Integer.parseInt(options.get(DEFAULT_MAX_CONNECTIONS_PER_HOST))
-                    : DEFAULT_DEFAULT_MAX_CONNECTIONS_PER_HOST;
-            int maxTotalConnections = (options.get(MAX_TOTAL_CONNECTIONS) != null)
-                    ? Integer.parseInt(options.get(MAX_TOTAL_CONNECTIONS))
-                    : DEFAULT_MAX_TOTAL_CONNECTIONS;
-
-            executorService = new ThreadPoolExecutor(minThread, maxThread, defaultKeepAliveTime,
-                    TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(jobQueSize));
-
-            connectionManager = new MultiThreadedHttpConnectionManager();
-            connectionManager.getParams().setDefaultMaxConnectionsPerHost(defaultMaxConnectionsPerHost);
-            connectionManager.getParams().setMaxTotalConnections(maxTotalConnections);
+        url = options.get(ADAPTER_MESSAGE_URL);
+        if ((url == null || url.trim().isEmpty()) && !unmappedDynamicOptions.containsKey(ADAPTER_MESSAGE_URL)) {
+            throw new OutputTransportException("'" + ADAPTER_MESSAGE_URL + "' is not defined for the " +
+                    ADAPTER_TYPE_HTTP + " output transport");
+        }
+        clientMethod = getOption(ADAPTER_HTTP_CLIENT_METHOD, CONSTANT_HTTP_POST);
+        defaultTarget = new RequestTarget(url, options.get(ADAPTER_USERNAME), options.get(ADAPTER_PASSWORD),
+                options.get(ADAPTER_HEADERS), extractHeaders(options.get(ADAPTER_HEADERS)));
+        contentType = ContentType.create(getOption(ADAPTER_CONTENT_TYPE, DEFAULT_CONTENT_TYPE), UTF_8);
+        maxConnectionsPerHost = getIntOption(DEFAULT_MAX_CONNECTIONS_PER_HOST, DEFAULT_DEFAULT_MAX_CONNECTIONS_PER_HOST);
+        maxTotalConnections = getIntOption(MAX_TOTAL_CONNECTIONS, DEFAULT_MAX_TOTAL_CONNECTIONS);
+        maxInFlightRequests = getIntOption(MAX_IN_FLIGHT_REQUESTS, DEFAULT_MAX_IN_FLIGHT_REQUESTS);
+        batchSize = getIntOption(BATCH_SIZE, DEFAULT_BATCH_SIZE);
+        batchFlushInterval = getLongOption(BATCH_FLUSH_INTERVAL, DEFAULT_BATCH_FLUSH_INTERVAL);
+        jsonArrayBatch = BATCH_FORMAT_JSON_ARRAY.equalsIgnoreCase(getOption(BATCH_FORMAT,
+                contentType.getMimeType().contains("json") ? BATCH_FORMAT_JSON_ARRAY : BATCH_FORMAT_NEW_LINE));
+        gzip = Boolean.parseBoolean(options.get(GZIP));
+        maxRetries = getIntOption(MAX_RETRIES, DEFAULT_MAX_RETRIES);
+        retryBackoff = getLongOption(RETRY_BACKOFF, DEFAULT_RETRY_BACKOFF);
+        shutdownTimeout = getLongOption(SHUTDOWN_TIMEOUT, DEFAULT_SHUTDOWN_TIMEOUT);
+
+        inFlightRequests = new Semaphore(maxInFlightRequests);
+        pendingPayloads = new HashMap<RequestTarget, List<byte[]>>();
+        scheduledExecutorService = getExecutionPlanContext().getScheduledExecutorService();
+        initMetrics(getExecutionPlanContext());
+    }
+
+    private void initMetrics(ExecutionPlanContext executionPlanContext) {
+        if (executionPlanContext.isStatsEnabled() && executionPlanContext.getStatisticsManager() != null) {
+            String metricName = executionPlanContext.getSiddhiContext().getStatisticsConfiguration().getMatricPrefix() +
+                    SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_EXECUTION_PLANS +
+                    SiddhiConstants.METRIC_DELIMITER + executionPlanContext.getName() +
+                    SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_SIDDHI +
+                    SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_TRANSPORTS +
+                    SiddhiConstants.METRIC_DELIMITER + getStreamDefinition().getId() +
+                    SiddhiConstants.METRIC_DELIMITER + ADAPTER_TYPE_HTTP +
+                    SiddhiConstants.METRIC_DELIMITER + executionPlanContext.getElementIdGenerator().createNewId();
+            MetricRegistry metricRegistry = executionPlanContext.getStatisticsManager().getRegistry();
+            publishLatency = metricRegistry.timer(metricName + ".latency");
+            metricRegistry.register(metricName + ".pending.events", new Gauge<Integer>() {
+                @Override
+                public Integer getValue() {
+                    return pendingEventCount.get();
+                }
+            });
+            metricRegistry.register(metricName + ".in.flight.requests", new Gauge<Integer>() {
+                @Override
+                public Integer getValue() {
+                    return maxInFlightRequests - inFlightRequests.availablePermits();
+                }
+            });
         }
     }
 
@@ -129,36 +204,313 @@ public class HttpOutputTransport extends OutputTransport {
 
     @Override
     public void connect() throws ConnectionUnavailableException {
-        // TODO: 1/8/17 fix properly
-        // checkHTTPClientInit(eventAdapterConfiguration.getStaticProperties());
-        checkHTTPClientInit(new HashMap<String, String>());
+        if (httpClient != null) {
+            return;
+        }
+        PoolingNHttpClientConnectionManager connectionManager;
+        try {
+            connectionManager = new PoolingNHttpClientConnectionManager(new DefaultConnectingIOReactor());
+        } catch (IOReactorException e) {
+            throw new ConnectionUnavailableException("Cannot start the HTTP client IO reactor for " + url, e);
+        }
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerHost);
+        connectionManager.setMaxTotal(maxTotalConnections);
+        HttpAsyncClientBuilder clientBuilder = HttpAsyncClients.custom()
+                .setConnectionManager(connectionManager)
+                .setKeepAliveStrategy(DefaultConnectionKeepAliveStrategy.INSTANCE);
+        String proxyHost = options.get(ADAPTER_PROXY_HOST);
+        String proxyPort = options.get(ADAPTER_PROXY_PORT);
+        if (proxyHost != null && proxyHost.trim().length() > 0) {
+            try {
+                clientBuilder.setProxy(new HttpHost(proxyHost, Integer.parseInt(proxyPort)));
+            } catch (NumberFormatException e) {
+                log.error("Invalid proxy port: " + proxyPort + ", "
+                        + "ignoring proxy settings for HTTP output transport...");
+            }
+        }
+        httpClient = clientBuilder.build();
+        httpClient.start();
+
+        if (batchSize > 1 && scheduledExecutorService != null) {
+            batchFlusher = scheduledExecutorService.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    flush(false);
+                }
+            }, batchFlushInterval, batchFlushInterval, TimeUnit.MILLISECONDS);
+        }
     }
 
     @Override
     public void publish(Object event, Map<String, String> dynamicTransportOptions)
             throws ConnectionUnavailableException {
-        // TODO: 1/8/17 load dynamic properties and fix properly
-        // String url = dynamicProperties.get(ADAPTER_MESSAGE_URL);
-        // String username = dynamicProperties.get(ADAPTER_USERNAME);
-        // String password = dynamicProperties.get(ADAPTER_PASSWORD);
-        // Map<String, String> headers = this.extractHeaders(dynamicProperties.get(ADAPTER_HEADERS));
-
-        String url = "http://0.0.0.0:8080/endpoint";
-        String username = null;
-        String password = null;
-        Map<String, String> headers = this.extractHeaders(null);
-        String payload = event.toString();
+        if (httpClient == null) {
+            throw new ConnectionUnavailableException("HTTP output transport for " + url + " is not connected");
+        }
+        byte[] payload = (event instanceof byte[]) ? (byte[]) event : event.toString().getBytes(UTF_8);
+        RequestTarget target = resolveTarget(dynamicTransportOptions);
+        List<byte[]> batch = null;
+        synchronized (this) {
+            List<byte[]> pendingBatch = pendingPayloads.get(target);
+            if (pendingBatch == null) {
+                pendingBatch = new ArrayList<byte[]>(batchSize);
+                pendingPayloads.put(target, pendingBatch);
+            }
+            pendingBatch.add(payload);
+            pendingEventCount.incrementAndGet();
+            if (pendingBatch.size() >= batchSize) {
+                batch = pendingBatch;
+                pendingPayloads.remove(target);
+            }
+        }
+        if (batch != null) {
+            send(target, batch);
+        }
+    }
+
+    /**
+     * @param dynamicTransportOptions options resolved for the event
+     * @return the target of the event, where dynamic options override the options of the transport
+     */
+    private RequestTarget resolveTarget(Map<String, String> dynamicTransportOptions) {
+        if (dynamicTransportOptions == null || dynamicTransportOptions.isEmpty()) {
+            return defaultTarget;
+        }
+        String dynamicUrl = dynamicTransportOptions.get(ADAPTER_MESSAGE_URL);
+        String dynamicUsername = dynamicTransportOptions.get(ADAPTER_USERNAME);
+        String dynamicPassword = dynamicTransportOptions.get(ADAPTER_PASSWORD);
+        String dynamicHeaders = dynamicTransportOptions.get(ADAPTER_HEADERS);
+        if (dynamicUrl == null && dynamicUsername == null && dynamicPassword == null && dynamicHeaders == null) {
+            return defaultTarget;
+        }
+        return new RequestTarget(dynamicUrl != null ? dynamicUrl : defaultTarget.url,
+                dynamicUsername != null ? dynamicUsername : defaultTarget.username,
+                dynamicPassword != null ? dynamicPassword : defaultTarget.password,
+                dynamicHeaders != null ? dynamicHeaders : defaultTarget.headerOption,
+                dynamicHeaders != null ? extractHeaders(dynamicHeaders) : defaultTarget.headers);
+    }
+
+    /**
+     * Sends the events that are waiting for their batches to be filled.
+     */
+    public void flush() {
+        flush(true);
+    }
 
+    /**
+     * @param block whether to wait for requests in flight to complete; the batch flusher runs on the scheduler
+     *              shared with the execution plan and with retries, so it puts the batches back instead of waiting
+     */
+    private void flush(boolean block) {
+        Map<RequestTarget, List<byte[]>> batches;
+        synchronized (this) {
+            if (pendingPayloads.isEmpty()) {
+                return;
+            }
+            batches = pendingPayloads;
+            pendingPayloads = new HashMap<RequestTarget, List<byte[]>>();
+        }
+        for (Map.Entry<RequestTarget, List<byte[]>> batch : batches.entrySet()) {
+            if (block) {
+                send(batch.getKey(), batch.getValue());
+            } else if (inFlightRequests.tryAcquire()) {
+                dispatch(batch.getKey(), batch.getValue());
+            } else {
+                requeue(batch.getKey(), batch.getValue());
+            }
+        }
+    }
+
+    /**
+     * Puts a batch back ahead of the events published for the same target since it was taken.
+     */
+    private synchronized void requeue(RequestTarget target, List<byte[]> batch) {
+        List<byte[]> pendingBatch = pendingPayloads.get(target);
+        if (pendingBatch != null) {
+            batch.addAll(pendingBatch);
+        }
+        pendingPayloads.put(target, batch);
+    }
+
+    private void send(RequestTarget target, List<byte[]> batch) {
+        try {
+            inFlightRequests.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pendingEventCount.addAndGet(-batch.size());
+            log.error("Events dropped at HTTP output transport, interrupted while waiting for in flight requests " +
+                    "to complete", e);
+            return;
+        }
+        dispatch(target, batch);
+    }
+
+    /**
+     * Sends a batch, the caller holds an in flight request permit which is released once the request completes.
+     */
+    private void dispatch(RequestTarget target, List<byte[]> batch) {
+        byte[] body;
         try {
-            executorService.submit(new HTTPSender(url, payload, username, password, headers, httpClient));
-        } catch (RejectedExecutionException e) {
-            log.error("Job queue is full : " + e.getMessage(), e);
+            body = buildBody(batch);
+        } catch (IOException e) {
+            pendingEventCount.addAndGet(-batch.size());
+            inFlightRequests.release();
+            log.error("Events dropped at HTTP output transport, cannot compress payload : " + e.getMessage(), e);
+            return;
+        }
+        execute(target, body, batch.size(), 0, System.nanoTime());
+    }
+
+    private byte[] buildBody(List<byte[]> batch) throws IOException {
+        byte[] body;
+        if (batch.size() == 1) {
+            body = batch.get(0);
+        } else {
+            int length = batch.size() + 1;
+            for (byte[] payload : batch) {
+                length += payload.length;
+            }
+            ByteArrayOutputStream payloadStream = new ByteArrayOutputStream(length);
+            if (jsonArrayBatch) {
+                payloadStream.write('[');
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                if (i > 0) {
+                    payloadStream.write(jsonArrayBatch ? ',' : '\n');
+                }
+                payloadStream.write(batch.get(i));
+            }
+            if (jsonArrayBatch) {
+                payloadStream.write(']');
+            }
+            body = payloadStream.toByteArray();
+        }
+        if (gzip) {
+            ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(body.length / 2 + 16);
+            GZIPOutputStream gzipOutputStream = new GZIPOutputStream(byteArrayOutputStream);
+            try {
+                gzipOutputStream.write(body);
+            } finally {
+                gzipOutputStream.close();
+            }
+            body = byteArrayOutputStream.toByteArray();
+        }
+        return body;
+    }
+
+    private void execute(final RequestTarget target, final byte[] body, final int eventCount, final int attempt,
+                         final long startTime) {
+        HttpEntityEnclosingRequestBase request;
+        if (CONSTANT_HTTP_PUT.equalsIgnoreCase(clientMethod)) {
+            request = new HttpPut(target.url);
+        } else {
+            request = new HttpPost(target.url);
+        }
+        request.setEntity(new ByteArrayEntity(body, contentType));
+        if (gzip) {
+            request.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        if (target.username != null && target.username.trim().length() > 0) {
+            request.setHeader(HttpHeaders.AUTHORIZATION, "Basic " + DatatypeConverter.printBase64Binary(
+                    (target.username + ENTRY_SEPARATOR + target.password).getBytes(UTF_8)));
+        }
+        if (target.headers != null) {
+            for (Map.Entry<String, String> header : target.headers.entrySet()) {
+                request.setHeader(header.getKey(), header.getValue());
+            }
+        }
+
+        httpClient.execute(request, new FutureCallback<HttpResponse>() {
+            @Override
+            public void completed(HttpResponse response) {
+                int statusCode = response.getStatusLine().getStatusCode();
+                if (statusCode >= 500) {
+                    retry(target, body, eventCount, attempt, startTime, "HTTP status " + statusCode, null);
+                } else {
+                    if (statusCode >= 400) {
+                        log.error(eventCount + " events rejected by " + target.url + " with HTTP status " +
+                                statusCode);
+                    }
+                    complete(eventCount, startTime);
+                }
+            }
+
+            @Override
+            public void failed(Exception e) {
+                retry(target, body, eventCount, attempt, startTime, e.getMessage(), e);
+            }
+
+            @Override
+            public void cancelled() {
+                log.error(eventCount + " events dropped at HTTP output transport, request to " + target.url +
+                        " was cancelled");
+                complete(eventCount, startTime);
+            }
+        });
+    }
+
+    private void retry(final RequestTarget target, final byte[] body, final int eventCount, final int attempt,
+                       final long startTime, String reason, Exception e) {
+        if (attempt < maxRetries && scheduledExecutorService != null && !scheduledExecutorService.isShutdown()) {
+            long backoff = retryBackoff << attempt;
+            if (log.isDebugEnabled()) {
+                log.debug("Publishing to " + target.url + " failed due to " + reason + ", retrying in " + backoff +
+                        " ms");
+            }
+            try {
+                scheduledExecutorService.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        execute(target, body, eventCount, attempt + 1, startTime);
+                    }
+                }, backoff, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException rejectedExecutionException) {
+                log.error(eventCount + " events dropped at HTTP output transport, cannot schedule retry to " +
+                                target.url,
+                        rejectedExecutionException);
+                complete(eventCount, startTime);
+            }
+        } else {
+            log.error(eventCount + " events dropped at HTTP output transport after " + (attempt + 1) +
+                    " attempts to " + target.url + " : " + reason, e);
+            complete(eventCount, startTime);
+        }
+    }
+
+    private void complete(int eventCount, long startTime) {
+        pendingEventCount.addAndGet(-eventCount);
+        inFlightRequests.release();
+        if (publishLatency != null) {
+            publishLatency.update(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
         }
     }
 
     @Override
     public void disconnect() {
-        // not required
+        if (batchFlusher != null) {
+            batchFlusher.cancel(false);
+            batchFlusher = null;
+        }
+        if (httpClient != null) {
+            flush();
+            try {
+                // wait for the requests in flight, including their retries, before closing the connections
+                if (inFlightRequests.tryAcquire(maxInFlightRequests, shutdownTimeout, TimeUnit.MILLISECONDS)) {
+                    inFlightRequests.release(maxInFlightRequests);
+                } else {
+                    log.warn((maxInFlightRequests - inFlightRequests.availablePermits()) + " requests to " + url +
+                            " still in flight after " + shutdownTimeout + " ms, closing the HTTP client");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            try {
+                httpClient.close();
+            } catch (IOException e) {
+                log.error("Error when closing the HTTP client of " + url + " : " + e.getMessage(), e);
+            }
+            httpClient = null;
+        }
     }
 
     @Override
@@ -180,37 +532,22 @@ public class HttpOutputTransport extends OutputTransport {
         }};
     }
 
-    private void checkHTTPClientInit(Map<String, String> staticProperties) {
-        if (httpClient != null) return;
-        synchronized (HttpOutputTransport.class) {
-            if (this.httpClient != null) return;
-            httpClient = new HttpClient(connectionManager);
-            String proxyHost = staticProperties.get(ADAPTER_PROXY_HOST);
-            String proxyPort = staticProperties.get(ADAPTER_PROXY_PORT);
-            if (proxyHost != null && proxyHost.trim().length() > 0) {
-                try {
-                    HttpHost host = new HttpHost(proxyHost, Integer.parseInt(proxyPort));
-                    this.httpClient.getParams().setParameter(ConnRoutePNames.DEFAULT_PROXY, host);
-                } catch (NumberFormatException e) {
-                    log.error("Invalid proxy port: " + proxyPort + ", "
-                            + "ignoring proxy settings for HTTP output event adaptor...");
-                }
-            }
+    private String getOption(String key, String defaultValue) {
+        String value = options.get(key);
+        return (value != null) ? value : defaultValue;
+    }
 
-            // TODO: 1/8/17 fix properly
-            // String messageFormat = eventAdapterConfiguration.getMessageFormat();
-            String messageFormat = "json";
-            if (messageFormat.equalsIgnoreCase("json")) {
-                contentType = "application/json";
-            } else if (messageFormat.equalsIgnoreCase("text")) {
-                contentType = "text/plain";
-            } else {
-                contentType = "text/xml";
-            }
-        }
+    private int getIntOption(String key, int defaultValue) {
+        String value = options.get(key);
+        return (value != null) ? Integer.parseInt(value) : defaultValue;
+    }
+
+    private long getLongOption(String key, long defaultValue) {
+        String value = options.get(key);
+        return (value != null) ? Long.parseLong(value) : defaultValue;
     }
 
-    private Map<String, String> extractHeaders(String headers) {
+    private static Map<String, String> extractHeaders(String headers) {
         if (headers == null || headers.trim().length() == 0) {
             return null;
         }
@@ -229,99 +566,48 @@ public class HttpOutputTransport extends OutputTransport {
     }
 
     /**
-     * This class represents a job to send an HTTP request to a target URL.
+     * URL, credentials and headers of a request, by which events are batched.
      */
-    class HTTPSender implements Runnable {
-        private String url;
-        private String payload;
-        private String username;
-        private String password;
-        private Map<String, String> headers;
-        private HttpClient httpClient;
-
-        public HTTPSender(String url, String payload, String username, String password,
-                          Map<String, String> headers, HttpClient httpClient) {
+    private static final class RequestTarget {
+        private final String url;
+        private final String username;
+        private final String password;
+        private final String headerOption;
+        private final Map<String, String> headers;
+
+        private RequestTarget(String url, String username, String password, String headerOption,
+                              Map<String, String> headers) {
             this.url = url;
-            this.payload = payload;
             this.username = username;
             this.password = password;
+            this.headerOption = headerOption;
             this.headers = headers;
-            this.httpClient = httpClient;
-        }
-
-        public String getUrl() {
-            return url;
-        }
-
-        public String getPayload() {
-            return payload;
-        }
-
-        public String getUsername() {
-            return username;
-        }
-
-        public String getPassword() {
-            return password;
         }
 
-        public Map<String, String> getHeaders() {
-            return headers;
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RequestTarget)) {
+                return false;
+            }
+            RequestTarget that = (RequestTarget) o;
+            return equal(url, that.url) && equal(username, that.username) && equal(password, that.password)
+                    && equal(headerOption, that.headerOption);
         }
 
-        public HttpClient getHttpClient() {
-            return httpClient;
+        @Override
+        public int hashCode() {
+            int result = url != null ? url.hashCode() : 0;
+            result = 31 * result + (username != null ? username.hashCode() : 0);
+            result = 31 * result + (password != null ? password.hashCode() : 0);
+            result = 31 * result + (headerOption != null ? headerOption.hashCode() : 0);
+            return result;
         }
 
-        public void run() {
-            EntityEnclosingMethod method = null;
-            try {
-                // TODO: 1/8/17 fix properly
-                //    if (clientMethod.equalsIgnoreCase(CONSTANT_HTTP_PUT)) {
-                //        method = new PutMethod(this.getUrl());
-                //    } else {
-                //        method = new PostMethod(this.getUrl());
-                //    }
-                method = new PostMethod(this.getUrl());
-
-                if (hostConfiguration == null) {
-                    URL hostUrl = new URL(this.getUrl());
-                    hostConfiguration = new HostConfiguration();
-                    hostConfiguration.setHost(
-                            hostUrl.getHost(),
-                            hostUrl.getPort(),
-                            hostUrl.getProtocol()
-                    );
-                }
-
-                method.setRequestEntity(new StringRequestEntity(this.getPayload(), contentType, "UTF-8"));
-
-                if (this.getUsername() != null && this.getUsername().trim().length() > 0) {
-                    method.setRequestHeader(
-                            "Authorization",
-                            "Basic " + DatatypeConverter.printBase64Binary(
-                                    (this.getUsername() + ENTRY_SEPARATOR + this.getPassword()).getBytes()
-                            )
-                    );
-                }
-
-                if (this.getHeaders() != null) {
-                    for (Map.Entry<String, String> header : this.getHeaders().entrySet()) {
-                        method.setRequestHeader(header.getKey(), header.getValue());
-                    }
-                }
-
-                this.getHttpClient().executeMethod(hostConfiguration, method);
-
-            } catch (UnknownHostException e) {
-                log.error("Cannot connect to " + this.getUrl() + " : " + e.getMessage(), e);
-            } catch (Throwable e) {
-                log.error("Event dropped at Output Adapter : " + e.getMessage(), e);
-            } finally {
-                if (method != null) {
-                    method.releaseConnection();
-                }
-            }
+        private static boolean equal(String first, String second) {
+            return first == null ? second == null : first.equals(second);
         }
     }
-}
\ No newline at end of file
+}
@@ -18,7 +18,13 @@
 
 package org.wso2.siddhi.extension.output.transport.http;
 
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
 import org.apache.log4j.Logger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.wso2.siddhi.core.ExecutionPlanRuntime;
@@ -35,8 +41,185 @@ import org.wso2.siddhi.query.api.execution.query.Query;
 import org.wso2.siddhi.query.api.execution.query.input.stream.InputStream;
 import org.wso2.siddhi.query.api.execution.query.output.stream.OutputStream;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
 public class HttpOutputTransportTestCase {
     static final Logger log = Logger.getLogger(HttpOutputTransportTestCase.class);
+    private HttpServer server;
+    private String url;
+    private List<String> receivedLines;
+    private AtomicInteger requestCount;
+    private AtomicInteger failuresToSimulate;
+
+    @Before
+    public void init() throws IOException {
+        receivedLines = new CopyOnWriteArrayList<String>();
+        requestCount = new AtomicInteger(0);
+        failuresToSimulate = new AtomicInteger(0);
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/endpoint", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                requestCount.incrementAndGet();
+                if (failuresToSimulate.getAndDecrement() > 0) {
+                    exchange.sendResponseHeaders(503, -1);
+                    exchange.close();
+                    return;
+                }
+                java.io.InputStream body = exchange.getRequestBody();
+                if ("gzip".equals(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+                    body = new GZIPInputStream(body);
+                }
+                BufferedReader reader = new BufferedReader(new InputStreamReader(body, "UTF-8"));
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    receivedLines.add(line);
+                }
+                exchange.sendResponseHeaders(200, -1);
+                exchange.close();
+            }
+        });
+        server.start();
+        url = "http://localhost:" + server.getAddress().getPort() + "/endpoint";
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    private ExecutionPlanRuntime createExecutionPlanRuntime(Transport transport) {
+        StreamDefinition streamDefinition = StreamDefinition.id("FooStream")
+                .attribute("symbol", Attribute.Type.STRING)
+                .attribute("price", Attribute.Type.FLOAT)
+                .attribute("volume", Attribute.Type.LONG);
+
+        Query query = Query.query();
+        query.from(
+                InputStream.stream("FooStream")
+        );
+        query.publish(transport, OutputStream.OutputEventType.CURRENT_EVENTS, Mapping.format("text"));
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setExtension("outputmapper:text", PassThroughOutputMapper.class);
+
+        ExecutionPlan executionPlan = new ExecutionPlan("ep1");
+        executionPlan.defineStream(streamDefinition);
+        executionPlan.addQuery(query);
+        return siddhiManager.createExecutionPlanRuntime(executionPlan);
+    }
+
+    private void waitFor(AtomicInteger counter, int expected) throws InterruptedException {
+        long start = System.currentTimeMillis();
+        while (counter.get() < expected && System.currentTimeMillis() - start < 10000) {
+            Thread.sleep(50);
+        }
+    }
+
+    @Test
+    public void testBatchedGzipPublishing() throws InterruptedException {
+        ExecutionPlanRuntime executionPlanRuntime = createExecutionPlanRuntime(
+                Transport.transport("http")
+                        .option("http.url", url)
+                        .option("http.content.type", "text/plain")
+                        .option("batchSize", "2")
+                        .option("batchFlushIntervalInMillis", "200")
+                        .option("gzip", "true"));
+        InputHandler stockStream = executionPlanRuntime.getInputHandler("FooStream");
+
+        executionPlanRuntime.start();
+        stockStream.send(new Object[]{"WSO2", 55.6f, 100L});
+        stockStream.send(new Object[]{"IBM", 75.6f, 100L});
+        stockStream.send(new Object[]{"WSO2", 57.6f, 100L});
+        waitFor(requestCount, 2);
+        executionPlanRuntime.shutdown();
+
+        Assert.assertEquals("Number of requests", 2, requestCount.get());
+        Assert.assertEquals("Number of events", 3, receivedLines.size());
+        Assert.assertTrue(receivedLines.get(0).contains("WSO2"));
+        Assert.assertTrue(receivedLines.get(1).contains("IBM"));
+    }
+
+    @Test
+    public void testRetryOnServerError() throws InterruptedException {
+        failuresToSimulate.set(2);
+        ExecutionPlanRuntime executionPlanRuntime = createExecutionPlanRuntime(
+                Transport.transport("http")
+                        .option("http.url", url)
+                        .option("http.content.type", "text/plain")
+                        .option("maxRetries", "3")
+                        .option("retryBackoffInMillis", "10"));
+        InputHandler stockStream = executionPlanRuntime.getInputHandler("FooStream");
+
+        executionPlanRuntime.start();
+        stockStream.send(new Object[]{"WSO2", 55.6f, 100L});
+        waitFor(requestCount, 3);
+        executionPlanRuntime.shutdown();
+
+        Assert.assertEquals("Number of requests", 3, requestCount.get());
+        Assert.assertEquals("Number of events", 1, receivedLines.size());
+    }
+
+    @Test
+    public void testBatchingByDynamicUrl() throws InterruptedException {
+        final List<String> otherLines = new CopyOnWriteArrayList<String>();
+        server.createContext("/other", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                requestCount.incrementAndGet();
+                BufferedReader reader = new BufferedReader(new InputStreamReader(exchange.getRequestBody(), "UTF-8"));
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    otherLines.add(line);
+                }
+                exchange.sendResponseHeaders(200, -1);
+                exchange.close();
+            }
+        });
+        String otherUrl = url.replace("/endpoint", "/other");
+
+        StreamDefinition streamDefinition = StreamDefinition.id("FooStream")
+                .attribute("symbol", Attribute.Type.STRING)
+                .attribute("target", Attribute.Type.STRING);
+        Query query = Query.query();
+        query.from(
+                InputStream.stream("FooStream")
+        );
+        query.publish(Transport.transport("http")
+                        .option("http.url", "{{target}}")
+                        .option("http.content.type", "text/plain")
+                        .option("batchSize", "2")
+                        .option("batchFlushIntervalInMillis", "200"),
+                OutputStream.OutputEventType.CURRENT_EVENTS, Mapping.format("text"));
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setExtension("outputmapper:text", PassThroughOutputMapper.class);
+        ExecutionPlan executionPlan = new ExecutionPlan("ep1");
+        executionPlan.defineStream(streamDefinition);
+        executionPlan.addQuery(query);
+        ExecutionPlanRuntime executionPlanRuntime = siddhiManager.createExecutionPlanRuntime(executionPlan);
+        InputHandler stockStream = executionPlanRuntime.getInputHandler("FooStream");
+
+        executionPlanRuntime.start();
+        stockStream.send(new Object[]{"WSO2", url});
+        stockStream.send(new Object[]{"IBM", otherUrl});
+        stockStream.send(new Object[]{"WSO2", url});
+        stockStream.send(new Object[]{"ORACLE", otherUrl});
+        waitFor(requestCount, 2);
+        executionPlanRuntime.shutdown();
+
+        Assert.assertEquals("Number of requests", 2, requestCount.get());
+        Assert.assertEquals("Number of events to endpoint", 2, receivedLines.size());
+        Assert.assertTrue(receivedLines.get(0).contains("WSO2") && receivedLines.get(1).contains("WSO2"));
+        Assert.assertEquals("Number of events to other", 2, otherLines.size());
+        Assert.assertTrue(otherLines.get(0).contains("IBM") && otherLines.get(1).contains("ORACLE"));
+    }
 
     //    from FooStream
     //    publish inMemory options (topic "foo", symbol "{{symbol}}")
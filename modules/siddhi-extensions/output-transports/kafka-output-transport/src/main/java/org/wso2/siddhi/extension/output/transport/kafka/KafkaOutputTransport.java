@@ -30,6 +30,7 @@ import org.wso2.siddhi.core.publisher.MessageType;
 import org.wso2.siddhi.core.publisher.OutputTransport;
 import org.wso2.siddhi.query.api.execution.io.Transport;
 
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -56,10 +57,11 @@ public class KafkaOutputTransport extends OutputTransport {
     public static final String ENTRY_SEPARATOR = ":";
 
     private static final Logger log = Logger.getLogger(KafkaOutputTransport.class);
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
 
     private static ThreadPoolExecutor threadPoolExecutor;
     private ProducerConfig config;
-    private Producer<String, Object> producer;
+    private Producer<String, byte[]> producer;
     private Map<String, String> options;
     private String topic = null;
 
@@ -107,7 +109,8 @@ public class KafkaOutputTransport extends OutputTransport {
         String optionalConfigs = options.get(ADAPTOR_OPTIONAL_CONFIGURATION_PROPERTIES);
         Properties props = new Properties();
         props.put("metadata.broker.list", kafkaConnect);
-        props.put("serializer.class", "kafka.serializer.StringEncoder");
+        props.put("serializer.class", "kafka.serializer.DefaultEncoder");
+        props.put("key.serializer.class", "kafka.serializer.StringEncoder");
         if (optionalConfigs != null) {
             String[] optionalProperties = optionalConfigs.split(HEADER_SEPARATOR);
             if (optionalProperties != null && optionalProperties.length > 0) {
@@ -122,7 +125,7 @@ public class KafkaOutputTransport extends OutputTransport {
             }
         }
         config = new ProducerConfig(props);
-        producer = new Producer<String, Object>(config);
+        producer = new Producer<String, byte[]>(config);
         topic = options.get(ADAPTOR_PUBLISH_TOPIC);
     }
 
@@ -181,7 +184,8 @@ public class KafkaOutputTransport extends OutputTransport {
         @Override
         public void run() {
             try {
-                KeyedMessage<String, Object> data = new KeyedMessage<String, Object>(topic, message.toString());
+                byte[] payload = (message instanceof byte[]) ? (byte[]) message : message.toString().getBytes(UTF_8);
+                KeyedMessage<String, byte[]> data = new KeyedMessage<String, byte[]>(topic, payload);
                 producer.send(data);
             } catch (Throwable e) {
                 log.error("Unexpected error when sending event via Kafka Output Adapter:" + e.getMessage(), e);
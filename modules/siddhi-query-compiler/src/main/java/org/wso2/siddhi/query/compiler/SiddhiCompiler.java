@@ -34,7 +34,14 @@
 package org.wso2.siddhi.query.compiler;
 
 import org.antlr.v4.runtime.ANTLRInputStream;
+import org.antlr.v4.runtime.BailErrorStrategy;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CommonTokenFactory;
 import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.DefaultErrorStrategy;
+import org.antlr.v4.runtime.UnbufferedCharStream;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
 import org.antlr.v4.runtime.tree.ParseTree;
 import org.wso2.siddhi.query.api.ExecutionPlan;
 import org.wso2.siddhi.query.api.definition.FunctionDefinition;
@@ -48,139 +55,124 @@ import org.wso2.siddhi.query.compiler.exception.SiddhiParserException;
 import org.wso2.siddhi.query.compiler.internal.SiddhiErrorListener;
 import org.wso2.siddhi.query.compiler.internal.SiddhiQLBaseVisitorImpl;
 
-public class SiddhiCompiler {
+import java.io.IOException;
+import java.io.Reader;
+import java.util.function.Function;
 
-    public static ExecutionPlan parse(String source) {
+public class SiddhiCompiler {
 
-        ANTLRInputStream input = new ANTLRInputStream(source);
-        SiddhiQLLexer lexer = new SiddhiQLLexer(input);
-        lexer.removeErrorListeners();
-        lexer.addErrorListener(SiddhiErrorListener.INSTANCE);
+    // Tokens read from an unbuffered source keep a copy of their text, as the characters are released once read
+    private static final CommonTokenFactory COPY_TEXT_TOKEN_FACTORY = new CommonTokenFactory(true);
+
+    // Lexer and parser of each thread, reused by all the parse methods. Their simulators use the DFA cache of the
+    // generated SiddhiQLLexer and SiddhiQLParser classes, hence predictions computed by a parse on any thread are
+    // reused by the following parses.
+    private static final ThreadLocal<SiddhiQLLexer> siddhiQLLexer = new ThreadLocal<SiddhiQLLexer>() {
+        @Override
+        protected SiddhiQLLexer initialValue() {
+            SiddhiQLLexer lexer = new SiddhiQLLexer(null);
+            lexer.removeErrorListeners();
+            lexer.addErrorListener(SiddhiErrorListener.INSTANCE);
+            return lexer;
+        }
+    };
+    private static final ThreadLocal<SiddhiQLParser> siddhiQLParser = new ThreadLocal<SiddhiQLParser>() {
+        @Override
+        protected SiddhiQLParser initialValue() {
+            return new SiddhiQLParser(null);
+        }
+    };
 
-        CommonTokenStream tokens = new CommonTokenStream(lexer);
-        SiddhiQLParser parser = new SiddhiQLParser(tokens);
-        //            parser.setErrorHandler(new BailErrorStrategy());
-        parser.removeErrorListeners();
-        parser.addErrorListener(SiddhiErrorListener.INSTANCE);
-        ParseTree tree = parser.parse();
+    public static ExecutionPlan parse(String source) {
+        return (ExecutionPlan) compile(new ANTLRInputStream(source), SiddhiQLParser::parse);
+    }
 
-        SiddhiQLVisitor eval = new SiddhiQLBaseVisitorImpl();
-        return (ExecutionPlan) eval.visit(tree);
+    /**
+     * Parse an execution plan read from the given reader. The source is lexed as it is read without holding all its
+     * characters, hence very large generated execution plans need not be loaded into a String first.
+     *
+     * @param source reader of the SiddhiQL, which is not closed
+     * @return execution plan
+     */
+    public static ExecutionPlan parse(Reader source) throws SiddhiParserException {
+        try {
+            return (ExecutionPlan) compile(new UnbufferedCharStream(source), SiddhiQLParser::parse);
+        } catch (RuntimeException e) {
+            if (e.getCause() instanceof IOException) {
+                throw new SiddhiParserException("Unable to read the SiddhiQL, " + e.getCause().getMessage(), e);
+            }
+            throw e;
+        }
     }
 
     public static StreamDefinition parseStreamDefinition(String source) {
-
-        ANTLRInputStream input = new ANTLRInputStream(source);
-        SiddhiQLLexer lexer = new SiddhiQLLexer(input);
-        lexer.removeErrorListeners();
-        lexer.addErrorListener(SiddhiErrorListener.INSTANCE);
-
-        CommonTokenStream tokens = new CommonTokenStream(lexer);
-        SiddhiQLParser parser = new SiddhiQLParser(tokens);
-        parser.removeErrorListeners();
-        parser.addErrorListener(SiddhiErrorListener.INSTANCE);
-        ParseTree tree = parser.definition_stream_final();
-
-        SiddhiQLVisitor eval = new SiddhiQLBaseVisitorImpl();
-        return (StreamDefinition) eval.visit(tree);
+        return (StreamDefinition) compile(new ANTLRInputStream(source), SiddhiQLParser::definition_stream_final);
     }
 
     public static TableDefinition parseTableDefinition(String source) throws SiddhiParserException {
-
-        ANTLRInputStream input = new ANTLRInputStream(source);
-        SiddhiQLLexer lexer = new SiddhiQLLexer(input);
-        lexer.removeErrorListeners();
-        lexer.addErrorListener(SiddhiErrorListener.INSTANCE);
-
-        CommonTokenStream tokens = new CommonTokenStream(lexer);
-        SiddhiQLParser parser = new SiddhiQLParser(tokens);
-        parser.removeErrorListeners();
-        parser.addErrorListener(SiddhiErrorListener.INSTANCE);
-        ParseTree tree = parser.definition_table_final();
-
-        SiddhiQLVisitor eval = new SiddhiQLBaseVisitorImpl();
-        return (TableDefinition) eval.visit(tree);
+        return (TableDefinition) compile(new ANTLRInputStream(source), SiddhiQLParser::definition_table_final);
     }
 
     public static Partition parsePartition(String source) throws SiddhiParserException {
-
-        ANTLRInputStream input = new ANTLRInputStream(source);
-        SiddhiQLLexer lexer = new SiddhiQLLexer(input);
-        lexer.removeErrorListeners();
-        lexer.addErrorListener(SiddhiErrorListener.INSTANCE);
-
-        CommonTokenStream tokens = new CommonTokenStream(lexer);
-        SiddhiQLParser parser = new SiddhiQLParser(tokens);
-        parser.removeErrorListeners();
-        parser.addErrorListener(SiddhiErrorListener.INSTANCE);
-        ParseTree tree = parser.partition_final();
-
-        SiddhiQLVisitor eval = new SiddhiQLBaseVisitorImpl();
-        return (Partition) eval.visit(tree);
+        return (Partition) compile(new ANTLRInputStream(source), SiddhiQLParser::partition_final);
     }
 
     public static Query parseQuery(String source) throws SiddhiParserException {
-
-        ANTLRInputStream input = new ANTLRInputStream(source);
-        SiddhiQLLexer lexer = new SiddhiQLLexer(input);
-        lexer.removeErrorListeners();
-        lexer.addErrorListener(SiddhiErrorListener.INSTANCE);
-
-        CommonTokenStream tokens = new CommonTokenStream(lexer);
-        SiddhiQLParser parser = new SiddhiQLParser(tokens);
-        parser.removeErrorListeners();
-        parser.addErrorListener(SiddhiErrorListener.INSTANCE);
-        ParseTree tree = parser.query_final();
-
-        SiddhiQLVisitor eval = new SiddhiQLBaseVisitorImpl();
-        return (Query) eval.visit(tree);
+        return (Query) compile(new ANTLRInputStream(source), SiddhiQLParser::query_final);
     }
 
     public static FunctionDefinition parseFunctionDefinition(String source) throws SiddhiParserException {
-        ANTLRInputStream input = new ANTLRInputStream(source);
-        SiddhiQLLexer lexer = new SiddhiQLLexer(input);
-        lexer.removeErrorListeners();
-        lexer.addErrorListener(SiddhiErrorListener.INSTANCE);
-
-        CommonTokenStream tokens = new CommonTokenStream(lexer);
-        SiddhiQLParser parser = new SiddhiQLParser(tokens);
-        parser.removeErrorListeners();
-        parser.addErrorListener(SiddhiErrorListener.INSTANCE);
-        ParseTree tree = parser.definition_function_final();
-
-        SiddhiQLVisitor eval = new SiddhiQLBaseVisitorImpl();
-        return (FunctionDefinition) eval.visit(tree);
+        return (FunctionDefinition) compile(new ANTLRInputStream(source),
+                SiddhiQLParser::definition_function_final);
     }
 
     public static Subscription parseSubscription(String source) throws SiddhiParserException {
-
-        ANTLRInputStream input = new ANTLRInputStream(source);
-        SiddhiQLLexer lexer = new SiddhiQLLexer(input);
-        lexer.removeErrorListeners();
-        lexer.addErrorListener(SiddhiErrorListener.INSTANCE);
-
-        CommonTokenStream tokens = new CommonTokenStream(lexer);
-        SiddhiQLParser parser = new SiddhiQLParser(tokens);
-        parser.removeErrorListeners();
-        parser.addErrorListener(SiddhiErrorListener.INSTANCE);
-        ParseTree tree = parser.subscription_final();
-
-        SiddhiQLVisitor eval = new SiddhiQLBaseVisitorImpl();
-        return (Subscription) eval.visit(tree);
+        return (Subscription) compile(new ANTLRInputStream(source), SiddhiQLParser::subscription_final);
     }
+
     public static TimeConstant parseTimeConstantDefinition(String source) throws SiddhiParserException {
-        ANTLRInputStream input = new ANTLRInputStream(source);
-        SiddhiQLLexer lexer = new SiddhiQLLexer(input);
-        lexer.removeErrorListeners();
-        lexer.addErrorListener(SiddhiErrorListener.INSTANCE);
+        return (TimeConstant) compile(new ANTLRInputStream(source), SiddhiQLParser::time_value);
+    }
 
-        CommonTokenStream tokens = new CommonTokenStream(lexer);
-        SiddhiQLParser parser = new SiddhiQLParser(tokens);
-        parser.removeErrorListeners();
-        parser.addErrorListener(SiddhiErrorListener.INSTANCE);
-        ParseTree tree = parser.time_value();
+    /**
+     * Parse the input with the given rule and build the query API object of the resulting tree
+     *
+     * @param input SiddhiQL characters
+     * @param rule  parser rule to parse the input with
+     * @return query API object
+     */
+    private static Object compile(CharStream input, Function<SiddhiQLParser, ParseTree> rule) {
+        SiddhiQLLexer lexer = siddhiQLLexer.get();
+        SiddhiQLParser parser = siddhiQLParser.get();
+        ParseTree tree;
+        try {
+            lexer.setInputStream(input);
+            lexer.setTokenFactory(input instanceof UnbufferedCharStream ? COPY_TEXT_TOKEN_FACTORY :
+                    CommonTokenFactory.DEFAULT);
+            // Tokens are buffered even when the characters are not, so that the input can be parsed twice
+            parser.setTokenStream(new CommonTokenStream(lexer));
+            try {
+                // SLL prediction is much faster and succeeds for almost all input, but it bails out on the first
+                // syntax error as it could report errors for valid input
+                parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+                parser.setErrorHandler(new BailErrorStrategy());
+                parser.removeErrorListeners();
+                tree = rule.apply(parser);
+            } catch (ParseCancellationException e) {
+                // Parse again with full LL prediction, which reports the actual syntax errors
+                parser.reset();
+                parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+                parser.setErrorHandler(new DefaultErrorStrategy());
+                parser.addErrorListener(SiddhiErrorListener.INSTANCE);
+                tree = rule.apply(parser);
+            }
+        } finally {
+            // Release the input, which the reused instances would otherwise hold until the next parse
+            parser.setTokenStream(null);
+            lexer.setInputStream(null);
+        }
 
         SiddhiQLVisitor eval = new SiddhiQLBaseVisitorImpl();
-        return (TimeConstant) eval.visit(tree);
+        return eval.visit(tree);
     }
 }
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.query.test;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.wso2.siddhi.query.api.ExecutionPlan;
+import org.wso2.siddhi.query.api.definition.Attribute;
+import org.wso2.siddhi.query.api.definition.StreamDefinition;
+import org.wso2.siddhi.query.compiler.SiddhiCompiler;
+import org.wso2.siddhi.query.compiler.exception.SiddhiParserException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+public class ExecutionPlanTestCase {
+
+    private static String generateExecutionPlan(int queryCount) {
+        StringBuilder executionPlan = new StringBuilder("@plan:name('Test') " +
+                "define stream StockStream (symbol string, price float, volume long); ");
+        for (int i = 0; i < queryCount; i++) {
+            executionPlan.append("@info(name = 'query").append(i).append("') " +
+                    "from StockStream[price > ").append(i).append(" and symbol == 'WSO2']#window.length(10) " +
+                    "select symbol, avg(price) as avgPrice, sum(volume) as totalVolume " +
+                    "group by symbol " +
+                    "insert into OutStream").append(i % 10).append("; ");
+        }
+        return executionPlan.toString();
+    }
+
+    @Test
+    public void test1() throws SiddhiParserException {
+        ExecutionPlan executionPlan = SiddhiCompiler.parse(generateExecutionPlan(3));
+        Assert.assertEquals(3, executionPlan.getExecutionElementList().size());
+        Assert.assertEquals(StreamDefinition.id("StockStream").
+                        attribute("symbol", Attribute.Type.STRING).
+                        attribute("price", Attribute.Type.FLOAT).
+                        attribute("volume", Attribute.Type.LONG).toString(),
+                executionPlan.getStreamDefinitionMap().get("StockStream").toString());
+    }
+
+    @Test
+    public void test2() throws SiddhiParserException {
+        String source = generateExecutionPlan(2000);
+        ExecutionPlan executionPlan = SiddhiCompiler.parse(new StringReader(source));
+        Assert.assertEquals(2000, executionPlan.getExecutionElementList().size());
+        Assert.assertEquals(SiddhiCompiler.parse(source), executionPlan);
+    }
+
+    @Test(expected = SiddhiParserException.class)
+    public void test3() throws SiddhiParserException {
+        SiddhiCompiler.parse("define stream StockStream (symbol string, price float); " +
+                "from StockStream[price > ] select symbol insert into OutStream;");
+    }
+
+    @Test(expected = SiddhiParserException.class)
+    public void test4() throws SiddhiParserException {
+        SiddhiCompiler.parse(new StringReader("define stream StockStream (symbol string, price float); " +
+                "from StockStream select symbol insert into;"));
+    }
+
+    @Test
+    public void test5() throws SiddhiParserException {
+        // Parsing succeeds after a syntax error reported by the same thread
+        try {
+            SiddhiCompiler.parseQuery("from StockStream[price >] select symbol insert into OutStream;");
+            Assert.fail("Syntax error is not reported");
+        } catch (SiddhiParserException e) {
+            Assert.assertTrue(e.getMessage().contains("line 1"));
+        }
+        Assert.assertNotNull(SiddhiCompiler.parseQuery("from StockStream[price > 10] select symbol " +
+                "insert into OutStream;"));
+    }
+
+    @Test(expected = SiddhiParserException.class)
+    public void test6() throws SiddhiParserException {
+        SiddhiCompiler.parse(new Reader() {
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                throw new IOException("Connection reset");
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+    }
+}